@@ -0,0 +1,169 @@
+package org.example.VisuAlgorithm;
+
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Virtualized adjacency matrix. Nothing is materialized per cell: the view
+ * asks its {@link Model} only for the rows and columns currently scrolled
+ * into view and paints them onto a viewport-sized canvas, so a 10k-node graph
+ * costs the same to show as a 10-node one.
+ *
+ * Usage:
+ *   AdjacencyMatrixView view = new AdjacencyMatrixView();
+ *   view.setModel(model);      // size(), header(i), cell(row, col)
+ *   view.refresh();            // after the graph changes
+ */
+public class AdjacencyMatrixView extends Region {
+
+    /** Source of matrix contents; {@code cell} returns null for "no edge". */
+    public interface Model {
+        int    size();
+        String header(int index);
+        String cell(int row, int col);
+    }
+
+    private static final double CELL_W   = 44;
+    private static final double CELL_H   = 22;
+    private static final double HEADER_W = 56;
+    private static final double HEADER_H = 24;
+
+    private static final Color BACKGROUND  = Color.web("#f9fafb");
+    private static final Color HEADER_FILL = Color.web("#e5e7eb");
+    private static final Color GRID        = Color.web("#e5e7eb");
+    private static final Color ZERO_TEXT   = Color.web("#9ca3af");
+    private static final Color EDGE_FILL   = Color.web("#dbeafe");
+    private static final Color EDGE_TEXT   = Color.web("#111827");
+
+    private final Canvas    canvas = new Canvas();
+    private final ScrollBar hBar   = new ScrollBar();
+    private final ScrollBar vBar   = new ScrollBar();
+    private final Font      font   = Font.font("monospace", 12);
+    private final Font      bold   = Font.font("monospace", FontWeight.BOLD, 12);
+    private Model model;
+
+    public AdjacencyMatrixView() {
+        vBar.setOrientation(Orientation.VERTICAL);
+        getChildren().addAll(canvas, hBar, vBar);
+        hBar.valueProperty().addListener(o -> redraw());
+        vBar.valueProperty().addListener(o -> redraw());
+        setOnScroll(e -> {
+            vBar.setValue(clamp(vBar.getValue() - e.getDeltaY() / CELL_H, vBar.getMax()));
+            hBar.setValue(clamp(hBar.getValue() - e.getDeltaX() / CELL_W, hBar.getMax()));
+            e.consume();
+        });
+        setMinSize(0, 0);
+        setPrefSize(250, 240);
+    }
+
+    public void setModel(Model model) {
+        this.model = model;
+        refresh();
+    }
+
+    /** Re-reads the model size and repaints the visible window. */
+    public void refresh() {
+        updateBars();
+        redraw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w  = getWidth(), h = getHeight();
+        double sw = vBar.prefWidth(-1), sh = hBar.prefHeight(-1);
+        canvas.setWidth(Math.max(0, w - sw));
+        canvas.setHeight(Math.max(0, h - sh));
+        vBar.resizeRelocate(w - sw, 0, sw, Math.max(0, h - sh));
+        hBar.resizeRelocate(0, h - sh, Math.max(0, w - sw), sh);
+        refresh();
+    }
+
+    private int visibleCols() { return MatrixWindow.fit(canvas.getWidth(),  HEADER_W, CELL_W); }
+    private int visibleRows() { return MatrixWindow.fit(canvas.getHeight(), HEADER_H, CELL_H); }
+
+    private void updateBars() {
+        int n = model == null ? 0 : model.size();
+        configure(hBar, n, visibleCols());
+        configure(vBar, n, visibleRows());
+    }
+
+    private static void configure(ScrollBar bar, int n, int visible) {
+        double max = MatrixWindow.maxScroll(n, visible);
+        bar.setMin(0);
+        bar.setMax(max);
+        bar.setVisibleAmount(MatrixWindow.thumb(n, visible));
+        bar.setUnitIncrement(1);
+        bar.setBlockIncrement(visible);
+        bar.setValue(clamp(bar.getValue(), max));
+    }
+
+    private static double clamp(double v, double max) { return Math.max(0, Math.min(max, v)); }
+
+    private void redraw() {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double w = canvas.getWidth(), h = canvas.getHeight();
+        g.setFill(BACKGROUND);
+        g.fillRect(0, 0, w, h);
+        int n = model == null ? 0 : model.size();
+        if (n == 0) return;
+
+        MatrixWindow win = MatrixWindow.of(n, vBar.getValue(), hBar.getValue(), visibleRows(), visibleCols());
+        int r0 = win.rowStart, r1 = win.rowEnd, c0 = win.colStart, c1 = win.colEnd;
+
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+
+        // Body: only the cells in the visible window are queried and painted.
+        for (int r = r0; r < r1; r++) {
+            double y = HEADER_H + (r - r0) * CELL_H;
+            for (int c = c0; c < c1; c++) {
+                double x = HEADER_W + (c - c0) * CELL_W;
+                String v = model.cell(r, c);
+                if (v != null) {
+                    g.setFill(EDGE_FILL);
+                    g.fillRect(x, y, CELL_W, CELL_H);
+                    g.setFill(EDGE_TEXT);
+                    g.setFont(bold);
+                    g.fillText(v, x + CELL_W / 2, y + CELL_H / 2, CELL_W - 4);
+                } else {
+                    g.setFill(ZERO_TEXT);
+                    g.setFont(font);
+                    g.fillText("0", x + CELL_W / 2, y + CELL_H / 2);
+                }
+            }
+        }
+
+        // Grid lines
+        g.setStroke(GRID);
+        g.setLineWidth(1);
+        for (int c = c0; c <= c1; c++) {
+            double x = HEADER_W + (c - c0) * CELL_W + 0.5;
+            g.strokeLine(x, 0, x, h);
+        }
+        for (int r = r0; r <= r1; r++) {
+            double y = HEADER_H + (r - r0) * CELL_H + 0.5;
+            g.strokeLine(0, y, w, y);
+        }
+
+        // Sticky headers drawn last so they stay on top while scrolling.
+        g.setFont(bold);
+        g.setFill(HEADER_FILL);
+        g.fillRect(0, 0, w, HEADER_H);
+        g.fillRect(0, 0, HEADER_W, h);
+        g.setFill(EDGE_TEXT);
+        for (int c = c0; c < c1; c++)
+            g.fillText(model.header(c), HEADER_W + (c - c0) * CELL_W + CELL_W / 2, HEADER_H / 2, CELL_W - 4);
+        for (int r = r0; r < r1; r++)
+            g.fillText(model.header(r), HEADER_W / 2, HEADER_H + (r - r0) * CELL_H + CELL_H / 2, HEADER_W - 4);
+        g.setFill(HEADER_FILL);
+        g.fillRect(0, 0, HEADER_W, HEADER_H);
+    }
+}
@@ -5,11 +5,13 @@ import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Group;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -39,8 +41,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jcodec.api.awt.AWTSequenceEncoder;
 import java.util.*;
+import org.example.VisuAlgorithm.BalancedTree.Balance;
 
 public class BSTController {
 
@@ -50,12 +54,16 @@ public class BSTController {
     @FXML private ToolBar            algoToolbar;
     @FXML private ToolBar            playbackToolbar;
     @FXML private TextField          insertField;
+    @FXML private TextField          sortedCountField;
     @FXML private ComboBox<String>   algoComboBox;
     @FXML private TextField          startNodeField;
     @FXML private Slider             speedSlider;
     @FXML private Button             playPauseButton;
     @FXML private Label              resultLabel;
     @FXML private Button             backButton;
+    @FXML private ComboBox<String>   balanceComboBox;
+    @FXML private Label              balanceStatsLabel;
+    @FXML private ComboBox<String>   layoutComboBox;
 
     // --- Capture buttons ---
     @FXML private Button screenshotBtn;
@@ -73,12 +81,33 @@ public class BSTController {
     private BSTNode                      root         = null;
     private BSTNode                      selectedNode = null;
     private final Stack<UndoCommand>     undoStack    = new Stack<>();
+    private int                          treeSize     = 0;
+
+    // ── Balancing mode ─────────────────────────────────────────────────────────
+    private Balance        balance        = Balance.PLAIN;
+    private final Balancer balancer       = new Balancer();
+    private final Random   treapRandom    = new Random();
+    private int            lastRotations  = 0;
+    private long           totalRotations = 0;
+    private final List<String> rotationLog = new ArrayList<>();   // the last animated operation's rotations
+
+    // ── Layout engine ──────────────────────────────────────────────────────────
+    private enum Layout {
+        INORDER("Inorder columns"), TIDY("Tidy (Reingold–Tilford)");
+        final String label;
+        Layout(String label) { this.label = label; }
+    }
+    private Layout       layout         = Layout.INORDER;
 
     // ── Snapshot (backward stepping) ───────────────────────────────────────────
     private static class NodeState {
-        final int     value;
+        final int     value, height, priority;
+        final boolean red;
         final BSTNode left, right, parent;
-        NodeState(BSTNode n) { value = n.value; left = n.left; right = n.right; parent = n.parent; }
+        NodeState(BSTNode n) {
+            value = n.value; height = n.height; priority = n.priority; red = n.red;
+            left = n.left; right = n.right; parent = n.parent;
+        }
     }
     private final Map<BSTNode, NodeState> treeSnapshot = new HashMap<>();
     private BSTNode snapshotRoot;
@@ -93,13 +122,43 @@ public class BSTController {
     // ── Algorithm playback ─────────────────────────────────────────────────────
     private boolean              isAlgorithmMode    = false;
     private Timeline             timeline;
-    private final List<Runnable> algorithmSteps     = new ArrayList<>();
-    private final Set<Integer>   nonReplayableSteps = new HashSet<>();
+    private final StepTrace      algorithmSteps     = new StepTrace();
+    private final Set<Integer>   nonReplayableSteps = ConcurrentHashMap.newKeySet();
     private int                  currentStep        = 0;
+    private static final int     PATH_SHOWN         = 64;     // visiting-order items kept in a status message
+    private static final int     MAX_SORTED_KEYS    = 200_000;
+
+    // Traces are recorded off the FX thread; playback starts on the first steps and waits for more
+    @FXML private HBox           traceBox;
+    @FXML private Label          traceStatusLabel;
+    private TraceRunner          traceRunner;
 
     // ── Animation handles ──────────────────────────────────────────────────────
-    private PauseTransition pendingLayoutTimer = null;
     private AnimationTimer  activeEdgeSync     = null;
+    private Timeline        activeMove         = null;
+    private List<BSTNode>   staleNodes         = List.of();   // edges and labels the running move keeps in sync
+
+    // ── Layout playback: an insert or delete replayed stage by stage ───────────
+    private static final double ROTATION_MS = 650;   // per rotation
+    private static final double REMOVAL_MS  = 980;   // lets the exit animation finish first
+    private static final class LayoutFrame {
+        final BSTNode root, pivot, added, removed;
+        final int     size;
+        final Map<BSTNode, NodeState> changed;      // only the nodes this stage touched, as it left them
+        LayoutFrame(BSTNode root, int size, Map<BSTNode, NodeState> changed, BSTNode pivot, BSTNode added, BSTNode removed) {
+            this.root = root; this.size = size; this.changed = changed;
+            this.pivot = pivot; this.added = added; this.removed = removed;
+        }
+    }
+    private List<LayoutFrame> recordingFrames = null;   // non-null while an animated operation runs
+    private Map<BSTNode, NodeState> recordingBefore;    // … every node it touched, as it was before
+    private BSTNode                 rootBefore;         // … and the root and size before it
+    private int                     sizeBefore;
+    private final Set<BSTNode> recordingDirty = new HashSet<>();   // … touched since the last frame
+    private List<LayoutFrame> playbackFrames  = List.of();
+    private int               playbackNext    = 0;
+    private Timeline          layoutPlayback  = null;
+    private BSTNode           shownPivot      = null;
 
     // ── Canvas Pan & Zoom Sub-Container & Variables ────────────────────────────
     private final Group treeContentGroup = new Group();
@@ -112,17 +171,15 @@ public class BSTController {
     // ==========================================================================
     // INNER CLASS: BSTNode
     // ==========================================================================
-    class BSTNode {
-        int     value;
-        BSTNode left, right, parent;
-
+    class BSTNode extends IncrementalTreeLayout.Node<BSTNode> {
         Circle     circle;
         Text       label;
+        Text       info;        // balance factor / priority badge
         Line       edgeToParent;
         Transition exitAnimation;
 
         BSTNode(int value) {
-            this.value = value;
+            super(value);
 
             circle = new Circle(NODE_RADIUS, Color.LIGHTBLUE);
             circle.setStroke(Color.BLACK);
@@ -132,6 +189,12 @@ public class BSTController {
             label.setFont(Font.font("System", FontWeight.BOLD, 13));
             label.setMouseTransparent(true);
 
+            info = new Text();
+            info.setFont(Font.font("System", FontWeight.BOLD, 10));
+            info.setFill(Color.DARKSLATEBLUE);
+            info.setMouseTransparent(true);
+            info.setVisible(false);
+
             edgeToParent = new Line();
             edgeToParent.setStroke(Color.DIMGRAY);
             edgeToParent.setStrokeWidth(2);
@@ -144,6 +207,21 @@ public class BSTController {
                 e.consume();
             });
         }
+
+        @Override public double x() { return circle.getCenterX(); }
+        @Override public double y() { return circle.getCenterY(); }
+
+        /** A detached copy of {@code live}'s key and balance fields that paints through live's shapes. */
+        BSTNode(BSTNode live) {
+            super(live.value);
+            height       = live.height;
+            red          = live.red;
+            priority     = live.priority;
+            circle       = live.circle;
+            label        = live.label;
+            info         = live.info;
+            edgeToParent = live.edgeToParent;
+        }
     }
 
     // ==========================================================================
@@ -168,6 +246,7 @@ public class BSTController {
     // ==========================================================================
     @FXML
     public void initialize() {
+        traceRunner = new TraceRunner(algorithmSteps, traceBox, traceStatusLabel, "bst-trace", this::traceFailed);
         algoComboBox.getItems().addAll(
                 "Inorder Traversal  (L → N → R)",
                 "Preorder Traversal (N → L → R)",
@@ -182,6 +261,23 @@ public class BSTController {
 
         resultLabel.setText("");
 
+        if (balanceComboBox != null) {
+            for (Balance b : Balance.values()) balanceComboBox.getItems().add(b.label);
+            balanceComboBox.setValue(balance.label);
+            balanceComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
+                for (Balance b : Balance.values()) if (b.label.equals(newVal)) changeBalance(b);
+            });
+        }
+        refreshBalanceView();
+
+        if (layoutComboBox != null) {
+            for (Layout l : Layout.values()) layoutComboBox.getItems().add(l.label);
+            layoutComboBox.setValue(layout.label);
+            layoutComboBox.valueProperty().addListener((obs, oldVal, newVal) -> {
+                for (Layout l : Layout.values()) if (l.label.equals(newVal)) changeLayout(l);
+            });
+        }
+
         screenshotBtn.setText("📷 Snapshot");
         recordBtn.setText("🎥 Record");
 
@@ -467,81 +563,96 @@ public class BSTController {
     // ==========================================================================
     // BST CORE LOGIC
     // ==========================================================================
-    private BSTNode insertBST(BSTNode node, BSTNode parent, int value) {
-        if (node == null) { BSTNode n = new BSTNode(value); n.parent = parent; return n; }
-        if      (value < node.value) node.left  = insertBST(node.left,  node, value);
-        else if (value > node.value) node.right = insertBST(node.right, node, value);
-        return node;
-    }
-
-    private BSTNode deleteBST(BSTNode node, int value) {
-        if (node == null) return null;
-        if (value < node.value) {
-            node.left = deleteBST(node.left, value);
-            if (node.left != null) node.left.parent = node;
-        } else if (value > node.value) {
-            node.right = deleteBST(node.right, value);
-            if (node.right != null) node.right.parent = node;
-        } else {
-            if (node.left == null && node.right == null) { removeNodeFromCanvas(node); return null; }
-            else if (node.left  == null) { removeNodeFromCanvas(node); return node.right; }
-            else if (node.right == null) { removeNodeFromCanvas(node); return node.left;  }
-            else {
-                BSTNode successor = minNode(node.right);
-                node.value = successor.value;
-                node.label.setText(String.valueOf(node.value));
-                node.right = deleteBST(node.right, successor.value);
-                if (node.right != null) node.right.parent = node;
-            }
+    /** The live tree's balancing, reporting into the layout frames and the rotation log. */
+    private final class Balancer extends BalancedTree<BSTNode> {
+        @Override protected BSTNode root()                { return root; }
+        @Override protected void    setRoot(BSTNode node) { root = node; }
+        @Override protected BSTNode newNode(int value)    { return new BSTNode(value); }
+        @Override protected Balance balance()             { return balance; }
+        @Override protected void    resized(int delta)    { treeSize += delta; }
+        @Override protected void    touch(BSTNode n)      { BSTController.this.touch(n); }
+        @Override protected void    valueCopied(BSTNode n) { n.label.setText(String.valueOf(n.value)); }
+
+        @Override protected void stageDone(BSTNode pivot, BSTNode added, BSTNode removed) {
+            captureFrame(pivot, added, removed);
+        }
+
+        @Override protected void rotated(BSTNode x, BSTNode y) {
+            if (recordingFrames != null)
+                rotationLog.add((y.left == x ? "left" : "right") + " rotation at " + x.value + " (" + y.value + " rises)");
         }
-        return node;
     }
 
-    private BSTNode minNode(BSTNode node) {
-        while (node.left != null) node = node.left;
-        return node;
+    private BSTNode insertBalanced(int value) {
+        return insertBalanced(value, treapRandom.nextInt(100));
     }
 
-    private boolean containsValue(BSTNode node, int value) {
-        if (node == null) return false;
-        if (value == node.value) return true;
-        return value < node.value ? containsValue(node.left, value) : containsValue(node.right, value);
+    /** @param priority the treap priority; a recorded trace draws it up front so it can narrate the rotations */
+    private BSTNode insertBalanced(int value, int priority) {
+        rotationLog.clear();
+        BSTNode n = balancer.insert(value, priority);
+        if (n != null) finishOperation();
+        return n;
+    }
+
+    private BSTNode deleteBalanced(int value) {
+        rotationLog.clear();
+        BSTNode z = balancer.delete(value);
+        if (z != null) finishOperation();
+        return z;
+    }
+
+    private void finishOperation() {
+        lastRotations   = balancer.rotations;
+        totalRotations += balancer.rotations;
+        if (recordingFrames != null && !recordingDirty.isEmpty()) {
+            // Recolouring and heights after the last rotation belong to that stage.
+            LayoutFrame last = recordingFrames.remove(recordingFrames.size() - 1);
+            recordingDirty.addAll(last.changed.keySet());
+            captureFrame(last.pivot, last.added, last.removed);
+        }
     }
 
-    private BSTNode findNode(BSTNode node, int value) {
-        if (node == null) return null;
-        if (node.value == value) return node;
-        return value < node.value ? findNode(node.left, value) : findNode(node.right, value);
+    private boolean containsValue(BSTNode node, int value) {
+        return BalancedTree.find(node, value) != null;
     }
 
     // ==========================================================================
     // TREE LAYOUT
     // ==========================================================================
     private void layoutTree() {
+        stopLayoutAnimation();
         if (root == null) return;
-        int[] counter = {0};
-        assignInorderX(root, counter);
-        assignDepthY(root, 0);
+        computeTargets();
+        BalancedTree.forEachPreorder(root, n -> { n.circle.setCenterX(n.targetX); n.circle.setCenterY(n.targetY); });
         updateEdgesAndLabels(root);
     }
 
-    private void assignInorderX(BSTNode node, int[] counter) {
-        if (node == null) return;
-        assignInorderX(node.left, counter);
-        node.circle.setCenterX(MARGIN_LEFT + counter[0]++ * H_SPACING);
-        assignInorderX(node.right, counter);
+    /**
+     * Writes each node's position under the selected layout engine into
+     * targetX / targetY. Inorder columns give every key its own column, so
+     * the width grows with the node count; the tidy layout packs subtrees
+     * as close as their contours allow, so it grows with the tree's breadth.
+     */
+    private void computeTargets() {
+        if (layout == Layout.TIDY) IncrementalTreeLayout.tidyTargets(root, MARGIN_LEFT, MARGIN_TOP, H_SPACING, V_SPACING);
+        else                       IncrementalTreeLayout.inorderTargets(root, MARGIN_LEFT, MARGIN_TOP, H_SPACING, V_SPACING);
     }
 
-    private void assignDepthY(BSTNode node, int depth) {
-        if (node == null) return;
-        node.circle.setCenterY(MARGIN_TOP + depth * V_SPACING);
-        assignDepthY(node.left,  depth + 1);
-        assignDepthY(node.right, depth + 1);
+    /** Switches the layout engine and animates the tree into the new shape. */
+    private void changeLayout(Layout mode) {
+        if (mode == layout) return;
+        finishLayoutPlayback();
+        layout = mode;
+        layoutTreeAnimated();
+        if (root != null) resultLabel.setText(mode.label + " layout.");
     }
 
-    private void updateEdgesAndLabels(BSTNode node) {
-        if (node == null) return;
+    private void updateEdgesAndLabels(BSTNode start) {
+        BalancedTree.forEachPreorder(start, this::updateEdgeAndLabel);
+    }
 
+    private void updateEdgeAndLabel(BSTNode node) {
         double cx = node.circle.getCenterX();
         double cy = node.circle.getCenterY();
 
@@ -556,7 +667,7 @@ public class BSTController {
                 node.edgeToParent.setEndX  (cx - (dx / len) * NODE_RADIUS);
                 node.edgeToParent.setEndY  (cy - (dy / len) * NODE_RADIUS);
             }
-        } else {
+        } else if (node.edgeToParent.getParent() == treeContentGroup) {
             treeContentGroup.getChildren().remove(node.edgeToParent);
         }
 
@@ -564,60 +675,50 @@ public class BSTController {
         double h = node.label.getLayoutBounds().getHeight();
         node.label.setX(cx - w / 2.0);
         node.label.setY(cy + h / 4.0);
-
-        updateEdgesAndLabels(node.left);
-        updateEdgesAndLabels(node.right);
+        node.info.setX(cx + NODE_RADIUS * 0.7);
+        node.info.setY(cy - NODE_RADIUS * 0.7);
+        node.markDrawn();
     }
 
+    /**
+     * Animates the tree into its layout, touching only what changes: a node
+     * already on its target gets no key value, and the per-frame sync redraws
+     * only the stale edges and labels (see {@link IncrementalTreeLayout}).
+     */
     private void layoutTreeAnimated() {
+        stopLayoutAnimation();
         if (root == null) return;
 
-        if (activeEdgeSync != null) { activeEdgeSync.stop(); activeEdgeSync = null; }
+        computeTargets();
 
-        Map<BSTNode, double[]> targets = new LinkedHashMap<>();
-        int[] counter = {0};
-        collectInorderX(root, counter, targets);
-        collectDepthY(root, 0, targets);
-
-        Timeline moveTl  = new Timeline();
-        Duration dur     = Duration.millis(550);
-
-        for (Map.Entry<BSTNode, double[]> entry : targets.entrySet()) {
-            BSTNode n  = entry.getKey();
-            double  tx = entry.getValue()[0];
-            double  ty = entry.getValue()[1];
-            moveTl.getKeyFrames().add(new KeyFrame(dur,
-                    new KeyValue(n.circle.centerXProperty(), tx, Interpolator.EASE_BOTH),
-                    new KeyValue(n.circle.centerYProperty(), ty, Interpolator.EASE_BOTH)
-            ));
+        List<BSTNode>  moving = new ArrayList<>();
+        List<BSTNode>  stale  = IncrementalTreeLayout.plan(root, moving);
+        List<KeyValue> values = new ArrayList<>(2 * moving.size());
+        for (BSTNode n : moving) {
+            values.add(new KeyValue(n.circle.centerXProperty(), n.targetX, Interpolator.EASE_BOTH));
+            values.add(new KeyValue(n.circle.centerYProperty(), n.targetY, Interpolator.EASE_BOTH));
         }
 
+        if (values.isEmpty()) { stale.forEach(this::updateEdgeAndLabel); return; }
+
+        Timeline       move = new Timeline(new KeyFrame(Duration.millis(550), values.toArray(new KeyValue[0])));
         AnimationTimer sync = new AnimationTimer() {
-            @Override public void handle(long now) { updateEdgesAndLabels(root); }
+            @Override public void handle(long now) { for (BSTNode n : stale) updateEdgeAndLabel(n); }
         };
+        activeMove     = move;
         activeEdgeSync = sync;
+        staleNodes     = stale;
+        move.setOnFinished(e -> { if (activeMove == move) stopLayoutAnimation(); });
         sync.start();
-
-        moveTl.setOnFinished(e -> {
-            sync.stop();
-            if (activeEdgeSync == sync) activeEdgeSync = null;
-            updateEdgesAndLabels(root);
-        });
-        moveTl.play();
-    }
-
-    private void collectInorderX(BSTNode node, int[] counter, Map<BSTNode, double[]> out) {
-        if (node == null) return;
-        collectInorderX(node.left, counter, out);
-        out.computeIfAbsent(node, k -> new double[2])[0] = MARGIN_LEFT + counter[0]++ * H_SPACING;
-        collectInorderX(node.right, counter, out);
+        move.play();
     }
 
-    private void collectDepthY(BSTNode node, int depth, Map<BSTNode, double[]> out) {
-        if (node == null) return;
-        out.computeIfAbsent(node, k -> new double[2])[1] = MARGIN_TOP + depth * V_SPACING;
-        collectDepthY(node.left,  depth + 1, out);
-        collectDepthY(node.right, depth + 1, out);
+    /** Stops a running layout animation where it is and draws its stale edges one last time. */
+    private void stopLayoutAnimation() {
+        if (activeMove     != null) { activeMove.stop();     activeMove     = null; }
+        if (activeEdgeSync != null) { activeEdgeSync.stop(); activeEdgeSync = null; }
+        for (BSTNode n : staleNodes) updateEdgeAndLabel(n);
+        staleNodes = List.of();
     }
 
     // ==========================================================================
@@ -633,20 +734,18 @@ public class BSTController {
         node.edgeToParent.setOpacity(1.0);
     }
 
-    private void addSubtreeToCanvas(BSTNode node) {
-        if (node == null) return;
-
+    private void addNodeToCanvas(BSTNode node) {
         if (node.exitAnimation != null) { node.exitAnimation.stop(); node.exitAnimation = null; }
         node.circle.setMouseTransparent(false);
 
-        if (!treeContentGroup.getChildren().contains(node.circle)) {
+        if (node.circle.getParent() != treeContentGroup) {
             resetNodeVisuals(node);
 
-            if (node.parent != null && !treeContentGroup.getChildren().contains(node.edgeToParent)) {
+            if (node.parent != null && node.edgeToParent.getParent() != treeContentGroup) {
                 treeContentGroup.getChildren().add(0, node.edgeToParent);
                 node.edgeToParent.setOpacity(0);
             }
-            treeContentGroup.getChildren().addAll(node.circle, node.label);
+            treeContentGroup.getChildren().addAll(node.circle, node.label, node.info);
 
             node.circle.setScaleX(0); node.circle.setScaleY(0);
             node.circle.setOpacity(0);
@@ -669,31 +768,34 @@ public class BSTController {
 
             new ParallelTransition(stIn, ftCircle, ftLabel, ftEdge).play();
         }
-
-        addSubtreeToCanvas(node.left);
-        addSubtreeToCanvas(node.right);
     }
 
-    private void addSubtreeToCanvasInstant(BSTNode node) {
-        if (node == null) return;
-
-        if (node.exitAnimation != null) { node.exitAnimation.stop(); node.exitAnimation = null; }
-        resetNodeVisuals(node);
-        node.circle.setMouseTransparent(false);
+    /**
+     * Same scene-graph order as adding node by node in preorder (each edge at
+     * index 0, shapes appended), but in two bulk inserts: one add(0, …) per
+     * edge shifts the whole child list and turns a 100k-node build quadratic.
+     */
+    private void addSubtreeToCanvasInstant(BSTNode start) {
+        List<Node> edges  = new ArrayList<>();
+        List<Node> shapes = new ArrayList<>();
+        BalancedTree.forEachPreorder(start, node -> {
+            if (node.exitAnimation != null) { node.exitAnimation.stop(); node.exitAnimation = null; }
+            resetNodeVisuals(node);
+            node.circle.setMouseTransparent(false);
 
-        if (!treeContentGroup.getChildren().contains(node.circle)) {
-            if (node.parent != null && !treeContentGroup.getChildren().contains(node.edgeToParent)) {
-                treeContentGroup.getChildren().add(0, node.edgeToParent);
+            if (node.circle.getParent() != treeContentGroup) {
+                if (node.parent != null && node.edgeToParent.getParent() != treeContentGroup) edges.add(node.edgeToParent);
+                shapes.add(node.circle); shapes.add(node.label); shapes.add(node.info);
             }
-            treeContentGroup.getChildren().addAll(node.circle, node.label);
-        }
-
-        addSubtreeToCanvasInstant(node.left);
-        addSubtreeToCanvasInstant(node.right);
+        });
+        Collections.reverse(edges);
+        treeContentGroup.getChildren().addAll(0, edges);
+        treeContentGroup.getChildren().addAll(shapes);
     }
 
     private void removeNodeFromCanvas(BSTNode node) {
         node.circle.setMouseTransparent(true);
+        node.info.setVisible(false);
 
         FadeTransition pulse = new FadeTransition(Duration.millis(120), node.circle);
         pulse.setFromValue(1.0);
@@ -732,7 +834,7 @@ public class BSTController {
                 new ParallelTransition(ttCircle, ttLabel, stCircle, ftCircle, ftLabel, ftEdge)
         );
         node.exitAnimation.setOnFinished(e -> {
-            treeContentGroup.getChildren().removeAll(node.circle, node.label, node.edgeToParent);
+            treeContentGroup.getChildren().removeAll(node.circle, node.label, node.info, node.edgeToParent);
             resetNodeVisuals(node);
             node.exitAnimation = null;
         });
@@ -742,17 +844,48 @@ public class BSTController {
     // ==========================================================================
     // SNAPSHOT SYSTEM
     // ==========================================================================
-    private void takeSnapshot(BSTNode node) {
-        if (node == null) return;
-        treeSnapshot.put(node, new NodeState(node));
-        takeSnapshot(node.left);
-        takeSnapshot(node.right);
+    private static void collectStates(BSTNode node, Map<BSTNode, NodeState> out) {
+        BalancedTree.forEachPreorder(node, n -> out.put(n, new NodeState(n)));
+    }
+
+    private void applyStates(Map<BSTNode, NodeState> states) {
+        for (Map.Entry<BSTNode, NodeState> entry : states.entrySet()) {
+            BSTNode   n = entry.getKey();
+            NodeState s = entry.getValue();
+            n.value = s.value;
+            n.label.setText(String.valueOf(n.value));
+            n.left     = s.left;
+            n.right    = s.right;
+            n.parent   = s.parent;
+            n.height   = s.height;
+            n.red      = s.red;
+            n.priority = s.priority;
+        }
+    }
+
+    /**
+     * A detached copy of the subtree for a trace recorder, taken on the FX
+     * thread: edits, undo and the trace's own insert and delete steps change
+     * the live tree, never what the recorder walks. Each copy paints through
+     * its live node's shapes.
+     */
+    private BSTNode copyTree(BSTNode start) {
+        Map<BSTNode, BSTNode> copies = new HashMap<>();
+        BalancedTree.forEachPreorder(start, n -> {
+            BSTNode c = new BSTNode(n);
+            copies.put(n, c);
+            if (n == start) return;
+            c.parent = copies.get(n.parent);
+            if (n.parent.left == n) c.parent.left = c; else c.parent.right = c;
+        });
+        return copies.get(start);
     }
 
     private void saveTreeState() {
+        finishLayoutPlayback();
         treeSnapshot.clear();
         snapshotRoot = root;
-        takeSnapshot(root);
+        collectStates(root, treeSnapshot);
     }
 
     private void restoreTreeState() {
@@ -763,52 +896,232 @@ public class BSTController {
             resetNodeVisuals(n);
         }
 
-        root = snapshotRoot;
-        for (Map.Entry<BSTNode, NodeState> entry : treeSnapshot.entrySet()) {
-            BSTNode   n = entry.getKey();
-            NodeState s = entry.getValue();
-            n.value = s.value;
-            n.label.setText(String.valueOf(n.value));
-            n.left   = s.left;
-            n.right  = s.right;
-            n.parent = s.parent;
-        }
+        root     = snapshotRoot;
+        treeSize = treeSnapshot.size();
+        applyStates(treeSnapshot);
 
         treeContentGroup.getChildren().clear();
         if (root != null) {
             addSubtreeToCanvasInstant(root);
             layoutTree();
         }
+        refreshBalanceView();
     }
 
     // ==========================================================================
     // INSERT / DELETE
     // ==========================================================================
     private void insertValue(int value) {
-        root = insertBST(root, null, value);
-        addSubtreeToCanvas(root);
-        Platform.runLater(this::layoutTreeAnimated);
+        insertValue(value, treapRandom.nextInt(100));
     }
 
-    private void insertValueSilent(int value) {
-        root = insertBST(root, null, value);
-        addSubtreeToCanvasInstant(root);
+    private void insertValue(int value, int priority) {
+        finishLayoutPlayback();
+        startFrames();
+        insertBalanced(value, priority);
+        playFrames();
     }
 
     private void deleteValue(int value) {
         if (root == null) return;
         clearSelection();
-        root = deleteBST(root, value);
-        if (root != null) root.parent = null;
+        finishLayoutPlayback();
+        startFrames();
+        deleteBalanced(value);
+        playFrames();
+    }
+
+    // ── Layout playback ───────────────────────────────────────────────────────
+    // Every insert or delete records one frame for the plain attach or
+    // splice and one per rotation. A frame holds only the nodes that stage
+    // touched (a rotation: both nodes, the parent above them and the subtree
+    // that changes sides, plus any height or colour it changed), as the stage
+    // left them. Playback rewinds the touched nodes to how they were before
+    // the operation and applies the frames in order, animating each stage with
+    // layoutTreeAnimated and outlining the node that rotated up. After the
+    // last frame the tree is the real final tree again.
+    private void startFrames() {
+        recordingFrames = new ArrayList<>();
+        recordingBefore = new HashMap<>();
+        recordingDirty.clear();
+        rootBefore = root;
+        sizeBefore = treeSize;
+    }
+
+    /** Notes that {@code n} is about to change, while an operation records its frames. */
+    private void touch(BSTNode n) {
+        if (recordingFrames == null || n == null) return;
+        recordingBefore.putIfAbsent(n, new NodeState(n));
+        recordingDirty.add(n);
+    }
+
+    private void captureFrame(BSTNode pivot, BSTNode added, BSTNode removed) {
+        if (recordingFrames == null) return;
+        Map<BSTNode, NodeState> changed = new HashMap<>();
+        for (BSTNode n : recordingDirty) changed.put(n, new NodeState(n));
+        recordingDirty.clear();
+        recordingFrames.add(new LayoutFrame(root, treeSize, changed, pivot, added, removed));
+    }
+
+    private void playFrames() {
+        List<LayoutFrame>       frames = recordingFrames;
+        Map<BSTNode, NodeState> before = recordingBefore;
+        recordingFrames = null;
+        recordingBefore = null;
+        recordingDirty.clear();
+        if (frames.isEmpty()) { refreshStats(); return; }
+        root     = rootBefore;                    // the first frame starts from the tree as it was
+        treeSize = sizeBefore;
+        applyStates(before);
+        playbackFrames = frames;
+        playbackNext   = 0;
+        Timeline tl = new Timeline();
+        double at = 0;
+        for (LayoutFrame f : frames) {
+            tl.getKeyFrames().add(new KeyFrame(Duration.millis(at), e -> showNextFrame()));
+            at += f.removed != null ? REMOVAL_MS : ROTATION_MS;
+        }
+        LayoutFrame last = frames.get(frames.size() - 1);
+        tl.getKeyFrames().add(new KeyFrame(Duration.millis(at), e -> {
+            layoutPlayback = null;
+            highlightPivot(null);
+            if (last.removed != null) layoutTreeAnimated();
+        }));
+        layoutPlayback = tl;
+        tl.play();
+    }
+
+    private void showNextFrame() {
+        LayoutFrame f = playbackFrames.get(playbackNext++);
+        applyFrame(f);
+        highlightPivot(f.pivot);
+        if (f.added != null) {
+            addNodeToCanvas(f.added);
+            Platform.runLater(this::layoutTreeAnimated);
+        } else if (f.removed != null) {
+            removeNodeFromCanvas(f.removed);      // laid out by the next stage, once it has faded
+        } else {
+            layoutTreeAnimated();
+        }
+    }
 
-        cancelPendingLayout();
-        pendingLayoutTimer = new PauseTransition(Duration.millis(980));
-        pendingLayoutTimer.setOnFinished(e -> { pendingLayoutTimer = null; layoutTreeAnimated(); });
-        pendingLayoutTimer.play();
+    /**
+     * Only the frame's nodes are restyled. A node's badge and fill depend on
+     * its own links, height, colour and priority, which put it in the frame,
+     * and on its children's heights (the AVL balance factor), which put a
+     * child in the frame; so the changed nodes and their parents cover it.
+     */
+    private void applyFrame(LayoutFrame f) {
+        root     = f.root;
+        treeSize = f.size;
+        applyStates(f.changed);
+        for (BSTNode n : f.changed.keySet()) {
+            if (n.parent != null && n.circle.getParent() == treeContentGroup
+                    && n.edgeToParent.getParent() != treeContentGroup)
+                treeContentGroup.getChildren().add(0, n.edgeToParent);   // a former root that rotated down
+            refreshNodeStyle(n);
+            if (n.parent != null) refreshNodeStyle(n.parent);
+        }
+        refreshStats();
+    }
+
+    private void highlightPivot(BSTNode pivot) {
+        if (shownPivot != null && shownPivot != selectedNode) {
+            shownPivot.circle.setStroke(Color.BLACK);
+            shownPivot.circle.setStrokeWidth(2);
+        }
+        shownPivot = pivot;
+        if (pivot != null) {
+            pivot.circle.setStroke(Color.DARKORANGE);
+            pivot.circle.setStrokeWidth(4);
+        }
+    }
+
+    /** Jumps a running playback to its final tree: pending nodes appear, pending removals vanish. */
+    private void finishLayoutPlayback() {
+        if (layoutPlayback == null) return;
+        layoutPlayback.stop();
+        layoutPlayback = null;
+        for (int i = playbackNext; i < playbackFrames.size(); i++) {
+            BSTNode gone = playbackFrames.get(i).removed;
+            if (gone != null) treeContentGroup.getChildren().removeAll(gone.circle, gone.label, gone.info, gone.edgeToParent);
+        }
+        while (playbackNext < playbackFrames.size()) applyFrame(playbackFrames.get(playbackNext++));
+        highlightPivot(null);
+        if (root != null) {
+            addSubtreeToCanvasInstant(root);
+            layoutTree();
+        }
     }
 
+    /** Drops a running playback without touching the links (the caller restores them). */
     private void cancelPendingLayout() {
-        if (pendingLayoutTimer != null) { pendingLayoutTimer.stop(); pendingLayoutTimer = null; }
+        if (layoutPlayback != null) { layoutPlayback.stop(); layoutPlayback = null; }
+        highlightPivot(null);
+    }
+
+    // ── Balance view: node fills, badges and the stats line ──────────────────
+    private Color baseFill(BSTNode n) {
+        if (balance != Balance.RED_BLACK) return Color.LIGHTBLUE;
+        return n.red ? Color.LIGHTCORAL : Color.DARKGRAY;
+    }
+
+    private String badgeOf(BSTNode n) {
+        return switch (balance) {
+            case AVL       -> { int bf = BalancedTree.balanceOf(n); yield bf > 0 ? "+" + bf : String.valueOf(bf); }
+            case TREAP     -> "p" + n.priority;
+            case RED_BLACK, PLAIN -> "";
+        };
+    }
+
+    private void refreshBalanceView() {
+        refreshNodeStyles(root);
+        refreshStats();
+    }
+
+    private void refreshStats() {
+        if (balanceStatsLabel == null) return;
+        int ideal = 32 - Integer.numberOfLeadingZeros(treeSize);     // ⌈log2(n + 1)⌉
+        balanceStatsLabel.setText(String.format("%s · %d nodes · height %d (min %d) · last op %d rotation%s · total %d",
+                balance.label, treeSize, BalancedTree.heightOf(root), ideal, lastRotations, lastRotations == 1 ? "" : "s", totalRotations));
+    }
+
+    private void refreshNodeStyles(BSTNode start) {
+        BalancedTree.forEachPreorder(start, this::refreshNodeStyle);
+    }
+
+    private void refreshNodeStyle(BSTNode node) {
+        String badge = badgeOf(node);
+        node.info.setText(badge);
+        node.info.setVisible(!badge.isEmpty());
+        if (!isAlgorithmMode) node.circle.setFill(baseFill(node));    // keep an animation's highlights
+    }
+
+    /** Rebuilds the current keys under the newly selected balancing mode, inserting them in level order. */
+    private void changeBalance(Balance mode) {
+        if (mode == balance) return;
+        finishLayoutPlayback();
+        List<Integer> keys = new ArrayList<>();
+        Deque<BSTNode> queue = new ArrayDeque<>();
+        if (root != null) queue.add(root);
+        while (!queue.isEmpty()) {
+            BSTNode n = queue.poll();
+            keys.add(n.value);
+            if (n.left  != null) queue.add(n.left);
+            if (n.right != null) queue.add(n.right);
+        }
+        balance = mode;
+        clearSelection();
+        treeContentGroup.getChildren().clear();
+        root = null;
+        treeSize = 0;
+        totalRotations = 0;
+        for (int k : keys) insertBalanced(k);
+        addSubtreeToCanvasInstant(root);
+        lastRotations = 0;
+        layoutTree();
+        refreshBalanceView();
+        resultLabel.setText(mode.label + " mode" + (keys.isEmpty() ? "." : ": rebuilt " + keys.size() + " keys in level order."));
     }
 
     // ==========================================================================
@@ -854,7 +1167,7 @@ public class BSTController {
             }
             insertValue(value);
             undoStack.push(new InsertCommand(value));
-            resultLabel.setText("Inserted: " + value);
+            resultLabel.setText("Inserted: " + value + rotationSuffix());
             insertField.clear();
         } catch (NumberFormatException e) {
             resultLabel.setText("Invalid input — please enter an integer.");
@@ -867,7 +1180,11 @@ public class BSTController {
         int value = selectedNode.value;
         undoStack.push(new DeleteCommand(value));
         deleteValue(value);
-        resultLabel.setText("Deleted: " + value);
+        resultLabel.setText("Deleted: " + value + rotationSuffix());
+    }
+
+    private String rotationSuffix() {
+        return lastRotations == 0 ? "" : "  (" + lastRotations + " rotation" + (lastRotations == 1 ? "" : "s") + ")";
     }
 
     private void handleUndo() {
@@ -886,18 +1203,71 @@ public class BSTController {
         int          count = rng.nextInt(5) + 7;
         Set<Integer> used  = new LinkedHashSet<>();
         while (used.size() < count) used.add(rng.nextInt(90) + 10);
-        for (int v : used) insertValueSilent(v);
+        for (int v : used) insertBalanced(v);
+        addSubtreeToCanvasInstant(root);
         layoutTree();
+        refreshBalanceView();
         resultLabel.setText("Random tree generated (" + count + " nodes).");
     }
 
+    /**
+     * Ascending keys: the adversarial input that turns a plain BST into a
+     * linked list. The count comes from the field next to the button; empty
+     * means the small demo tree.
+     */
+    @FXML
+    public void generateSortedTree() {
+        int    count = 15;
+        String text  = sortedCountField.getText().trim();
+        if (!text.isEmpty()) {
+            try {
+                count = Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                resultLabel.setText("Invalid key count — please enter an integer.");
+                return;
+            }
+            if (count < 1 || count > MAX_SORTED_KEYS) {
+                resultLabel.setText("Key count must be between 1 and " + MAX_SORTED_KEYS + ".");
+                return;
+            }
+        }
+        clearTree();
+        Random rng   = new Random();
+        int    first = rng.nextInt(10) + 5;
+        if (balance == Balance.PLAIN) {
+            // Every key becomes the right child of the previous one; inserting them one by
+            // one would walk the whole chain each time and set every height on the way back.
+            BSTNode tail = null;
+            for (int i = 0; i < count; i++) {
+                BSTNode n = new BSTNode(first + 5 * i);
+                n.parent = tail;
+                if (tail == null) root = n; else tail.right = n;
+                tail = n;
+            }
+            for (int h = 1; tail != null; tail = tail.parent, h++) tail.height = h;
+            treeSize = count;
+        } else {
+            for (int i = 0; i < count; i++) insertBalanced(first + 5 * i);
+        }
+        addSubtreeToCanvasInstant(root);
+        layoutTree();
+        refreshBalanceView();
+        resultLabel.setText("Sorted tree generated (" + count + " ascending keys): height " + BalancedTree.heightOf(root)
+                + ", " + totalRotations + " rotations in " + balance.label + " mode.");
+    }
+
     @FXML
     public void clearTree() {
+        traceRunner.stop();
         cancelPendingLayout();
-        if (activeEdgeSync != null) { activeEdgeSync.stop(); activeEdgeSync = null; }
-
-        root         = null;
-        selectedNode = null;
+        staleNodes = List.of();           // their shapes are about to leave the canvas
+        stopLayoutAnimation();
+
+        root           = null;
+        selectedNode   = null;
+        treeSize       = 0;
+        lastRotations  = 0;
+        totalRotations = 0;
         treeContentGroup.getChildren().clear();
         undoStack.clear();
         algorithmSteps.clear();
@@ -909,6 +1279,7 @@ public class BSTController {
         if (timeline != null) { timeline.stop(); timeline = null; }
         if (playPauseButton != null) playPauseButton.setText("▶ Play");
         resultLabel.setText("");
+        refreshBalanceView();
         resetPanAndZoom();
     }
 
@@ -955,29 +1326,28 @@ public class BSTController {
         resetEdgeColors(root);
     }
 
-    private void resetNodeColors(BSTNode node) {
-        if (node == null) return;
-        node.circle.setFill(Color.LIGHTBLUE);
-        node.circle.setStroke(Color.BLACK);
-        node.circle.setStrokeWidth(2);
-        resetNodeColors(node.left);
-        resetNodeColors(node.right);
+    private void resetNodeColors(BSTNode start) {
+        BalancedTree.forEachPreorder(start, node -> {
+            node.circle.setFill(baseFill(node));
+            node.circle.setStroke(Color.BLACK);
+            node.circle.setStrokeWidth(2);
+        });
     }
 
-    private void resetEdgeColors(BSTNode node) {
-        if (node == null) return;
-        if (node.parent != null) {
-            node.edgeToParent.setStroke(Color.DIMGRAY);
-            node.edgeToParent.setStrokeWidth(2);
-        }
-        resetEdgeColors(node.left);
-        resetEdgeColors(node.right);
+    private void resetEdgeColors(BSTNode start) {
+        BalancedTree.forEachPreorder(start, node -> {
+            if (node.parent != null) {
+                node.edgeToParent.setStroke(Color.DIMGRAY);
+                node.edgeToParent.setStrokeWidth(2);
+            }
+        });
     }
 
     // ==========================================================================
     // ALGORITHM PLAYBACK ENGINE
     // ==========================================================================
     private void initializeAlgorithm() {
+        traceRunner.stop();
         if (timeline != null) { timeline.stop(); timeline = null; }
         resetAllColors();
         resultLabel.setText("Starting…");
@@ -989,51 +1359,80 @@ public class BSTController {
 
         if (root == null || algoComboBox.getValue() == null) return;
 
-        String algo = algoComboBox.getValue();
+        String  algo = algoComboBox.getValue();
+        BSTNode tree = copyTree(root);       // the recorder reads this copy, never the live tree
+        Balance mode = balance;
+        Runnable record = null;
 
         if      (algo.startsWith("Inorder"))  {
-            List<String> visited = new ArrayList<>();
-            recordInorder(root, visited);
-            String fin = String.join(" → ", visited);
-            algorithmSteps.add(() -> resultLabel.setText("Inorder Complete: " + fin));
+            record = () -> {
+                List<String> visited = new ArrayList<>();
+                recordInorder(tree, visited);
+                String fin = joinPath(visited);
+                algorithmSteps.add(() -> resultLabel.setText("Inorder Complete: " + fin));
+            };
 
         } else if (algo.startsWith("Preorder")) {
-            List<String> visited = new ArrayList<>();
-            recordPreorder(root, visited);
-            String fin = String.join(" → ", visited);
-            algorithmSteps.add(() -> resultLabel.setText("Preorder Complete: " + fin));
+            record = () -> {
+                List<String> visited = new ArrayList<>();
+                recordPreorder(tree, visited);
+                String fin = joinPath(visited);
+                algorithmSteps.add(() -> resultLabel.setText("Preorder Complete: " + fin));
+            };
 
         } else if (algo.startsWith("Postorder")) {
-            List<String> visited = new ArrayList<>();
-            recordPostorder(root, visited);
-            String fin = String.join(" → ", visited);
-            algorithmSteps.add(() -> resultLabel.setText("Postorder Complete: " + fin));
+            record = () -> {
+                List<String> visited = new ArrayList<>();
+                recordPostorder(tree, visited);
+                String fin = joinPath(visited);
+                algorithmSteps.add(() -> resultLabel.setText("Postorder Complete: " + fin));
+            };
 
         } else if (algo.startsWith("Level Order")) {
-            recordLevelOrder();
+            record = () -> recordLevelOrder(tree);
 
         } else if (algo.startsWith("Search")) {
-            String text = startNodeField.getText().trim();
-            try   { recordSearch(root, Integer.parseInt(text), new ArrayList<>()); }
-            catch (NumberFormatException e) {
-                resultLabel.setText("Search: please enter a valid integer in the Value field.");
-            }
+            Integer target = parseTarget("Search: please enter a valid integer in the Value field.");
+            if (target != null) record = () -> recordSearch(tree, target, new ArrayList<>());
         } else if (algo.startsWith("Find Predecessor")) {
-            recordFindPredecessor();
+            Integer target = parseTarget("Predecessor: enter an integer in the Value field.");
+            if (target != null) record = () -> recordFindPredecessor(tree, target);
         } else if (algo.startsWith("Find Successor")) {
-            recordFindSuccessor();
+            Integer target = parseTarget("Successor: enter an integer in the Value field.");
+            if (target != null) record = () -> recordFindSuccessor(tree, target);
         } else if (algo.startsWith("Delete (Visualized)")) {
-            recordDeletion();
+            Integer target = parseTarget("Delete: enter an integer in the Value field.");
+            if (target != null) record = () -> recordDeletion(tree, mode, target);
         } else if (algo.startsWith("Insert (Visualized)")) {
-            recordInsertion();
+            Integer target = parseTarget("Insert: enter an integer in the Value field.");
+            if (target != null) record = () -> recordInsertion(tree, mode, target);
         }
+        if (record != null) traceRunner.start(record);
+    }
+
+    /** The Value field as an integer, read on the FX thread before recording; null (with {@code error} shown) otherwise. */
+    private Integer parseTarget(String error) {
+        try   { return Integer.parseInt(startNodeField.getText().trim()); }
+        catch (NumberFormatException e) { resultLabel.setText(error); return null; }
+    }
+
+    /** A recorder that threw: stop playback at what it appended and say why. */
+    private void traceFailed(Throwable error) {
+        if (timeline != null) { timeline.stop(); playPauseButton.setText("↺ Restart"); }
+        resultLabel.setText("Trace recording failed: " + (error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName()));
+    }
+
+    @FXML
+    private void cancelTrace() {
+        if (!traceRunner.stop()) return;
+        resultLabel.setText("Trace cancelled after " + algorithmSteps.size() + " steps; the recorded prefix can still be played.");
     }
 
     private void setupTimeline() {
         timeline = new Timeline(new KeyFrame(Duration.seconds(1.0), e -> {
             if (currentStep < algorithmSteps.size()) {
                 algorithmSteps.get(currentStep++).run();
-            } else {
+            } else if (!traceRunner.isRecording()) {
                 timeline.stop();
                 playPauseButton.setText("↺ Restart");
             }
@@ -1052,7 +1451,7 @@ public class BSTController {
             return;
         }
 
-        if (algorithmSteps.isEmpty() || currentStep >= algorithmSteps.size()) initializeAlgorithm();
+        if (!traceRunner.isRecording() && (algorithmSteps.isEmpty() || currentStep >= algorithmSteps.size())) initializeAlgorithm();
         if (timeline == null) setupTimeline();
 
         timeline.play();
@@ -1064,7 +1463,7 @@ public class BSTController {
         if (root == null || algoComboBox.getValue() == null) return;
         if (timeline != null) { timeline.pause(); playPauseButton.setText("▶ Play"); }
 
-        if (algorithmSteps.isEmpty() || currentStep >= algorithmSteps.size()) {
+        if (!traceRunner.isRecording() && (algorithmSteps.isEmpty() || currentStep >= algorithmSteps.size())) {
             initializeAlgorithm();
             if (timeline == null) setupTimeline();
         }
@@ -1093,7 +1492,8 @@ public class BSTController {
 
     @FXML
     private void resetAlgorithmState() {
-        cancelPendingLayout();
+        traceRunner.stop();
+        finishLayoutPlayback();
         if (timeline != null) { timeline.stop(); timeline = null; }
         if (playPauseButton != null) playPauseButton.setText("▶ Play");
         resetAllColors();
@@ -1106,128 +1506,176 @@ public class BSTController {
     // ==========================================================================
     // ALGORITHM RECORDING — TRAVERSALS
     // ==========================================================================
-    private void recordInorder(BSTNode node, List<String> visited) {
-        if (node == null) return;
-        final BSTNode cur = node;
-
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.GOLD);
-            if (cur.parent != null) cur.edgeToParent.setStroke(Color.GOLD);
-            resultLabel.setText("Inorder: At " + cur.value + " — descending LEFT");
-        });
-
-        recordInorder(node.left, visited);
-
-        visited.add(String.valueOf(node.value));
-        final String order = "Inorder: " + String.join(" → ", visited);
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.MAGENTA);
-            cur.circle.setStroke(Color.WHITE);
-            cur.circle.setStrokeWidth(3);
-            resultLabel.setText(order + "  (Visited " + cur.value + ")");
-        });
+    // The three depth-first recorders keep an explicit stack of (node, stage)
+    // frames instead of recursing, so a degenerate tree of 100k nodes cannot
+    // overflow the recorder thread's stack. Stage 0 is entering the node,
+    // stage 1 coming back from the left child and stage 2 from the right; the
+    // steps come out in exactly the order the recursive version emitted them.
+    private void recordInorder(BSTNode start, List<String> visited) {
+        Deque<BSTNode> stack  = new ArrayDeque<>();
+        Deque<Integer> stages = new ArrayDeque<>();
+        if (start != null) { stack.push(start); stages.push(0); }
+
+        while (!stack.isEmpty()) {
+            final BSTNode cur   = stack.peek();
+            int           stage = stages.pop();
+
+            if (stage == 0) {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.GOLD);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.GOLD);
+                    resultLabel.setText("Inorder: At " + cur.value + " — descending LEFT");
+                });
+                stages.push(1);
+                if (cur.left != null) { stack.push(cur.left); stages.push(0); }
 
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.ORANGE);
-            cur.circle.setStroke(Color.BLACK);
-            cur.circle.setStrokeWidth(2);
-            resultLabel.setText("Inorder: " + cur.value + " visited — descending RIGHT");
-        });
+            } else if (stage == 1) {
+                visited.add(String.valueOf(cur.value));
+                final String order = "Inorder: " + joinPath(visited);
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.MAGENTA);
+                    cur.circle.setStroke(Color.WHITE);
+                    cur.circle.setStrokeWidth(3);
+                    resultLabel.setText(order + "  (Visited " + cur.value + ")");
+                });
 
-        recordInorder(node.right, visited);
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.ORANGE);
+                    cur.circle.setStroke(Color.BLACK);
+                    cur.circle.setStrokeWidth(2);
+                    resultLabel.setText("Inorder: " + cur.value + " visited — descending RIGHT");
+                });
+                stages.push(2);
+                if (cur.right != null) { stack.push(cur.right); stages.push(0); }
 
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.LIGHTGRAY);
-            if (cur.parent != null) cur.edgeToParent.setStroke(Color.LIGHTGRAY);
-        });
+            } else {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.LIGHTGRAY);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.LIGHTGRAY);
+                });
+                stack.pop();
+            }
+        }
     }
 
-    private void recordPreorder(BSTNode node, List<String> visited) {
-        if (node == null) return;
-        final BSTNode cur = node;
+    private void recordPreorder(BSTNode start, List<String> visited) {
+        Deque<BSTNode> stack  = new ArrayDeque<>();
+        Deque<Integer> stages = new ArrayDeque<>();
+        if (start != null) { stack.push(start); stages.push(0); }
 
-        visited.add(String.valueOf(node.value));
-        final String order = "Preorder: " + String.join(" → ", visited);
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.MAGENTA);
-            cur.circle.setStroke(Color.WHITE);
-            cur.circle.setStrokeWidth(3);
-            if (cur.parent != null) cur.edgeToParent.setStroke(Color.MAGENTA);
-            resultLabel.setText(order + "  (Visited " + cur.value + ")");
-        });
+        while (!stack.isEmpty()) {
+            final BSTNode cur   = stack.peek();
+            int           stage = stages.pop();
 
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.GOLD);
-            cur.circle.setStroke(Color.BLACK);
-            cur.circle.setStrokeWidth(2);
-            resultLabel.setText("Preorder: Descending LEFT from " + cur.value);
-        });
-
-        recordPreorder(node.left, visited);
+            if (stage == 0) {
+                visited.add(String.valueOf(cur.value));
+                final String order = "Preorder: " + joinPath(visited);
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.MAGENTA);
+                    cur.circle.setStroke(Color.WHITE);
+                    cur.circle.setStrokeWidth(3);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.MAGENTA);
+                    resultLabel.setText(order + "  (Visited " + cur.value + ")");
+                });
 
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.ORANGE);
-            resultLabel.setText("Preorder: Descending RIGHT from " + cur.value);
-        });
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.GOLD);
+                    cur.circle.setStroke(Color.BLACK);
+                    cur.circle.setStrokeWidth(2);
+                    resultLabel.setText("Preorder: Descending LEFT from " + cur.value);
+                });
+                stages.push(1);
+                if (cur.left != null) { stack.push(cur.left); stages.push(0); }
 
-        recordPreorder(node.right, visited);
+            } else if (stage == 1) {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.ORANGE);
+                    resultLabel.setText("Preorder: Descending RIGHT from " + cur.value);
+                });
+                stages.push(2);
+                if (cur.right != null) { stack.push(cur.right); stages.push(0); }
 
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.LIGHTGRAY);
-            if (cur.parent != null) cur.edgeToParent.setStroke(Color.LIGHTGRAY);
-        });
+            } else {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.LIGHTGRAY);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.LIGHTGRAY);
+                });
+                stack.pop();
+            }
+        }
     }
 
-    private void recordPostorder(BSTNode node, List<String> visited) {
-        if (node == null) return;
-        final BSTNode cur = node;
+    private void recordPostorder(BSTNode start, List<String> visited) {
+        Deque<BSTNode> stack  = new ArrayDeque<>();
+        Deque<Integer> stages = new ArrayDeque<>();
+        if (start != null) { stack.push(start); stages.push(0); }
 
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.GOLD);
-            if (cur.parent != null) cur.edgeToParent.setStroke(Color.GOLD);
-            resultLabel.setText("Postorder: At " + cur.value + " — descending LEFT");
-        });
+        while (!stack.isEmpty()) {
+            final BSTNode cur   = stack.peek();
+            int           stage = stages.pop();
 
-        recordPostorder(node.left, visited);
+            if (stage == 0) {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.GOLD);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.GOLD);
+                    resultLabel.setText("Postorder: At " + cur.value + " — descending LEFT");
+                });
+                stages.push(1);
+                if (cur.left != null) { stack.push(cur.left); stages.push(0); }
 
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.ORANGE);
-            resultLabel.setText("Postorder: At " + cur.value + " — descending RIGHT");
-        });
+            } else if (stage == 1) {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.ORANGE);
+                    resultLabel.setText("Postorder: At " + cur.value + " — descending RIGHT");
+                });
+                stages.push(2);
+                if (cur.right != null) { stack.push(cur.right); stages.push(0); }
 
-        recordPostorder(node.right, visited);
+            } else {
+                visited.add(String.valueOf(cur.value));
+                final String order = "Postorder: " + joinPath(visited);
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.MAGENTA);
+                    cur.circle.setStroke(Color.WHITE);
+                    cur.circle.setStrokeWidth(3);
+                    resultLabel.setText(order + "  (Visited " + cur.value + ")");
+                });
 
-        visited.add(String.valueOf(node.value));
-        final String order = "Postorder: " + String.join(" → ", visited);
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.MAGENTA);
-            cur.circle.setStroke(Color.WHITE);
-            cur.circle.setStrokeWidth(3);
-            resultLabel.setText(order + "  (Visited " + cur.value + ")");
-        });
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.LIGHTGRAY);
+                    cur.circle.setStroke(Color.BLACK);
+                    cur.circle.setStrokeWidth(2);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.LIGHTGRAY);
+                });
+                stack.pop();
+            }
+        }
+    }
 
-        algorithmSteps.add(() -> {
-            cur.circle.setFill(Color.LIGHTGRAY);
-            cur.circle.setStroke(Color.BLACK);
-            cur.circle.setStrokeWidth(2);
-            if (cur.parent != null) cur.edgeToParent.setStroke(Color.LIGHTGRAY);
-        });
+    /**
+     * The visiting order for a status message. Past {@link #PATH_SHOWN} items
+     * only the tail is joined: every step keeps its own copy, so joining the
+     * whole list would make a 100k-node traversal quadratic in time and memory.
+     */
+    private static String joinPath(List<String> items) {
+        if (items.size() <= PATH_SHOWN) return String.join(" → ", items);
+        return "… → " + String.join(" → ", items.subList(items.size() - PATH_SHOWN, items.size()));
     }
 
-    private void recordLevelOrder() {
+    private void recordLevelOrder(BSTNode tree) {
         Queue<BSTNode> queue   = new LinkedList<>();
         List<String>   visited = new ArrayList<>();
-        queue.add(root);
+        queue.add(tree);
 
         algorithmSteps.add(() -> {
-            root.circle.setFill(Color.YELLOW);
-            resultLabel.setText("Level Order: enqueue root (" + root.value + ")");
+            tree.circle.setFill(Color.YELLOW);
+            resultLabel.setText("Level Order: enqueue root (" + tree.value + ")");
         });
 
         while (!queue.isEmpty()) {
             BSTNode cur = queue.poll();
             visited.add(String.valueOf(cur.value));
-            final String  order      = "Level Order: " + String.join(" → ", visited);
+            final String  order      = "Level Order: " + joinPath(visited);
             final BSTNode processing = cur;
 
             algorithmSteps.add(() -> {
@@ -1254,56 +1702,59 @@ public class BSTController {
             algorithmSteps.add(() -> processing.circle.setFill(Color.GREEN));
         }
 
-        final String fin = String.join(" → ", visited);
+        final String fin = joinPath(visited);
         algorithmSteps.add(() -> resultLabel.setText("Level Order complete: " + fin));
     }
 
     // ==========================================================================
     // ALGORITHM RECORDING — SEARCH / NAVIGATE HELPERS
     // ==========================================================================
-    private void recordSearch(BSTNode node, int target, List<String> path) {
-        if (node == null) {
-            final String pathStr = String.join(" → ", path);
-            algorithmSteps.add(() ->
-                    resultLabel.setText("✘ " + target + " NOT FOUND. Path taken: " + pathStr));
-            return;
-        }
+    private void recordSearch(BSTNode start, int target, List<String> path) {
+        for (BSTNode node = start; ; ) {
+            if (node == null) {
+                final String pathStr = joinPath(path);
+                algorithmSteps.add(() ->
+                        resultLabel.setText("✘ " + target + " NOT FOUND. Path taken: " + pathStr));
+                return;
+            }
 
-        final BSTNode cur = node;
-        path.add(String.valueOf(node.value));
-        final String pathSoFar = String.join(" → ", path);
+            final BSTNode cur = node;
+            path.add(String.valueOf(node.value));
+            final String pathSoFar = joinPath(path);
 
-        if (target == node.value) {
-            algorithmSteps.add(() -> {
-                cur.circle.setFill(Color.LIMEGREEN);
-                cur.circle.setStrokeWidth(4);
-                if (cur.parent != null) cur.edgeToParent.setStroke(Color.LIMEGREEN);
-                resultLabel.setText("✔ Found " + target + "!  Path: " + pathSoFar);
-            });
-        } else if (target < node.value) {
-            algorithmSteps.add(() -> {
-                cur.circle.setFill(Color.YELLOW);
-                if (cur.parent != null) cur.edgeToParent.setStroke(Color.ORANGE);
-                resultLabel.setText("Search: " + target + " < " + cur.value
-                        + " → go LEFT   (path: " + pathSoFar + ")");
-            });
-            algorithmSteps.add(() -> cur.circle.setFill(Color.LIGHTGRAY));
-            recordSearch(node.left, target, path);
-        } else {
-            algorithmSteps.add(() -> {
-                cur.circle.setFill(Color.YELLOW);
-                if (cur.parent != null) cur.edgeToParent.setStroke(Color.ORANGE);
-                resultLabel.setText("Search: " + target + " > " + cur.value
-                        + " → go RIGHT  (path: " + pathSoFar + ")");
-            });
-            algorithmSteps.add(() -> cur.circle.setFill(Color.LIGHTGRAY));
-            recordSearch(node.right, target, path);
+            if (target == node.value) {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.LIMEGREEN);
+                    cur.circle.setStrokeWidth(4);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.LIMEGREEN);
+                    resultLabel.setText("✔ Found " + target + "!  Path: " + pathSoFar);
+                });
+                return;
+            } else if (target < node.value) {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.YELLOW);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.ORANGE);
+                    resultLabel.setText("Search: " + target + " < " + cur.value
+                            + " → go LEFT   (path: " + pathSoFar + ")");
+                });
+                algorithmSteps.add(() -> cur.circle.setFill(Color.LIGHTGRAY));
+                node = node.left;
+            } else {
+                algorithmSteps.add(() -> {
+                    cur.circle.setFill(Color.YELLOW);
+                    if (cur.parent != null) cur.edgeToParent.setStroke(Color.ORANGE);
+                    resultLabel.setText("Search: " + target + " > " + cur.value
+                            + " → go RIGHT  (path: " + pathSoFar + ")");
+                });
+                algorithmSteps.add(() -> cur.circle.setFill(Color.LIGHTGRAY));
+                node = node.right;
+            }
         }
     }
 
-    private List<BSTNode> getPathTo(int target) {
+    private List<BSTNode> getPathTo(BSTNode tree, int target) {
         List<BSTNode> path = new ArrayList<>();
-        BSTNode cur = root;
+        BSTNode cur = tree;
         while (cur != null) {
             path.add(cur);
             if (cur.value == target) break;
@@ -1345,16 +1796,8 @@ public class BSTController {
     // ==========================================================================
     // ALGORITHM RECORDING — PREDECESSOR / SUCCESSOR
     // ==========================================================================
-    private void recordFindPredecessor() {
-        String text = startNodeField.getText().trim();
-        int target;
-        try { target = Integer.parseInt(text); }
-        catch (NumberFormatException e) {
-            resultLabel.setText("Predecessor: enter an integer in the Value field.");
-            return;
-        }
-
-        List<BSTNode> path = getPathTo(target);
+    private void recordFindPredecessor(BSTNode tree, int target) {
+        List<BSTNode> path = getPathTo(tree, target);
         if (path.isEmpty() || path.get(path.size() - 1).value != target) {
             recordNavigateAndNotFound(path, target, "Predecessor");
             return;
@@ -1419,16 +1862,8 @@ public class BSTController {
         }
     }
 
-    private void recordFindSuccessor() {
-        String text = startNodeField.getText().trim();
-        int target;
-        try { target = Integer.parseInt(text); }
-        catch (NumberFormatException e) {
-            resultLabel.setText("Successor: enter an integer in the Value field.");
-            return;
-        }
-
-        List<BSTNode> path = getPathTo(target);
+    private void recordFindSuccessor(BSTNode tree, int target) {
+        List<BSTNode> path = getPathTo(tree, target);
         if (path.isEmpty() || path.get(path.size() - 1).value != target) {
             recordNavigateAndNotFound(path, target, "Successor");
             return;
@@ -1496,16 +1931,8 @@ public class BSTController {
     // ==========================================================================
     // ALGORITHM RECORDING — DELETION
     // ==========================================================================
-    private void recordDeletion() {
-        String text = startNodeField.getText().trim();
-        int target;
-        try { target = Integer.parseInt(text); }
-        catch (NumberFormatException e) {
-            resultLabel.setText("Delete: enter an integer in the Value field.");
-            return;
-        }
-
-        List<BSTNode> path = getPathTo(target);
+    private void recordDeletion(BSTNode tree, Balance mode, int target) {
+        List<BSTNode> path = getPathTo(tree, target);
         if (path.isEmpty() || path.get(path.size() - 1).value != target) {
             recordNavigateAndNotFound(path, target, "Delete");
             return;
@@ -1544,6 +1971,8 @@ public class BSTController {
         boolean hasLeft  = t.left  != null;
         boolean hasRight = t.right != null;
 
+        if (mode == Balance.TREAP && hasLeft && hasRight) { recordTreapDeletion(t, target); return; }
+
         // ══════════════════════════════════════════════════════════════════════
         // CASE 1 — Leaf node
         // ══════════════════════════════════════════════════════════════════════
@@ -1553,6 +1982,7 @@ public class BSTController {
             algorithmSteps.add(() ->
                     resultLabel.setText("No replacement needed — simply unlink "
                             + t.value + " from its parent."));
+            recordDeleteFixUpPreview(mode, t);
 
             final int val = target;
             nonReplayableSteps.add(algorithmSteps.size());
@@ -1561,8 +1991,9 @@ public class BSTController {
                     deleteValue(val);
                     undoStack.push(new DeleteCommand(val));
                 }
-                resultLabel.setText("Done!  Node " + val + " removed (leaf deleted).");
+                resultLabel.setText("Done!  Node " + val + " removed (leaf deleted)." + rotationSuffix());
             });
+            recordDeleteFixUpResult(mode);
 
             // ══════════════════════════════════════════════════════════════════════
             // CASE 2 — One child
@@ -1590,6 +2021,7 @@ public class BSTController {
                 resultLabel.setText("Ready — removing " + t.value
                         + " and promoting " + child.value + ".");
             });
+            recordDeleteFixUpPreview(mode, t);
 
             final int val = target;
             nonReplayableSteps.add(algorithmSteps.size());
@@ -1599,8 +2031,9 @@ public class BSTController {
                     undoStack.push(new DeleteCommand(val));
                 }
                 resultLabel.setText("Done!  Node " + val
-                        + " removed — child " + child.value + " promoted.");
+                        + " removed — child " + child.value + " promoted." + rotationSuffix());
             });
+            recordDeleteFixUpResult(mode);
 
             // ══════════════════════════════════════════════════════════════════════
             // CASE 3 — Two children (inorder successor swap)
@@ -1675,6 +2108,7 @@ public class BSTController {
                 resultLabel.setText("Value copied!  Successor " + succValue
                         + " (red) is now a duplicate — delete it (≤ one child).");
             });
+            recordDeleteFixUpPreview(mode, succ);
 
             nonReplayableSteps.add(algorithmSteps.size());
             algorithmSteps.add(() -> {
@@ -1683,30 +2117,90 @@ public class BSTController {
                     undoStack.push(new DeleteCommand(capturedTarget));
                 }
                 resultLabel.setText("Done!  Deleted " + capturedTarget
-                        + " via successor swap with " + succValue + ".");
+                        + " via successor swap with " + succValue + "." + rotationSuffix());
+            });
+            recordDeleteFixUpResult(mode);
+        }
+    }
+
+    /**
+     * A treap never copies a successor: {@link #deleteBalanced} rotates the
+     * node down, lifting its higher-priority child each time, until it has at
+     * most one child. The rotations follow from the priorities alone, so they
+     * are narrated before the delete step runs them.
+     */
+    private void recordTreapDeletion(BSTNode t, int target) {
+        algorithmSteps.add(() ->
+                resultLabel.setText("CASE 3 (treap) — Two children: instead of copying a successor, rotate "
+                        + t.value + " down, always lifting the child with the higher priority, until it has at most one child."));
+
+        BSTNode l = t.left, r = t.right;
+        int     rotated = 0;
+        while (l != null && r != null) {
+            final BSTNode up    = l.priority > r.priority ? l : r;
+            final BSTNode other = up == l ? r : l;
+            final String  dir   = up == l ? "right" : "left";
+            algorithmSteps.add(() -> {
+                up.circle.setFill(Color.LIMEGREEN);
+                up.circle.setStrokeWidth(3);
+                other.circle.setFill(Color.LIGHTGRAY);
+                resultLabel.setText("p" + up.priority + " beats p" + other.priority + ": " + dir + " rotation at "
+                        + t.value + " — " + up.value + " rises, " + t.value + " sinks one level.");
             });
+            if (up == l) l = up.right; else r = up.left;
+            rotated++;
         }
+
+        final BSTNode child = l != null ? l : r;
+        final int     down  = rotated;
+        algorithmSteps.add(() ->
+                resultLabel.setText(t.value + " now has " + (child == null ? "no children" : "only the child " + child.value)
+                        + " — unlink it" + (child == null ? "." : " and let " + child.value + " take its place.")));
+
+        nonReplayableSteps.add(algorithmSteps.size());
+        algorithmSteps.add(() -> {
+            if (containsValue(root, target)) {
+                deleteValue(target);
+                undoStack.push(new DeleteCommand(target));
+            }
+            resultLabel.setText("Done!  Node " + target + " removed after " + down + " rotation" + (down == 1 ? "" : "s") + " down.");
+        });
+    }
+
+    /** AVL / red-black: what the delete step does after the unlink, read from the tree before it runs. */
+    private void recordDeleteFixUpPreview(Balance mode, BSTNode removed) {
+        String text = switch (mode) {
+            case AVL       -> "AVL: after the unlink, walk back up from its parent updating heights. Any node whose balance "
+                              + "factor reaches ±2 gets a single or double rotation, possibly at several levels.";
+            case RED_BLACK -> removed.red
+                    ? "Red-black: the node that leaves (" + removed.value + ") is red, so every path keeps its black count — no fix-up."
+                    : "Red-black: the node that leaves (" + removed.value + ") is black, so its path is one black short. The fix-up "
+                      + "recolours the sibling or rotates at the parent, moving up until the missing black is restored.";
+            case PLAIN, TREAP -> null;
+        };
+        if (text != null) algorithmSteps.add(() -> resultLabel.setText(text));
+    }
+
+    /** AVL / red-black: the rotations the delete step actually made, shown once it has run. */
+    private void recordDeleteFixUpResult(Balance mode) {
+        if (mode != Balance.AVL && mode != Balance.RED_BLACK) return;
+        final String name = mode.label;
+        algorithmSteps.add(() -> resultLabel.setText(rotationLog.isEmpty()
+                ? name + " fix-up: no rotation was needed."
+                : name + " fix-up, pivots outlined as they turned: " + String.join("; ", rotationLog) + "."));
     }
 
     // ==========================================================================
     // ALGORITHM RECORDING — INSERTION
     // ==========================================================================
-    private void recordInsertion() {
-        String text = startNodeField.getText().trim();
-        int target;
-        try { target = Integer.parseInt(text); }
-        catch (NumberFormatException e) {
-            resultLabel.setText("Insert: enter an integer in the Value field.");
-            return;
-        }
-
-        if (containsValue(root, target)) {
+    private void recordInsertion(BSTNode tree, Balance mode, int target) {
+        if (containsValue(tree, target)) {
             algorithmSteps.add(() ->
                     resultLabel.setText("✘  " + target + " already exists — duplicates not allowed."));
             return;
         }
 
-        if (root == null) {
+        if (tree == null) {
             algorithmSteps.add(() ->
                     resultLabel.setText("Tree is empty → " + target + " becomes the root."));
             final int val = target;
@@ -1716,7 +2210,7 @@ public class BSTController {
                     insertValue(val);
                     undoStack.push(new InsertCommand(val));
                 }
-                BSTNode inserted = findNode(root, val);
+                BSTNode inserted = BalancedTree.find(root, val);
                 if (inserted != null) {
                     inserted.circle.setFill(Color.LIMEGREEN);
                     inserted.circle.setStrokeWidth(4);
@@ -1727,7 +2221,7 @@ public class BSTController {
         }
 
         List<BSTNode> path      = new ArrayList<>();
-        BSTNode       cur       = root;
+        BSTNode       cur       = tree;
         BSTNode       insParent = null;
         String        insDir    = null;
 
@@ -1760,6 +2254,7 @@ public class BSTController {
         final BSTNode parent   = insParent;
         final String  side     = insDir;
         final int     finalVal = target;
+        final int     priority = treapRandom.nextInt(100);     // drawn now so the treap steps can narrate it
 
         algorithmSteps.add(() -> {
             if (parent != null) {
@@ -1772,11 +2267,11 @@ public class BSTController {
         nonReplayableSteps.add(algorithmSteps.size());
         algorithmSteps.add(() -> {
             if (!containsValue(root, finalVal)) {
-                insertValue(finalVal);
+                insertValue(finalVal, priority);
                 undoStack.push(new InsertCommand(finalVal));
             }
             Platform.runLater(() -> {
-                BSTNode inserted = findNode(root, finalVal);
+                BSTNode inserted = BalancedTree.find(root, finalVal);
                 if (inserted != null) {
                     inserted.circle.setFill(Color.LIMEGREEN);
                     inserted.circle.setStrokeWidth(4);
@@ -1785,7 +2280,126 @@ public class BSTController {
                 }
             });
             resultLabel.setText("✔  Inserted " + finalVal
-                    + (parent != null ? " as " + side + " child of " + parent.value : " as root") + ".");
+                    + (parent != null ? " as " + side + " child of " + parent.value : " as root") + "." + rotationSuffix());
         });
+        recordInsertFixUp(mode, path, target, priority);
+    }
+
+    // ==========================================================================
+    // ALGORITHM RECORDING — BALANCE FIX-UP AFTER AN INSERT
+    // ==========================================================================
+    // Predicted from the tree as recorded, the new key's path down it and, for
+    // a treap, the priority the insert step will use. The steps play after the
+    // insert step, while its rotations animate with the pivot outlined.
+    private void recordInsertFixUp(Balance mode, List<BSTNode> path, int target, int priority) {
+        switch (mode) {
+            case TREAP     -> recordTreapInsertFixUp(path, target, priority);
+            case AVL       -> recordAvlInsertFixUp(path, target);
+            case RED_BLACK -> recordRedBlackInsertFixUp(path, target);
+            case PLAIN     -> { }
+        }
+    }
+
+    private void recordTreapInsertFixUp(List<BSTNode> path, int target, int priority) {
+        BSTNode parent = path.get(path.size() - 1);
+        if (priority <= parent.priority) {
+            algorithmSteps.add(() -> resultLabel.setText("Treap: " + target + " drew priority p" + priority
+                    + ", not above its parent's p" + parent.priority + " — it stays a leaf."));
+            return;
+        }
+        algorithmSteps.add(() -> resultLabel.setText("Treap: " + target + " drew priority p" + priority
+                + ". A parent must outrank its children, so it rotates up while it beats its parent."));
+        for (int i = path.size() - 1; i >= 0 && priority > path.get(i).priority; i--) {
+            final BSTNode a   = path.get(i);
+            final String  dir = target < a.value ? "right" : "left";
+            algorithmSteps.add(() -> {
+                outline(a);
+                resultLabel.setText("p" + priority + " beats p" + a.priority + ": " + dir + " rotation at "
+                        + a.value + " — " + target + " rises above it.");
+            });
+        }
+    }
+
+    /** The walk back up: heights grow until one node leans by 2, and one single or double rotation there ends it. */
+    private void recordAvlInsertFixUp(List<BSTNode> path, int target) {
+        int below = 1;                                   // new height of the subtree the walk comes from
+        for (int i = path.size() - 1; i >= 0; i--) {
+            final BSTNode a    = path.get(i);
+            boolean       left = target < a.value;
+            int hl = left ? below : BalancedTree.heightOf(a.left), hr = left ? BalancedTree.heightOf(a.right) : below;
+            int h  = 1 + Math.max(hl, hr);
+            if (Math.abs(hl - hr) > 1) {                 // never at the new leaf's parent, so path[i + 1] exists
+                BSTNode c      = path.get(i + 1);
+                boolean inner  = (target < c.value) != left;
+                int     riser  = !inner ? c.value : i + 2 < path.size() ? path.get(i + 2).value : target;
+                String  first  = left ? "right" : "left", zig = left ? "left" : "right";
+                final String text = "AVL: " + a.value + " now leans " + (left ? "left" : "right") + " by 2 ("
+                        + zig + "-" + (target < c.value ? "left" : "right") + " case) → "
+                        + (inner ? "double rotation: " + zig + " at " + c.value + ", then " + first + " at " + a.value
+                                 : "single " + first + " rotation at " + a.value)
+                        + "; " + riser + " rises. The subtree is back to its old height, so nothing above changes.";
+                algorithmSteps.add(() -> { outline(a); resultLabel.setText(text); });
+                return;
+            }
+            if (h == a.height) {
+                algorithmSteps.add(() -> resultLabel.setText("AVL: the height of " + a.value
+                        + " does not change, so every balance factor on the path stays within ±1 — no rotation."));
+                return;
+            }
+            below = h;
+        }
+        algorithmSteps.add(() -> resultLabel.setText("AVL: heights grew all the way to the root, but every balance factor stays within ±1 — no rotation."));
+    }
+
+    /** Red parent, red child: recolour while the uncle is red, otherwise one or two rotations end it. */
+    private void recordRedBlackInsertFixUp(List<BSTNode> path, int target) {
+        int       k   = path.size();                     // the new node's place on the path
+        boolean[] red = new boolean[k + 1];
+        for (int i = 0; i < k; i++) red[i] = path.get(i).red;
+        red[k] = true;
+        final BSTNode parent = path.get(k - 1);
+        if (!red[k - 1]) {
+            algorithmSteps.add(() -> resultLabel.setText("Red-black: " + target + " arrives red under the black "
+                    + parent.value + " — no two reds in a row, nothing to fix."));
+            return;
+        }
+        algorithmSteps.add(() -> resultLabel.setText("Red-black: " + target + " arrives red under the red "
+                + parent.value + " — two reds in a row must be fixed."));
+
+        int i = k;
+        while (i >= 1 && red[i - 1]) {
+            final BSTNode p = path.get(i - 1), g = path.get(i - 2);    // a red parent is never the root
+            final BSTNode uncle = g.left == p ? g.right : g.left;
+            final int     n     = i == k ? target : path.get(i).value;
+            if (BalancedTree.isRed(uncle)) {
+                red[i - 1] = false;
+                red[i - 2] = true;
+                algorithmSteps.add(() -> {
+                    outline(g);
+                    resultLabel.setText("Uncle " + uncle.value + " is red: parent " + p.value + " and uncle turn black, grandparent "
+                            + g.value + " turns red. Then check " + g.value + " against its own parent.");
+                });
+                i -= 2;
+                continue;
+            }
+            boolean parentLeft = g.left == p;
+            boolean nodeLeft   = i == k ? target < p.value : p.left == path.get(i);
+            final String text = parentLeft != nodeLeft
+                    ? "Uncle is black and " + n + " is an inner grandchild: rotate at " + p.value + " to line it up, then at "
+                      + g.value + ". " + n + " rises to the top and turns black; " + g.value + " turns red."
+                    : "Uncle is black and " + n + " is an outer grandchild: rotate at " + g.value + " so " + p.value
+                      + " rises. " + p.value + " turns black; " + g.value + " turns red.";
+            algorithmSteps.add(() -> { outline(g); resultLabel.setText(text); });
+            return;
+        }
+        if (red[0]) {
+            final BSTNode top = path.get(0);
+            algorithmSteps.add(() -> resultLabel.setText("The root " + top.value + " turned red: repaint it black."));
+        }
+    }
+
+    private static void outline(BSTNode n) {
+        n.circle.setStroke(Color.DARKORANGE);
+        n.circle.setStrokeWidth(4);
     }
 }
\ No newline at end of file
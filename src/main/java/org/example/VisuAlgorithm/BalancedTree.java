@@ -0,0 +1,322 @@
+package org.example.VisuAlgorithm;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Insert and delete for a plain BST and its AVL, red-black and treap modes,
+ * over parent-linked nodes with no rendering attached. A subclass owns the
+ * root, the size and the node type; the hooks report every node about to
+ * change, the end of each stage (the plain attach or splice, then one per
+ * rotation) and every rotation, which is what BSTController animates.
+ * Heights are kept in every mode, so balance factors and the tree height are
+ * always at hand. The walks use explicit stacks, so a degenerate tree of any
+ * depth is safe.
+ *
+ * Usage:
+ *   class Tree extends BalancedTree<Tree.N> { ... root(), setRoot(), newNode(), balance(), resized() ... }
+ *   N added   = tree.insert(42, priority);   // null for a duplicate
+ *   N removed = tree.delete(42);             // null if absent
+ *   int r     = tree.rotations;              // made by the last insert or delete
+ */
+public abstract class BalancedTree<N extends BalancedTree.Node<N>> {
+
+    public enum Balance {
+        PLAIN("Plain BST"), AVL("AVL"), RED_BLACK("Red-Black"), TREAP("Treap");
+        public final String label;
+        Balance(String label) { this.label = label; }
+    }
+
+    public static class Node<N extends Node<N>> {
+        public int     value;
+        public N       left, right, parent;
+        public int     height = 1;     // maintained in every mode; AVL balances on it
+        public boolean red;            // red-black only
+        public int     priority;       // treap only: max-heap order
+
+        public Node(int value) { this.value = value; }
+    }
+
+    public int rotations = 0;          // in the current insert / delete
+
+    protected abstract N       root();
+    protected abstract void    setRoot(N root);
+    protected abstract N       newNode(int value);
+    protected abstract Balance balance();
+    protected abstract void    resized(int delta);
+
+    /** {@code n} (possibly null) is about to change. */
+    protected void touch(N n) { }
+
+    /** A stage ended: the leaf {@code added} was attached, {@code removed} was spliced out, or {@code pivot} rotated up. */
+    protected void stageDone(N pivot, N added, N removed) { }
+
+    /** {@code y} rotated above its former parent {@code x}. */
+    protected void rotated(N x, N y) { }
+
+    /** Deleting a node with two children copied its successor's key into {@code n}. */
+    protected void valueCopied(N n) { }
+
+    // ==========================================================================
+    // INSERT / DELETE
+    // ==========================================================================
+    /** @param priority the treap priority, ignored in the other modes */
+    public N insert(int value, int priority) {
+        rotations = 0;
+        N n = attachLeaf(value);
+        if (n == null) return null;
+        n.red      = balance() == Balance.RED_BLACK;
+        n.priority = priority;
+        updateHeightsUp(n.parent);
+        stageDone(null, n, null);
+
+        switch (balance()) {
+            case AVL       -> rebalanceAvl(n.parent);
+            case RED_BLACK -> fixRedBlackInsert(n);
+            case TREAP     -> { while (n.parent != null && n.priority > n.parent.priority) rotateUp(n); }
+            case PLAIN     -> { }
+        }
+        return n;
+    }
+
+    /**
+     * Deletes {@code value}. A node with two children takes its inorder
+     * successor's value and the successor is spliced out instead; a treap
+     * rotates the node down below its higher-priority child until it has
+     * at most one child.
+     */
+    public N delete(int value) {
+        rotations = 0;
+        N z = find(root(), value);
+        if (z == null) return null;
+        if (balance() == Balance.TREAP) {
+            while (z.left != null && z.right != null)
+                rotateUp(z.left.priority > z.right.priority ? z.left : z.right);
+        } else if (z.left != null && z.right != null) {
+            N successor = min(z.right);
+            touch(z);
+            z.value = successor.value;
+            valueCopied(z);
+            z = successor;
+        }
+        N child  = z.left != null ? z.left : z.right;
+        N parent = z.parent;
+        replaceChild(z, child);
+        touch(z);
+        z.parent = z.left = z.right = null;
+        resized(-1);
+        updateHeightsUp(parent);
+        stageDone(null, null, z);
+
+        if      (balance() == Balance.AVL)                rebalanceAvl(parent);
+        else if (balance() == Balance.RED_BLACK && !z.red) fixRedBlackDelete(child, parent);
+        return z;
+    }
+
+    /** Plain BST descent that links a new leaf; returns it, or null for a duplicate. */
+    private N attachLeaf(int value) {
+        N parent = null, cur = root();
+        while (cur != null) {
+            if (value == cur.value) return null;
+            parent = cur;
+            cur = value < cur.value ? cur.left : cur.right;
+        }
+        N n = newNode(value);
+        touch(n);
+        touch(parent);
+        n.parent = parent;
+        if      (parent == null)       setRoot(n);
+        else if (value < parent.value) parent.left  = n;
+        else                           parent.right = n;
+        resized(1);
+        return n;
+    }
+
+    /** Replaces {@code node} by {@code child} under its parent (or as the root). */
+    private void replaceChild(N node, N child) {
+        N p = node.parent;
+        touch(p);
+        touch(child);
+        if      (p == null)      setRoot(child);
+        else if (p.left == node) p.left  = child;
+        else                     p.right = child;
+        if (child != null) child.parent = p;
+    }
+
+    // ==========================================================================
+    // ROTATIONS & HEIGHTS
+    // ==========================================================================
+    public static <N extends Node<N>> int heightOf(N n) { return n == null ? 0 : n.height; }
+
+    public static <N extends Node<N>> int balanceOf(N n) { return heightOf(n.left) - heightOf(n.right); }
+
+    public static <N extends Node<N>> boolean isRed(N n) { return n != null && n.red; }
+
+    private void updateHeight(N n) {
+        int h = 1 + Math.max(heightOf(n.left), heightOf(n.right));
+        if (h != n.height) { touch(n); n.height = h; }
+    }
+
+    private void updateHeightsUp(N n) {
+        for (; n != null; n = n.parent) updateHeight(n);
+    }
+
+    private void setRed(N n, boolean red) {
+        if (n.red != red) { touch(n); n.red = red; }
+    }
+
+    /** Rotates {@code y} above its parent, keeping the inorder sequence; returns {@code y}. */
+    private N rotateUp(N y) {
+        N x = y.parent;
+        touch(x);
+        touch(y);
+        touch(x.left == y ? y.right : y.left);      // the subtree that changes sides
+        if (x.left == y) {
+            x.left = y.right;
+            if (y.right != null) y.right.parent = x;
+            replaceChild(x, y);
+            y.right = x;
+        } else {
+            x.right = y.left;
+            if (y.left != null) y.left.parent = x;
+            replaceChild(x, y);
+            y.left = x;
+        }
+        x.parent = y;
+        updateHeight(x);
+        updateHeightsUp(y);
+        rotations++;
+        rotated(x, y);
+        stageDone(y, null, null);
+        return y;
+    }
+
+    /** Walks from {@code node} to the root, rotating wherever the heights differ by more than one. */
+    private void rebalanceAvl(N node) {
+        while (node != null) {
+            updateHeight(node);
+            int bf = balanceOf(node);
+            if (bf > 1) {
+                if (balanceOf(node.left) < 0) rotateUp(node.left.right);       // left-right
+                node = rotateUp(node.left);
+            } else if (bf < -1) {
+                if (balanceOf(node.right) > 0) rotateUp(node.right.left);      // right-left
+                node = rotateUp(node.right);
+            }
+            node = node.parent;
+        }
+    }
+
+    private void fixRedBlackInsert(N n) {
+        while (isRed(n.parent)) {
+            N p = n.parent, g = p.parent;                // a red parent is never the root
+            N uncle = g.left == p ? g.right : g.left;
+            if (isRed(uncle)) {
+                setRed(p, false); setRed(uncle, false); setRed(g, true);
+                n = g;
+                continue;
+            }
+            if ((g.left == p) != (p.left == n)) {        // inner grandchild: straighten first
+                rotateUp(n);
+                n = p;
+                p = n.parent;
+            }
+            setRed(p, false); setRed(g, true);
+            rotateUp(p);
+            break;
+        }
+        setRed(root(), false);
+    }
+
+    /** {@code x} (possibly null) took the place of a removed black node under {@code parent}. */
+    private void fixRedBlackDelete(N x, N parent) {
+        while (x != root() && !isRed(x)) {
+            boolean left = x == parent.left;
+            N       w    = left ? parent.right : parent.left;   // never null: x's side lost a black
+            if (isRed(w)) {
+                setRed(w, false); setRed(parent, true);
+                rotateUp(w);
+                w = left ? parent.right : parent.left;
+            }
+            N near = left ? w.left : w.right, far = left ? w.right : w.left;
+            if (!isRed(near) && !isRed(far)) {
+                setRed(w, true);
+                x = parent;
+                parent = x.parent;
+                continue;
+            }
+            if (!isRed(far)) {
+                setRed(near, false); setRed(w, true);
+                rotateUp(near);
+                w   = near;
+                far = left ? w.right : w.left;
+            }
+            setRed(w, parent.red); setRed(parent, false); setRed(far, false);
+            rotateUp(w);
+            x = root();
+        }
+        if (x != null) setRed(x, false);
+    }
+
+    // ==========================================================================
+    // LOOKUP
+    // ==========================================================================
+    public static <N extends Node<N>> N min(N node) {
+        while (node.left != null) node = node.left;
+        return node;
+    }
+
+    public static <N extends Node<N>> N find(N node, int value) {
+        while (node != null && node.value != value) node = value < node.value ? node.left : node.right;
+        return node;
+    }
+
+    // ==========================================================================
+    // WALKS
+    // ==========================================================================
+    /**
+     * Calls {@code action} on every node of the subtree in preorder (node,
+     * left, right) with an explicit stack, so a degenerate tree cannot
+     * overflow the call stack.
+     */
+    public static <N extends Node<N>> void forEachPreorder(N start, Consumer<N> action) {
+        if (start == null) return;
+        Deque<N> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            N n = stack.pop();
+            action.accept(n);
+            if (n.right != null) stack.push(n.right);
+            if (n.left  != null) stack.push(n.left);
+        }
+    }
+
+    /** Same, in inorder (left, node, right). */
+    public static <N extends Node<N>> void forEachInorder(N start, Consumer<N> action) {
+        Deque<N> stack = new ArrayDeque<>();
+        N cur = start;
+        while (cur != null || !stack.isEmpty()) {
+            while (cur != null) { stack.push(cur); cur = cur.left; }
+            cur = stack.pop();
+            action.accept(cur);
+            cur = cur.right;
+        }
+    }
+
+    /** Preorder walk that also hands over each node's depth, counted from {@code depth} at the start. */
+    public static <N extends Node<N>> void forEachWithDepth(N start, int depth, ObjIntConsumer<N> action) {
+        if (start == null) return;
+        Deque<N>       stack  = new ArrayDeque<>();
+        Deque<Integer> depths = new ArrayDeque<>();
+        stack.push(start); depths.push(depth);
+        while (!stack.isEmpty()) {
+            N   n = stack.pop();
+            int d = depths.pop();
+            action.accept(n, d);
+            if (n.right != null) { stack.push(n.right); depths.push(d + 1); }
+            if (n.left  != null) { stack.push(n.left);  depths.push(d + 1); }
+        }
+    }
+}
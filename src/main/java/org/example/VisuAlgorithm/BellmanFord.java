@@ -0,0 +1,205 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Single-source shortest paths that tolerate negative edge weights, in two
+ * flavours over a {@link CsrGraph}:
+ * <ul>
+ *   <li><b>classic</b> – relax every arc once per round, stop early after
+ *       a round with no change; a change in round V means a negative cycle,</li>
+ *   <li><b>SPFA</b> – only nodes whose distance changed are queued
+ *       (FIFO, at most one entry each); a shortest-path tree edge count
+ *       reaching V means a negative cycle.</li>
+ * </ul>
+ * Both count arc scans and successful relaxations per round, which makes
+ * their O(VE) worst case comparable with Dijkstra's O(E log V). An optional
+ * {@link Listener} sees every event so the visualizer can record steps.
+ *
+ * Usage:
+ *   BellmanFord.Result r = BellmanFord.spfa(csr, s, null);
+ *   if (r.hasNegativeCycle()) { ... r.cycle ... } else { ... r.dist ... }
+ */
+public final class BellmanFord {
+
+    private BellmanFord() {}
+
+    public interface Listener {
+        default void roundStarted(int round) {}
+        default void enqueued(int node) {}
+        default void dequeued(int node) {}
+        /** {@code edge} (an index into the original edge list) lowered {@code v}'s distance to {@code dist}. */
+        default void relaxed(int u, int v, int edge, long dist) {}
+        default void roundFinished(int round, long scans, long relaxations) {}
+    }
+
+    public static final class Result {
+        public final long[] dist;            // Long.MAX_VALUE = unreachable
+        public final int[]  parent;          // predecessor node, -1 for the source / unreachable
+        public final int[]  parentEdge;      // edge used to reach each node, -1 if none
+        public int    rounds;
+        public long   scans, relaxations, queuePushes, nanos;
+        public long[] roundScans   = new long[8];
+        public long[] roundRelaxed = new long[8];
+        public int[]  cycle;                 // nodes of a negative cycle in walking order, or null
+        public int[]  cycleEdges;            // cycleEdges[i] joins cycle[i] to cycle[i + 1] (wrapping)
+
+        Result(int n) {
+            dist = new long[n]; parent = new int[n]; parentEdge = new int[n];
+            Arrays.fill(dist, Long.MAX_VALUE);
+            Arrays.fill(parent, -1);
+            Arrays.fill(parentEdge, -1);
+        }
+
+        public boolean hasNegativeCycle() { return cycle != null; }
+
+        void endRound(long scansInRound, long relaxedInRound) {
+            if (rounds == roundScans.length) {
+                roundScans   = Arrays.copyOf(roundScans,   rounds * 2);
+                roundRelaxed = Arrays.copyOf(roundRelaxed, rounds * 2);
+            }
+            roundScans[rounds] = scansInRound;
+            roundRelaxed[rounds] = relaxedInRound;
+            rounds++;
+        }
+    }
+
+    private static final Listener SILENT = new Listener() {};
+
+    // ==========================================================================
+    // CLASSIC (round-based, early termination)
+    // ==========================================================================
+    public static Result classic(CsrGraph g, int source, Listener listener) {
+        Listener l = listener != null ? listener : SILENT;
+        long t0 = System.nanoTime();
+        int n = g.n;
+        Result r = new Result(n);
+        r.dist[source] = 0;
+        for (int round = 1; round <= n; round++) {
+            l.roundStarted(round);
+            long scans = 0, relaxed = 0;
+            int last = -1;
+            for (int u = 0; u < n; u++) {
+                long du = r.dist[u];
+                if (du == Long.MAX_VALUE) continue;
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    scans++;
+                    int v = g.target[a];
+                    long nd = du + g.weight[a];
+                    if (nd >= r.dist[v]) continue;
+                    r.dist[v] = nd; r.parent[v] = u; r.parentEdge[v] = g.edge[a];
+                    relaxed++;
+                    last = v;
+                    l.relaxed(u, v, g.edge[a], nd);
+                }
+            }
+            r.scans += scans; r.relaxations += relaxed;
+            r.endRound(scans, relaxed);
+            l.roundFinished(round, scans, relaxed);
+            if (relaxed == 0) break;                     // early termination: distances are final
+            if (round == n) {                            // still improving after V-1 rounds
+                findCycle(r, last);
+                break;
+            }
+        }
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // SPFA (queue-based Bellman–Ford)
+    // ==========================================================================
+    public static Result spfa(CsrGraph g, int source, Listener listener) {
+        Listener l = listener != null ? listener : SILENT;
+        long t0 = System.nanoTime();
+        int n = g.n;
+        Result r = new Result(n);
+        int[] queue = new int[n];                 // circular, each node queued at most once
+        boolean[] queued = new boolean[n];
+        int[] treeEdges = new int[n];             // edges on the current path from the source
+        int head = 0, size = 0;
+
+        r.dist[source] = 0;
+        queue[0] = source; queued[source] = true; size = 1; r.queuePushes = 1;
+        l.enqueued(source);
+        outer:
+        while (size > 0) {
+            int round = r.rounds + 1, inRound = size;
+            long scans = 0, relaxed = 0;
+            l.roundStarted(round);
+            for (int i = 0; i < inRound; i++) {
+                int u = queue[head];
+                head = head + 1 == n ? 0 : head + 1;
+                size--;
+                queued[u] = false;
+                l.dequeued(u);
+                long du = r.dist[u];
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    scans++;
+                    int v = g.target[a];
+                    long nd = du + g.weight[a];
+                    if (nd >= r.dist[v]) continue;
+                    r.dist[v] = nd; r.parent[v] = u; r.parentEdge[v] = g.edge[a];
+                    treeEdges[v] = treeEdges[u] + 1;
+                    relaxed++;
+                    l.relaxed(u, v, g.edge[a], nd);
+                    if (treeEdges[v] >= n) {
+                        r.scans += scans; r.relaxations += relaxed;
+                        r.endRound(scans, relaxed);
+                        l.roundFinished(round, scans, relaxed);
+                        findCycle(r, v);
+                        break outer;
+                    }
+                    if (!queued[v]) {
+                        queue[(head + size) % n] = v; size++;
+                        queued[v] = true; r.queuePushes++;
+                        l.enqueued(v);
+                    }
+                }
+            }
+            r.scans += scans; r.relaxations += relaxed;
+            r.endRound(scans, relaxed);
+            l.roundFinished(round, scans, relaxed);
+        }
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // NEGATIVE CYCLE EXTRACTION
+    // ==========================================================================
+    /**
+     * Walks predecessor links back from {@code start} until a node repeats;
+     * the loop found that way is a negative cycle. Falls back to scanning
+     * the whole predecessor graph if the walk from {@code start} ends at the
+     * source.
+     */
+    private static void findCycle(Result r, int start) {
+        int n = r.parent.length;
+        int[] stamp = new int[n];
+        int on = -1, mark = 0;
+        for (int i = -1; i < n && on < 0; i++) {
+            int seed = i < 0 ? start : i;
+            if (stamp[seed] != 0) continue;
+            mark++;
+            for (int v = seed; v >= 0; v = r.parent[v]) {
+                if (stamp[v] == mark) { on = v; break; }
+                if (stamp[v] != 0) break;              // joins a chain already known to be acyclic
+                stamp[v] = mark;
+            }
+        }
+        if (on < 0) return;
+
+        int length = 1;
+        for (int v = r.parent[on]; v != on; v = r.parent[v]) length++;
+        int[] cycle = new int[length], edges = new int[length];
+        int v = on;
+        for (int i = length - 1; i >= 0; i--) {       // parent links point backwards
+            cycle[i] = v;
+            edges[(i - 1 + length) % length] = r.parentEdge[v];
+            v = r.parent[v];
+        }
+        r.cycle = cycle;
+        r.cycleEdges = edges;
+    }
+}
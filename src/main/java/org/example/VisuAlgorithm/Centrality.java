@@ -0,0 +1,241 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Betweenness (Brandes) and harmonic closeness centrality over a
+ * {@link CsrGraph}. Every source needs one single-source shortest-path run:
+ * BFS on unweighted graphs, Dijkstra on an {@link IndexedHeap} otherwise.
+ * Brandes' dependency accumulation then walks the settled nodes backwards
+ * and adds each node's share of the shortest paths to its betweenness.
+ * <p>
+ * Sources are handed out from a shared counter to one worker per pool
+ * thread. Each worker owns its scratch arrays and its own betweenness and
+ * closeness accumulators, so the hot loop writes no shared memory; the
+ * accumulators are summed once all sources are done.
+ * <p>
+ * With fewer sources than nodes (see {@link #sampleSources}) both scores
+ * are estimated from uniformly sampled sources and scaled by n/k
+ * (Brandes–Pich). Closeness uses the harmonic form Σ 1/d(s, v), which stays
+ * defined on disconnected graphs and, on directed graphs, measures how
+ * easily v is reached. Both scores are normalized to [0, 1].
+ *
+ * Usage:
+ *   CsrGraph g = CsrGraph.of(data);
+ *   Centrality.Result r = Centrality.run(g, data.isWeighted(), Centrality.allSources(g.n), pool, null);
+ *   double b = r.betweenness[v], c = r.closeness[v];
+ */
+public final class Centrality {
+
+    private Centrality() {}
+
+    public interface Listener {
+        /**
+         * Called from the worker threads (so it must be thread-safe) after
+         * {@code done} of {@code total} sources; return false to cancel the run.
+         */
+        boolean progress(int done, int total);
+    }
+
+    public static final class Result {
+        public final int      n, sources;
+        public final double[] betweenness;
+        public final double[] closeness;
+        public int  threads;
+        public long nanos, arcScans;
+
+        Result(int n, int sources) {
+            this.n = n; this.sources = sources;
+            betweenness = new double[n]; closeness = new double[n];
+        }
+
+        public boolean sampled() { return sources < n; }
+
+        /** Node with the highest score, -1 for an empty graph. */
+        public static int argMax(double[] score) {
+            int best = -1;
+            for (int v = 0; v < score.length; v++) if (best < 0 || score[v] > score[best]) best = v;
+            return best;
+        }
+    }
+
+    public static int[] allSources(int n) {
+        int[] s = new int[n];
+        for (int i = 0; i < n; i++) s[i] = i;
+        return s;
+    }
+
+    /** {@code k} distinct sources drawn uniformly (partial Fisher–Yates); all nodes if {@code k >= n}. */
+    public static int[] sampleSources(int n, int k, long seed) {
+        int[] s = allSources(n);
+        if (k >= n) return s;
+        Random rnd = new Random(seed);
+        for (int i = 0; i < k; i++) {
+            int j = i + rnd.nextInt(n - i);
+            int t = s[i]; s[i] = s[j]; s[j] = t;
+        }
+        int[] picked = new int[k];
+        System.arraycopy(s, 0, picked, 0, k);
+        return picked;
+    }
+
+    /**
+     * @param weighted Dijkstra on {@code g.weight} instead of BFS; weights must be positive
+     * @param pool     runs one worker per thread; {@code null} runs everything on the calling thread
+     */
+    public static Result run(CsrGraph g, boolean weighted, int[] sources, ForkJoinPool pool, Listener listener) {
+        if (weighted)
+            for (int w : g.weight)
+                if (w <= 0) throw new IllegalArgumentException("Weighted centrality needs positive edge weights");
+        long t0 = System.nanoTime();
+        int n = g.n;
+        Result r = new Result(n, sources.length);
+        r.threads = pool == null ? 1 : pool.getParallelism();
+        int workers = Math.max(1, Math.min(r.threads, sources.length));
+        AtomicInteger next = new AtomicInteger(), done = new AtomicInteger();
+        Worker[] tasks = new Worker[workers];
+        for (int i = 0; i < workers; i++) tasks[i] = new Worker(g, weighted, sources, next, done, listener);
+        if (pool == null || workers == 1) {
+            for (Worker w : tasks) w.invoke();
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() { invokeAll(tasks); }
+            });
+        }
+        for (Worker w : tasks) if (w.cancelled) throw new CancellationException();
+
+        // Merge the per-worker accumulators, then normalize.
+        for (Worker w : tasks) {
+            r.arcScans += w.arcScans;
+            for (int v = 0; v < n; v++) { r.betweenness[v] += w.betweenness[v]; r.closeness[v] += w.closeness[v]; }
+        }
+        double scale = sources.length == 0 ? 0 : n / (double) sources.length;
+        double pairs = (n - 1.0) * (n - 2.0);   // ordered pairs; an undirected pair is counted from both ends
+        for (int v = 0; v < n; v++) {
+            r.betweenness[v] = pairs > 0 ? r.betweenness[v] * scale / pairs : 0;
+            r.closeness[v]   = n > 1 ? r.closeness[v] * scale / (n - 1) : 0;
+        }
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // WORKER: single-source shortest paths + dependency accumulation
+    // ==========================================================================
+    @SuppressWarnings("serial")
+    private static final class Worker extends RecursiveAction {
+        final CsrGraph g; final boolean weighted; final int[] sources;
+        final AtomicInteger next, done; final Listener listener;
+        final double[] betweenness, closeness;           // this worker's accumulators
+        final long[]   dist;                             // -1 = not reached from the current source
+        final double[] sigma, delta;
+        final int[]    order;                            // nodes in settle order (a stack for the backward pass)
+        final IndexedHeap heap;
+        long    arcScans;
+        boolean cancelled;
+
+        Worker(CsrGraph g, boolean weighted, int[] sources, AtomicInteger next, AtomicInteger done, Listener listener) {
+            this.g = g; this.weighted = weighted; this.sources = sources;
+            this.next = next; this.done = done; this.listener = listener;
+            int n = g.n;
+            betweenness = new double[n]; closeness = new double[n];
+            dist = new long[n]; sigma = new double[n]; delta = new double[n];
+            order = new int[n];
+            heap = weighted ? new IndexedHeap(n, 4) : null;
+            Arrays.fill(dist, -1);
+        }
+
+        @Override
+        protected void compute() {
+            for (int i; (i = next.getAndIncrement()) < sources.length; ) {
+                if (Thread.currentThread().isInterrupted()) { cancelled = true; return; }
+                int s = sources[i];
+                int settled = weighted ? dijkstra(s) : bfs(s);
+                accumulate(s, settled);
+                int d = done.incrementAndGet();
+                if (listener != null && !listener.progress(d, sources.length)) {
+                    cancelled = true;
+                    next.set(sources.length);                // stops the other workers too
+                    return;
+                }
+            }
+        }
+
+        private int bfs(int s) {
+            int head = 0, tail = 0;
+            dist[s] = 0; sigma[s] = 1;
+            order[tail++] = s;
+            while (head < tail) {
+                int u = order[head++];
+                long du = dist[u];
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    int v = g.target[a];
+                    if (dist[v] < 0) { dist[v] = du + 1; order[tail++] = v; }
+                    if (dist[v] == du + 1) sigma[v] += sigma[u];
+                }
+                arcScans += g.degree(u);
+            }
+            return tail;
+        }
+
+        private int dijkstra(int s) {
+            int settled = 0;
+            dist[s] = 0; sigma[s] = 1;
+            heap.insert(s, 0);
+            while (!heap.isEmpty()) {
+                int u = heap.pollMin();
+                order[settled++] = u;
+                long du = dist[u];
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    int v = g.target[a];
+                    long nd = du + g.weight[a];
+                    if (dist[v] < 0) {
+                        dist[v] = nd; sigma[v] = sigma[u];
+                        heap.insert(v, nd);
+                    } else if (nd < dist[v]) {
+                        dist[v] = nd; sigma[v] = sigma[u];
+                        heap.decreaseKey(v, nd);
+                    } else if (nd == dist[v]) {
+                        sigma[v] += sigma[u];
+                    }
+                }
+                arcScans += g.degree(u);
+            }
+            return settled;
+        }
+
+        /**
+         * Brandes' backward pass in successor form: walking the settled nodes
+         * in reverse, every successor v of w (one shortest step further) is
+         * already final, so δ(w) = Σ σ(w)/σ(v)·(1 + δ(v)). Resets the scratch
+         * entries the run touched.
+         */
+        private void accumulate(int s, int settled) {
+            for (int i = settled - 1; i >= 0; i--) {
+                int w = order[i];
+                long dw = dist[w];
+                double dw1 = 0;
+                for (int a = g.offset[w]; a < g.offset[w + 1]; a++) {
+                    int v = g.target[a];
+                    if (dist[v] == dw + (weighted ? g.weight[a] : 1)) dw1 += (1 + delta[v]) / sigma[v];
+                }
+                arcScans += g.degree(w);
+                delta[w] = sigma[w] * dw1;
+                if (w != s) {
+                    betweenness[w] += delta[w];
+                    closeness[w]   += 1.0 / dw;
+                }
+            }
+            for (int i = 0; i < settled; i++) {
+                int v = order[i];
+                dist[v] = -1; sigma[v] = 0; delta[v] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package org.example.VisuAlgorithm;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Connected components of an undirected graph, three ways:
+ * <ul>
+ *   <li><b>BFS sweep</b> – start a BFS from every node not reached yet;
+ *       one pass over the arcs, sequential,</li>
+ *   <li><b>union-find</b> – one {@link UnionFind#union} per edge over the
+ *       plain edge list, also sequential,</li>
+ *   <li><b>label propagation</b> (Shiloach–Vishkin style) – a parent array
+ *       where every tree is a star at the start of a round. In the hooking
+ *       pass, every edge whose endpoints sit in different stars sets the
+ *       parent of the larger root to the smaller label (an atomic min). Pointer
+ *       jumping ({@code p[v] = p[p[v]]}) then flattens the trees back into
+ *       stars. Both passes run in chunks on a {@link ForkJoinPool}. Labels
+ *       only decrease, and a round without a hook means every edge lies
+ *       inside one star.</li>
+ * </ul>
+ * All three label a node with the smallest node id of its component, so
+ * their results can be compared directly.
+ *
+ * Usage:
+ *   ConnectedComponents.Result r = ConnectedComponents.labelPropagation(n, src, dst, pool, null);
+ *   boolean same = r.label[u] == r.label[v];
+ */
+public final class ConnectedComponents {
+
+    private static final int MIN_CHUNK = 8192;     // edges or nodes per task
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private ConnectedComponents() {}
+
+    public enum Phase { COMPONENT, UNION, HOOK, JUMP }
+
+    public interface Listener {
+        /**
+         * Called on the calling thread after each step: a component found by
+         * the BFS sweep, a union that merged two sets ({@code edge} is the
+         * merging edge, -1 otherwise), or a hooking or pointer-jumping pass.
+         * {@code parent} is the engine's live array and must only be read:
+         * roots point to themselves and -1 marks nodes the sweep has not
+         * reached yet.
+         */
+        void step(Phase phase, int edge, int[] parent);
+    }
+
+    public static final class Result {
+        public final int[] label;            // smallest node id of each node's component
+        public int  components, largest, threads = 1;
+        public int  rounds, jumpPasses;      // label propagation only
+        public long edgeScans, findSteps, hooks, jumps, nanos;
+
+        Result(int n) { label = new int[n]; }
+
+        /** Abstract operation count: edge or arc scans, union-find steps and pointer jumps. */
+        public long work() { return edgeScans + findSteps + jumps; }
+
+        /** Fills {@link #components} and {@link #largest} from {@link #label}. */
+        void count() {
+            int[] size = new int[label.length];
+            for (int l : label) {
+                if (size[l]++ == 0) components++;
+                largest = Math.max(largest, size[l]);
+            }
+        }
+    }
+
+    // ==========================================================================
+    // BFS SWEEP
+    // ==========================================================================
+    /** @param g undirected, as built by {@link CsrGraph#of} (two arcs per edge) */
+    public static Result bfs(CsrGraph g, Listener listener) {
+        long t0 = System.nanoTime();
+        int n = g.n;
+        Result r = new Result(n);
+        int[] label = r.label, queue = new int[n];
+        Arrays.fill(label, -1);
+        for (int s = 0; s < n; s++) {
+            if (label[s] >= 0) continue;
+            int head = 0, tail = 0;
+            label[s] = s;
+            queue[tail++] = s;
+            while (head < tail) {
+                int u = queue[head++];
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    int v = g.target[a];
+                    if (label[v] < 0) { label[v] = s; queue[tail++] = v; }
+                }
+                r.edgeScans += g.degree(u);
+            }
+            if (listener != null) listener.step(Phase.COMPONENT, -1, label);
+        }
+        r.rounds = 1;
+        r.count();
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // UNION-FIND
+    // ==========================================================================
+    public static Result unionFind(int n, int[] src, int[] dst, Listener listener) {
+        long t0 = System.nanoTime();
+        Result r = new Result(n);
+        UnionFind uf = new UnionFind(n);
+        int[] parent = uf.parents();
+        for (int e = 0; e < src.length; e++) {
+            r.edgeScans++;
+            if (uf.union(src[e], dst[e]) && listener != null) listener.step(Phase.UNION, e, parent);
+        }
+        // Name every set by its smallest member: the first member seen in id order.
+        int[] minOf = new int[n];
+        Arrays.fill(minOf, -1);
+        for (int v = 0; v < n; v++) {
+            int root = uf.find(v);
+            if (minOf[root] < 0) minOf[root] = v;
+            r.label[v] = minOf[root];
+        }
+        r.findSteps = uf.findSteps;
+        r.rounds = 1;
+        r.count();
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // LABEL PROPAGATION (hooking + pointer jumping)
+    // ==========================================================================
+    /** @param pool runs the hooking and jumping chunks; {@code null} runs them on the calling thread */
+    public static Result labelPropagation(int n, int[] src, int[] dst, ForkJoinPool pool, Listener listener) {
+        long t0 = System.nanoTime();
+        Result r = new Result(n);
+        r.threads = pool == null ? 1 : pool.getParallelism();
+        int m = src.length;
+        int[] p = r.label;
+        for (int v = 0; v < n; v++) p[v] = v;
+
+        while (true) {
+            r.rounds++;
+            long hooked = runChunks(pool, m, (from, to) -> {
+                long count = 0;
+                for (int e = from; e < to; e++) {
+                    int pu = p[src[e]], pv = p[dst[e]];
+                    if (pu == pv) continue;
+                    if (hook(p, Math.max(pu, pv), Math.min(pu, pv))) count++;
+                }
+                return count;
+            });
+            r.edgeScans += m;
+            r.hooks += hooked;
+            if (listener != null) listener.step(Phase.HOOK, -1, p);
+            if (hooked == 0) break;
+
+            // Jump until every node points at a root, i.e. every tree is a star again.
+            long moved;
+            do {
+                moved = runChunks(pool, n, (from, to) -> {
+                    long count = 0;
+                    for (int v = from; v < to; v++) {
+                        int pv = p[v], ppv = p[pv];
+                        if (pv != ppv) { p[v] = ppv; count++; }
+                    }
+                    return count;
+                });
+                r.jumps += moved;
+                r.jumpPasses++;
+                if (listener != null && moved > 0) listener.step(Phase.JUMP, -1, p);
+            } while (moved > 0);
+        }
+        r.count();
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    /** Atomic min on {@code p[root]}; true if it lowered the parent. */
+    private static boolean hook(int[] p, int root, int label) {
+        int cur = (int) INTS.getVolatile(p, root);
+        while (label < cur) {
+            if (INTS.compareAndSet(p, root, cur, label)) return true;
+            cur = (int) INTS.getVolatile(p, root);
+        }
+        return false;
+    }
+
+    // ==========================================================================
+    // CHUNKED PARALLEL LOOPS
+    // ==========================================================================
+    /** Processes {@code [from, to)} and returns a count to be summed over all chunks. */
+    private interface RangeBody { long run(int from, int to); }
+
+    @SuppressWarnings("serial")
+    private static final class Chunk extends RecursiveAction {
+        final int from, to; final RangeBody body;
+        long result;
+        Chunk(int from, int to, RangeBody body) { this.from = from; this.to = to; this.body = body; }
+        @Override protected void compute() { result = body.run(from, to); }
+    }
+
+    private static long runChunks(ForkJoinPool pool, int work, RangeBody body) {
+        int threads = pool == null ? 1 : pool.getParallelism();
+        int chunks = Math.max(1, Math.min(threads * 4, work / MIN_CHUNK));
+        Chunk[] tasks = new Chunk[chunks];
+        for (int c = 0; c < chunks; c++)
+            tasks[c] = new Chunk((int) ((long) work * c / chunks), (int) ((long) work * (c + 1) / chunks), body);
+        if (pool == null || chunks == 1) {
+            for (Chunk t : tasks) t.compute();
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() { invokeAll(tasks); }
+            });
+        }
+        long sum = 0;
+        for (Chunk t : tasks) sum += t.result;
+        return sum;
+    }
+}
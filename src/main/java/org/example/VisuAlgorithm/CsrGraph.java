@@ -0,0 +1,79 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Compressed sparse row adjacency: the out-arcs of node {@code u} are
+ * {@code target/weight/edge[offset[u] .. offset[u+1])}. Undirected edges are
+ * stored as two arcs that share the same {@code edge} id, which lets callers
+ * map an arc back to the original edge (e.g. to highlight it on the canvas).
+ *
+ * Usage:
+ *   CsrGraph g = CsrGraph.of(n, src, dst, w, directed);
+ *   for (int a = g.offset[u]; a < g.offset[u + 1]; a++) relax(g.target[a], g.weight[a]);
+ */
+public final class CsrGraph {
+
+    public final int   n;
+    public final int[] offset;
+    public final int[] target;
+    public final int[] weight;
+    public final int[] edge;
+
+    private CsrGraph(int n, int[] offset, int[] target, int[] weight, int[] edge) {
+        this.n = n; this.offset = offset; this.target = target; this.weight = weight; this.edge = edge;
+    }
+
+    public int arcCount()          { return target.length; }
+    public int degree(int u)       { return offset[u + 1] - offset[u]; }
+
+    /**
+     * @param directed per-edge direction; {@code null} means every edge is undirected
+     */
+    public static CsrGraph of(int n, int[] src, int[] dst, int[] w, boolean[] directed) {
+        int m = src.length;
+        int[] offset = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            offset[src[e] + 1]++;
+            if (directed == null || !directed[e]) offset[dst[e] + 1]++;
+        }
+        for (int i = 0; i < n; i++) offset[i + 1] += offset[i];
+        int arcs = offset[n];
+        int[] target = new int[arcs], weight = new int[arcs], edge = new int[arcs];
+        int[] fill = new int[n];
+        System.arraycopy(offset, 0, fill, 0, n);
+        for (int e = 0; e < m; e++) {
+            int a = fill[src[e]]++;
+            target[a] = dst[e]; weight[a] = w == null ? 1 : w[e]; edge[a] = e;
+            if (directed == null || !directed[e]) {
+                int b = fill[dst[e]]++;
+                target[b] = src[e]; weight[b] = w == null ? 1 : w[e]; edge[b] = e;
+            }
+        }
+        return new CsrGraph(n, offset, target, weight, edge);
+    }
+
+    /** All edges of {@code g} with its global direction. */
+    public static CsrGraph of(GraphData g) {
+        boolean[] directed = null;
+        if (g.directed) { directed = new boolean[g.edgeCount]; Arrays.fill(directed, true); }
+        return of(g.nodeCount, g.src, g.dst, g.weight, directed);
+    }
+
+    /** The transpose: every arc reversed, keeping its weight and edge id. */
+    public CsrGraph reversed() {
+        int arcs = target.length;
+        int[] off = new int[n + 1];
+        for (int a = 0; a < arcs; a++) off[target[a] + 1]++;
+        for (int i = 0; i < n; i++) off[i + 1] += off[i];
+        int[] tgt = new int[arcs], w = new int[arcs], e = new int[arcs];
+        int[] fill = new int[n];
+        System.arraycopy(off, 0, fill, 0, n);
+        for (int u = 0; u < n; u++)
+            for (int a = offset[u]; a < offset[u + 1]; a++) {
+                int b = fill[target[a]]++;
+                tgt[b] = u; w[b] = weight[a]; e[b] = edge[a];
+            }
+        return new CsrGraph(n, off, tgt, w, e);
+    }
+}
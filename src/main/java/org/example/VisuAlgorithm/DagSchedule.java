@@ -0,0 +1,200 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Scheduling a DAG of jobs. Edges are the tasks, weighted by their
+ * duration, and nodes are the events between them (activity-on-arc, as in
+ * CPM/PERT). A node's event happens once every task entering it has
+ * finished, and only then can the tasks leaving it start.
+ * <ul>
+ *   <li><b>Kahn levels</b> – nodes whose in-degree drops to zero together
+ *       form one "ready" level. Every task leaving a level can run in
+ *       parallel with the others,</li>
+ *   <li><b>critical path</b> – earliest event times are computed forward in
+ *       Kahn order and latest times backward. A task with zero slack is
+ *       critical. The critical length is a lower bound on the makespan for
+ *       any number of workers, and work / length bounds the speedup,</li>
+ *   <li><b>list scheduling</b> – an event-driven simulation on k workers.
+ *       Whenever a worker is free, it takes the ready task with the
+ *       earliest latest start, which favours the critical path. Graham's
+ *       bound guarantees makespan ≤ work / k + length.</li>
+ * </ul>
+ *
+ * Usage:
+ *   DagSchedule.Plan p = DagSchedule.analyze(n, src, dst, duration);
+ *   DagSchedule.Schedule s = DagSchedule.listSchedule(p, 4);
+ *   long makespan = s.makespan;
+ */
+public final class DagSchedule {
+
+    private DagSchedule() {}
+
+    public static final class Plan {
+        public final int    n, m;
+        public final int[]  src, dst, duration;
+        public final int[]  order;          // nodes in Kahn order, level by level
+        public final int[]  levelStart;     // level L is order[levelStart[L] .. levelStart[L + 1])
+        public final int[]  level;          // per node
+        public final long[] earliest, latest;
+        public final long   length, work;
+        final int[] outOffset, outEdge;     // task ids leaving each node
+        final int[] inDegree;
+
+        Plan(int n, int m, int[] src, int[] dst, int[] duration, int[] order, int[] levelStart, int[] level,
+             long[] earliest, long[] latest, long length, long work, int[] outOffset, int[] outEdge, int[] inDegree) {
+            this.n = n; this.m = m; this.src = src; this.dst = dst; this.duration = duration;
+            this.order = order; this.levelStart = levelStart; this.level = level;
+            this.earliest = earliest; this.latest = latest; this.length = length; this.work = work;
+            this.outOffset = outOffset; this.outEdge = outEdge; this.inDegree = inDegree;
+        }
+
+        public int levels() { return levelStart.length - 1; }
+
+        /** How long task {@code e} can slip without delaying the whole DAG. */
+        public long slack(int e) { return latest[dst[e]] - earliest[src[e]] - duration[e]; }
+
+        public boolean critical(int e) { return slack(e) == 0; }
+
+        /** Latest start of task {@code e}; smaller is more urgent. */
+        public long latestStart(int e) { return latest[dst[e]] - duration[e]; }
+
+        /** Speedup no number of workers can beat: total work over the critical length. */
+        public double speedupLimit() { return length == 0 ? 1 : (double) work / length; }
+
+        /** Critical tasks from a source to a sink, in path order; empty if there are no tasks. */
+        public int[] criticalPath() {
+            int[] path = new int[levels()];
+            int size = 0, u = -1;
+            for (int v : order) if (latest[v] == 0 && earliest[v] == 0 && outOffset[v + 1] > outOffset[v]) { u = v; break; }
+            while (u >= 0) {
+                int next = -1;
+                for (int a = outOffset[u]; a < outOffset[u + 1]; a++) {
+                    int e = outEdge[a];
+                    if (critical(e)) { path[size++] = e; next = dst[e]; break; }
+                }
+                u = next;
+            }
+            return Arrays.copyOf(path, size);
+        }
+    }
+
+    public static final class Schedule {
+        public final int    workers;
+        public final int[]  worker;         // per task
+        public final long[] start;          // per task
+        public long makespan, busy;
+        public int  maxRunning;             // most workers ever busy at once
+
+        Schedule(int workers, int m) {
+            this.workers = workers;
+            worker = new int[m]; start = new long[m];
+        }
+
+        public double utilization() { return makespan == 0 ? 1 : busy / ((double) workers * makespan); }
+    }
+
+    /**
+     * Kahn's algorithm by levels followed by the forward and backward CPM passes.
+     *
+     * @param duration per task, non-negative
+     * @throws IllegalArgumentException if the graph has a cycle or a negative duration
+     */
+    public static Plan analyze(int n, int[] src, int[] dst, int[] duration) {
+        int m = src.length;
+        long work = 0;
+        for (int d : duration) {
+            if (d < 0) throw new IllegalArgumentException("Task durations must be non-negative");
+            work += d;
+        }
+        int[] outOffset = new int[n + 1], inDegree = new int[n];
+        for (int e = 0; e < m; e++) { outOffset[src[e] + 1]++; inDegree[dst[e]]++; }
+        for (int v = 0; v < n; v++) outOffset[v + 1] += outOffset[v];
+        int[] outEdge = new int[m], fill = Arrays.copyOf(outOffset, n);
+        for (int e = 0; e < m; e++) outEdge[fill[src[e]]++] = e;
+
+        // Kahn: the frontier of one level is a contiguous run of `order`.
+        int[] order = new int[n], level = new int[n], remaining = inDegree.clone();
+        int[] levelStart = new int[n + 1];
+        int tail = 0, levels = 0;
+        for (int v = 0; v < n; v++) if (remaining[v] == 0) order[tail++] = v;
+        for (int head = 0; head < tail; levels++) {
+            int end = tail;
+            levelStart[levels] = head;
+            for (; head < end; head++) {
+                int u = order[head];
+                level[u] = levels;
+                for (int a = outOffset[u]; a < outOffset[u + 1]; a++) {
+                    int v = dst[outEdge[a]];
+                    if (--remaining[v] == 0) order[tail++] = v;
+                }
+            }
+        }
+        if (tail < n) throw new IllegalArgumentException("The graph has a cycle: " + (n - tail) + " nodes never become ready");
+        levelStart[levels] = n;
+        levelStart = Arrays.copyOf(levelStart, levels + 1);
+
+        // Forward pass in Kahn order, then backward for the latest times.
+        long[] earliest = new long[n], latest = new long[n];
+        long length = 0;
+        for (int u : order) {
+            for (int a = outOffset[u]; a < outOffset[u + 1]; a++) {
+                int e = outEdge[a];
+                earliest[dst[e]] = Math.max(earliest[dst[e]], earliest[u] + duration[e]);
+            }
+            length = Math.max(length, earliest[u]);
+        }
+        Arrays.fill(latest, length);
+        for (int i = n - 1; i >= 0; i--) {
+            int u = order[i];
+            for (int a = outOffset[u]; a < outOffset[u + 1]; a++) {
+                int e = outEdge[a];
+                latest[u] = Math.min(latest[u], latest[dst[e]] - duration[e]);
+            }
+        }
+        return new Plan(n, m, src, dst, duration, order, levelStart, level, earliest, latest, length, work,
+                outOffset, outEdge, inDegree);
+    }
+
+    /** Event-driven list scheduling of the plan's tasks on {@code workers} identical workers. */
+    public static Schedule listSchedule(Plan p, int workers) {
+        if (workers < 1) throw new IllegalArgumentException("Need at least one worker");
+        int n = p.n, m = p.m;
+        Schedule s = new Schedule(workers, m);
+        IndexedHeap ready   = new IndexedHeap(m, 4);      // key: latest start
+        IndexedHeap running = new IndexedHeap(m, 4);      // key: finish time
+        int[] pending = p.inDegree.clone();
+        int[] free = new int[workers];
+        for (int w = 0; w < workers; w++) free[w] = workers - 1 - w;   // worker 0 is handed out first
+        int freeCount = workers;
+
+        for (int v = 0; v < n; v++) if (pending[v] == 0) release(p, v, ready);
+        long time = 0;
+        while (true) {
+            while (freeCount > 0 && !ready.isEmpty()) {
+                int e = ready.pollMin();
+                s.worker[e] = free[--freeCount];
+                s.start[e]  = time;
+                running.insert(e, time + p.duration[e]);
+            }
+            s.maxRunning = Math.max(s.maxRunning, running.size());
+            if (running.isEmpty()) break;
+            time = running.key(running.idAt(0));
+            while (!running.isEmpty() && running.key(running.idAt(0)) == time) {
+                int e = running.pollMin();
+                free[freeCount++] = s.worker[e];
+                s.busy += p.duration[e];
+                if (--pending[p.dst[e]] == 0) release(p, p.dst[e], ready);
+            }
+        }
+        s.makespan = time;
+        return s;
+    }
+
+    private static void release(Plan p, int v, IndexedHeap ready) {
+        for (int a = p.outOffset[v]; a < p.outOffset[v + 1]; a++) {
+            int e = p.outEdge[a];
+            ready.insert(e, p.latestStart(e));
+        }
+    }
+}
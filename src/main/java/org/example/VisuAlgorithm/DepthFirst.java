@@ -0,0 +1,123 @@
+package org.example.VisuAlgorithm;
+
+/**
+ * Depth-first search on a {@link CsrGraph} with an explicit path stack and a
+ * next-arc cursor per node, so the walk visits and finishes nodes in the same
+ * order as the textbook recursion without ever growing the thread stack:
+ * <ul>
+ *   <li><b>from</b> – one DFS tree from a source,</li>
+ *   <li><b>forest</b> – a DFS from every unvisited node in id order; its
+ *       reversed finish order is a topological order of a DAG,</li>
+ *   <li><b>hasCycle</b> – three-colour DFS reading every arc as directed, so
+ *       an undirected edge (two opposite arcs) counts as a cycle.</li>
+ * </ul>
+ * An optional {@link Listener} sees every discovery and finish so the
+ * visualizer can record steps.
+ *
+ * Usage:
+ *   DepthFirst.Result r = DepthFirst.forest(csr, null);
+ *   int[] topo = r.topologicalOrder();
+ *   boolean dag = !DepthFirst.hasCycle(csr);
+ */
+public final class DepthFirst {
+
+    private DepthFirst() {}
+
+    public interface Listener {
+        /** {@code viaEdge} is the tree edge that reached {@code node}, -1 for a DFS root. */
+        default void discovered(int node, int viaEdge) {}
+        /** Every arc out of {@code node} has been tried. */
+        default void finished(int node) {}
+    }
+
+    public static final class Result {
+        public final int[] order;            // nodes in discovery order, first count entries
+        public final int[] finishOrder;      // nodes in finish order, first count entries
+        public int         count;            // nodes reached
+        public int         maxStack;         // deepest DFS path
+        public long        arcScans;
+
+        Result(int n) { order = new int[n]; finishOrder = new int[n]; }
+
+        /** Reversed finish order: every arc points forward in it when the graph is a DAG. */
+        public int[] topologicalOrder() {
+            int[] topo = new int[count];
+            for (int i = 0; i < count; i++) topo[i] = finishOrder[count - 1 - i];
+            return topo;
+        }
+    }
+
+    private static final Listener SILENT = new Listener() {};
+
+    // ==========================================================================
+    // WALKS
+    // ==========================================================================
+    public static Result from(CsrGraph g, int source, Listener listener) {
+        Result r = new Result(g.n);
+        walk(g, source, new boolean[g.n], new int[g.n], new int[g.n], r, listener != null ? listener : SILENT);
+        return r;
+    }
+
+    public static Result forest(CsrGraph g, Listener listener) {
+        Listener  l    = listener != null ? listener : SILENT;
+        Result    r    = new Result(g.n);
+        boolean[] seen = new boolean[g.n];
+        int[]     next = new int[g.n], path = new int[g.n];
+        for (int root = 0; root < g.n; root++)
+            if (!seen[root]) walk(g, root, seen, next, path, r, l);
+        return r;
+    }
+
+    private static void walk(CsrGraph g, int root, boolean[] seen, int[] next, int[] path, Result r, Listener l) {
+        int depth = 0, finished = r.count;              // every earlier tree has finished completely
+        seen[root] = true;
+        next[root] = g.offset[root];
+        path[depth++] = root;
+        r.order[r.count++] = root;
+        r.maxStack = Math.max(r.maxStack, depth);
+        l.discovered(root, -1);
+        while (depth > 0) {
+            int u = path[depth - 1];
+            if (next[u] < g.offset[u + 1]) {
+                int a = next[u]++, v = g.target[a];
+                r.arcScans++;
+                if (seen[v]) continue;
+                seen[v] = true;
+                next[v] = g.offset[v];
+                path[depth++] = v;
+                r.order[r.count++] = v;
+                if (depth > r.maxStack) r.maxStack = depth;
+                l.discovered(v, g.edge[a]);
+                continue;
+            }
+            depth--;
+            r.finishOrder[finished++] = u;
+            l.finished(u);
+        }
+    }
+
+    // ==========================================================================
+    // CYCLE CHECK
+    // ==========================================================================
+    /** True if some arc closes a path back onto a node still being explored (a back arc). */
+    public static boolean hasCycle(CsrGraph g) {
+        int n = g.n;
+        byte[] colour = new byte[n];                     // 0 unseen, 1 on the path, 2 finished
+        int[]  next   = new int[n], path = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (colour[root] != 0) continue;
+            int depth = 0;
+            colour[root] = 1;
+            next[root] = g.offset[root];
+            path[depth++] = root;
+            while (depth > 0) {
+                int u = path[depth - 1];
+                if (next[u] == g.offset[u + 1]) { colour[u] = 2; depth--; continue; }
+                int v = g.target[next[u]++];
+                if (colour[v] == 1) return true;
+                if (colour[v] == 0) { colour[v] = 1; next[v] = g.offset[v]; path[depth++] = v; }
+            }
+        }
+        return false;
+    }
+}
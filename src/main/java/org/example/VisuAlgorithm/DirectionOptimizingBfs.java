@@ -0,0 +1,289 @@
+package org.example.VisuAlgorithm;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Level-synchronous breadth-first search over a {@link CsrGraph} that picks
+ * a direction per level (Beamer's direction-optimizing BFS):
+ * <ul>
+ *   <li><b>top-down</b> – every frontier node scans its out-arcs and claims
+ *       unvisited targets with a CAS on {@code parent},</li>
+ *   <li><b>bottom-up</b> – every unvisited node scans its in-arcs and stops
+ *       at the first one whose source is in the frontier bitset.</li>
+ * </ul>
+ * Top-down is cheap while the frontier is small; once its out-arcs exceed
+ * 1/{@link #ALPHA} of the arcs still pointing at unvisited nodes, bottom-up
+ * examines far fewer arcs. It switches back when the frontier drops below
+ * n/{@link #BETA} nodes. Each level is split into chunks on a
+ * {@link ForkJoinPool}; bottom-up chunks are 64-node aligned so each worker
+ * owns whole words of the next frontier bitset.
+ *
+ * Usage:
+ *   DirectionOptimizingBfs.Result r = DirectionOptimizingBfs.run(csr, null, s, pool, true);
+ *   for (DirectionOptimizingBfs.Level level : r.levels) ... level.bottomUp ...
+ */
+public final class DirectionOptimizingBfs {
+
+    public static final int ALPHA = 14;
+    public static final int BETA  = 24;
+
+    private static final int MIN_CHUNK = 4096;     // frontier nodes or vertices per task
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private DirectionOptimizingBfs() {}
+
+    /** One expansion: the frontier at {@code depth} producing the nodes at {@code depth + 1}. */
+    public static final class Level {
+        public final int     depth, frontier, discovered;
+        public final boolean bottomUp;
+        public final long    edgesExamined, nanos;
+
+        Level(int depth, int frontier, int discovered, boolean bottomUp, long edgesExamined, long nanos) {
+            this.depth = depth; this.frontier = frontier; this.discovered = discovered;
+            this.bottomUp = bottomUp; this.edgesExamined = edgesExamined; this.nanos = nanos;
+        }
+    }
+
+    public static final class Result {
+        public final int[]       depth;          // -1 = unreachable
+        public final int[]       parent;         // source is its own parent, -1 = unreachable
+        public final int[]       parentEdge;     // edge id of the tree arc, -1 for the source / unreachable
+        public final List<Level> levels = new ArrayList<>();
+        public int  reached, threads;
+        public long edgesExamined, nanos;
+
+        Result(int n) {
+            depth = new int[n]; parent = new int[n]; parentEdge = new int[n];
+            Arrays.fill(depth, -1); Arrays.fill(parent, -1); Arrays.fill(parentEdge, -1);
+        }
+
+        public int bottomUpLevels() {
+            int count = 0;
+            for (Level l : levels) if (l.bottomUp) count++;
+            return count;
+        }
+    }
+
+    // ==========================================================================
+    // SEQUENTIAL REFERENCE (plain FIFO queue)
+    // ==========================================================================
+    public static Result sequential(CsrGraph g, int source) {
+        long t0 = System.nanoTime();
+        Result r = new Result(g.n);
+        r.threads = 1;
+        int[] queue = new int[g.n];
+        int head = 0, tail = 0;
+        queue[tail++] = source;
+        r.depth[source] = 0; r.parent[source] = source;
+        while (head < tail) {
+            int levelEnd = tail, frontier = tail - head, d = r.depth[queue[head]];
+            long edges = 0, l0 = System.nanoTime();
+            while (head < levelEnd) {
+                int u = queue[head++];
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    edges++;
+                    int v = g.target[a];
+                    if (r.parent[v] >= 0) continue;
+                    r.parent[v] = u; r.parentEdge[v] = g.edge[a]; r.depth[v] = d + 1;
+                    queue[tail++] = v;
+                }
+            }
+            r.edgesExamined += edges;
+            r.levels.add(new Level(d, frontier, tail - levelEnd, false, edges, System.nanoTime() - l0));
+        }
+        r.reached = tail;
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // PARALLEL LEVEL-SYNCHRONOUS
+    // ==========================================================================
+    /**
+     * @param in   incoming arcs for the bottom-up step ({@code g.reversed()});
+     *             {@code null} builds it on demand
+     * @param pool runs the chunks of each level; {@code null} runs them on the calling thread
+     * @param directionOptimizing false forces top-down on every level
+     */
+    public static Result run(CsrGraph g, CsrGraph in, int source, ForkJoinPool pool, boolean directionOptimizing) {
+        long t0 = System.nanoTime();
+        int n = g.n;
+        Result r = new Result(n);
+        r.threads = pool == null ? 1 : pool.getParallelism();
+        if (in == null && directionOptimizing) in = g.reversed();
+        int words = (n + 63) >>> 6;
+
+        int[] frontier = { source };
+        int frontierSize = 1;
+        long[] frontierBits = null;                      // only while bottom-up
+        boolean bottomUp = false;
+        long frontierArcs = g.degree(source);
+        long unvisitedArcs = in != null ? in.arcCount() - in.degree(source) : 0;
+        r.depth[source] = 0; r.parent[source] = source;
+        r.reached = 1;
+
+        for (int d = 0; frontierSize > 0; d++) {
+            long l0 = System.nanoTime();
+            if (directionOptimizing) {
+                if (!bottomUp && frontierArcs > unvisitedArcs / ALPHA) {
+                    bottomUp = true;
+                    frontierBits = new long[words];
+                    for (int i = 0; i < frontierSize; i++) frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+                } else if (bottomUp && frontierSize < n / BETA) {
+                    bottomUp = false;
+                    frontier = toList(frontierBits, frontierSize);
+                }
+            }
+
+            long examined, nextArcs, nextInArcs;
+            int discovered;
+            if (bottomUp) {
+                BottomUp[] tasks = bottomUpTasks(g, in, r, frontierBits, d, words, r.threads);
+                runAll(pool, tasks);
+                long[] next = new long[words];
+                examined = 0; nextArcs = 0; nextInArcs = 0; discovered = 0;
+                for (BottomUp t : tasks) {
+                    examined += t.examined; nextArcs += t.nextArcs; nextInArcs += t.nextInArcs; discovered += t.found;
+                    System.arraycopy(t.next, 0, next, t.wordFrom, t.next.length);
+                }
+                frontierBits = next;
+            } else {
+                TopDown[] tasks = topDownTasks(g, r, frontier, frontierSize, d, r.threads);
+                runAll(pool, tasks);
+                examined = 0; nextArcs = 0; nextInArcs = 0; discovered = 0;
+                for (TopDown t : tasks) { examined += t.examined; discovered += t.size; }
+                int[] next = new int[discovered];
+                int at = 0;
+                for (TopDown t : tasks) { System.arraycopy(t.found, 0, next, at, t.size); at += t.size; }
+                for (int v : next) {
+                    nextArcs += g.degree(v);
+                    if (in != null) nextInArcs += in.degree(v);
+                }
+                frontier = next;
+            }
+            r.levels.add(new Level(d, frontierSize, discovered, bottomUp, examined, System.nanoTime() - l0));
+            r.edgesExamined += examined;
+            r.reached += discovered;
+            frontierSize = discovered;
+            frontierArcs = nextArcs;
+            unvisitedArcs -= nextInArcs;
+        }
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    private static int[] toList(long[] bits, int size) {
+        int[] list = new int[size];
+        int at = 0;
+        for (int w = 0; w < bits.length; w++)
+            for (long word = bits[w]; word != 0; word &= word - 1)
+                list[at++] = (w << 6) + Long.numberOfTrailingZeros(word);
+        return list;
+    }
+
+    private static void runAll(ForkJoinPool pool, RecursiveAction[] tasks) {
+        if (pool == null || tasks.length == 1) {
+            for (RecursiveAction t : tasks) t.invoke();
+            return;
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() { invokeAll(tasks); }
+        });
+    }
+
+    private static int chunkCount(long work, int threads) {
+        return (int) Math.max(1, Math.min(threads * 4L, work / MIN_CHUNK));
+    }
+
+    // ==========================================================================
+    // TOP-DOWN STEP
+    // ==========================================================================
+    private static TopDown[] topDownTasks(CsrGraph g, Result r, int[] frontier, int size, int d, int threads) {
+        int chunks = chunkCount(size, threads);
+        TopDown[] tasks = new TopDown[chunks];
+        for (int c = 0; c < chunks; c++)
+            tasks[c] = new TopDown(g, r, frontier, (int) ((long) size * c / chunks), (int) ((long) size * (c + 1) / chunks), d);
+        return tasks;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class TopDown extends RecursiveAction {
+        final CsrGraph g; final Result r; final int[] frontier; final int from, to, d;
+        int[]  found = new int[16];
+        int    size;
+        long   examined;
+
+        TopDown(CsrGraph g, Result r, int[] frontier, int from, int to, int d) {
+            this.g = g; this.r = r; this.frontier = frontier; this.from = from; this.to = to; this.d = d;
+        }
+
+        @Override
+        protected void compute() {
+            int[] parent = r.parent;
+            for (int i = from; i < to; i++) {
+                int u = frontier[i];
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    examined++;
+                    int v = g.target[a];
+                    if (parent[v] >= 0 || !INTS.compareAndSet(parent, v, -1, u)) continue;
+                    r.parentEdge[v] = g.edge[a];
+                    r.depth[v] = d + 1;
+                    if (size == found.length) found = Arrays.copyOf(found, size * 2);
+                    found[size++] = v;
+                }
+            }
+        }
+    }
+
+    // ==========================================================================
+    // BOTTOM-UP STEP
+    // ==========================================================================
+    private static BottomUp[] bottomUpTasks(CsrGraph g, CsrGraph in, Result r, long[] frontier, int d, int words, int threads) {
+        int chunks = Math.min(words, chunkCount(g.n, threads));
+        BottomUp[] tasks = new BottomUp[chunks];
+        for (int c = 0; c < chunks; c++)
+            tasks[c] = new BottomUp(g, in, r, frontier, (int) ((long) words * c / chunks), (int) ((long) words * (c + 1) / chunks), d);
+        return tasks;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class BottomUp extends RecursiveAction {
+        final CsrGraph g, in; final Result r; final long[] frontier; final int wordFrom, wordTo, d;
+        final long[] next;
+        int  found;
+        long examined, nextArcs, nextInArcs;
+
+        BottomUp(CsrGraph g, CsrGraph in, Result r, long[] frontier, int wordFrom, int wordTo, int d) {
+            this.g = g; this.in = in; this.r = r; this.frontier = frontier;
+            this.wordFrom = wordFrom; this.wordTo = wordTo; this.d = d;
+            this.next = new long[wordTo - wordFrom];
+        }
+
+        @Override
+        protected void compute() {
+            int[] parent = r.parent;
+            int end = Math.min(g.n, wordTo << 6);
+            for (int v = wordFrom << 6; v < end; v++) {
+                if (parent[v] >= 0) continue;
+                for (int a = in.offset[v]; a < in.offset[v + 1]; a++) {
+                    examined++;
+                    int u = in.target[a];
+                    if ((frontier[u >>> 6] & 1L << u) == 0) continue;
+                    parent[v] = u; r.parentEdge[v] = in.edge[a]; r.depth[v] = d + 1;
+                    next[(v >>> 6) - wordFrom] |= 1L << v;
+                    found++;
+                    nextArcs += g.degree(v);
+                    nextInArcs += in.degree(v);
+                    break;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Single-source shortest paths that stay valid while edges change
+ * (Ramalingam–Reps style dynamic Dijkstra). The distance and parent-edge
+ * tree survive every edit, and only the nodes the edit can affect are
+ * recomputed:
+ * <ul>
+ *   <li><b>decrease / insert</b> – if the edge now offers a shorter path to
+ *       one endpoint, that node is pushed and Dijkstra spreads the strict
+ *       improvements; nodes that do not improve are never touched,</li>
+ *   <li><b>increase / delete</b> – a non-tree edge changes nothing. For a
+ *       tree edge, the subtree below it loses its distances. Each subtree
+ *       node is re-seeded from its cheapest in-arc from outside the
+ *       subtree, and Dijkstra runs over the subtree only.</li>
+ * </ul>
+ * Weights must be non-negative. Self-loops are kept as edges but never
+ * lie on a shortest path.
+ *
+ * Usage:
+ *   DynamicShortestPaths sp = new DynamicShortestPaths(n, source);
+ *   int e = sp.addEdge(u, v, 5, true);
+ *   sp.computeAll(null);
+ *   DynamicShortestPaths.Stats s = sp.setWeight(e, 9, listener);
+ *   long d = sp.dist(v);
+ */
+public final class DynamicShortestPaths {
+
+    public static final long INF = Long.MAX_VALUE;
+
+    public interface Listener {
+        /** The first {@code count} entries of {@code nodes} lost their path and are reset to {@link #INF}. */
+        void invalidated(int[] nodes, int count);
+        /** {@code v} got its final distance in this run; {@code parentEdge} is -1 for the source. */
+        void settled(int v, long dist, int parentEdge);
+    }
+
+    /** Work done by one full run or one repair. */
+    public static final class Stats {
+        public int  invalidated, settled, touched, mismatches;
+        public long arcScans, nanos;
+    }
+
+    private final int n, source;
+    private final long[] dist;
+    private final int[]  parentEdge;
+    private final IndexedHeap heap;
+
+    private int[] from = new int[16], to = new int[16], weight = new int[16];
+    private boolean[] directed = new boolean[16], alive = new boolean[16];
+    private int edgeCount;
+    private final int[][] out, in;          // per node: ids of the edges that can be left / entered there
+    private final int[]   outSize, inSize;
+
+    private final int[] stamp;              // touched-node counting, one epoch per run
+    private int epoch;
+    private final int[]     subtree;
+    private final boolean[] inSubtree;
+
+    public DynamicShortestPaths(int n, int source) {
+        this.n = n; this.source = source;
+        dist = new long[n]; parentEdge = new int[n];
+        heap = new IndexedHeap(n, 4);
+        out = new int[n][]; in = new int[n][];
+        outSize = new int[n]; inSize = new int[n];
+        for (int v = 0; v < n; v++) { out[v] = new int[2]; in[v] = new int[2]; }
+        stamp = new int[n]; subtree = new int[n]; inSubtree = new boolean[n];
+        Arrays.fill(dist, INF);
+        Arrays.fill(parentEdge, -1);
+    }
+
+    public int  nodeCount()          { return n; }
+    public int  source()             { return source; }
+    public long dist(int v)          { return dist[v]; }
+    public int  parentEdge(int v)    { return parentEdge[v]; }
+    public int  weight(int e)        { return weight[e]; }
+    public boolean isAlive(int e)    { return e < edgeCount && alive[e]; }
+
+    /** Endpoint of {@code e} other than {@code v}. */
+    public int other(int e, int v) { return from[e] == v ? to[e] : from[e]; }
+
+    /** Adds an edge without repairing (for building the initial graph); returns its id. */
+    public int addEdge(int u, int v, int w, boolean isDirected) {
+        if (w < 0) throw new IllegalArgumentException("Weights must be non-negative");
+        if (edgeCount == from.length) {
+            int cap = edgeCount * 2;
+            from = Arrays.copyOf(from, cap); to = Arrays.copyOf(to, cap); weight = Arrays.copyOf(weight, cap);
+            directed = Arrays.copyOf(directed, cap); alive = Arrays.copyOf(alive, cap);
+        }
+        int e = edgeCount++;
+        from[e] = u; to[e] = v; weight[e] = w; directed[e] = isDirected; alive[e] = true;
+        if (u != v) {
+            link(out, outSize, u, e); link(in, inSize, v, e);
+            if (!isDirected) { link(out, outSize, v, e); link(in, inSize, u, e); }
+        }
+        return e;
+    }
+
+    // ==========================================================================
+    // FULL RUN
+    // ==========================================================================
+    public Stats computeAll(Listener listener) {
+        long t0 = System.nanoTime();
+        Stats s = new Stats();
+        epoch++;
+        Arrays.fill(dist, INF);
+        Arrays.fill(parentEdge, -1);
+        if (n > 0) { dist[source] = 0; heap.insert(source, 0); touch(source, s); }
+        propagate(s, listener);
+        s.nanos = System.nanoTime() - t0;
+        return s;
+    }
+
+    /**
+     * What a from-scratch Dijkstra on the current graph costs, run on scratch
+     * arrays so the maintained tree is left alone; {@code mismatches} counts
+     * nodes whose maintained distance disagrees with it.
+     */
+    public Stats recomputeFromScratch() {
+        long t0 = System.nanoTime();
+        Stats s = new Stats();
+        long[] d = new long[n];
+        Arrays.fill(d, INF);
+        IndexedHeap h = new IndexedHeap(n, 4);
+        if (n > 0) { d[source] = 0; h.insert(source, 0); }
+        while (!h.isEmpty()) {
+            int u = h.pollMin();
+            s.settled++;
+            for (int i = 0; i < outSize[u]; i++) {
+                int e = out[u][i], v = other(e, u);
+                s.arcScans++;
+                long nd = d[u] + weight[e];
+                if (nd >= d[v]) continue;
+                if (d[v] == INF) h.insert(v, nd); else h.decreaseKey(v, nd);
+                d[v] = nd;
+            }
+        }
+        s.touched = s.settled;
+        for (int v = 0; v < n; v++) if (d[v] != dist[v]) s.mismatches++;
+        s.nanos = System.nanoTime() - t0;
+        return s;
+    }
+
+    // ==========================================================================
+    // EDITS
+    // ==========================================================================
+    public Stats setWeight(int e, int w, Listener listener) {
+        if (w < 0) throw new IllegalArgumentException("Weights must be non-negative");
+        int old = weight[e];
+        if (w < old) { weight[e] = w; return improveAcross(e, listener); }
+        if (w > old) {
+            int child = treeChild(e);
+            weight[e] = w;
+            return child < 0 ? new Stats() : repairSubtree(child, listener);
+        }
+        return new Stats();
+    }
+
+    public Stats insertEdge(int u, int v, int w, boolean isDirected, Listener listener, int[] idOut) {
+        int e = addEdge(u, v, w, isDirected);
+        if (idOut != null) idOut[0] = e;
+        return improveAcross(e, listener);
+    }
+
+    public Stats deleteEdge(int e, Listener listener) {
+        int child = treeChild(e);
+        alive[e] = false;
+        int u = from[e], v = to[e];
+        if (u != v) {
+            unlink(out, outSize, u, e); unlink(in, inSize, v, e);
+            if (!directed[e]) { unlink(out, outSize, v, e); unlink(in, inSize, u, e); }
+        }
+        return child < 0 ? new Stats() : repairSubtree(child, listener);
+    }
+
+    /** The endpoint whose tree parent arc is {@code e}, or -1 if {@code e} is not in the tree. */
+    public int treeChild(int e) {
+        if (from[e] == to[e]) return -1;
+        if (parentEdge[to[e]] == e) return to[e];
+        if (!directed[e] && parentEdge[from[e]] == e) return from[e];
+        return -1;
+    }
+
+    /** Decrease / insert: seed the endpoints the edge now reaches more cheaply, then spread the improvement. */
+    private Stats improveAcross(int e, Listener listener) {
+        long t0 = System.nanoTime();
+        Stats s = new Stats();
+        epoch++;
+        offer(from[e], to[e], e, s);
+        if (!directed[e]) offer(to[e], from[e], e, s);
+        propagate(s, listener);
+        s.nanos = System.nanoTime() - t0;
+        return s;
+    }
+
+    private void offer(int u, int v, int e, Stats s) {
+        if (u == v || dist[u] == INF) return;
+        long nd = dist[u] + weight[e];
+        if (nd >= dist[v]) return;
+        touch(v, s);
+        if (heap.contains(v)) heap.decreaseKey(v, nd); else heap.insert(v, nd);
+        dist[v] = nd; parentEdge[v] = e;
+    }
+
+    /** Increase / delete of the tree arc into {@code root}: invalidate its subtree, re-seed it from outside, rerun Dijkstra on it. */
+    private Stats repairSubtree(int root, Listener listener) {
+        long t0 = System.nanoTime();
+        Stats s = new Stats();
+        epoch++;
+        int size = 0;
+        subtree[size++] = root; inSubtree[root] = true;
+        for (int i = 0; i < size; i++) {
+            int u = subtree[i];
+            for (int k = 0; k < outSize[u]; k++) {
+                int e = out[u][k], v = other(e, u);
+                s.arcScans++;
+                if (!inSubtree[v] && parentEdge[v] == e) { inSubtree[v] = true; subtree[size++] = v; }
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            int v = subtree[i];
+            dist[v] = INF; parentEdge[v] = -1;
+            touch(v, s);
+        }
+        s.invalidated = size;
+        if (listener != null) listener.invalidated(subtree, size);
+
+        for (int i = 0; i < size; i++) {
+            int v = subtree[i];
+            long best = INF; int bestEdge = -1;
+            for (int k = 0; k < inSize[v]; k++) {
+                int e = in[v][k], u = other(e, v);
+                s.arcScans++;
+                if (inSubtree[u] || dist[u] == INF) continue;
+                long nd = dist[u] + weight[e];
+                if (nd < best) { best = nd; bestEdge = e; }
+            }
+            if (bestEdge >= 0) { dist[v] = best; parentEdge[v] = bestEdge; heap.insert(v, best); }
+        }
+        for (int i = 0; i < size; i++) inSubtree[subtree[i]] = false;
+        propagate(s, listener);
+        s.nanos = System.nanoTime() - t0;
+        return s;
+    }
+
+    /** Dijkstra from the nodes already in the heap; only strict improvements are pushed. */
+    private void propagate(Stats s, Listener listener) {
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            s.settled++;
+            if (listener != null) listener.settled(u, dist[u], parentEdge[u]);
+            for (int i = 0; i < outSize[u]; i++) {
+                int e = out[u][i], v = other(e, u);
+                s.arcScans++;
+                long nd = dist[u] + weight[e];
+                if (nd >= dist[v]) continue;
+                touch(v, s);
+                if (heap.contains(v)) heap.decreaseKey(v, nd); else heap.insert(v, nd);
+                dist[v] = nd; parentEdge[v] = e;
+            }
+        }
+    }
+
+    private void touch(int v, Stats s) {
+        if (stamp[v] == epoch) return;
+        stamp[v] = epoch;
+        s.touched++;
+    }
+
+    private static void link(int[][] lists, int[] sizes, int v, int e) {
+        if (sizes[v] == lists[v].length) lists[v] = Arrays.copyOf(lists[v], sizes[v] * 2);
+        lists[v][sizes[v]++] = e;
+    }
+
+    private static void unlink(int[][] lists, int[] sizes, int v, int e) {
+        int[] list = lists[v];
+        for (int i = 0; i < sizes[v]; i++)
+            if (list[i] == e) { list[i] = list[--sizes[v]]; return; }
+    }
+}
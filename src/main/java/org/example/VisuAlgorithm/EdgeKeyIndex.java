@@ -0,0 +1,49 @@
+package org.example.VisuAlgorithm;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Sparse (from, to) → edge map over integer node ids packed into one long key.
+ * Backs duplicate-edge checks and the adjacency matrix view, which asks for a
+ * single cell at a time, so a 10k-node graph never needs a dense n × n table.
+ * An undirected edge is stored once, under the orientation it was drawn in;
+ * {@link #find} also tries the reverse key for those.
+ *
+ * Usage:
+ *   EdgeKeyIndex<GraphEdge> idx = new EdgeKeyIndex<>(e -> e.isDirected);
+ *   idx.put(u.id, v.id, edge);
+ *   GraphEdge e = idx.find(u.id, v.id);   // null if no edge leads from u to v
+ *   idx.remove(u.id, v.id, edge);
+ */
+public final class EdgeKeyIndex<E> {
+
+    private final Map<Long, E>  byKey = new HashMap<>();
+    private final Predicate<E>  directed;
+
+    public EdgeKeyIndex(Predicate<E> directed) { this.directed = directed; }
+
+    public static long key(int from, int to) { return ((long) from << 32) | (to & 0xffffffffL); }
+
+    public int  size()  { return byKey.size(); }
+    public void clear() { byKey.clear(); }
+
+    /** The edge stored under exactly this orientation, or null. */
+    public E get(int from, int to) { return byKey.get(key(from, to)); }
+
+    public boolean contains(int from, int to) { return byKey.containsKey(key(from, to)); }
+
+    public void put(int from, int to, E edge) { byKey.put(key(from, to), edge); }
+
+    /** Removes the mapping only if it still points at {@code edge}. */
+    public boolean remove(int from, int to, E edge) { return byKey.remove(key(from, to), edge); }
+
+    /** Edge usable from {@code u} to {@code v}, honouring undirected edges stored the other way round. */
+    public E find(int u, int v) {
+        E e = byKey.get(key(u, v));
+        if (e != null) return e;
+        e = byKey.get(key(v, u));
+        return e != null && !directed.test(e) ? e : null;
+    }
+}
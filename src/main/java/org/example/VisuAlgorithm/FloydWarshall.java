@@ -0,0 +1,233 @@
+package org.example.VisuAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * All-pairs shortest paths on a flat row-major {@code int[n * n]} distance
+ * matrix, in two flavours:
+ * <ul>
+ *   <li><b>sequential</b> – the textbook k-i-j triple loop,</li>
+ *   <li><b>blocked</b> – the matrix is cut into {@link #BLOCK}×{@link #BLOCK}
+ *       tiles (16 KB each, so three fit in L1/L2). For every diagonal tile
+ *       k it runs three phases: the diagonal tile itself, then the tiles in
+ *       row k and column k, then every remaining tile. Tiles inside phases
+ *       two and three are independent and run on a {@link ForkJoinPool}.</li>
+ * </ul>
+ * Unreachable pairs hold {@link #INF}, which is small enough that adding
+ * two entries never overflows. Negative weights are allowed; a negative
+ * diagonal entry means a negative cycle, and the run stops at the end of
+ * the block in which it appears.
+ *
+ * Usage:
+ *   int[] d = FloydWarshall.matrix(csr);
+ *   FloydWarshall.Result r = FloydWarshall.blocked(d, csr.n, pool, null);
+ *   if (FloydWarshall.reachable(d[i * n + j])) ...
+ */
+public final class FloydWarshall {
+
+    public static final int INF       = Integer.MAX_VALUE / 2;
+    public static final int BLOCK     = 64;
+    public static final int MAX_NODES = 5000;         // 100 MB matrix, ~10^11 relaxations
+
+    private FloydWarshall() {}
+
+    public interface Listener {
+        /**
+         * Called on the computing thread after the first {@code k} nodes have
+         * been allowed as intermediates; {@code dist} is consistent and must
+         * only be read.
+         */
+        void progress(int[] dist, int n, int k);
+    }
+
+    public static final class Result {
+        public final int  n;
+        public int        threads, block;
+        public long       nanos, relaxations;
+        public int        negativeCycleNode = -1;     // a node whose diagonal entry went negative
+
+        Result(int n) { this.n = n; }
+
+        public boolean hasNegativeCycle() { return negativeCycleNode >= 0; }
+    }
+
+    /** Entries at or above this are unreachable, even after negative arcs nudged them down from {@link #INF}. */
+    public static boolean reachable(int d) { return d < INF / 2; }
+
+    /** Dense matrix from {@code g}: 0 on the diagonal, the cheapest parallel arc elsewhere, {@link #INF} if none. */
+    public static int[] matrix(CsrGraph g) {
+        int n = g.n;
+        if (n > MAX_NODES)
+            throw new IllegalArgumentException(String.format("All-pairs matrix limited to %,d nodes (graph has %,d)", MAX_NODES, n));
+        int[] d = new int[n * n];
+        Arrays.fill(d, INF);
+        int cap = INF / (2 * Math.max(1, n));              // keeps every simple path sum below INF / 2
+        for (int u = 0; u < n; u++) {
+            int row = u * n;
+            d[row + u] = 0;
+            for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                int v = g.target[a], w = Math.max(-cap, Math.min(cap, g.weight[a]));
+                if (w < d[row + v]) d[row + v] = w;
+            }
+        }
+        return d;
+    }
+
+    // ==========================================================================
+    // SEQUENTIAL (k-i-j)
+    // ==========================================================================
+    public static Result sequential(int[] d, int n, Listener listener) {
+        long t0 = System.nanoTime();
+        Result r = new Result(n);
+        r.threads = 1;
+        boolean clamp = hasNegative(d);
+        for (int k0 = 0; k0 < n; k0 += BLOCK) {
+            int k1 = Math.min(n, k0 + BLOCK);
+            relax(d, n, k0, k1, 0, n, 0, n, clamp);
+            r.relaxations += (long) (k1 - k0) * n * n;
+            if (finishBlock(d, n, k0, k1, r, listener)) break;
+        }
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // BLOCKED (three phases per diagonal tile)
+    // ==========================================================================
+    /**
+     * @param pool runs the independent tiles of phases two and three;
+     *             {@code null} processes them on the calling thread
+     */
+    public static Result blocked(int[] d, int n, ForkJoinPool pool, Listener listener) {
+        long t0 = System.nanoTime();
+        Result r = new Result(n);
+        r.threads = pool == null ? 1 : pool.getParallelism();
+        r.block = BLOCK;
+        boolean clamp = hasNegative(d);
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        List<RecursiveAction> tasks = new ArrayList<>(blocks);
+
+        for (int kb = 0; kb < blocks; kb++) {
+            int k0 = kb * BLOCK, k1 = Math.min(n, k0 + BLOCK);
+
+            // Phase 1: the diagonal tile depends only on itself.
+            relax(d, n, k0, k1, k0, k1, k0, k1, clamp);
+
+            // Phase 2: row kb and column kb tiles each need only the diagonal tile.
+            tasks.clear();
+            for (int b = 0; b < blocks; b++) {
+                if (b == kb) continue;
+                int b0 = b * BLOCK, b1 = Math.min(n, b0 + BLOCK);
+                tasks.add(tileTask(d, n, k0, k1, k0, k1, b0, b1, clamp));
+                tasks.add(tileTask(d, n, k0, k1, b0, b1, k0, k1, clamp));
+            }
+            run(pool, tasks);
+
+            // Phase 3: every other tile reads one finished row tile and one column tile.
+            // One task per tile row keeps the task count at O(blocks); each sweeps
+            // its rows left and right of column block k in long vectorizable runs.
+            tasks.clear();
+            for (int ib = 0; ib < blocks; ib++) {
+                if (ib == kb) continue;
+                int i0 = ib * BLOCK, i1 = Math.min(n, i0 + BLOCK), skip = kb;
+                tasks.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        relaxRows(d, n, k0, k1, i0, i1, 0, k0, clamp);
+                        relaxRows(d, n, k0, k1, i0, i1, k1, n, clamp);
+                    }
+                });
+            }
+            run(pool, tasks);
+
+            r.relaxations += (long) (k1 - k0) * n * n;
+            if (finishBlock(d, n, k0, k1, r, listener)) break;
+        }
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    private static RecursiveAction tileTask(int[] d, int n, int k0, int k1, int i0, int i1, int j0, int j1, boolean clamp) {
+        return new RecursiveAction() {
+            @Override
+            protected void compute() { relax(d, n, k0, k1, i0, i1, j0, j1, clamp); }
+        };
+    }
+
+    private static void run(ForkJoinPool pool, List<RecursiveAction> tasks) {
+        if (tasks.isEmpty()) return;
+        if (pool == null) {
+            for (RecursiveAction t : tasks) t.invoke();
+            return;
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() { invokeAll(tasks); }
+        });
+    }
+
+    // ==========================================================================
+    // KERNEL
+    // ==========================================================================
+    /**
+     * Relaxes rows {@code [i0, i1)} × columns {@code [j0, j1)} through the
+     * intermediates {@code [k0, k1)}. The inner loop is a plain min over two
+     * int rows, which the JIT vectorizes. With negative weights present,
+     * values are clamped at {@code -INF} so a negative cycle cannot wrap
+     * around before it is detected.
+     */
+    static void relax(int[] d, int n, int k0, int k1, int i0, int i1, int j0, int j1, boolean clamp) {
+        for (int k = k0; k < k1; k++) {
+            int rowK = k * n;
+            for (int i = i0; i < i1; i++) {
+                int rowI = i * n, dik = d[rowI + k];
+                if (!reachable(dik)) continue;               // whole row segment unchanged
+                if (clamp) {
+                    for (int j = j0; j < j1; j++)
+                        d[rowI + j] = Math.max(-INF, Math.min(d[rowI + j], dik + d[rowK + j]));
+                } else {
+                    for (int j = j0; j < j1; j++)
+                        d[rowI + j] = Math.min(d[rowI + j], dik + d[rowK + j]);
+                }
+            }
+        }
+    }
+
+    /** {@link #relax} in i-k-j order for phase three, where every {@code d[i][k]} is already final. */
+    static void relaxRows(int[] d, int n, int k0, int k1, int i0, int i1, int j0, int j1, boolean clamp) {
+        if (j0 >= j1) return;
+        for (int i = i0; i < i1; i++) {
+            int rowI = i * n;
+            for (int k = k0; k < k1; k++) {
+                int rowK = k * n, dik = d[rowI + k];
+                if (!reachable(dik)) continue;
+                if (clamp) {
+                    for (int j = j0; j < j1; j++)
+                        d[rowI + j] = Math.max(-INF, Math.min(d[rowI + j], dik + d[rowK + j]));
+                } else {
+                    for (int j = j0; j < j1; j++)
+                        d[rowI + j] = Math.min(d[rowI + j], dik + d[rowK + j]);
+                }
+            }
+        }
+    }
+
+    private static boolean hasNegative(int[] d) {
+        for (int v : d) if (v < 0) return true;
+        return false;
+    }
+
+    /** Reports progress, checks for cancellation and negative cycles; true when the run should stop. */
+    private static boolean finishBlock(int[] d, int n, int k0, int k1, Result r, Listener listener) {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+        for (int i = 0; i < n; i++)
+            if (d[i * n + i] < 0) { r.negativeCycleNode = i; break; }
+        if (listener != null) listener.progress(d, n, k1);
+        return r.hasNegativeCycle();
+    }
+}
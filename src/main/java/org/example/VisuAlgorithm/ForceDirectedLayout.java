@@ -0,0 +1,347 @@
+package org.example.VisuAlgorithm;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Fruchterman–Reingold force-directed layout with a Barnes–Hut quadtree.
+ * Repulsion is approximated in O(n log n) per iteration and both force passes
+ * are split across a worker pool. Iterations run on a background thread; the
+ * UI polls {@link #pollFrame()} once per pulse and only ever sees the newest
+ * published positions, so rendering stays at display rate however fast the
+ * solver runs.
+ *
+ * Usage:
+ *   ForceDirectedLayout l = new ForceDirectedLayout(x, y, src, dst, width, height);
+ *   l.start();
+ *   Frame f = l.pollFrame();   // from an AnimationTimer, null if nothing new
+ *   l.pin(i, px, py);          // e.g. while the user drags node i
+ *   l.pause(); l.resume(); l.stop();
+ */
+public class ForceDirectedLayout {
+
+    // ── Published state ────────────────────────────────────────────────────────
+    public static final class Frame {
+        public final double[] x, y;
+        public final int      iteration;
+        public final double   maxDisplacement;
+        public final double   energy;
+        public final double   iterationsPerSecond;
+        public final boolean  converged;
+
+        Frame(double[] x, double[] y, int iteration, double maxDisplacement,
+              double energy, double iterationsPerSecond, boolean converged) {
+            this.x = x; this.y = y; this.iteration = iteration;
+            this.maxDisplacement = maxDisplacement; this.energy = energy;
+            this.iterationsPerSecond = iterationsPerSecond; this.converged = converged;
+        }
+    }
+
+    // ── Tuning ─────────────────────────────────────────────────────────────────
+    private static final double THETA            = 0.8;   // Barnes–Hut opening criterion
+    private static final double COOLING          = 0.985;
+    private static final double MIN_TEMPERATURE  = 0.2;
+    private static final double CONVERGED_DELTA  = 0.25;  // px of max movement per iteration
+    private static final long   FRAME_NANOS      = 16_000_000L;
+    private static final int    CHUNK            = 256;
+
+    // ── Solver state (owned by the layout thread) ──────────────────────────────
+    private final int      n;
+    private final double[] x, y, dispX, dispY;
+    private final boolean[] pinned;
+    private final int[]    adjStart, adjList;
+    private final double   width, height, k, k2;
+    private double         temperature;
+    private int            iteration = 0;
+
+    private final QuadTree tree;
+    private final ForkJoinPool pool;
+
+    // ── Cross-thread plumbing ──────────────────────────────────────────────────
+    private final ConcurrentLinkedQueue<Runnable> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Frame>          latest   = new AtomicReference<>();
+    private final Object                          pauseLock = new Object();
+    private volatile boolean running = false;
+    private volatile boolean paused  = false;
+    private Thread           worker;
+
+    public ForceDirectedLayout(double[] x, double[] y, int[] src, int[] dst, double width, double height) {
+        this.n      = x.length;
+        this.x      = x.clone();
+        this.y      = y.clone();
+        this.dispX  = new double[n];
+        this.dispY  = new double[n];
+        this.pinned = new boolean[n];
+        this.width  = Math.max(width, 200);
+        this.height = Math.max(height, 200);
+        this.k      = 0.9 * Math.sqrt(this.width * this.height / Math.max(1, n));
+        this.k2     = k * k;
+        this.temperature = Math.min(this.width, this.height) / 8.0;
+
+        // Undirected CSR adjacency so every node can sum its own attractive
+        // forces without write contention between workers.
+        int[] degree = new int[n + 1];
+        for (int e = 0; e < src.length; e++) {
+            if (src[e] == dst[e]) continue;
+            degree[src[e]]++; degree[dst[e]]++;
+        }
+        adjStart = new int[n + 1];
+        for (int i = 0; i < n; i++) adjStart[i + 1] = adjStart[i] + degree[i];
+        adjList = new int[adjStart[n]];
+        int[] fill = adjStart.clone();
+        for (int e = 0; e < src.length; e++) {
+            if (src[e] == dst[e]) continue;
+            adjList[fill[src[e]]++] = dst[e];
+            adjList[fill[dst[e]]++] = src[e];
+        }
+
+        tree = new QuadTree(n);
+        pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    // ==========================================================================
+    // CONTROL (any thread)
+    // ==========================================================================
+    public void start() {
+        if (running) return;
+        running = true;
+        worker = new Thread(this::run, "force-layout");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void stop() {
+        running = false;
+        resume();
+        if (worker != null) worker.interrupt();
+    }
+
+    public void pause()  { paused = true; }
+
+    public void resume() {
+        synchronized (pauseLock) { paused = false; pauseLock.notifyAll(); }
+    }
+
+    public boolean isPaused()  { return paused; }
+    public boolean isRunning() { return running; }
+
+    /** Fixes node {@code i} at the given position; the rest of the layout keeps moving around it. */
+    public void pin(int i, double px, double py) {
+        commands.add(() -> { pinned[i] = true; x[i] = px; y[i] = py; temperature = Math.max(temperature, width / 40.0); });
+        resume();
+    }
+
+    /** Releases node {@code i} back to the solver, waking it if it had already converged. */
+    public void unpin(int i) {
+        commands.add(() -> { pinned[i] = false; temperature = Math.max(temperature, width / 40.0); });
+        resume();
+    }
+
+    /** Latest unseen frame, or null if the solver has not published since the last call. */
+    public Frame pollFrame() { return latest.getAndSet(null); }
+
+    // ==========================================================================
+    // LAYOUT LOOP
+    // ==========================================================================
+    private void run() {
+        long lastPublish = 0, windowStart = System.nanoTime();
+        int  windowIters = 0;
+        double rate = 0;
+
+        try {
+            while (running) {
+                synchronized (pauseLock) {
+                    while (paused && running) pauseLock.wait();
+                }
+                if (!running) break;
+
+                Runnable cmd;
+                while ((cmd = commands.poll()) != null) cmd.run();
+
+                double[] metrics = step();
+                iteration++;
+                windowIters++;
+
+                long now = System.nanoTime();
+                if (now - windowStart >= 500_000_000L) {
+                    rate = windowIters * 1e9 / (now - windowStart);
+                    windowStart = now; windowIters = 0;
+                }
+
+                boolean converged = metrics[0] < CONVERGED_DELTA && commands.isEmpty();
+                if (converged || now - lastPublish >= FRAME_NANOS) {
+                    latest.set(new Frame(x.clone(), y.clone(), iteration, metrics[0], metrics[1], rate, converged));
+                    lastPublish = now;
+                }
+                // Nothing left to settle: sleep until a pin or resume wakes us up.
+                if (converged) paused = true;
+            }
+        } catch (InterruptedException ignored) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // One Fruchterman–Reingold iteration. Returns {max displacement, energy}.
+    private double[] step() {
+        tree.build(x, y, n);
+
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] stack = new int[64 + 4 * 64];
+            int   end   = Math.min(n, (c + 1) * CHUNK);
+            for (int i = c * CHUNK; i < end; i++) {
+                dispX[i] = 0; dispY[i] = 0;
+                tree.repulsion(i, x[i], y[i], k2, THETA, stack, dispX, dispY);
+
+                for (int a = adjStart[i]; a < adjStart[i + 1]; a++) {
+                    int    j  = adjList[a];
+                    double dx = x[i] - x[j], dy = y[i] - y[j];
+                    double d  = Math.sqrt(dx * dx + dy * dy);
+                    if (d < 0.01) continue;
+                    double f  = d / k;               // d² / k, applied along the unit vector
+                    dispX[i] -= dx * f; dispY[i] -= dy * f;
+                }
+            }
+        })).join();
+
+        double maxDisp = 0, energy = 0, cx = width / 2, cy = height / 2;
+        for (int i = 0; i < n; i++) {
+            if (pinned[i]) continue;
+            // Gentle gravity keeps disconnected components on screen.
+            dispX[i] += (cx - x[i]) * 0.01 * k / 10;
+            dispY[i] += (cy - y[i]) * 0.01 * k / 10;
+
+            double len = Math.sqrt(dispX[i] * dispX[i] + dispY[i] * dispY[i]);
+            if (len < 1e-9) continue;
+            double lim = Math.min(len, temperature);
+            x[i] += dispX[i] / len * lim;
+            y[i] += dispY[i] / len * lim;
+            maxDisp = Math.max(maxDisp, lim);
+            energy += len * len;
+        }
+        temperature = Math.max(MIN_TEMPERATURE, temperature * COOLING);
+        return new double[]{ maxDisp, energy };
+    }
+
+    // ==========================================================================
+    // BARNES–HUT QUADTREE (flat arrays, rebuilt every iteration)
+    // ==========================================================================
+    private static final class QuadTree {
+        private static final int MAX_DEPTH = 48;
+
+        int      size;
+        int[]    child;                 // 4 slots per cell, -1 = empty
+        int[]    body;                  // point index for leaf cells, -1 otherwise
+        double[] mass, comX, comY, half, midX, midY;
+
+        QuadTree(int n) { allocate(Math.max(16, 4 * n + 8)); }
+
+        private void allocate(int cap) {
+            child = new int[cap * 4];
+            body  = new int[cap];
+            mass  = new double[cap]; comX = new double[cap]; comY = new double[cap];
+            half  = new double[cap]; midX = new double[cap]; midY = new double[cap];
+        }
+
+        private int newCell(double mx, double my, double h) {
+            if (size == body.length) grow();
+            int c = size++;
+            child[4 * c] = child[4 * c + 1] = child[4 * c + 2] = child[4 * c + 3] = -1;
+            body[c] = -1; mass[c] = 0; comX[c] = 0; comY[c] = 0;
+            midX[c] = mx; midY[c] = my; half[c] = h;
+            return c;
+        }
+
+        private void grow() {
+            int cap = body.length * 2;
+            child = java.util.Arrays.copyOf(child, cap * 4);
+            body  = java.util.Arrays.copyOf(body, cap);
+            mass  = java.util.Arrays.copyOf(mass, cap); comX = java.util.Arrays.copyOf(comX, cap);
+            comY  = java.util.Arrays.copyOf(comY, cap); half = java.util.Arrays.copyOf(half, cap);
+            midX  = java.util.Arrays.copyOf(midX, cap); midY = java.util.Arrays.copyOf(midY, cap);
+        }
+
+        void build(double[] x, double[] y, int n) {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                minX = Math.min(minX, x[i]); maxX = Math.max(maxX, x[i]);
+                minY = Math.min(minY, y[i]); maxY = Math.max(maxY, y[i]);
+            }
+            size = 0;
+            double h = Math.max(maxX - minX, maxY - minY) / 2 + 1;
+            newCell((minX + maxX) / 2, (minY + maxY) / 2, h);
+            for (int i = 0; i < n; i++) insert(i, x, y);
+        }
+
+        private void insert(int p, double[] x, double[] y) {
+            int c = 0, depth = 0;
+            while (true) {
+                // Accumulate centre of mass on the way down.
+                double m = mass[c];
+                comX[c] = (comX[c] * m + x[p]) / (m + 1);
+                comY[c] = (comY[c] * m + y[p]) / (m + 1);
+                mass[c] = m + 1;
+
+                if (m == 0 && body[c] == -1 && isLeaf(c)) { body[c] = p; return; }
+                if (depth >= MAX_DEPTH) return;   // coincident points: merged into this cell's mass
+
+                if (body[c] != -1) {              // split an occupied leaf
+                    int q = body[c]; body[c] = -1;
+                    int qc = childFor(c, x[q], y[q]);
+                    mass[qc] = 1; comX[qc] = x[q]; comY[qc] = y[q]; body[qc] = q;
+                }
+                c = childFor(c, x[p], y[p]);
+                depth++;
+            }
+        }
+
+        private boolean isLeaf(int c) {
+            return child[4 * c] < 0 && child[4 * c + 1] < 0 && child[4 * c + 2] < 0 && child[4 * c + 3] < 0;
+        }
+
+        private int childFor(int c, double px, double py) {
+            int q = (px >= midX[c] ? 1 : 0) + (py >= midY[c] ? 2 : 0);
+            int slot = 4 * c + q;
+            if (child[slot] < 0) {
+                double h = half[c] / 2;
+                int nc = newCell(midX[c] + ((q & 1) == 1 ? h : -h), midY[c] + ((q & 2) == 2 ? h : -h), h);
+                child[4 * c + q] = nc;
+                return nc;
+            }
+            return child[slot];
+        }
+
+        // Accumulates k²/d repulsion on point i into disp. Read-only on the tree.
+        void repulsion(int i, double px, double py, double k2, double theta,
+                       int[] stack, double[] dispX, double[] dispY) {
+            int sp = 0;
+            stack[sp++] = 0;
+            double fx = 0, fy = 0;
+            while (sp > 0) {
+                int c = stack[--sp];
+                if (mass[c] == 0 || body[c] == i) continue;
+                double dx = px - comX[c], dy = py - comY[c];
+                double d2 = dx * dx + dy * dy;
+                boolean far = body[c] >= 0 || (2 * half[c]) * (2 * half[c]) < theta * theta * d2;
+                if (far) {
+                    if (d2 < 0.01) { dx = (i % 7) - 3 + 0.1; dy = (i % 5) - 2 + 0.1; d2 = dx * dx + dy * dy; }
+                    double f = k2 * mass[c] / d2;    // (k² / d) along the unit vector
+                    fx += dx * f; fy += dy * f;
+                } else {
+                    for (int q = 0; q < 4; q++) {
+                        int ch = child[4 * c + q];
+                        if (ch >= 0) {
+                            if (sp == stack.length) stack = java.util.Arrays.copyOf(stack, sp * 2);
+                            stack[sp++] = ch;
+                        }
+                    }
+                }
+            }
+            dispX[i] += fx; dispY[i] += fy;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact, UI-free graph model: parallel int arrays for the edges plus an
+ * optional id/label per node. This is what importers, exporters and the
+ * random generators produce; the canvas only ever materializes (a sample of)
+ * it as JavaFX shapes.
+ *
+ * Usage:
+ *   GraphData.Builder b = new GraphData.Builder(true);
+ *   b.addEdge(b.node(17), b.node(42), 5);
+ *   GraphData g = b.build();
+ */
+public final class GraphData {
+
+    public final int       nodeCount;
+    public final int       edgeCount;
+    public final int[]     src, dst;
+    public final int[]     weight;     // null when unweighted
+    public final boolean   directed;
+    public final long[]    ids;        // original numeric ids, or null for 1..n
+    public final String[]  labels;     // explicit labels (entries may be null), or null
+    public final double[]  x, y;       // layout hint in the unit square, or null
+
+    GraphData(int nodeCount, int edgeCount, int[] src, int[] dst, int[] weight,
+              boolean directed, long[] ids, String[] labels) {
+        this(nodeCount, edgeCount, src, dst, weight, directed, ids, labels, null, null);
+    }
+
+    GraphData(int nodeCount, int edgeCount, int[] src, int[] dst, int[] weight,
+              boolean directed, long[] ids, String[] labels, double[] x, double[] y) {
+        this.nodeCount = nodeCount; this.edgeCount = edgeCount;
+        this.src = src; this.dst = dst; this.weight = weight;
+        this.directed = directed; this.ids = ids; this.labels = labels;
+        this.x = x; this.y = y;
+    }
+
+    public boolean hasPositions() { return x != null; }
+
+    /** Same graph with node positions attached (coordinates in [0, 1]). */
+    public GraphData withPositions(double[] x, double[] y) {
+        return new GraphData(nodeCount, edgeCount, src, dst, weight, directed, ids, labels, x, y);
+    }
+
+    public boolean isWeighted() { return weight != null; }
+
+    public int weight(int e) { return weight == null ? 1 : weight[e]; }
+
+    public String label(int i) {
+        if (labels != null && labels[i] != null) return labels[i];
+        return ids != null ? Long.toString(ids[i]) : Integer.toString(i + 1);
+    }
+
+    /**
+     * Connected sample of at most {@code maxNodes} nodes / {@code maxEdges}
+     * edges, grown breadth-first from node 0 (ignoring direction) so the
+     * rendered part of a huge graph stays local and readable. Returns this
+     * graph unchanged if it already fits.
+     */
+    public GraphData sample(int maxNodes, int maxEdges) {
+        if (nodeCount <= maxNodes && edgeCount <= maxEdges) return this;
+
+        // Undirected CSR adjacency over edge indices
+        int[] offset = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) { offset[src[e] + 1]++; offset[dst[e] + 1]++; }
+        for (int i = 0; i < nodeCount; i++) offset[i + 1] += offset[i];
+        int[] adj = new int[2 * edgeCount], fill = Arrays.copyOf(offset, nodeCount);
+        for (int e = 0; e < edgeCount; e++) { adj[fill[src[e]]++] = e; adj[fill[dst[e]]++] = e; }
+
+        int[] newIndex = new int[nodeCount];
+        Arrays.fill(newIndex, -1);
+        int[] order = new int[Math.min(maxNodes, nodeCount)];
+        int taken = 0, head = 0;
+        for (int seed = 0; seed < nodeCount && taken < order.length; seed++) {
+            if (newIndex[seed] >= 0) continue;
+            newIndex[seed] = taken; order[taken++] = seed;
+            while (head < taken && taken < order.length) {
+                int u = order[head++];
+                for (int k = offset[u]; k < offset[u + 1] && taken < order.length; k++) {
+                    int e = adj[k], v = src[e] == u ? dst[e] : src[e];
+                    if (newIndex[v] < 0) { newIndex[v] = taken; order[taken++] = v; }
+                }
+            }
+        }
+
+        Builder b = new Builder(directed);
+        b.ensureNodes(taken);
+        for (int e = 0; e < edgeCount && b.edgeCount() < maxEdges; e++) {
+            int u = newIndex[src[e]], v = newIndex[dst[e]];
+            if (u >= 0 && v >= 0) b.addEdge(u, v, weight(e));
+        }
+        long[]   sIds    = ids    == null ? null : new long[taken];
+        String[] sLabels = labels == null ? null : new String[taken];
+        double[] sx      = x      == null ? null : new double[taken];
+        double[] sy      = y      == null ? null : new double[taken];
+        for (int i = 0; i < taken; i++) {
+            if (sIds    != null) sIds[i]    = ids[order[i]];
+            if (sLabels != null) sLabels[i] = labels[order[i]];
+            if (sx      != null) { sx[i] = x[order[i]]; sy[i] = y[order[i]]; }
+        }
+        if (sIds == null && sLabels == null) {
+            sIds = new long[taken];
+            for (int i = 0; i < taken; i++) sIds[i] = order[i] + 1L;
+        }
+        return new GraphData(taken, b.edgeCount(), Arrays.copyOf(b.src, b.m), Arrays.copyOf(b.dst, b.m),
+                isWeighted() ? Arrays.copyOf(b.w, b.m) : null, directed, sIds, sLabels, sx, sy);
+    }
+
+    // ==========================================================================
+    // BUILDER
+    // ==========================================================================
+    /**
+     * Growable single-pass builder. Numeric node ids are remapped to dense
+     * indices through a primitive open-addressing table, so no boxing or
+     * strings are involved for the common case; textual ids go through a
+     * regular map.
+     */
+    public static final class Builder {
+        private final boolean directed;
+        private int[]   src = new int[1024], dst = new int[1024], w = new int[1024];
+        private int     m;
+        private boolean weighted;
+
+        private int     n;
+        private long[]  ids = new long[256];
+        private String[] labels;
+        private boolean denseIds;          // DIMACS style: ids are 1..n, no table needed
+
+        // open addressing id -> index (keys stored alongside, -1 = empty slot)
+        private long[]  tableKeys = new long[1 << 10];
+        private int[]   tableVals = new int[1 << 10];
+        private Map<String, Integer> textIds;
+
+        public Builder(boolean directed) {
+            this.directed = directed;
+            Arrays.fill(tableVals, -1);
+        }
+
+        public int  edgeCount() { return m; }
+        public int  nodeCount() { return n; }
+
+        /** Declares ids 1..count up front (e.g. from a DIMACS problem line). */
+        public void denseNodes(int count) {
+            denseIds = true;
+            ensureNodes(count);
+        }
+
+        /** Grows the node set to {@code count} anonymous nodes (ids 1..count). */
+        public void ensureNodes(int count) {
+            if (count <= n) return;
+            if (count > ids.length) ids = Arrays.copyOf(ids, Math.max(count, ids.length * 2));
+            for (int i = n; i < count; i++) ids[i] = i + 1L;
+            n = count;
+        }
+
+        public void expectEdges(long count) {
+            if (count > src.length && count < Integer.MAX_VALUE - 8) grow((int) count);
+        }
+
+        /** Dense index for numeric id {@code id}, creating the node on first sight. */
+        public int node(long id) {
+            if (denseIds) {
+                if (id < 1 || id > n) throw new IllegalArgumentException("Node id out of range: " + id);
+                return (int) id - 1;
+            }
+            int mask = tableKeys.length - 1;
+            int slot = (int) mix(id) & mask;
+            while (tableVals[slot] >= 0) {
+                if (tableKeys[slot] == id) return tableVals[slot];
+                slot = (slot + 1) & mask;
+            }
+            int index = newNode(id, null);
+            tableKeys[slot] = id; tableVals[slot] = index;
+            if (n * 2 > tableKeys.length) rehash();
+            return index;
+        }
+
+        /** Dense index for a textual id (GraphML, non-numeric edge lists). */
+        public int node(String id) {
+            if (textIds == null) textIds = new HashMap<>();
+            Integer index = textIds.get(id);
+            if (index != null) return index;
+            int created = newNode(n + 1L, id);
+            textIds.put(id, created);
+            return created;
+        }
+
+        private int newNode(long id, String label) {
+            if (n == ids.length) ids = Arrays.copyOf(ids, n * 2);
+            if (label != null) {
+                if (labels == null) labels = new String[ids.length];
+                else if (labels.length < ids.length) labels = Arrays.copyOf(labels, ids.length);
+                labels[n] = label;
+            }
+            ids[n] = id;
+            return n++;
+        }
+
+        public void addEdge(int u, int v, int weight) {
+            if (m == src.length) grow(m * 2);
+            src[m] = u; dst[m] = v; w[m] = weight;
+            if (weight != 1) weighted = true;
+            m++;
+        }
+
+        public void markWeighted() { weighted = true; }
+
+        private void grow(int capacity) {
+            src = Arrays.copyOf(src, capacity);
+            dst = Arrays.copyOf(dst, capacity);
+            w   = Arrays.copyOf(w,   capacity);
+        }
+
+        private void rehash() {
+            long[] oldKeys = tableKeys; int[] oldVals = tableVals;
+            tableKeys = new long[oldKeys.length * 2];
+            tableVals = new int[oldVals.length * 2];
+            Arrays.fill(tableVals, -1);
+            int mask = tableKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldVals[i] < 0) continue;
+                int slot = (int) mix(oldKeys[i]) & mask;
+                while (tableVals[slot] >= 0) slot = (slot + 1) & mask;
+                tableKeys[slot] = oldKeys[i]; tableVals[slot] = oldVals[i];
+            }
+        }
+
+        private static long mix(long x) {
+            x ^= x >>> 33; x *= 0xff51afd7ed558ccdL; x ^= x >>> 33;
+            return x;
+        }
+
+        public GraphData build() {
+            boolean anonymous = !denseIds && textIds == null;
+            if (anonymous) {
+                // Keep ids only when they differ from the implicit 1..n numbering.
+                for (int i = 0; i < n && anonymous; i++) anonymous = ids[i] == i + 1L;
+            }
+            return new GraphData(n, m, Arrays.copyOf(src, m), Arrays.copyOf(dst, m),
+                    weighted ? Arrays.copyOf(w, m) : null, directed,
+                    anonymous || denseIds ? null : Arrays.copyOf(ids, n),
+                    labels == null ? null : Arrays.copyOf(labels, n));
+        }
+    }
+}
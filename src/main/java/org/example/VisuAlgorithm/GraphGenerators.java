@@ -0,0 +1,375 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Seeded random graph models producing {@link GraphData}. Every generator is
+ * linear in the size of its output (no quadratic pair scans), so graphs with
+ * 10^6 nodes are generated in about a second, and the same seed always
+ * produces the same graph. Generators poll the thread's interrupt flag and
+ * stop with a {@link CancellationException} when cancelled.
+ *
+ * Usage:
+ *   GraphData g = GraphGenerators.generate(GraphGenerators.Model.BARABASI_ALBERT, 100_000, false, true, 42);
+ *   GraphData h = GraphGenerators.erdosRenyiGnp(1_000_000, 4e-6, false, false, 7);
+ */
+public final class GraphGenerators {
+
+    private GraphGenerators() {}
+
+    /** Upper bound on generated edges, to keep the int arrays within memory. */
+    public static final long MAX_EDGES = 20_000_000L;
+
+    public enum Model {
+        SMALL_RANDOM   ("Small random graph"),
+        GNP            ("Erdős–Rényi G(n,p)"),
+        GNM            ("Erdős–Rényi G(n,m)"),
+        BARABASI_ALBERT("Barabási–Albert"),
+        GRID           ("2D grid"),
+        TORUS          ("2D torus"),
+        GEOMETRIC      ("Random geometric");
+
+        private final String title;
+        Model(String title) { this.title = title; }
+        @Override public String toString() { return title; }
+    }
+
+    /**
+     * Generates {@code model} with parameters chosen for an average degree of
+     * about four (six for geometric graphs), which keeps the drawings readable.
+     * Grids and tori get exactly {@code n} nodes: a near-square lattice filled
+     * row by row, whose last row may be short.
+     */
+    public static GraphData generate(Model model, int n, boolean directed, boolean weighted, long seed) {
+        if (n < 1) throw new IllegalArgumentException("Node count must be positive");
+        switch (model) {
+            case GNP:             return erdosRenyiGnp(n, n > 1 ? Math.min(1, (directed ? 2.0 : 4.0) / (n - 1)) : 0, directed, weighted, seed);
+            case GNM:             return erdosRenyiGnm(n, Math.min(2L * n, maxPairs(n, directed)), directed, weighted, seed);
+            case BARABASI_ALBERT: return barabasiAlbert(n, 2, directed, weighted, seed);
+            case GRID:
+            case TORUS:           return lattice(n, (int) Math.ceil(Math.sqrt(n)), model == Model.TORUS, directed, weighted, seed);
+            case GEOMETRIC:       return randomGeometric(n, Math.sqrt(6.0 / (Math.PI * n)), directed, weighted, seed);
+            default:              return smallRandom(n, directed, weighted, seed);
+        }
+    }
+
+    // ==========================================================================
+    // MODELS
+    // ==========================================================================
+    /** Uniform random recursive tree: node i attaches to a uniformly chosen earlier node. */
+    public static GraphData randomTree(int n, boolean directed, boolean weighted, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        GraphData.Builder b = builder(n, n - 1, directed, weighted);
+        for (int v = 1; v < n; v++) {
+            b.addEdge(rnd.nextInt(v), v, weight(rnd, weighted));
+            poll(v);
+        }
+        return b.build();
+    }
+
+    /**
+     * The classic demo graph: a {@link #randomTree} plus zero to two extra
+     * edges between distinct nodes that are not yet adjacent, so most draws
+     * hold a cycle.
+     */
+    public static GraphData smallRandom(int n, boolean directed, boolean weighted, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        GraphData.Builder b = builder(n, n + 1L, directed, weighted);
+        LongHashSet seen = new LongHashSet(2 * n + 16);
+        for (int v = 1; v < n; v++) {
+            int u = rnd.nextInt(v);
+            b.addEdge(u, v, weight(rnd, weighted));
+            seen.add((long) u * n + v);
+            poll(v);
+        }
+        for (int extra = rnd.nextInt(3); extra > 0; extra--) {
+            int u = rnd.nextInt(n), v = rnd.nextInt(n);
+            if (u == v) continue;
+            if (!directed && u > v) { int t = u; u = v; v = t; }
+            if (seen.add((long) u * n + v)) b.addEdge(u, v, weight(rnd, weighted));
+        }
+        return b.build();
+    }
+
+    /**
+     * G(n,p) by geometric skip sampling (Batagelj &amp; Brandes): instead of
+     * flipping a coin per pair, jump directly to the next present edge, so the
+     * cost is O(n + m) instead of O(n²).
+     */
+    public static GraphData erdosRenyiGnp(int n, double p, boolean directed, boolean weighted, long seed) {
+        if (p < 0 || p > 1) throw new IllegalArgumentException("p must be in [0, 1]");
+        long pairs = maxPairs(n, directed);
+        checkEdgeBudget((long) Math.ceil(pairs * p));
+        SplittableRandom rnd = new SplittableRandom(seed);
+        GraphData.Builder b = builder(n, (long) (pairs * p * 1.05) + 16, directed, weighted);
+        if (p == 0 || n < 2) return b.build();
+
+        double logQ = Math.log(1 - p);
+        if (directed) {
+            // Row v holds the n-1 candidate targets w != v.
+            int v = 0; long w = -1;
+            while (v < n) {
+                w += 1 + skip(rnd, logQ);
+                while (w >= n - 1 && v < n) { w -= n - 1; v++; }
+                if (v < n) b.addEdge(v, (int) (w >= v ? w + 1 : w), weight(rnd, weighted));
+                poll(b.edgeCount());
+            }
+        } else {
+            // Lower triangle: pairs (v, w) with w < v.
+            int v = 1; long w = -1;
+            while (v < n) {
+                w += 1 + skip(rnd, logQ);
+                while (w >= v && v < n) { w -= v; v++; }
+                if (v < n) b.addEdge((int) w, v, weight(rnd, weighted));
+                poll(b.edgeCount());
+            }
+        }
+        return b.build();
+    }
+
+    private static long skip(SplittableRandom rnd, double logQ) {
+        if (logQ == Double.NEGATIVE_INFINITY) return 0;          // p == 1
+        double s = Math.floor(Math.log(1 - rnd.nextDouble()) / logQ);
+        return s > Long.MAX_VALUE / 4 ? Long.MAX_VALUE / 4 : (long) s;
+    }
+
+    /**
+     * G(n,m): exactly {@code m} distinct edges. Sparse graphs use rejection
+     * sampling against a primitive hash set; dense ones (more than half of all
+     * pairs) shuffle the pair list instead, so neither case degrades.
+     */
+    public static GraphData erdosRenyiGnm(int n, long m, boolean directed, boolean weighted, long seed) {
+        long pairs = maxPairs(n, directed);
+        if (m < 0 || m > pairs) throw new IllegalArgumentException("m must be between 0 and " + pairs);
+        checkEdgeBudget(m);
+        SplittableRandom rnd = new SplittableRandom(seed);
+        GraphData.Builder b = builder(n, m, directed, weighted);
+
+        if (m > pairs / 2) {
+            long[] all = new long[(int) pairs];
+            int k = 0;
+            for (int u = 0; u < n; u++)
+                for (int v = directed ? 0 : u + 1; v < n; v++)
+                    if (u != v) all[k++] = (long) u * n + v;
+            for (int i = 0; i < m; i++) {
+                int j = i + rnd.nextInt(all.length - i);
+                long t = all[i]; all[i] = all[j]; all[j] = t;
+                b.addEdge((int) (all[i] / n), (int) (all[i] % n), weight(rnd, weighted));
+                poll(i);
+            }
+            return b.build();
+        }
+
+        LongHashSet seen = new LongHashSet((int) Math.min(Integer.MAX_VALUE / 4, m * 2 + 16));
+        while (b.edgeCount() < m) {
+            int u = rnd.nextInt(n), v = rnd.nextInt(n);
+            if (u == v) continue;
+            if (!directed && u > v) { int t = u; u = v; v = t; }
+            if (seen.add((long) u * n + v)) b.addEdge(u, v, weight(rnd, weighted));
+            poll(b.edgeCount());
+        }
+        return b.build();
+    }
+
+    /**
+     * Preferential attachment: every new node links to {@code k} distinct
+     * existing nodes chosen proportionally to degree. Degree-proportional
+     * sampling is O(1) by picking a uniform slot of the edge endpoint list.
+     */
+    public static GraphData barabasiAlbert(int n, int k, boolean directed, boolean weighted, long seed) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+        int seedNodes = Math.min(n, k + 1);
+        long m = (long) seedNodes * (seedNodes - 1) / 2 + (long) Math.max(0, n - seedNodes) * k;
+        checkEdgeBudget(m);
+        SplittableRandom rnd = new SplittableRandom(seed);
+        GraphData.Builder b = builder(n, m, directed, weighted);
+
+        int[] endpoints = new int[(int) (2 * m)];
+        int size = 0;
+        for (int u = 0; u < seedNodes; u++)
+            for (int v = u + 1; v < seedNodes; v++) {
+                b.addEdge(v, u, weight(rnd, weighted));
+                endpoints[size++] = u; endpoints[size++] = v;
+            }
+
+        int[] chosen = new int[k];
+        for (int v = seedNodes; v < n; v++) {
+            int c = 0;
+            while (c < k) {
+                int t = endpoints[rnd.nextInt(size)];
+                boolean dup = false;
+                for (int i = 0; i < c && !dup; i++) dup = chosen[i] == t;
+                if (!dup) chosen[c++] = t;
+            }
+            for (int i = 0; i < k; i++) {
+                b.addEdge(v, chosen[i], weight(rnd, weighted));
+                endpoints[size++] = v; endpoints[size++] = chosen[i];
+            }
+            poll(v);
+        }
+        return b.build();
+    }
+
+    /** rows × cols lattice with 4-neighbourhood; a torus also wraps both axes. */
+    public static GraphData grid(int rows, int cols, boolean torus, boolean directed, boolean weighted, long seed) {
+        long n = (long) rows * cols;
+        if (n > Integer.MAX_VALUE) throw new IllegalArgumentException("Grid too large");
+        return lattice((int) n, cols, torus, directed, weighted, seed);
+    }
+
+    /**
+     * The first {@code n} cells of a lattice {@code cols} wide, row by row, so
+     * only the last row may be short. A torus wraps every row and column that
+     * is longer than two cells from its last cell back to its first.
+     */
+    public static GraphData lattice(int n, int cols, boolean torus, boolean directed, boolean weighted, long seed) {
+        if (n < 1 || cols < 1) throw new IllegalArgumentException("Lattice needs at least one node and one column");
+        cols = Math.min(cols, n);
+        checkEdgeBudget(2L * n);
+        int rows = (n + cols - 1) / cols;
+        SplittableRandom rnd = new SplittableRandom(seed);
+        GraphData.Builder b = builder(n, 2L * n, directed, weighted);
+        double[] x = new double[n], y = new double[n];
+
+        for (int r = 0; r < rows; r++) {
+            int rowLength = Math.min(cols, n - r * cols);
+            for (int c = 0; c < rowLength; c++) {
+                int v = r * cols + c, colHeight = (n - 1 - c) / cols + 1;
+                x[v] = cols > 1 ? c / (double) (cols - 1) : 0.5;
+                y[v] = rows > 1 ? r / (double) (rows - 1) : 0.5;
+                if (c + 1 < rowLength)                   b.addEdge(v, v + 1, weight(rnd, weighted));
+                else if (torus && rowLength > 2)         b.addEdge(v, r * cols, weight(rnd, weighted));
+                if (r + 1 < colHeight)                   b.addEdge(v, v + cols, weight(rnd, weighted));
+                else if (torus && colHeight > 2)         b.addEdge(v, c, weight(rnd, weighted));
+            }
+            poll(r);
+        }
+        return b.build().withPositions(x, y);
+    }
+
+    /**
+     * Random geometric graph in the unit square: nodes closer than
+     * {@code radius} are connected. Points are bucketed into radius-sized
+     * cells so only the 3×3 neighbouring cells are compared. Weights, when
+     * enabled, grow with Euclidean distance (1..20).
+     */
+    public static GraphData randomGeometric(int n, double radius, boolean directed, boolean weighted, long seed) {
+        if (radius <= 0) throw new IllegalArgumentException("radius must be positive");
+        SplittableRandom rnd = new SplittableRandom(seed);
+        double[] x = new double[n], y = new double[n];
+        for (int i = 0; i < n; i++) { x[i] = rnd.nextDouble(); y[i] = rnd.nextDouble(); }
+
+        int g = (int) Math.max(1, Math.min(4096, Math.floor(1 / radius)));
+        int[] cellStart = new int[g * g + 1], cellOf = new int[n], members = new int[n];
+        for (int i = 0; i < n; i++) {
+            int cx = Math.min(g - 1, (int) (x[i] * g)), cy = Math.min(g - 1, (int) (y[i] * g));
+            cellOf[i] = cy * g + cx;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < g * g; c++) cellStart[c + 1] += cellStart[c];
+        int[] fill = Arrays.copyOf(cellStart, g * g);
+        for (int i = 0; i < n; i++) members[fill[cellOf[i]]++] = i;
+
+        long expected = (long) (Math.PI * radius * radius * n * (n - 1) / 2 * 1.1) + 16;
+        checkEdgeBudget(expected);
+        GraphData.Builder b = builder(n, expected, directed, weighted);
+        double r2 = radius * radius;
+        for (int i = 0; i < n; i++) {
+            int cx = cellOf[i] % g, cy = cellOf[i] / g;
+            for (int dy = -1; dy <= 1; dy++) {
+                int ny = cy + dy;
+                if (ny < 0 || ny >= g) continue;
+                for (int dx = -1; dx <= 1; dx++) {
+                    int nx = cx + dx;
+                    if (nx < 0 || nx >= g) continue;
+                    int cell = ny * g + nx;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int j = members[k];
+                        if (j <= i) continue;
+                        double ddx = x[i] - x[j], ddy = y[i] - y[j], d2 = ddx * ddx + ddy * ddy;
+                        if (d2 > r2) continue;
+                        int w = weighted ? 1 + (int) Math.round(19 * Math.sqrt(d2) / radius) : 1;
+                        b.addEdge(i, j, w);
+                        if (b.edgeCount() >= MAX_EDGES) throw new IllegalArgumentException("Too many edges; lower n");
+                    }
+                }
+            }
+            poll(i);
+        }
+        return b.build().withPositions(x, y);
+    }
+
+    // ==========================================================================
+    // HELPERS
+    // ==========================================================================
+    private static GraphData.Builder builder(int n, long expectedEdges, boolean directed, boolean weighted) {
+        GraphData.Builder b = new GraphData.Builder(directed);
+        b.ensureNodes(n);
+        b.expectEdges(Math.min(expectedEdges, MAX_EDGES));
+        if (weighted) b.markWeighted();
+        return b;
+    }
+
+    private static int weight(SplittableRandom rnd, boolean weighted) {
+        return weighted ? rnd.nextInt(20) + 1 : 1;
+    }
+
+    static long maxPairs(int n, boolean directed) {
+        long pairs = (long) n * (n - 1);
+        return directed ? pairs : pairs / 2;
+    }
+
+    private static void checkEdgeBudget(long m) {
+        if (m > MAX_EDGES) throw new IllegalArgumentException(
+                String.format("About %,d edges requested; the limit is %,d", m, MAX_EDGES));
+    }
+
+    private static void poll(long counter) {
+        if ((counter & 0xffff) == 0 && Thread.currentThread().isInterrupted())
+            throw new CancellationException("Cancelled");
+    }
+
+    /** Open-addressing set of non-negative longs. */
+    private static final class LongHashSet {
+        private long[] keys;
+        private int    size;
+
+        LongHashSet(int expected) {
+            int cap = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new long[cap];
+            Arrays.fill(keys, -1L);
+        }
+
+        boolean add(long key) {
+            if (size * 2 >= keys.length) rehash();
+            int mask = keys.length - 1, slot = (int) mix(key) & mask;
+            while (keys[slot] != -1L) {
+                if (keys[slot] == key) return false;
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            size++;
+            return true;
+        }
+
+        private void rehash() {
+            long[] old = keys;
+            keys = new long[old.length * 2];
+            Arrays.fill(keys, -1L);
+            int mask = keys.length - 1;
+            for (long k : old) {
+                if (k == -1L) continue;
+                int slot = (int) mix(k) & mask;
+                while (keys[slot] != -1L) slot = (slot + 1) & mask;
+                keys[slot] = k;
+            }
+        }
+
+        private static long mix(long x) {
+            x ^= x >>> 33; x *= 0xff51afd7ed558ccdL; x ^= x >>> 33;
+            return x;
+        }
+    }
+}
@@ -0,0 +1,783 @@
+package org.example.VisuAlgorithm;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Streaming readers and writers for {@link GraphData}.
+ *
+ * Edge lists and DIMACS files are parsed straight out of a reused NIO byte
+ * buffer: numbers are accumulated digit by digit and never become Strings,
+ * and the model is built in a single pass. GraphML goes through StAX, and the
+ * binary format is bulk-copied as int arrays. All readers report progress in
+ * bytes and stop with a {@link CancellationException} when the calling thread
+ * is interrupted (e.g. {@code Task.cancel()}).
+ *
+ * Usage:
+ *   GraphData g = GraphIO.read(path, GraphIO.Format.forPath(path), false, (done, total) -> ...);
+ *   GraphIO.write(out, GraphIO.Format.DIMACS, g, GraphIO.Progress.NONE);
+ */
+public final class GraphIO {
+
+    private GraphIO() {}
+
+    public enum Format {
+        EDGE_LIST("Edge list (CSV)", "*.csv", "*.txt", "*.el", "*.edges"),
+        DIMACS   ("DIMACS shortest-path (.gr)", "*.gr"),
+        GRAPHML  ("GraphML", "*.graphml", "*.xml"),
+        BINARY   ("VisuAlgorithm binary (.vgb)", "*.vgb");
+
+        public final String   description;
+        public final String[] patterns;
+
+        Format(String description, String... patterns) {
+            this.description = description;
+            this.patterns = patterns;
+        }
+
+        public static Format forPath(Path path) {
+            String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+            for (Format f : values())
+                for (String p : f.patterns)
+                    if (name.endsWith(p.substring(1))) return f;
+            return EDGE_LIST;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Progress {
+        Progress NONE = (done, total) -> {};
+        void update(long done, long total);
+    }
+
+    private static final int  BUFFER_SIZE    = 1 << 20;
+    private static final int  BINARY_MAGIC   = 0x56414752;   // "VAGR"
+    private static final int  BINARY_VERSION = 1;
+    private static final int  FLAG_DIRECTED  = 1, FLAG_WEIGHTED = 2, FLAG_IDS = 4, FLAG_LABELS = 8;
+
+    // ==========================================================================
+    // READING
+    // ==========================================================================
+    /**
+     * @param directedHint direction for formats that do not encode it (edge lists)
+     */
+    public static GraphData read(Path path, Format format, boolean directedHint, Progress progress) throws IOException {
+        switch (format) {
+            case DIMACS:  return readDimacs(path, progress);
+            case GRAPHML: return readGraphMl(path, progress);
+            case BINARY:  return readBinary(path, progress);
+            default:      return readEdgeList(path, directedHint, progress);
+        }
+    }
+
+    /**
+     * One edge per line: {@code source target [weight]}, separated by commas,
+     * tabs, semicolons or spaces; a line with a single token is an isolated
+     * node. Lines starting with {@code #} or {@code %} and a non-numeric
+     * header row are skipped. Non-numeric node ids ({@code "2B"}, {@code -x},
+     * or quoted) are accepted too, at the cost of one String per distinct
+     * node. Two comment directives written by {@link #writeEdgeList} are
+     * honoured: {@code # directed=true|false} before the first edge
+     * overrides {@code directed}, and {@code # label=<id> "<text>"} names a
+     * node.
+     */
+    static GraphData readEdgeList(Path path, boolean directed, Progress progress) throws IOException {
+        try (ByteScanner in = new ByteScanner(path, progress)) {
+            GraphData.Builder    b          = null;
+            Map<Integer, String> nodeLabels = new HashMap<>();
+            boolean headerChecked = false;
+            while (in.skipBlankLines()) {
+                int c = in.peek();
+                if (c == '%') { in.skipLine(); continue; }
+                if (c == '#') {
+                    in.next();
+                    in.skipSeparators();
+                    String word = in.atLineEnd() ? "" : in.readWord();
+                    if (b == null && word.startsWith("directed=")) {
+                        directed = Boolean.parseBoolean(word.substring("directed=".length()));
+                    } else if (word.startsWith("label=")) {
+                        Long id = parseId(word.substring("label=".length()));
+                        if (id != null) {
+                            if (b == null) b = new GraphData.Builder(directed);
+                            in.skipSeparators();
+                            if (!in.atLineEnd()) nodeLabels.put(b.node(id), in.peek() == '"' ? in.readQuoted() : in.readWord());
+                        }
+                    }
+                    in.skipLine();
+                    continue;
+                }
+                if (b == null) b = new GraphData.Builder(directed);
+                if (!headerChecked) {
+                    headerChecked = true;
+                    if (looksLikeHeader(in)) { in.skipLine(); continue; }
+                }
+                int u = readNodeToken(in, b);
+                in.skipSeparators();
+                if (in.atLineEnd()) { in.skipLine(); continue; }   // isolated node
+                int v = readNodeToken(in, b);
+                in.skipSeparators();
+                int w = 1;
+                if (!in.atLineEnd() && ByteScanner.isNumberStart(in.peek())) { w = in.readRoundedNumber(); b.markWeighted(); }
+                in.skipLine();
+                b.addEdge(u, v, w);
+            }
+            GraphData g = (b != null ? b : new GraphData.Builder(directed)).build();
+            return nodeLabels.isEmpty() ? g : withLabels(g, nodeLabels);
+        }
+    }
+
+    private static Long parseId(String s) {
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static GraphData withLabels(GraphData g, Map<Integer, String> nodeLabels) {
+        String[] labels = g.labels != null ? g.labels : new String[g.nodeCount];
+        nodeLabels.forEach((i, l) -> labels[i] = l);
+        return new GraphData(g.nodeCount, g.edgeCount, g.src, g.dst, g.weight, g.directed, g.ids, labels);
+    }
+
+    // A header row has an alphabetic first token followed by another alphabetic token ("source,target").
+    private static boolean looksLikeHeader(ByteScanner in) throws IOException {
+        int c = in.peek();
+        return !ByteScanner.isNumberStart(c) && in.lineHasNoDigits();
+    }
+
+    /** A token that is a whole integer is a numeric id; anything else is textual, quoted or not. */
+    private static int readNodeToken(ByteScanner in, GraphData.Builder b) throws IOException {
+        if (in.peek() == '"') return b.node(in.readQuoted());
+        String text = in.readToken();
+        return text == null ? b.node(in.number) : b.node(text);
+    }
+
+    /** DIMACS 9th challenge format: {@code c} comments, {@code p sp n m}, {@code a u v w} arcs (1-based). */
+    static GraphData readDimacs(Path path, Progress progress) throws IOException {
+        try (ByteScanner in = new ByteScanner(path, progress)) {
+            GraphData.Builder b = new GraphData.Builder(true);
+            b.markWeighted();
+            while (in.skipBlankLines()) {
+                int c = in.next();
+                if (c == 'a') {
+                    in.skipSeparators(); int u = b.node(in.readLong());
+                    in.skipSeparators(); int v = b.node(in.readLong());
+                    in.skipSeparators();
+                    int w = in.atLineEnd() ? 1 : in.readRoundedNumber();
+                    b.addEdge(u, v, w);
+                } else if (c == 'p') {
+                    in.skipSeparators(); in.readWord();             // problem type, usually "sp"
+                    in.skipSeparators(); long n = in.readLong();
+                    in.skipSeparators(); long m = in.readLong();
+                    if (n > Integer.MAX_VALUE) throw new IOException("Too many nodes: " + n);
+                    b.denseNodes((int) n);
+                    b.expectEdges(m);
+                }
+                in.skipLine();
+            }
+            return b.build();
+        }
+    }
+
+    static GraphData readGraphMl(Path path, Progress progress) throws IOException {
+        long total = Files.size(path);
+        try (CountingInputStream raw = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE), total, progress)) {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            XMLStreamReader xml = factory.createXMLStreamReader(raw);
+            try {
+                GraphData.Builder b = null;
+                String weightKey = null, labelKey = null, currentKey = null;
+                int pendingU = -1, pendingV = -1, pendingW = 1, currentNode = -1;
+                boolean inEdge = false;
+                Map<Integer, String> nodeLabels = new HashMap<>();
+                StringBuilder text = new StringBuilder();
+
+                while (xml.hasNext()) {
+                    int event = xml.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "key": {
+                                String name = xml.getAttributeValue(null, "attr.name");
+                                String id   = xml.getAttributeValue(null, "id");
+                                String dom  = xml.getAttributeValue(null, "for");
+                                if ("weight".equalsIgnoreCase(name) && !"node".equals(dom)) weightKey = id;
+                                if (("label".equalsIgnoreCase(name) || "name".equalsIgnoreCase(name))
+                                        && !"edge".equals(dom)) labelKey = id;
+                                break;
+                            }
+                            case "graph":
+                                if (b == null) b = new GraphData.Builder(
+                                        "directed".equals(xml.getAttributeValue(null, "edgedefault")));
+                                break;
+                            case "node":
+                                currentNode = requireGraph(b).node(xml.getAttributeValue(null, "id"));
+                                break;
+                            case "edge":
+                                inEdge   = true;
+                                pendingU = requireGraph(b).node(xml.getAttributeValue(null, "source"));
+                                pendingV = b.node(xml.getAttributeValue(null, "target"));
+                                pendingW = 1;
+                                break;
+                            case "data":
+                                currentKey = xml.getAttributeValue(null, "key");
+                                text.setLength(0);
+                                break;
+                            default:
+                        }
+                    } else if (event == XMLStreamConstants.CHARACTERS && currentKey != null) {
+                        text.append(xml.getText());
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        switch (xml.getLocalName()) {
+                            case "data":
+                                // A <data> without a key attribute carries nothing we know how to read.
+                                if (currentKey == null) break;
+                                if (inEdge && currentKey.equals(weightKey)) {
+                                    pendingW = (int) Math.round(Double.parseDouble(text.toString().trim()));
+                                    b.markWeighted();
+                                } else if (!inEdge && currentNode >= 0 && currentKey.equals(labelKey)) {
+                                    nodeLabels.put(currentNode, text.toString().trim());
+                                }
+                                currentKey = null;
+                                break;
+                            case "edge":
+                                b.addEdge(pendingU, pendingV, pendingW);
+                                inEdge = false;
+                                break;
+                            case "node":
+                                currentNode = -1;
+                                break;
+                            default:
+                        }
+                    }
+                }
+                if (b == null) throw new IOException("No <graph> element found");
+                GraphData g = b.build();
+                return nodeLabels.isEmpty() ? g : withLabels(g, nodeLabels);
+            } finally {
+                xml.close();
+            }
+        } catch (XMLStreamException | NumberFormatException e) {
+            throw new IOException("Malformed GraphML: " + e.getMessage(), e);
+        }
+    }
+
+    private static GraphData.Builder requireGraph(GraphData.Builder b) throws IOException {
+        if (b == null) throw new IOException("Node or edge outside of <graph>");
+        return b;
+    }
+
+    static GraphData readBinary(Path path, Progress progress) throws IOException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long total = ch.size();
+            ByteBuffer header = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(ch, header);
+            header.flip();
+            if (header.getInt() != BINARY_MAGIC)   throw new IOException("Not a VisuAlgorithm binary graph");
+            if (header.getInt() != BINARY_VERSION) throw new IOException("Unsupported binary graph version");
+            int flags = header.getInt(), n = header.getInt(), m = header.getInt();
+            if (n < 0 || m < 0) throw new IOException("Corrupt header");
+
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            int[] src = readInts(ch, buf, m, total, progress);
+            int[] dst = readInts(ch, buf, m, total, progress);
+            int[] w   = (flags & FLAG_WEIGHTED) != 0 ? readInts(ch, buf, m, total, progress) : null;
+            long[] ids = null;
+            if ((flags & FLAG_IDS) != 0) {
+                int[] lo = readInts(ch, buf, n, total, progress), hi = readInts(ch, buf, n, total, progress);
+                ids = new long[n];
+                for (int i = 0; i < n; i++) ids[i] = ((long) hi[i] << 32) | (lo[i] & 0xffffffffL);
+            }
+            String[] labels = null;
+            if ((flags & FLAG_LABELS) != 0) {
+                int[] lengths = readInts(ch, buf, n, total, progress);
+                labels = new String[n];
+                for (int i = 0; i < n; i++) {
+                    if (lengths[i] < 0) continue;
+                    ByteBuffer s = ByteBuffer.allocate(lengths[i]);
+                    readFully(ch, s);
+                    labels[i] = new String(s.array(), StandardCharsets.UTF_8);
+                }
+            }
+            for (int e = 0; e < m; e++)
+                if (src[e] < 0 || src[e] >= n || dst[e] < 0 || dst[e] >= n) throw new IOException("Edge endpoint out of range");
+            progress.update(total, total);
+            return new GraphData(n, m, src, dst, w, (flags & FLAG_DIRECTED) != 0, ids, labels);
+        }
+    }
+
+    private static int[] readInts(FileChannel ch, ByteBuffer buf, int count, long total, Progress progress) throws IOException {
+        int[] out = new int[count];
+        int done = 0;
+        while (done < count) {
+            checkCancelled();
+            buf.clear();
+            buf.limit((int) Math.min(buf.capacity(), (count - done) * 4L));
+            readFully(ch, buf);
+            buf.flip();
+            IntBuffer ints = buf.asIntBuffer();
+            int k = ints.remaining();
+            ints.get(out, done, k);
+            done += k;
+            progress.update(ch.position(), total);
+        }
+        return out;
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining())
+            if (ch.read(buf) < 0) throw new IOException("Unexpected end of file");
+    }
+
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException("Cancelled");
+    }
+
+    // ==========================================================================
+    // WRITING
+    // ==========================================================================
+    public static void write(Path path, Format format, GraphData g, Progress progress) throws IOException {
+        switch (format) {
+            case DIMACS:  writeDimacs(path, g, progress);  break;
+            case GRAPHML: writeGraphMl(path, g, progress); break;
+            case BINARY:  writeBinary(path, g, progress);  break;
+            default:      writeEdgeList(path, g, progress);
+        }
+    }
+
+    /**
+     * Nodes are written as integers, so any edge-list reader can take the
+     * file: the graph's own ids when they are distinct, otherwise 1..n. A
+     * label that differs from its node's id goes into a quoted
+     * {@code # label=<id> "<text>"} comment, and nodes without edges get a
+     * line of their own, so {@link #readEdgeList} reads back the same graph.
+     */
+    static void writeEdgeList(Path path, GraphData g, Progress progress) throws IOException {
+        long[] ids = distinctIds(g);
+        boolean[] linked = new boolean[g.nodeCount];
+        for (int e = 0; e < g.edgeCount; e++) { linked[g.src[e]] = true; linked[g.dst[e]] = true; }
+
+        try (ByteSink out = new ByteSink(path)) {
+            out.ascii("# directed=").ascii(Boolean.toString(g.directed)).ascii("\n");
+            for (int i = 0; i < g.nodeCount; i++) {
+                String l = g.label(i);
+                if (l.equals(Long.toString(ids[i]))) continue;
+                out.ascii("# label=").number(ids[i]).ascii(" \"")
+                   .bytes(l.replace("\"", "\"\"").getBytes(StandardCharsets.UTF_8)).ascii("\"\n");
+            }
+            out.ascii(g.isWeighted() ? "source,target,weight\n" : "source,target\n");
+            for (int e = 0; e < g.edgeCount; e++) {
+                out.number(ids[g.src[e]]).ascii(",").number(ids[g.dst[e]]);
+                if (g.isWeighted()) out.ascii(",").number(g.weight[e]);
+                out.ascii("\n");
+                if ((e & 0xffff) == 0) { checkCancelled(); progress.update(e, g.edgeCount); }
+            }
+            for (int i = 0; i < g.nodeCount; i++)
+                if (!linked[i]) out.number(ids[i]).ascii("\n");
+        }
+        progress.update(g.edgeCount, g.edgeCount);
+    }
+
+    /** The graph's own ids if it has distinct ones, otherwise 1..n. */
+    private static long[] distinctIds(GraphData g) {
+        long[] ids = new long[g.nodeCount];
+        for (int i = 0; i < g.nodeCount; i++) ids[i] = i + 1L;
+        if (g.ids == null) return ids;
+        long[] sorted = g.ids.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) if (sorted[i] == sorted[i - 1]) return ids;
+        return g.ids;
+    }
+
+    /** Undirected edges are written as two arcs, as the format has no notion of direction. */
+    static void writeDimacs(Path path, GraphData g, Progress progress) throws IOException {
+        long arcs = g.directed ? g.edgeCount : 2L * g.edgeCount;
+        try (ByteSink out = new ByteSink(path)) {
+            out.ascii("c VisuAlgorithm export\n");
+            out.ascii("p sp ").number(g.nodeCount).ascii(" ").number(arcs).ascii("\n");
+            for (int e = 0; e < g.edgeCount; e++) {
+                out.ascii("a ").number(g.src[e] + 1).ascii(" ").number(g.dst[e] + 1).ascii(" ").number(g.weight(e)).ascii("\n");
+                if (!g.directed)
+                    out.ascii("a ").number(g.dst[e] + 1).ascii(" ").number(g.src[e] + 1).ascii(" ").number(g.weight(e)).ascii("\n");
+                if ((e & 0xffff) == 0) { checkCancelled(); progress.update(e, g.edgeCount); }
+            }
+        }
+        progress.update(g.edgeCount, g.edgeCount);
+    }
+
+    static void writeGraphMl(Path path, GraphData g, Progress progress) throws IOException {
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)) {
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(os, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeCharacters("\n");
+            xml.writeStartElement("graphml");
+            xml.writeDefaultNamespace("http://graphml.graphdrawing.org/xmlns");
+            xml.writeCharacters("\n");
+            writeKey(xml, "label", "node", "label", "string");
+            if (g.isWeighted()) writeKey(xml, "weight", "edge", "weight", "int");
+            xml.writeStartElement("graph");
+            xml.writeAttribute("id", "G");
+            xml.writeAttribute("edgedefault", g.directed ? "directed" : "undirected");
+            xml.writeCharacters("\n");
+            for (int i = 0; i < g.nodeCount; i++) {
+                xml.writeStartElement("node");
+                xml.writeAttribute("id", "n" + i);
+                xml.writeStartElement("data");
+                xml.writeAttribute("key", "label");
+                xml.writeCharacters(g.label(i));
+                xml.writeEndElement();
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+            }
+            for (int e = 0; e < g.edgeCount; e++) {
+                xml.writeStartElement("edge");
+                xml.writeAttribute("source", "n" + g.src[e]);
+                xml.writeAttribute("target", "n" + g.dst[e]);
+                if (g.isWeighted()) {
+                    xml.writeStartElement("data");
+                    xml.writeAttribute("key", "weight");
+                    xml.writeCharacters(Integer.toString(g.weight[e]));
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+                xml.writeCharacters("\n");
+                if ((e & 0xffff) == 0) { checkCancelled(); progress.update(e, g.edgeCount); }
+            }
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        progress.update(g.edgeCount, g.edgeCount);
+    }
+
+    private static void writeKey(XMLStreamWriter xml, String id, String domain, String name, String type) throws XMLStreamException {
+        xml.writeEmptyElement("key");
+        xml.writeAttribute("id", id);
+        xml.writeAttribute("for", domain);
+        xml.writeAttribute("attr.name", name);
+        xml.writeAttribute("attr.type", type);
+        xml.writeCharacters("\n");
+    }
+
+    static void writeBinary(Path path, GraphData g, Progress progress) throws IOException {
+        int flags = (g.directed ? FLAG_DIRECTED : 0) | (g.isWeighted() ? FLAG_WEIGHTED : 0)
+                  | (g.ids != null ? FLAG_IDS : 0) | (g.labels != null ? FLAG_LABELS : 0);
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buf.putInt(BINARY_MAGIC).putInt(BINARY_VERSION).putInt(flags).putInt(g.nodeCount).putInt(g.edgeCount);
+            long total = 2L * g.edgeCount + (g.isWeighted() ? g.edgeCount : 0);
+            long[] done = {0};
+            writeInts(ch, buf, g.src, g.edgeCount, done, total, progress);
+            writeInts(ch, buf, g.dst, g.edgeCount, done, total, progress);
+            if (g.isWeighted()) writeInts(ch, buf, g.weight, g.edgeCount, done, total, progress);
+            if (g.ids != null) {
+                int[] lo = new int[g.nodeCount], hi = new int[g.nodeCount];
+                for (int i = 0; i < g.nodeCount; i++) { lo[i] = (int) g.ids[i]; hi[i] = (int) (g.ids[i] >>> 32); }
+                writeInts(ch, buf, lo, g.nodeCount, done, total, progress);
+                writeInts(ch, buf, hi, g.nodeCount, done, total, progress);
+            }
+            if (g.labels != null) {
+                byte[][] bytes = new byte[g.nodeCount][];
+                int[] lengths = new int[g.nodeCount];
+                for (int i = 0; i < g.nodeCount; i++) {
+                    bytes[i]   = g.labels[i] == null ? null : g.labels[i].getBytes(StandardCharsets.UTF_8);
+                    lengths[i] = bytes[i] == null ? -1 : bytes[i].length;
+                }
+                writeInts(ch, buf, lengths, g.nodeCount, done, total, progress);
+                for (byte[] b : bytes) {
+                    if (b == null) continue;
+                    if (buf.remaining() < b.length) drain(ch, buf);
+                    if (b.length > buf.capacity()) ch.write(ByteBuffer.wrap(b));
+                    else buf.put(b);
+                }
+            }
+            drain(ch, buf);
+        }
+        progress.update(1, 1);
+    }
+
+    private static void writeInts(FileChannel ch, ByteBuffer buf, int[] a, int count,
+                                  long[] done, long total, Progress progress) throws IOException {
+        int i = 0;
+        while (i < count) {
+            if (buf.remaining() < 4) drain(ch, buf);
+            IntBuffer ints = buf.asIntBuffer();
+            int k = Math.min(ints.remaining(), count - i);
+            ints.put(a, i, k);
+            buf.position(buf.position() + k * 4);
+            i += k;
+            done[0] += k;
+            checkCancelled();
+            progress.update(done[0], total);
+        }
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    // ==========================================================================
+    // BYTE-LEVEL I/O
+    // ==========================================================================
+    /** Forward-only tokenizer over a file channel; numbers are parsed in place. */
+    static final class ByteScanner implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer  buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final byte[]      bytes  = buffer.array();
+        private final long        total;
+        private final Progress    progress;
+        private int  pos, limit;
+        private long consumed;
+        private final StringBuilder word = new StringBuilder();
+
+        ByteScanner(Path path, Progress progress) throws IOException {
+            this.channel  = FileChannel.open(path, StandardOpenOption.READ);
+            this.total    = channel.size();
+            this.progress = progress;
+        }
+
+        private boolean fill() throws IOException {
+            if (pos < limit) return true;
+            checkCancelled();
+            consumed += limit;
+            buffer.clear();
+            int r;
+            do { r = channel.read(buffer); } while (r == 0);
+            pos = 0;
+            limit = Math.max(r, 0);
+            progress.update(consumed + limit, total);
+            return r > 0;
+        }
+
+        int peek() throws IOException { return fill() ? bytes[pos] & 0xff : -1; }
+
+        int next() throws IOException { return fill() ? bytes[pos++] & 0xff : -1; }
+
+        static boolean isNumberStart(int c) { return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.'; }
+
+        private static boolean isSeparator(int c) { return c == ' ' || c == '\t' || c == ',' || c == ';'; }
+
+        void skipSeparators() throws IOException {
+            while (fill() && isSeparator(bytes[pos])) pos++;
+        }
+
+        boolean atLineEnd() throws IOException {
+            int c = peek();
+            return c == '\n' || c == '\r' || c == -1 || c == '#';
+        }
+
+        void skipLine() throws IOException {
+            while (fill()) { if (bytes[pos++] == '\n') return; }
+        }
+
+        /** Skips whitespace and empty lines; false at end of file. */
+        boolean skipBlankLines() throws IOException {
+            while (fill()) {
+                byte c = bytes[pos];
+                if (c != '\n' && c != '\r' && c != ' ' && c != '\t') return true;
+                pos++;
+            }
+            return false;
+        }
+
+        /** True if the rest of the current line (within the buffer) contains no digits. */
+        boolean lineHasNoDigits() throws IOException {
+            fill();
+            for (int i = pos; i < limit && bytes[i] != '\n'; i++)
+                if (bytes[i] >= '0' && bytes[i] <= '9') return false;
+            return true;
+        }
+
+        long readLong() throws IOException {
+            boolean neg = false;
+            int c = peek();
+            if (c == '-' || c == '+') { neg = c == '-'; pos++; }
+            long v = 0;
+            int digits = 0;
+            while (fill()) {
+                int d = bytes[pos] - '0';
+                if (d < 0 || d > 9) break;
+                v = v * 10 + d;
+                pos++; digits++;
+            }
+            if (digits == 0) throw new IOException("Expected a number at byte " + (consumed + pos));
+            return neg ? -v : v;
+        }
+
+        /** Parses an integer or decimal number and rounds it to an int. */
+        int readRoundedNumber() throws IOException {
+            boolean neg = false;
+            int c = peek();
+            if (c == '-' || c == '+') { neg = c == '-'; pos++; }
+            long whole = 0;
+            while (fill() && bytes[pos] >= '0' && bytes[pos] <= '9') whole = whole * 10 + (bytes[pos++] - '0');
+            double frac = 0, scale = 0.1;
+            if (fill() && bytes[pos] == '.') {
+                pos++;
+                while (fill() && bytes[pos] >= '0' && bytes[pos] <= '9') { frac += (bytes[pos++] - '0') * scale; scale /= 10; }
+            }
+            long r = Math.round(whole + frac);
+            return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, neg ? -r : r));
+        }
+
+        long number;        // value of the last token readToken() found to be a whole integer
+
+        /**
+         * Reads one token up to the next separator or line end. Returns null
+         * if it is a whole integer, whose value is then in {@link #number};
+         * otherwise returns the token's text ({@code "2B"}, {@code -x}).
+         */
+        String readToken() throws IOException {
+            word.setLength(0);
+            ByteArrayOutputStream utf8 = null;
+            boolean numeric = true, neg = false;
+            long    v       = 0;
+            int     digits  = 0;
+            while (fill()) {
+                byte c = bytes[pos];
+                if (isSeparator(c) || c == '\n' || c == '\r') break;
+                if (numeric) {
+                    if (c >= '0' && c <= '9' && digits < 18)            { v = v * 10 + (c - '0'); digits++; }
+                    else if ((c == '-' || c == '+') && word.length() == 0) neg = c == '-';
+                    else                                                 numeric = false;
+                }
+                if (c < 0 && utf8 == null) utf8 = new ByteArrayOutputStream();
+                if (utf8 != null) utf8.write(c); else word.append((char) c);
+                pos++;
+            }
+            if (numeric && digits > 0) { number = neg ? -v : v; return null; }
+            if (utf8 == null) return word.toString();
+            return word + utf8.toString(StandardCharsets.UTF_8);
+        }
+
+        /** Reads a double-quoted string ({@code ""} inside is one quote), which may hold separators and line breaks. */
+        String readQuoted() throws IOException {
+            ByteArrayOutputStream utf8 = new ByteArrayOutputStream();
+            next();                                           // the opening quote
+            while (fill()) {
+                byte c = bytes[pos++];
+                if (c == '"') {
+                    if (peek() != '"') return utf8.toString(StandardCharsets.UTF_8);
+                    pos++;
+                }
+                utf8.write(c);
+            }
+            throw new IOException("Unterminated quoted string");
+        }
+
+        /** Reads a non-numeric token (ASCII/UTF-8) up to the next separator or line end. */
+        String readWord() throws IOException {
+            word.setLength(0);
+            ByteArrayOutputStream utf8 = null;
+            while (fill()) {
+                byte c = bytes[pos];
+                if (isSeparator(c) || c == '\n' || c == '\r') break;
+                if (c < 0 && utf8 == null) utf8 = new ByteArrayOutputStream();
+                if (utf8 != null) utf8.write(c); else word.append((char) c);
+                pos++;
+            }
+            if (utf8 == null) return word.toString();
+            return word + utf8.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException { channel.close(); }
+    }
+
+    /** Buffered writer that formats numbers straight into bytes. */
+    static final class ByteSink implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer  buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final byte[]      digits = new byte[20];
+
+        ByteSink(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                             StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        private void ensure(int n) throws IOException { if (buffer.remaining() < n) drain(channel, buffer); }
+
+        ByteSink ascii(String s) throws IOException {
+            ensure(s.length());
+            for (int i = 0; i < s.length(); i++) buffer.put((byte) s.charAt(i));
+            return this;
+        }
+
+        ByteSink bytes(byte[] b) throws IOException {
+            ensure(b.length);
+            buffer.put(b);
+            return this;
+        }
+
+        ByteSink number(long v) throws IOException {
+            ensure(21);
+            if (v < 0) { buffer.put((byte) '-'); v = -v; }
+            int n = 0;
+            do { digits[n++] = (byte) ('0' + (v % 10)); v /= 10; } while (v > 0);
+            while (n > 0) buffer.put(digits[--n]);
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try { drain(channel, buffer); } finally { channel.close(); }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final long     total;
+        private final Progress progress;
+        private long count, lastReport;
+
+        CountingInputStream(InputStream in, long total, Progress progress) {
+            super(in);
+            this.total = total; this.progress = progress;
+        }
+
+        private void advance(long n) {
+            if (n <= 0) return;
+            count += n;
+            if (count - lastReport >= BUFFER_SIZE) {
+                lastReport = count;
+                checkCancelled();
+                progress.update(count, total);
+            }
+        }
+
+        @Override public int read() throws IOException { int b = super.read(); if (b >= 0) advance(1); return b; }
+        @Override public int read(byte[] b, int off, int len) throws IOException { int r = super.read(b, off, len); advance(r); return r; }
+        @Override public long skip(long n) throws IOException { long r = super.skip(n); advance(r); return r; }
+    }
+}
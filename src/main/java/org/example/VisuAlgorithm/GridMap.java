@@ -0,0 +1,184 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Rectangular cell map for the grid pathfinding lab. Each cell stores the
+ * cost of entering it (1..9) or 0 for a wall, in one byte, so a 2000×2000
+ * map is 4 MB. Cells are addressed as {@code y * width + x}.
+ *
+ * The generators are seeded and deterministic, so the same seed always
+ * gives the same maze.
+ *
+ * Usage:
+ *   GridMap map = GridMap.generate(GridMap.Generator.MAZE, 501, 501, 42);
+ *   int start = map.nearestFree(0), goal = map.nearestFree(map.cellCount() - 1);
+ */
+public final class GridMap {
+
+    public static final int MAX_SIDE = 2000;
+    public static final int MAX_COST = 9;
+
+    public enum Generator {
+        MAZE        ("Maze (perfect)"),
+        BRAIDED_MAZE("Maze (braided)"),
+        OBSTACLES   ("Random obstacles"),
+        TERRAIN     ("Weighted terrain"),
+        OPEN        ("Open field");
+
+        public final String label;
+        Generator(String label) { this.label = label; }
+
+        @Override public String toString() { return label; }
+    }
+
+    public final int width, height;
+    private final byte[] cost;          // 0 = wall, otherwise cost to enter
+
+    public GridMap(int width, int height) {
+        if (width < 2 || height < 2 || width > MAX_SIDE || height > MAX_SIDE)
+            throw new IllegalArgumentException("Grid side must be between 2 and " + MAX_SIDE);
+        this.width  = width;
+        this.height = height;
+        this.cost   = new byte[width * height];
+        Arrays.fill(cost, (byte) 1);
+    }
+
+    public int     cellCount()             { return cost.length; }
+    public int     cell(int x, int y)      { return y * width + x; }
+    public int     x(int cell)             { return cell % width; }
+    public int     y(int cell)             { return cell / width; }
+    public int     cost(int cell)          { return cost[cell]; }
+    public boolean passable(int cell)      { return cost[cell] != 0; }
+
+    /** Bounds-checked passability, which the search code uses for neighbour tests. */
+    public boolean passable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && cost[y * width + x] != 0;
+    }
+
+    public void setWall(int cell)            { cost[cell] = 0; }
+    public void setCost(int cell, int value) { cost[cell] = (byte) Math.max(0, Math.min(MAX_COST, value)); }
+
+    /** True when every open cell costs 1, which is what jump point search requires. */
+    public boolean isUniform() {
+        for (byte c : cost) if (c > 1) return false;
+        return true;
+    }
+
+    /** Smallest entry cost over open cells; scales the heuristics so they stay admissible. */
+    public int minCost() {
+        int min = MAX_COST;
+        for (byte c : cost) if (c != 0 && c < min) min = c;
+        return min;
+    }
+
+    /** Closest open cell to {@code cell} by ring search, or -1 if the map is all walls. */
+    public int nearestFree(int cell) {
+        int cx = x(cell), cy = y(cell);
+        if (passable(cell)) return cell;
+        for (int r = 1; r < Math.max(width, height); r++) {
+            for (int dx = -r; dx <= r; dx++) {
+                if (passable(cx + dx, cy - r)) return cell(cx + dx, cy - r);
+                if (passable(cx + dx, cy + r)) return cell(cx + dx, cy + r);
+            }
+            for (int dy = -r + 1; dy < r; dy++) {
+                if (passable(cx - r, cy + dy)) return cell(cx - r, cy + dy);
+                if (passable(cx + r, cy + dy)) return cell(cx + r, cy + dy);
+            }
+        }
+        return -1;
+    }
+
+    // ==========================================================================
+    // GENERATORS
+    // ==========================================================================
+
+    public static GridMap generate(Generator generator, int width, int height, long seed) {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        return switch (generator) {
+            case MAZE         -> maze(width, height, 0, rnd);
+            case BRAIDED_MAZE -> maze(width, height, 0.08, rnd);
+            case OBSTACLES    -> obstacles(width, height, 0.3, rnd);
+            case TERRAIN      -> terrain(width, height, rnd);
+            case OPEN         -> new GridMap(width, height);
+        };
+    }
+
+    /**
+     * Recursive-backtracker maze carved with an explicit stack. Rooms sit on
+     * even coordinates and walls on odd ones; {@code braid} knocks out that
+     * fraction of the remaining inner walls to create loops.
+     */
+    public static GridMap maze(int width, int height, double braid, SplittableRandom rnd) {
+        GridMap map = new GridMap(width, height);
+        Arrays.fill(map.cost, (byte) 0);
+        int rw = (width + 1) / 2, rh = (height + 1) / 2;
+        boolean[] seen = new boolean[rw * rh];
+        int[] stack = new int[rw * rh];
+        int[] options = new int[4];
+        int top = 0;
+        stack[top++] = 0;
+        seen[0] = true;
+        map.cost[0] = 1;
+        while (top > 0) {
+            int room = stack[top - 1], rx = room % rw, ry = room / rw, count = 0;
+            if (rx > 0      && !seen[room - 1])  options[count++] = room - 1;
+            if (rx < rw - 1 && !seen[room + 1])  options[count++] = room + 1;
+            if (ry > 0      && !seen[room - rw]) options[count++] = room - rw;
+            if (ry < rh - 1 && !seen[room + rw]) options[count++] = room + rw;
+            if (count == 0) { top--; continue; }
+            int next = options[rnd.nextInt(count)], nx = next % rw, ny = next / rw;
+            seen[next] = true;
+            map.cost[map.cell(2 * nx, 2 * ny)] = 1;
+            map.cost[map.cell(rx + nx, ry + ny)] = 1;      // wall between the two rooms
+            stack[top++] = next;
+        }
+        if (braid > 0) {
+            for (int y = 1; y < height - 1; y++)
+                for (int x = 1; x < width - 1; x++) {
+                    int c = map.cell(x, y);
+                    if (map.cost[c] != 0 || rnd.nextDouble() >= braid) continue;
+                    boolean horizontal = map.passable(x - 1, y) && map.passable(x + 1, y);
+                    boolean vertical   = map.passable(x, y - 1) && map.passable(x, y + 1);
+                    if (horizontal != vertical) map.cost[c] = 1;   // only walls that separate two corridors
+                }
+        }
+        return map;
+    }
+
+    public static GridMap obstacles(int width, int height, double density, SplittableRandom rnd) {
+        GridMap map = new GridMap(width, height);
+        for (int c = 0; c < map.cost.length; c++) if (rnd.nextDouble() < density) map.cost[c] = 0;
+        return map;
+    }
+
+    /**
+     * Smooth value-noise terrain: random heights on a coarse lattice,
+     * bilinearly interpolated. Height maps to entry cost 1..9 and the
+     * highest peaks become impassable.
+     */
+    public static GridMap terrain(int width, int height, SplittableRandom rnd) {
+        GridMap map = new GridMap(width, height);
+        int spacing = Math.max(4, Math.max(width, height) / 12);
+        int lw = width / spacing + 2, lh = height / spacing + 2;
+        double[] lattice = new double[lw * lh];
+        for (int i = 0; i < lattice.length; i++) lattice[i] = rnd.nextDouble();
+        for (int y = 0; y < height; y++) {
+            int ly = y / spacing;
+            double fy = smooth((y % spacing) / (double) spacing);
+            for (int x = 0; x < width; x++) {
+                int lx = x / spacing;
+                double fx = smooth((x % spacing) / (double) spacing);
+                double top    = lerp(lattice[ly * lw + lx],       lattice[ly * lw + lx + 1],       fx);
+                double bottom = lerp(lattice[(ly + 1) * lw + lx], lattice[(ly + 1) * lw + lx + 1], fx);
+                double h = lerp(top, bottom, fy);
+                map.cost[map.cell(x, y)] = h > 0.88 ? 0 : (byte) (1 + (int) (h * MAX_COST * 0.99));
+            }
+        }
+        return map;
+    }
+
+    private static double smooth(double t)                   { return t * t * (3 - 2 * t); }
+    private static double lerp(double a, double b, double t) { return a + (b - a) * t; }
+}
@@ -0,0 +1,440 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Shortest-path engines for {@link GridMap}. All of them run on cell
+ * indices with primitive state: an {@code int[]} of path costs, an
+ * {@code int[]} of parents, a {@link BitSet} closed set and an
+ * {@link IndexedHeap} as the open set. Costs are scaled integers
+ * (straight step 10, diagonal 14, times the entered cell's cost), so the
+ * octile heuristic stays exact enough and no floating point is involved.
+ *
+ * Diagonal moves never cut corners: both orthogonal neighbours must be open.
+ * Every engine counts expanded cells, which is what the lab compares.
+ *
+ * Usage:
+ *   GridSearch.Result r = GridSearch.run(map, Algorithm.ASTAR, Movement.EIGHT, start, goal);
+ *   r.expanded; r.cost; r.path;
+ */
+public final class GridSearch {
+
+    public static final int STRAIGHT = 10;
+    public static final int DIAGONAL = 14;
+
+    private static final int INF         = Integer.MAX_VALUE;
+    private static final int HEAP_ARITY  = 4;
+    private static final int CANCEL_MASK = 0xFFF;   // check for interruption every 4096 expansions
+
+    public enum Algorithm {
+        BFS                ("BFS"),
+        DIJKSTRA           ("Dijkstra"),
+        ASTAR              ("A*"),
+        BIDIRECTIONAL_ASTAR("Bidirectional A*"),
+        JPS                ("Jump Point Search");
+
+        public final String label;
+        Algorithm(String label) { this.label = label; }
+
+        @Override public String toString() { return label; }
+    }
+
+    public enum Movement {
+        FOUR ("4-way · Manhattan"),
+        EIGHT("8-way · Octile");
+
+        public final String label;
+        Movement(String label) { this.label = label; }
+
+        @Override public String toString() { return label; }
+    }
+
+    /** Outcome of one run; {@code note} explains results that are not directly comparable. */
+    public static final class Result {
+        public final Algorithm algorithm;
+        public final boolean   found;
+        public final long      cost;           // scaled (÷10 for steps), -1 when not found
+        public final int[]     path;           // start..goal cells, empty when not found
+        public final long      expanded;
+        public final long      touched;        // cells whose cost was written or scanned
+        public final long      nanos;
+        public final BitSet    expandedCells;
+        public final String    note;
+
+        Result(Algorithm algorithm, long cost, int[] path, long expanded, long touched,
+               long nanos, BitSet expandedCells, String note) {
+            this.algorithm = algorithm; this.found = path.length > 0; this.cost = cost; this.path = path;
+            this.expanded = expanded; this.touched = touched; this.nanos = nanos;
+            this.expandedCells = expandedCells; this.note = note;
+        }
+
+        static Result unavailable(Algorithm algorithm, String why) {
+            return new Result(algorithm, -1, new int[0], 0, 0, 0, new BitSet(), why);
+        }
+    }
+
+    private GridSearch() {}
+
+    public static Result run(GridMap map, Algorithm algorithm, Movement movement, int start, int goal) {
+        if (!map.passable(start) || !map.passable(goal))
+            return Result.unavailable(algorithm, "start or goal is a wall");
+        return switch (algorithm) {
+            case BFS                 -> new Search(map, movement, start, goal).bfs();
+            case DIJKSTRA            -> new Search(map, movement, start, goal).aStar(false);
+            case ASTAR               -> new Search(map, movement, start, goal).aStar(true);
+            case BIDIRECTIONAL_ASTAR -> new Search(map, movement, start, goal).bidirectional();
+            case JPS -> {
+                if (movement != Movement.EIGHT) yield Result.unavailable(algorithm, "needs 8-way movement");
+                if (!map.isUniform())            yield Result.unavailable(algorithm, "needs uniform cost");
+                yield new Search(map, movement, start, goal).jps();
+            }
+        };
+    }
+
+    /** Admissible distance estimate: Manhattan for 4-way, octile for 8-way, scaled by the cheapest cell. */
+    static int heuristic(GridMap map, Movement movement, int minCost, int a, int b) {
+        int dx = Math.abs(map.x(a) - map.x(b)), dy = Math.abs(map.y(a) - map.y(b));
+        int h = movement == Movement.FOUR
+                ? STRAIGHT * (dx + dy)
+                : STRAIGHT * Math.max(dx, dy) + (DIAGONAL - STRAIGHT) * Math.min(dx, dy);
+        return h * minCost;
+    }
+
+    // ==========================================================================
+    // SEARCH STATE
+    // ==========================================================================
+    private static final class Search {
+        private static final int[] DX = { 1, -1, 0,  0, 1,  1, -1, -1 };
+        private static final int[] DY = { 0,  0, 1, -1, 1, -1,  1, -1 };
+
+        final GridMap  map;
+        final Movement movement;
+        final int      start, goal, width, height, minCost, directions;
+        final long     began = System.nanoTime();
+        long expanded, touched;
+
+        Search(GridMap map, Movement movement, int start, int goal) {
+            this.map = map; this.movement = movement; this.start = start; this.goal = goal;
+            this.width = map.width; this.height = map.height;
+            this.minCost = map.minCost();
+            this.directions = movement == Movement.FOUR ? 4 : 8;
+        }
+
+        /** Target of move {@code dir} from {@code cell}, or -1 if blocked or it would cut a corner. */
+        int step(int cell, int dir) {
+            int x = cell % width, y = cell / width, nx = x + DX[dir], ny = y + DY[dir];
+            if (!map.passable(nx, ny)) return -1;
+            if (dir >= 4 && (!map.passable(nx, y) || !map.passable(x, ny))) return -1;
+            return ny * width + nx;
+        }
+
+        /** Scaled cost of entering {@code to} with move {@code dir}. */
+        int moveCost(int dir, int to) { return (dir < 4 ? STRAIGHT : DIAGONAL) * map.cost(to); }
+
+        int h(int from, int to) { return heuristic(map, movement, minCost, from, to); }
+
+        void checkCancelled() {
+            if ((expanded & CANCEL_MASK) == 0 && Thread.currentThread().isInterrupted())
+                throw new CancellationException("Cancelled");
+        }
+
+        /** Path cost recomputed along the cells, so unweighted searches report comparable numbers. */
+        long pathCost(int[] path) {
+            long total = 0;
+            for (int i = 1; i < path.length; i++) {
+                boolean diagonal = map.x(path[i]) != map.x(path[i - 1]) && map.y(path[i]) != map.y(path[i - 1]);
+                total += (diagonal ? DIAGONAL : STRAIGHT) * (long) map.cost(path[i]);
+            }
+            return total;
+        }
+
+        static int[] trace(int[] parent, int from, int to) {
+            int length = 1;
+            for (int c = to; c != from; c = parent[c]) length++;
+            int[] path = new int[length];
+            for (int c = to, i = length - 1; i >= 0; c = parent[c], i--) path[i] = c;
+            return path;
+        }
+
+        Result finish(Algorithm algorithm, int[] path, BitSet closed, String note) {
+            long nanos = System.nanoTime() - began;
+            return new Result(algorithm, path.length > 0 ? pathCost(path) : -1, path,
+                    expanded, touched, nanos, closed, note);
+        }
+
+        // ── BFS: fewest moves, ignores cell costs ──────────────────────
+        Result bfs() {
+            int n = map.cellCount();
+            int[] parent = new int[n];
+            int[] queue  = new int[n];
+            BitSet seen = new BitSet(n), closed = new BitSet(n);
+            int head = 0, tail = 0;
+            queue[tail++] = start;
+            seen.set(start);
+            boolean found = false;
+            while (head < tail) {
+                int u = queue[head++];
+                expanded++;
+                checkCancelled();
+                closed.set(u);
+                if (u == goal) { found = true; break; }
+                for (int d = 0; d < directions; d++) {
+                    int v = step(u, d);
+                    if (v < 0 || seen.get(v)) continue;
+                    seen.set(v);
+                    touched++;
+                    parent[v] = u;
+                    queue[tail++] = v;
+                }
+            }
+            String note = movement == Movement.EIGHT || !map.isUniform() ? "fewest moves, ignores cost" : null;
+            return finish(Algorithm.BFS, found ? trace(parent, start, goal) : new int[0], closed, note);
+        }
+
+        // ── Dijkstra / A*: one engine, the heuristic is the only difference ──
+        Result aStar(boolean useHeuristic) {
+            int n = map.cellCount();
+            int[] g = new int[n], parent = new int[n];
+            Arrays.fill(g, INF);
+            BitSet closed = new BitSet(n);
+            IndexedHeap open = new IndexedHeap(n, HEAP_ARITY);
+            g[start] = 0;
+            open.insert(start, key(useHeuristic ? h(start, goal) : 0, 0));
+            boolean found = false;
+            while (!open.isEmpty()) {
+                int u = open.pollMin();
+                expanded++;
+                checkCancelled();
+                closed.set(u);
+                if (u == goal) { found = true; break; }
+                for (int d = 0; d < directions; d++) {
+                    int v = step(u, d);
+                    if (v < 0 || closed.get(v)) continue;
+                    int cand = g[u] + moveCost(d, v);
+                    if (cand >= g[v]) continue;
+                    touched++;
+                    g[v] = cand;
+                    parent[v] = u;
+                    long k = key(cand + (useHeuristic ? h(v, goal) : 0), cand);
+                    if (open.contains(v)) open.decreaseKey(v, k);
+                    else                  open.insert(v, k);
+                }
+            }
+            return finish(useHeuristic ? Algorithm.ASTAR : Algorithm.DIJKSTRA,
+                    found ? trace(parent, start, goal) : new int[0], closed, null);
+        }
+
+        /** Heap key ordered by f, ties broken towards the larger g (deeper, closer to the goal). */
+        static long key(int f, int g) { return (long) f << 32 | (0xFFFFFFFFL - g); }
+
+        static int fOf(long key) { return (int) (key >> 32); }
+
+        // ── Bidirectional A* (forward from start, backward from goal) ──
+        /**
+         * Both sides use the averaged potential p(v) = (h(v→goal) − h(v→start)) / 2
+         * (negated for the backward side), which keeps the reduced edge costs
+         * non-negative in both directions. {@code best} is the cheapest
+         * start→goal path seen through any edge joining the two searches, and
+         * the run stops once {@code minKey_forward + minKey_backward >= best}.
+         * Keys are doubled to stay in integers.
+         */
+        Result bidirectional() {
+            int n = map.cellCount();
+            int[] gF = new int[n], gB = new int[n], pF = new int[n], pB = new int[n];
+            Arrays.fill(gF, INF);
+            Arrays.fill(gB, INF);
+            BitSet closedF = new BitSet(n), closedB = new BitSet(n);
+            IndexedHeap openF = new IndexedHeap(n, HEAP_ARITY), openB = new IndexedHeap(n, HEAP_ARITY);
+            gF[start] = 0; openF.insert(start, key(potential(start, true), 0));
+            gB[goal]  = 0; openB.insert(goal,  key(potential(goal, false), 0));
+            long best = start == goal ? 0 : Long.MAX_VALUE;
+            int meetF = start, meetB = start;
+
+            while (!openF.isEmpty() && !openB.isEmpty()) {
+                long minF = fOf(openF.key(openF.idAt(0))), minB = fOf(openB.key(openB.idAt(0)));
+                if (best != Long.MAX_VALUE && minF + minB >= 2 * best) break;
+                boolean forward = openF.size() <= openB.size();
+                IndexedHeap open   = forward ? openF : openB;
+                int[]       g      = forward ? gF : gB,   other  = forward ? gB : gF;
+                int[]       parent = forward ? pF : pB;
+                BitSet      closed = forward ? closedF : closedB;
+
+                int u = open.pollMin();
+                expanded++;
+                checkCancelled();
+                closed.set(u);
+                for (int d = 0; d < directions; d++) {
+                    int v = step(u, d);
+                    if (v < 0) continue;
+                    // The backward search walks edges in reverse: v→u enters u.
+                    int c    = forward ? moveCost(d, v) : moveCost(d, u);
+                    int cand = g[u] + c;
+                    if (other[v] != INF && cand + (long) other[v] < best) {
+                        best  = cand + (long) other[v];
+                        meetF = forward ? u : v;
+                        meetB = forward ? v : u;
+                    }
+                    if (closed.get(v) || cand >= g[v]) continue;
+                    touched++;
+                    g[v] = cand;
+                    parent[v] = u;
+                    long k = key(2 * cand + potential(v, forward), cand);
+                    if (open.contains(v)) open.decreaseKey(v, k);
+                    else                  open.insert(v, k);
+                }
+            }
+
+            int[] path = new int[0];
+            if (best != Long.MAX_VALUE) {
+                int[] head = trace(pF, start, meetF);
+                int[] tail = trace(pB, goal, meetB);          // goal..meetB, reversed below
+                int same = meetF == meetB ? 1 : 0;            // start == goal
+                path = Arrays.copyOf(head, head.length + tail.length - same);
+                for (int i = same; i < tail.length; i++) path[head.length + i - same] = tail[tail.length - 1 - i];
+            }
+            closedF.or(closedB);
+            return finish(Algorithm.BIDIRECTIONAL_ASTAR, path, closedF, null);
+        }
+
+        /** Twice the averaged potential of {@code v} for the given side. */
+        int potential(int v, boolean forward) {
+            int toGoal = h(v, goal), toStart = h(v, start);
+            return forward ? toGoal - toStart : toStart - toGoal;
+        }
+
+        // ── Jump point search (8-way, uniform cost, no corner cutting) ──
+        /**
+         * A* over jump points only. From each expanded point the pruned
+         * directions are scanned in straight lines until something forces a
+         * turn (a wall corner), the goal, or a dead end; only the points
+         * where that happens enter the open set.
+         */
+        Result jps() {
+            int n = map.cellCount();
+            int[] g = new int[n], parent = new int[n];
+            Arrays.fill(g, INF);
+            BitSet closed = new BitSet(n);
+            IndexedHeap open = new IndexedHeap(n, HEAP_ARITY);
+            int[] dirs = new int[16];
+            g[start] = 0;
+            parent[start] = start;
+            open.insert(start, key(h(start, goal), 0));
+            boolean found = false;
+            while (!open.isEmpty()) {
+                int u = open.pollMin();
+                expanded++;
+                checkCancelled();
+                closed.set(u);
+                if (u == goal) { found = true; break; }
+                int count = prunedDirections(u, parent[u], dirs);
+                int ux = u % width, uy = u / width;
+                for (int i = 0; i < count; i += 2) {
+                    int dx = dirs[i], dy = dirs[i + 1];
+                    int jp = dx != 0 && dy != 0 ? jumpDiagonal(ux + dx, uy + dy, dx, dy)
+                                                : jumpStraight(ux + dx, uy + dy, dx, dy);
+                    if (jp < 0 || closed.get(jp)) continue;
+                    int cand = g[u] + octile(u, jp);
+                    if (cand >= g[jp]) continue;
+                    g[jp] = cand;
+                    parent[jp] = u;
+                    long k = key(cand + h(jp, goal), cand);
+                    if (open.contains(jp)) open.decreaseKey(jp, k);
+                    else                   open.insert(jp, k);
+                }
+            }
+            return finish(Algorithm.JPS, found ? expandJumps(parent) : new int[0], closed,
+                    "expands jump points only");
+        }
+
+        int octile(int a, int b) {
+            int dx = Math.abs(a % width - b % width), dy = Math.abs(a / width - b / width);
+            return STRAIGHT * Math.max(dx, dy) + (DIAGONAL - STRAIGHT) * Math.min(dx, dy);
+        }
+
+        /** Natural and forced directions out of {@code u}, written as (dx, dy) pairs; returns 2 × count. */
+        int prunedDirections(int u, int from, int[] out) {
+            int x = u % width, y = u / width, count = 0;
+            if (u == from) {
+                for (int d = 0; d < 8; d++) if (step(u, d) >= 0) { out[count++] = DX[d]; out[count++] = DY[d]; }
+                return count;
+            }
+            int dx = Integer.signum(x - from % width), dy = Integer.signum(y - from / width);
+            if (dx != 0 && dy != 0) {
+                boolean vertical = map.passable(x, y + dy), horizontal = map.passable(x + dx, y);
+                if (vertical)               { out[count++] = 0;  out[count++] = dy; }
+                if (horizontal)             { out[count++] = dx; out[count++] = 0;  }
+                if (vertical && horizontal) { out[count++] = dx; out[count++] = dy; }
+            } else if (dx != 0) {
+                boolean next = map.passable(x + dx, y), up = map.passable(x, y + 1), down = map.passable(x, y - 1);
+                if (next) {
+                    out[count++] = dx; out[count++] = 0;
+                    if (up)   { out[count++] = dx; out[count++] = 1;  }
+                    if (down) { out[count++] = dx; out[count++] = -1; }
+                }
+                if (up)   { out[count++] = 0; out[count++] = 1;  }
+                if (down) { out[count++] = 0; out[count++] = -1; }
+            } else {
+                boolean next = map.passable(x, y + dy), right = map.passable(x + 1, y), left = map.passable(x - 1, y);
+                if (next) {
+                    out[count++] = 0; out[count++] = dy;
+                    if (right) { out[count++] = 1;  out[count++] = dy; }
+                    if (left)  { out[count++] = -1; out[count++] = dy; }
+                }
+                if (right) { out[count++] = 1;  out[count++] = 0; }
+                if (left)  { out[count++] = -1; out[count++] = 0; }
+            }
+            return count;
+        }
+
+        /** Scans from (x, y) along a row or column; returns the first jump point or -1. */
+        int jumpStraight(int x, int y, int dx, int dy) {
+            while (map.passable(x, y)) {
+                touched++;
+                int c = y * width + x;
+                if (c == goal) return c;
+                if (dx != 0) {
+                    if ((map.passable(x, y - 1) && !map.passable(x - dx, y - 1))
+                            || (map.passable(x, y + 1) && !map.passable(x - dx, y + 1))) return c;
+                } else {
+                    if ((map.passable(x - 1, y) && !map.passable(x - 1, y - dy))
+                            || (map.passable(x + 1, y) && !map.passable(x + 1, y - dy))) return c;
+                }
+                x += dx; y += dy;
+            }
+            return -1;
+        }
+
+        /** Scans diagonally from (x, y); a cell is a jump point if either straight scan from it finds one. */
+        int jumpDiagonal(int x, int y, int dx, int dy) {
+            while (map.passable(x, y)) {
+                touched++;
+                int c = y * width + x;
+                if (c == goal) return c;
+                if (jumpStraight(x + dx, y, dx, 0) >= 0 || jumpStraight(x, y + dy, 0, dy) >= 0) return c;
+                if (!map.passable(x + dx, y) || !map.passable(x, y + dy)) return -1;
+                x += dx; y += dy;
+            }
+            return -1;
+        }
+
+        /** Fills in the straight/diagonal runs between consecutive jump points. */
+        int[] expandJumps(int[] parent) {
+            int[] jumps = trace(parent, start, goal);
+            int length = 1;
+            for (int i = 1; i < jumps.length; i++)
+                length += Math.max(Math.abs(jumps[i] % width - jumps[i - 1] % width),
+                                   Math.abs(jumps[i] / width - jumps[i - 1] / width));
+            int[] path = new int[length];
+            int k = 0;
+            path[k++] = jumps[0];
+            for (int i = 1; i < jumps.length; i++) {
+                int x = jumps[i - 1] % width, y = jumps[i - 1] / width;
+                int dx = Integer.signum(jumps[i] % width - x), dy = Integer.signum(jumps[i] / width - y);
+                while (y * width + x != jumps[i]) { x += dx; y += dy; path[k++] = y * width + x; }
+            }
+            return path;
+        }
+    }
+}
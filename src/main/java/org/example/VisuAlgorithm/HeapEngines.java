@@ -0,0 +1,165 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Headless Dijkstra and Prim in two flavours, used to compare priority-queue
+ * strategies on the graph being visualized:
+ * <ul>
+ *   <li><b>lazy</b> – {@link PriorityQueue} with one entry per relaxation;
+ *       outdated entries are popped and skipped ("stale pops"),</li>
+ *   <li><b>indexed</b> – {@link IndexedHeap} with decrease-key; the queue
+ *       never holds more than one entry per node.</li>
+ * </ul>
+ *
+ * Usage:
+ *   HeapEngines.Stats lazy = HeapEngines.dijkstraLazy(csr, s);
+ *   HeapEngines.Stats fast = HeapEngines.dijkstraIndexed(csr, s, 4);
+ */
+public final class HeapEngines {
+
+    private HeapEngines() {}
+
+    public static final class Stats {
+        public long pushes, pops, stalePops, decreaseKeys, siftMoves, maxQueue, nanos;
+        public long scans, relaxations;   // arcs examined / distances lowered (Dijkstra; Prim counts scans only)
+        public long total;            // sum of settled distances (Dijkstra) or MST weight (Prim)
+        public long[] dist;           // Dijkstra distances, Long.MAX_VALUE = unreachable
+
+        public long queueOperations() { return pushes + pops + decreaseKeys; }
+
+        @Override
+        public String toString() {
+            return String.format("%d push, %d decrease-key, %d pop (%d stale), %d sift moves, peak %d, %.2f ms",
+                    pushes, decreaseKeys, pops, stalePops, siftMoves, maxQueue, nanos / 1e6);
+        }
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        final int node; final long key;
+        Entry(int node, long key) { this.node = node; this.key = key; }
+        public int compareTo(Entry o) { return Long.compare(key, o.key); }
+    }
+
+    // ==========================================================================
+    // DIJKSTRA
+    // ==========================================================================
+    public static Stats dijkstraLazy(CsrGraph g, int source) {
+        Stats st = new Stats();
+        long t0 = System.nanoTime();
+        long[] dist = new long[g.n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        boolean[] settled = new boolean[g.n];
+        PriorityQueue<Entry> pq = new PriorityQueue<>();
+        dist[source] = 0;
+        pq.add(new Entry(source, 0)); st.pushes++;
+        while (!pq.isEmpty()) {
+            Entry cur = pq.poll(); st.pops++;
+            int u = cur.node;
+            if (settled[u]) { st.stalePops++; continue; }
+            settled[u] = true;
+            st.total += cur.key;
+            for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                st.scans++;
+                int v = g.target[a];
+                long nd = cur.key + g.weight[a];
+                if (!settled[v] && nd < dist[v]) {
+                    dist[v] = nd; st.relaxations++;
+                    pq.add(new Entry(v, nd)); st.pushes++;
+                    st.maxQueue = Math.max(st.maxQueue, pq.size());
+                }
+            }
+        }
+        st.nanos = System.nanoTime() - t0;
+        st.dist = dist;
+        return st;
+    }
+
+    public static Stats dijkstraIndexed(CsrGraph g, int source, int arity) {
+        Stats st = new Stats();
+        long t0 = System.nanoTime();
+        long[] dist = new long[g.n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        boolean[] settled = new boolean[g.n];
+        IndexedHeap heap = new IndexedHeap(g.n, arity);
+        dist[source] = 0;
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            settled[u] = true;
+            st.total += dist[u];
+            for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                st.scans++;
+                int v = g.target[a];
+                long nd = dist[u] + g.weight[a];
+                if (settled[v] || nd >= dist[v]) continue;
+                dist[v] = nd; st.relaxations++;
+                if (heap.contains(v)) heap.decreaseKey(v, nd); else heap.insert(v, nd);
+                st.maxQueue = Math.max(st.maxQueue, heap.size());
+            }
+        }
+        st.nanos = System.nanoTime() - t0;
+        fill(st, heap);
+        st.dist = dist;
+        return st;
+    }
+
+    // ==========================================================================
+    // PRIM (vertex-keyed for the indexed heap, edge-keyed for the lazy queue)
+    // ==========================================================================
+    public static Stats primLazy(CsrGraph g, int source) {
+        Stats st = new Stats();
+        long t0 = System.nanoTime();
+        boolean[] inTree = new boolean[g.n];
+        PriorityQueue<Entry> pq = new PriorityQueue<>();   // Entry.node = arc index
+        inTree[source] = true;
+        for (int a = g.offset[source]; a < g.offset[source + 1]; a++) { pq.add(new Entry(a, g.weight[a])); st.pushes++; }
+        while (!pq.isEmpty()) {
+            Entry cur = pq.poll(); st.pops++;
+            int v = g.target[cur.node];
+            if (inTree[v]) { st.stalePops++; continue; }
+            inTree[v] = true;
+            st.total += cur.key;
+            for (int a = g.offset[v]; a < g.offset[v + 1]; a++) {
+                st.scans++;
+                if (inTree[g.target[a]]) continue;
+                pq.add(new Entry(a, g.weight[a])); st.pushes++;
+                st.maxQueue = Math.max(st.maxQueue, pq.size());
+            }
+        }
+        st.nanos = System.nanoTime() - t0;
+        return st;
+    }
+
+    public static Stats primIndexed(CsrGraph g, int source, int arity) {
+        Stats st = new Stats();
+        long t0 = System.nanoTime();
+        boolean[] inTree = new boolean[g.n];
+        IndexedHeap heap = new IndexedHeap(g.n, arity);
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            inTree[u] = true;
+            st.total += heap.key(u);
+            for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                st.scans++;
+                int v = g.target[a];
+                if (inTree[v]) continue;
+                if (!heap.contains(v)) heap.insert(v, g.weight[a]);
+                else heap.decreaseKey(v, g.weight[a]);
+                st.maxQueue = Math.max(st.maxQueue, heap.size());
+            }
+        }
+        st.nanos = System.nanoTime() - t0;
+        fill(st, heap);
+        return st;
+    }
+
+    private static void fill(Stats st, IndexedHeap heap) {
+        st.pushes       = heap.inserts;
+        st.pops         = heap.polls;
+        st.decreaseKeys = heap.decreaseKeys;
+        st.siftMoves    = heap.moves;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.VisuAlgorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout targets for a binary tree and the smallest set of nodes a move to
+ * them has to touch. Targets are written straight into the nodes. A node
+ * already on its target does not move, and only <i>stale</i> nodes need
+ * their edge and label redrawn while the rest move:
+ * <ul>
+ *   <li>nodes that move,</li>
+ *   <li>children of moving nodes (their edge starts at the parent),</li>
+ *   <li>nodes whose parent or key changed since they were last drawn.</li>
+ * </ul>
+ * The view reports where each node is now and calls {@link Node#markDrawn()}
+ * once it has redrawn one; nothing here touches a toolkit.
+ *
+ * Usage:
+ *   IncrementalTreeLayout.inorderTargets(root, left, top, hSpacing, vSpacing);
+ *   List<N> moving = new ArrayList<>();
+ *   List<N> stale  = IncrementalTreeLayout.plan(root, moving);
+ *   // animate moving to (targetX, targetY), redraw stale each frame, markDrawn() each
+ */
+public final class IncrementalTreeLayout {
+
+    /** A tree node plus what the layout wants for it and what was last drawn for it. */
+    public abstract static class Node<N extends Node<N>> extends BalancedTree.Node<N> {
+        public double  targetX, targetY;
+        public boolean moving;
+        N              drawnParent;
+        int            drawnValue = Integer.MIN_VALUE;
+        int            layoutIndex;         // preorder position, only valid inside tidyTargets
+
+        protected Node(int value) { super(value); }
+
+        /** Where the node is drawn right now. */
+        public abstract double x();
+        public abstract double y();
+
+        /** The node's edge and label now match its parent and key. */
+        public void markDrawn() { drawnParent = parent; drawnValue = value; }
+    }
+
+    private IncrementalTreeLayout() {}
+
+    /** Every key its own column in inorder, so the width grows with the node count. */
+    public static <N extends Node<N>> void inorderTargets(N root, double left, double top, double hSpacing, double vSpacing) {
+        int[] counter = {0};
+        BalancedTree.forEachInorder(root, n -> n.targetX = left + counter[0]++ * hSpacing);
+        depthTargets(root, top, vSpacing);
+    }
+
+    /** Subtrees packed as close as their contours allow ({@link TidyTreeLayout}), so the width grows with the breadth. */
+    public static <N extends Node<N>> void tidyTargets(N root, double left, double top, double hSpacing, double vSpacing) {
+        List<N> nodes = new ArrayList<>();
+        BalancedTree.forEachPreorder(root, n -> { n.layoutIndex = nodes.size(); nodes.add(n); });
+        int[] l = new int[nodes.size()];
+        int[] r = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            N n = nodes.get(i);
+            l[i] = n.left  == null ? -1 : n.left.layoutIndex;
+            r[i] = n.right == null ? -1 : n.right.layoutIndex;
+        }
+        int[] x = TidyTreeLayout.layout(l, r, nodes.isEmpty() ? -1 : 0);     // the root is first in preorder
+        for (int i = 0; i < nodes.size(); i++)
+            nodes.get(i).targetX = left + x[i] * hSpacing / TidyTreeLayout.MIN_SEP;
+        depthTargets(root, top, vSpacing);
+    }
+
+    private static <N extends Node<N>> void depthTargets(N root, double top, double vSpacing) {
+        BalancedTree.forEachWithDepth(root, 0, (n, d) -> n.targetY = top + d * vSpacing);
+    }
+
+    /**
+     * Sets each node's {@code moving} flag, appends the moving nodes to
+     * {@code moving} and returns the stale ones, both in preorder.
+     */
+    public static <N extends Node<N>> List<N> plan(N root, List<N> moving) {
+        List<N> stale = new ArrayList<>();
+        BalancedTree.forEachPreorder(root, n -> {      // parents first, so n.parent.moving is already set
+            n.moving = n.x() != n.targetX || n.y() != n.targetY;
+            if (n.moving) moving.add(n);
+            if (n.moving || n.parent != n.drawnParent || n.value != n.drawnValue
+                    || (n.parent != null && n.parent.moving)) {
+                stale.add(n);
+            }
+        });
+        return stale;
+    }
+}
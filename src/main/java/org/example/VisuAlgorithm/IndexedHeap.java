@@ -0,0 +1,125 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Indexed d-ary min-heap over the ids 0..capacity-1 with a real
+ * {@code decreaseKey}. Because every id has at most one heap entry, there are
+ * no stale duplicates to skip, which the lazy {@code PriorityQueue} approach
+ * does have. A 4-ary heap has half the depth of a binary heap, so sift-up,
+ * the hot path of decrease-key, is cheaper.
+ *
+ * Operation counters are public so callers can compare engines, and an
+ * optional {@link Listener} reports every level a sift moves an entry, which
+ * the visualizer uses to narrate sift-up/down.
+ *
+ * Usage:
+ *   IndexedHeap h = new IndexedHeap(n, 4);
+ *   h.insert(s, 0);
+ *   while (!h.isEmpty()) { int u = h.pollMin(); ... h.decreaseKey(v, d); }
+ */
+public final class IndexedHeap {
+
+    public interface Listener {
+        /** Entry {@code id} moved from heap slot {@code from} to {@code to}. */
+        void moved(int id, int from, int to);
+    }
+
+    private final int    arity;
+    private final int[]  heap;     // heap slot -> id
+    private final int[]  pos;      // id -> heap slot, -1 if absent
+    private final long[] key;      // id -> current key
+    private int size;
+    private Listener listener;
+
+    public long inserts, decreaseKeys, polls, moves;
+
+    public IndexedHeap(int capacity, int arity) {
+        if (arity < 2) throw new IllegalArgumentException("arity must be >= 2");
+        this.arity = arity;
+        heap = new int[capacity];
+        pos  = new int[capacity];
+        key  = new long[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    public void setListener(Listener listener) { this.listener = listener; }
+
+    public int     arity()            { return arity; }
+    public int     size()             { return size; }
+    public boolean isEmpty()          { return size == 0; }
+    public boolean contains(int id)   { return pos[id] >= 0; }
+    public long    key(int id)        { return key[id]; }
+    public int     idAt(int slot)     { return heap[slot]; }
+    public int     slotOf(int id)     { return pos[id]; }
+
+    public void insert(int id, long k) {
+        if (pos[id] >= 0) throw new IllegalStateException("id " + id + " already in heap");
+        inserts++;
+        key[id] = k;
+        heap[size] = id;
+        pos[id] = size;
+        siftUp(size++);
+    }
+
+    /** Lowers the key of {@code id}; returns false (and does nothing) if {@code k} is not smaller. */
+    public boolean decreaseKey(int id, long k) {
+        if (pos[id] < 0) throw new IllegalStateException("id " + id + " not in heap");
+        if (k >= key[id]) return false;
+        decreaseKeys++;
+        key[id] = k;
+        siftUp(pos[id]);
+        return true;
+    }
+
+    public int pollMin() {
+        if (size == 0) throw new IllegalStateException("heap is empty");
+        polls++;
+        int min = heap[0];
+        pos[min] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            if (listener != null) listener.moved(last, size, 0);
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int slot) {
+        int  id = heap[slot];
+        long k  = key[id];
+        while (slot > 0) {
+            int parent = (slot - 1) / arity;
+            int pid    = heap[parent];
+            if (key[pid] <= k) break;
+            heap[slot] = pid; pos[pid] = slot;
+            if (listener != null) listener.moved(pid, parent, slot);
+            moves++;
+            slot = parent;
+        }
+        if (listener != null && heap[slot] != id) listener.moved(id, pos[id], slot);
+        heap[slot] = id; pos[id] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int  id = heap[slot];
+        long k  = key[id];
+        while (true) {
+            int first = slot * arity + 1;
+            if (first >= size) break;
+            int best = first;
+            int end  = Math.min(first + arity, size);
+            for (int c = first + 1; c < end; c++) if (key[heap[c]] < key[heap[best]]) best = c;
+            int bid = heap[best];
+            if (key[bid] >= k) break;
+            heap[slot] = bid; pos[bid] = slot;
+            if (listener != null) listener.moved(bid, best, slot);
+            moves++;
+            slot = best;
+        }
+        if (listener != null && pos[id] != slot) listener.moved(id, pos[id], slot);
+        heap[slot] = id; pos[id] = slot;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.VisuAlgorithm;
+
+/**
+ * The slice of an n × n grid that a scrolled viewport shows. Scroll values
+ * count whole cells from the top-left; the window takes one extra row and
+ * column so a partly visible last cell is still painted, and never reaches
+ * past the grid. Kept apart from {@link AdjacencyMatrixView} so the cell
+ * arithmetic needs no toolkit.
+ *
+ * Usage:
+ *   int rows = MatrixWindow.fit(height, HEADER_H, CELL_H);
+ *   bar.setMax(MatrixWindow.maxScroll(n, rows));
+ *   MatrixWindow w = MatrixWindow.of(n, vBar.getValue(), hBar.getValue(), rows, cols);
+ *   for (int r = w.rowStart; r < w.rowEnd; r++) ...
+ */
+public final class MatrixWindow {
+
+    public final int rowStart, rowEnd;     // end exclusive
+    public final int colStart, colEnd;
+
+    private MatrixWindow(int rowStart, int rowEnd, int colStart, int colEnd) {
+        this.rowStart = rowStart; this.rowEnd = rowEnd;
+        this.colStart = colStart; this.colEnd = colEnd;
+    }
+
+    /** Whole cells of size {@code cell} that fit after a header of size {@code header}; at least one. */
+    public static int fit(double extent, double header, double cell) {
+        return Math.max(1, (int) ((extent - header) / cell));
+    }
+
+    /** Largest scroll value: the last {@code visible} cells fill the viewport. */
+    public static double maxScroll(int n, int visible) { return Math.max(0, n - visible); }
+
+    /** Scroll-bar thumb size in value units, so the thumb covers visible / n of the track. */
+    public static double thumb(int n, int visible) {
+        double max = maxScroll(n, visible);
+        return max == 0 ? 1 : Math.max(1, max * visible / (double) n);
+    }
+
+    public static MatrixWindow of(int n, double rowScroll, double colScroll, int visibleRows, int visibleCols) {
+        int r0 = first(n, rowScroll, visibleRows), c0 = first(n, colScroll, visibleCols);
+        return new MatrixWindow(r0, Math.min(n, r0 + visibleRows + 1), c0, Math.min(n, c0 + visibleCols + 1));
+    }
+
+    private static int first(int n, double scroll, int visible) {
+        return (int) Math.max(0, Math.min(maxScroll(n, visible), scroll));
+    }
+}
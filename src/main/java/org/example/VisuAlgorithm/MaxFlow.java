@@ -0,0 +1,251 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Maximum s-t flow and minimum cut on a residual graph where edge weights
+ * are capacities:
+ * <ul>
+ *   <li><b>Edmonds–Karp</b> – one BFS per augmenting path, always pushing
+ *       along a shortest path; O(V·E²),</li>
+ *   <li><b>Dinic</b> – one BFS per phase builds the level graph, then a
+ *       blocking flow saturates every shortest path of that length using
+ *       per-node current-arc pointers; O(V²·E), and far fewer BFS passes
+ *       because every phase lengthens the shortest path.</li>
+ * </ul>
+ * Every edge owns a pair of residual arcs {@code 2e} (along the edge) and
+ * {@code 2e + 1} (against it). A directed edge starts with its capacity on
+ * the forward arc and 0 on the back arc; an undirected edge starts with the
+ * capacity on both. After the run, the nodes still reachable from the source
+ * in the residual graph form the source side of a minimum cut.
+ *
+ * Usage:
+ *   MaxFlow.Result r = MaxFlow.dinic(n, src, dst, cap, directed, s, t, null);
+ *   for (int e : r.cutEdges) ...
+ */
+public final class MaxFlow {
+
+    private MaxFlow() {}
+
+    public interface Listener {
+        /** Dinic only: BFS levels from the source, -1 where the level graph does not reach. */
+        default void phaseStarted(int phase, int[] level) {}
+        /**
+         * {@code amount} units pushed along {@code nodes[0 .. length]} through
+         * {@code edges[0 .. length)}; {@code edges[i]} joins {@code nodes[i]}
+         * and {@code nodes[i + 1]}. Both arrays are reused; copy what you keep.
+         */
+        default void augmented(int[] nodes, int[] edges, int length, int amount, long total) {}
+        default void phaseFinished(int phase, long pushed) {}
+    }
+
+    public static final class Result {
+        public long      maxFlow;
+        public int[]     flow;            // net flow along each edge from src to dst (negative: against it)
+        public boolean[] sourceSide;      // residual reachability from s after the run
+        public int[]     cutEdges;        // edges crossing from the source side to the sink side
+        public int       augmentations, phases, longestPath;
+        public long      arcScans, nanos;
+    }
+
+    private static final Listener SILENT = new Listener() {};
+
+    /** Residual arcs grouped per tail node; {@code arc[i]} is a pair id (2e or 2e + 1). */
+    private static final class Residual {
+        final int   n;
+        final int[] offset, arc, head, residual;
+
+        Residual(int n, int[] src, int[] dst, int[] cap, boolean[] directed) {
+            int m = src.length;
+            this.n = n;
+            offset = new int[n + 1];
+            head = new int[2 * m];
+            residual = new int[2 * m];
+            for (int e = 0; e < m; e++) {
+                if (cap[e] < 0) throw new IllegalArgumentException("Capacity of edge " + e + " is negative: " + cap[e]);
+                head[2 * e] = dst[e]; head[2 * e + 1] = src[e];
+                residual[2 * e] = cap[e];
+                residual[2 * e + 1] = directed == null || directed[e] ? 0 : cap[e];
+                offset[src[e] + 1]++; offset[dst[e] + 1]++;
+            }
+            for (int i = 0; i < n; i++) offset[i + 1] += offset[i];
+            arc = new int[2 * m];
+            int[] fill = Arrays.copyOf(offset, n);
+            for (int e = 0; e < m; e++) {
+                arc[fill[src[e]]++] = 2 * e;
+                arc[fill[dst[e]]++] = 2 * e + 1;
+            }
+        }
+
+        void push(int a, int amount) { residual[a] -= amount; residual[a ^ 1] += amount; }
+    }
+
+    // ==========================================================================
+    // EDMONDS–KARP (one BFS per augmenting path)
+    // ==========================================================================
+    /** @param directed per-edge direction; {@code null} means every edge is directed */
+    public static Result edmondsKarp(int n, int[] src, int[] dst, int[] cap, boolean[] directed, int s, int t, Listener listener) {
+        Listener l = listener != null ? listener : SILENT;
+        long t0 = System.nanoTime();
+        Residual g = new Residual(n, src, dst, cap, directed);
+        Result r = new Result();
+        int[] parentArc = new int[n], queue = new int[n], pathNodes = new int[n], pathEdges = new int[n];
+
+        while (s != t) {
+            Arrays.fill(parentArc, -1);
+            parentArc[s] = -2;
+            int head = 0, tail = 0;
+            queue[tail++] = s;
+            r.phases++;
+            while (head < tail && parentArc[t] == -1) {
+                int u = queue[head++];
+                for (int i = g.offset[u]; i < g.offset[u + 1]; i++) {
+                    int a = g.arc[i], v = g.head[a];
+                    r.arcScans++;
+                    if (g.residual[a] == 0 || parentArc[v] != -1) continue;
+                    parentArc[v] = a;
+                    queue[tail++] = v;
+                }
+            }
+            if (parentArc[t] == -1) break;
+
+            int length = 0, amount = Integer.MAX_VALUE;
+            for (int v = t; v != s; v = g.head[parentArc[v] ^ 1]) {
+                amount = Math.min(amount, g.residual[parentArc[v]]);
+                length++;
+            }
+            int at = length;
+            pathNodes[at] = t;
+            for (int v = t; v != s; ) {
+                int a = parentArc[v];
+                g.push(a, amount);
+                v = g.head[a ^ 1];
+                pathEdges[--at] = a >> 1;
+                pathNodes[at] = v;
+            }
+            r.maxFlow += amount;
+            r.augmentations++;
+            r.longestPath = Math.max(r.longestPath, length);
+            l.augmented(pathNodes, pathEdges, length, amount, r.maxFlow);
+        }
+        finish(g, r, s, cap, directed);
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // DINIC (level graph + blocking flow)
+    // ==========================================================================
+    /** @param directed per-edge direction; {@code null} means every edge is directed */
+    public static Result dinic(int n, int[] src, int[] dst, int[] cap, boolean[] directed, int s, int t, Listener listener) {
+        Listener l = listener != null ? listener : SILENT;
+        long t0 = System.nanoTime();
+        Residual g = new Residual(n, src, dst, cap, directed);
+        Result r = new Result();
+        int[] level = new int[n], queue = new int[n], current = new int[n];
+        int[] pathNodes = new int[n], pathArcs = new int[n], pathEdges = new int[n];
+
+        while (s != t && buildLevels(g, s, t, level, queue, r)) {
+            r.phases++;
+            l.phaseStarted(r.phases, level);
+            System.arraycopy(g.offset, 0, current, 0, n);
+            long pushed = 0;
+
+            // Blocking flow: advance along admissible arcs, retreat from dead ends
+            // (their current-arc pointer moves on), augment on reaching t.
+            int depth = 0;
+            pathNodes[0] = s;
+            while (true) {
+                int u = pathNodes[depth];
+                if (u == t) {
+                    int amount = Integer.MAX_VALUE;
+                    for (int i = 0; i < depth; i++) amount = Math.min(amount, g.residual[pathArcs[i]]);
+                    int firstSaturated = -1;
+                    for (int i = 0; i < depth; i++) {
+                        g.push(pathArcs[i], amount);
+                        pathEdges[i] = pathArcs[i] >> 1;
+                        if (firstSaturated < 0 && g.residual[pathArcs[i]] == 0) firstSaturated = i;
+                    }
+                    pushed += amount;
+                    r.maxFlow += amount;
+                    r.augmentations++;
+                    r.longestPath = Math.max(r.longestPath, depth);
+                    l.augmented(pathNodes, pathEdges, depth, amount, r.maxFlow);
+                    depth = firstSaturated;                      // resume from the tail of the first saturated arc
+                    continue;
+                }
+                boolean advanced = false;
+                for (; current[u] < g.offset[u + 1]; current[u]++) {
+                    int a = g.arc[current[u]], v = g.head[a];
+                    r.arcScans++;
+                    if (g.residual[a] == 0 || level[v] != level[u] + 1) continue;
+                    pathArcs[depth] = a;
+                    pathNodes[++depth] = v;
+                    advanced = true;
+                    break;
+                }
+                if (advanced) continue;
+                if (depth == 0) break;                           // s is blocked: phase over
+                level[u] = -1;                                   // dead end for the rest of the phase
+                current[pathNodes[--depth]]++;
+            }
+            l.phaseFinished(r.phases, pushed);
+        }
+        finish(g, r, s, cap, directed);
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    /** BFS levels over arcs with residual capacity; false once t is unreachable. */
+    private static boolean buildLevels(Residual g, int s, int t, int[] level, int[] queue, Result r) {
+        Arrays.fill(level, -1);
+        level[s] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = g.offset[u]; i < g.offset[u + 1]; i++) {
+                int a = g.arc[i], v = g.head[a];
+                r.arcScans++;
+                if (g.residual[a] == 0 || level[v] >= 0) continue;
+                level[v] = level[u] + 1;
+                queue[tail++] = v;
+            }
+        }
+        return level[t] >= 0;
+    }
+
+    // ==========================================================================
+    // MIN CUT
+    // ==========================================================================
+    /** Net flow per edge, the source side of the residual graph and the edges leaving it. */
+    private static void finish(Residual g, Result r, int s, int[] cap, boolean[] directed) {
+        int m = cap.length;
+        r.flow = new int[m];
+        for (int e = 0; e < m; e++) r.flow[e] = cap[e] - g.residual[2 * e];
+
+        r.sourceSide = new boolean[g.n];
+        int[] queue = new int[g.n];
+        int head = 0, tail = 0;
+        queue[tail++] = s;
+        r.sourceSide[s] = true;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = g.offset[u]; i < g.offset[u + 1]; i++) {
+                int a = g.arc[i], v = g.head[a];
+                if (g.residual[a] == 0 || r.sourceSide[v]) continue;
+                r.sourceSide[v] = true;
+                queue[tail++] = v;
+            }
+        }
+
+        int[] cut = new int[m];
+        int count = 0;
+        for (int e = 0; e < m; e++) {
+            boolean srcIn = r.sourceSide[g.head[2 * e + 1]], dstIn = r.sourceSide[g.head[2 * e]];
+            boolean undirected = directed != null && !directed[e];
+            if (cap[e] > 0 && (srcIn && !dstIn || undirected && dstIn && !srcIn)) cut[count++] = e;
+        }
+        r.cutEdges = Arrays.copyOf(cut, count);
+    }
+}
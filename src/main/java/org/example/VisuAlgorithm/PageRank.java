@@ -0,0 +1,186 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * PageRank by power iteration over the transpose of the graph in CSR form:
+ * row {@code v} of the {@link Matrix} lists the sources of v's in-arcs, so
+ * each new rank is a pull (gather) over one row and every row is written
+ * by exactly one task. Undirected edges count as two arcs; weights are
+ * ignored.
+ * <p>
+ * One iteration is a single fused pass: for its rows a chunk computes the
+ * new rank, its L1 change and the next iteration's contribution
+ * rank/outdegree, and sums the rank of dangling nodes, whose mass is spread
+ * evenly next time. Chunks are cut at equal arc counts and run on a
+ * {@link ForkJoinPool}. The pass streams the whole matrix once and reads
+ * little else, so it is bound by memory bandwidth, not arithmetic;
+ * {@link Result#bytesPerIteration} estimates the traffic.
+ *
+ * Usage:
+ *   PageRank.Matrix m = PageRank.Matrix.of(data);
+ *   PageRank.Result r = PageRank.run(m, 0.85, 1e-6, 100, pool, null);
+ *   double score = r.rank[v];
+ */
+public final class PageRank {
+
+    private static final int MIN_CHUNK_ARCS = 1 << 15;
+
+    private PageRank() {}
+
+    public interface Listener {
+        /**
+         * Called on the calling thread after iteration {@code k} (1-based);
+         * {@code rank} must only be read. Return false to cancel the run.
+         */
+        boolean iteration(int k, double residual, double[] rank);
+    }
+
+    /** In-arc CSR: the sources of node v's in-arcs are {@code source[offset[v] .. offset[v+1])}. */
+    public static final class Matrix {
+        public final int   n;
+        public final int[] offset, source, outDegree;
+
+        private Matrix(int n, int[] offset, int[] source, int[] outDegree) {
+            this.n = n; this.offset = offset; this.source = source; this.outDegree = outDegree;
+        }
+
+        public int arcCount() { return source.length; }
+
+        public static Matrix of(GraphData g) {
+            int n = g.nodeCount, m = g.edgeCount;
+            int[] offset = new int[n + 1], outDegree = new int[n];
+            for (int e = 0; e < m; e++) {
+                offset[g.dst[e] + 1]++; outDegree[g.src[e]]++;
+                if (!g.directed) { offset[g.src[e] + 1]++; outDegree[g.dst[e]]++; }
+            }
+            for (int i = 0; i < n; i++) offset[i + 1] += offset[i];
+            int[] source = new int[offset[n]], fill = Arrays.copyOf(offset, n);
+            for (int e = 0; e < m; e++) {
+                source[fill[g.dst[e]]++] = g.src[e];
+                if (!g.directed) source[fill[g.src[e]]++] = g.dst[e];
+            }
+            return new Matrix(n, offset, source, outDegree);
+        }
+    }
+
+    public static final class Result {
+        public final double[] rank;
+        public final double[] residuals;     // L1 change of iteration k at index k - 1
+        public final int      iterations, threads;
+        public final boolean  converged;
+        public final long     nanos, bytesPerIteration;
+
+        Result(double[] rank, double[] residuals, int iterations, int threads, boolean converged, long nanos, long bytesPerIteration) {
+            this.rank = rank; this.residuals = residuals; this.iterations = iterations; this.threads = threads;
+            this.converged = converged; this.nanos = nanos; this.bytesPerIteration = bytesPerIteration;
+        }
+
+        /** Effective memory traffic in GB/s, from {@link #bytesPerIteration}. */
+        public double gigabytesPerSecond() {
+            return nanos == 0 ? 0 : (double) bytesPerIteration * iterations / nanos;
+        }
+    }
+
+    /**
+     * @param damping   probability of following an arc, in (0, 1)
+     * @param tolerance stop once the L1 change of an iteration is below this
+     * @param pool      runs the chunks of each iteration; {@code null} runs them on the calling thread
+     */
+    public static Result run(Matrix m, double damping, double tolerance, int maxIterations, ForkJoinPool pool, Listener listener) {
+        if (!(damping > 0 && damping < 1)) throw new IllegalArgumentException("Damping must be between 0 and 1");
+        if (!(tolerance > 0)) throw new IllegalArgumentException("Tolerance must be positive");
+        long t0 = System.nanoTime();
+        int n = m.n, threads = pool == null ? 1 : pool.getParallelism();
+        double[] rank = new double[n], next = new double[n], contrib = new double[n], nextContrib = new double[n];
+        double dangling = 0;
+        if (n > 0) {
+            Arrays.fill(rank, 1.0 / n);
+            for (int v = 0; v < n; v++) {
+                if (m.outDegree[v] > 0) contrib[v] = rank[v] / m.outDegree[v];
+                else dangling += rank[v];
+            }
+        }
+        Chunk[] chunks = chunks(m, threads);
+        double[] residuals = new double[maxIterations];
+        int k = 0;
+        boolean converged = n == 0;
+        while (!converged && k < maxIterations) {
+            if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+            double base = (1 - damping) / n + damping * dangling / n;
+            for (Chunk c : chunks) c.prepare(base, damping, rank, next, contrib, nextContrib);
+            if (pool == null || chunks.length == 1) {
+                for (Chunk c : chunks) c.invoke();
+            } else {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute() { invokeAll(chunks); }
+                });
+            }
+            double residual = 0;
+            dangling = 0;
+            for (Chunk c : chunks) { residual += c.residual; dangling += c.dangling; }
+            double[] t = rank; rank = next; next = t;
+            t = contrib; contrib = nextContrib; nextContrib = t;
+            residuals[k++] = residual;
+            converged = residual < tolerance;
+            if (listener != null && !listener.iteration(k, residual, rank)) throw new CancellationException();
+        }
+        // offsets + sources + outdegrees, one gathered contribution per arc, rank and contribution read and written
+        long bytes = 4L * (n + 1) + 4L * m.arcCount() + 4L * n + 8L * m.arcCount() + 8L * 4 * n;
+        return new Result(rank, Arrays.copyOf(residuals, k), k, threads, converged, System.nanoTime() - t0, bytes);
+    }
+
+    /** Row ranges holding about the same number of arcs each. */
+    private static Chunk[] chunks(Matrix m, int threads) {
+        long arcs = m.arcCount() + m.n;                 // every row costs something even without in-arcs
+        int count = (int) Math.max(1, Math.min(threads * 4L, arcs / MIN_CHUNK_ARCS));
+        Chunk[] chunks = new Chunk[count];
+        int from = 0;
+        for (int c = 0; c < count; c++) {
+            long goal = arcs * (c + 1) / count;
+            int to = from;
+            if (c == count - 1) to = m.n;
+            else while (to < m.n && m.offset[to] + (long) to < goal) to++;
+            chunks[c] = new Chunk(m, from, to);
+            from = to;
+        }
+        return chunks;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Chunk extends RecursiveAction {
+        final Matrix m; final int from, to;
+        double base, damping;
+        double[] rank, next, contrib, nextContrib;
+        double residual, dangling;
+
+        Chunk(Matrix m, int from, int to) { this.m = m; this.from = from; this.to = to; }
+
+        void prepare(double base, double damping, double[] rank, double[] next, double[] contrib, double[] nextContrib) {
+            this.base = base; this.damping = damping;
+            this.rank = rank; this.next = next; this.contrib = contrib; this.nextContrib = nextContrib;
+            reinitialize();
+        }
+
+        @Override
+        protected void compute() {
+            int[] offset = m.offset, source = m.source, outDegree = m.outDegree;
+            double res = 0, dang = 0;
+            for (int v = from; v < to; v++) {
+                double sum = 0;
+                for (int a = offset[v], end = offset[v + 1]; a < end; a++) sum += contrib[source[a]];
+                double nv = base + damping * sum;
+                res += Math.abs(nv - rank[v]);
+                next[v] = nv;
+                int d = outDegree[v];
+                if (d > 0) nextContrib[v] = nv / d;
+                else { nextContrib[v] = 0; dang += nv; }
+            }
+            residual = res; dangling = dang;
+        }
+    }
+}
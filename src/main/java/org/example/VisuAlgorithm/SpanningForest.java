@@ -0,0 +1,238 @@
+package org.example.VisuAlgorithm;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Minimum spanning forests of an undirected graph, headless so the
+ * visualizer can compare them on the graph being shown:
+ * <ul>
+ *   <li><b>Borůvka</b> – every round, each component picks its cheapest
+ *       outgoing edge (an atomic min over packed {@code weight, edge}
+ *       keys, with nodes scanned in parallel chunks on a
+ *       {@link ForkJoinPool}); the picks are merged with a
+ *       {@link UnionFind}, components are relabelled in parallel and arcs
+ *       inside a component are dropped. Components at least halve per
+ *       round, so there are at most log₂ V rounds,</li>
+ *   <li><b>Kruskal</b> – one sort of the packed keys, then a union-find
+ *       pass; the sequential baseline.</li>
+ * </ul>
+ * Ties are broken by edge index, so both return the same forest.
+ *
+ * Usage:
+ *   SpanningForest.Result b = SpanningForest.boruvka(CsrGraph.of(n, src, dst, w, null), pool);
+ *   SpanningForest.Result k = SpanningForest.kruskal(n, src, dst, w);
+ */
+public final class SpanningForest {
+
+    private static final int MIN_CHUNK = 8192;     // edges or nodes per task
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private SpanningForest() {}
+
+    public static final class Result {
+        public int[]  edges;                 // forest edges in the order they were added
+        public int    edgeCount, rounds, threads = 1;
+        public long   total, nanos;
+        public long   edgeScans, finds, findSteps, sortKeys;
+        public int[]  roundEnd = new int[8];          // edges[0 .. roundEnd[r]) were added by the end of round r
+        public int[]  roundComponents = new int[8];   // components at the start of round r
+        public long[] roundScans = new long[8];
+
+        Result(int n) { edges = new int[Math.max(0, n - 1)]; }
+
+        /** Abstract operation count: edge scans, union-find steps and (for Kruskal) n·log₂n sort steps. */
+        public long work() {
+            long sortWork = sortKeys > 1 ? sortKeys * (64 - Long.numberOfLeadingZeros(sortKeys - 1)) : 0;
+            return edgeScans + finds + findSteps + sortWork;
+        }
+
+        void endRound(int components, long scans) {
+            if (rounds == roundEnd.length) {
+                roundEnd        = Arrays.copyOf(roundEnd,        rounds * 2);
+                roundComponents = Arrays.copyOf(roundComponents, rounds * 2);
+                roundScans      = Arrays.copyOf(roundScans,      rounds * 2);
+            }
+            roundEnd[rounds] = edgeCount;
+            roundComponents[rounds] = components;
+            roundScans[rounds] = scans;
+            rounds++;
+        }
+    }
+
+    // ==========================================================================
+    // BORŮVKA (parallel cheapest-edge rounds)
+    // ==========================================================================
+    /**
+     * Node-centric rounds over the arcs of {@code g} (undirected: two arcs
+     * per edge). Each node scans its own live arcs, so the scan needs no
+     * atomics and reads the arrays front to back; arcs found inside the
+     * node's component are swapped out of its live range on the way, and
+     * only the node's best candidate goes through an atomic min.
+     *
+     * @param pool runs the scan and relabel chunks; {@code null} runs them on the calling thread
+     */
+    public static Result boruvka(CsrGraph g, ForkJoinPool pool) {
+        long t0 = System.nanoTime();
+        int n = g.n;
+        Result r = new Result(n);
+        r.threads = pool == null ? 1 : pool.getParallelism();
+        UnionFind uf = new UnionFind(n);
+        int[] comp = new int[n], roots = new int[n], relabel = new int[n];
+        for (int v = 0; v < n; v++) { comp[v] = v; roots[v] = v; }
+        int rootCount = n;
+        long[] cheapest = new long[n];
+        Arrays.fill(cheapest, Long.MAX_VALUE);
+
+        int[] target = g.target.clone(), edge = g.edge.clone(), weight = g.weight.clone();
+        int[] liveEnd = Arrays.copyOfRange(g.offset, 1, n + 1);
+        long[] nodeBest = new long[n];                      // each node's own candidate this round
+        int[] nodeBestTarget = new int[n], across = new int[n];
+
+        while (true) {
+            // 1. Every node offers its cheapest arc leaving its component, dropping internal arcs as it goes.
+            long scanned = runChunks(pool, n, (from, to) -> {
+                long count = 0;
+                for (int u = from; u < to; u++) {
+                    int cu = comp[u], keep = g.offset[u], end = liveEnd[u];
+                    long best = Long.MAX_VALUE;
+                    int bestTarget = -1;
+                    count += end - keep;
+                    for (int a = keep; a < end; a++) {
+                        int v = target[a];
+                        if (comp[v] == cu) continue;
+                        long key = (long) weight[a] << 32 | edge[a];
+                        if (key < best) { best = key; bestTarget = v; }
+                        if (a != keep) { target[keep] = v; edge[keep] = edge[a]; weight[keep] = weight[a]; }
+                        keep++;
+                    }
+                    liveEnd[u] = keep;
+                    nodeBest[u] = best;
+                    nodeBestTarget[u] = bestTarget;
+                    if (best != Long.MAX_VALUE) atomicMin(cheapest, cu, best);
+                }
+                return count;
+            });
+            r.edgeScans += scanned;
+
+            // The node holding its component's winning key names the far endpoint;
+            // the edge leaves the component, so exactly one member can hold it.
+            runChunks(pool, n, (from, to) -> {
+                for (int u = from; u < to; u++)
+                    if (nodeBest[u] != Long.MAX_VALUE && nodeBest[u] == cheapest[comp[u]]) across[comp[u]] = nodeBestTarget[u];
+                return 0;
+            });
+
+            // 2. Merge the picks. Distinct keys mean the picks form a forest;
+            //    the union check only drops edges picked by both sides.
+            int componentsBefore = rootCount, added = r.edgeCount;
+            for (int i = 0; i < rootCount; i++) {
+                int c = roots[i];
+                long key = cheapest[c];
+                if (key == Long.MAX_VALUE) continue;
+                cheapest[c] = Long.MAX_VALUE;
+                int e = (int) key;
+                if (uf.union(c, across[c])) {
+                    r.edges[r.edgeCount++] = e;
+                    r.total += key >> 32;
+                }
+            }
+            if (r.edgeCount == added) break;                   // no component has an outgoing edge left
+
+            // 3. Relabel: every old root maps to its new root, then every node follows its old root.
+            int newRoots = 0;
+            for (int i = 0; i < rootCount; i++) {
+                int c = roots[i], root = uf.find(c);
+                relabel[c] = root;
+                if (root == c) roots[newRoots++] = c;
+            }
+            rootCount = newRoots;
+            runChunks(pool, n, (from, to) -> {
+                for (int v = from; v < to; v++) comp[v] = relabel[comp[v]];
+                return 0;
+            });
+            r.endRound(componentsBefore, scanned);
+        }
+        r.finds = uf.finds;
+        r.findSteps = uf.findSteps;
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    private static void atomicMin(long[] a, int i, long key) {
+        long cur = (long) LONGS.getVolatile(a, i);
+        while (key < cur && !LONGS.compareAndSet(a, i, cur, key)) cur = (long) LONGS.getVolatile(a, i);
+    }
+
+    // ==========================================================================
+    // KRUSKAL (sequential baseline)
+    // ==========================================================================
+    public static Result kruskal(int n, int[] src, int[] dst, int[] w) {
+        long t0 = System.nanoTime();
+        Result r = new Result(n);
+        int m = src.length;
+        long[] keys = new long[m];
+        for (int e = 0; e < m; e++) keys[e] = (long) weight(w, e) << 32 | e;
+        Arrays.sort(keys);
+        r.sortKeys = m;
+        UnionFind uf = new UnionFind(n);
+        for (int i = 0; i < m && r.edgeCount < n - 1; i++) {
+            int e = (int) keys[i];
+            r.edgeScans++;
+            if (!uf.union(src[e], dst[e])) continue;
+            r.edges[r.edgeCount++] = e;
+            r.total += weight(w, e);
+        }
+        r.finds = uf.finds;
+        r.findSteps = uf.findSteps;
+        r.endRound(n, r.edgeScans);
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    private static int weight(int[] w, int e) { return w == null ? 1 : w[e]; }
+
+    // ==========================================================================
+    // CHUNKED PARALLEL LOOPS
+    // ==========================================================================
+    /** Processes {@code [from, to)} and returns a count to be summed over all chunks. */
+    private interface RangeBody { long run(int from, int to); }
+
+    @SuppressWarnings("serial")
+    private static final class Chunk extends RecursiveAction {
+        final int from, to; final RangeBody body;
+        long result;
+        Chunk(int from, int to, RangeBody body) { this.from = from; this.to = to; this.body = body; }
+        @Override protected void compute() { result = body.run(from, to); }
+    }
+
+    private static int chunkCount(int work, ForkJoinPool pool) {
+        int threads = pool == null ? 1 : pool.getParallelism();
+        return Math.max(1, Math.min(threads * 4, work / MIN_CHUNK));
+    }
+
+    private static long runChunks(ForkJoinPool pool, int work, RangeBody body) {
+        int chunks = chunkCount(work, pool);
+        Chunk[] tasks = new Chunk[chunks];
+        for (int c = 0; c < chunks; c++)
+            tasks[c] = new Chunk((int) ((long) work * c / chunks), (int) ((long) work * (c + 1) / chunks), body);
+        invoke(pool, tasks);
+        long sum = 0;
+        for (Chunk t : tasks) sum += t.result;
+        return sum;
+    }
+
+    private static void invoke(ForkJoinPool pool, Chunk[] tasks) {
+        if (pool == null || tasks.length == 1) {
+            for (Chunk t : tasks) t.compute();
+            return;
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() { invokeAll(tasks); }
+        });
+    }
+}
@@ -0,0 +1,247 @@
+package org.example.VisuAlgorithm;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Incremental quadtree over axis-aligned bounding boxes.
+ * Every item lives in the deepest cell that fully contains its box, so points
+ * (graph nodes) sink to small leaves while long segments (graph edges) stay
+ * near the top. Lookups are O(log n) for typical layouts, and insert, move
+ * and remove only touch one cell, which makes it cheap to keep in sync while
+ * nodes are dragged or created. The root grows outward on demand, so the
+ * index works on an unbounded (pannable) canvas.
+ *
+ * Usage:
+ *   SpatialIndex<GraphNode> idx = new SpatialIndex<>();
+ *   idx.put(node, x - r, y - r, x + r, y + r);     // insert or move
+ *   idx.remove(node);
+ *   GraphNode hit = idx.nearest(mx, my, r, n -> distanceTo(n, mx, my));
+ *   List<GraphNode> inBox = idx.query(x0, y0, x1, y1);
+ */
+public class SpatialIndex<T> {
+
+    private static final int    SPLIT_THRESHOLD = 8;
+    private static final int    MAX_DEPTH       = 24;
+    private static final double INITIAL_HALF    = 1024;
+
+    private static final class Entry<T> {
+        final T item;
+        double  minX, minY, maxX, maxY;
+        Cell<T> cell;
+        Entry(T item) { this.item = item; }
+    }
+
+    private static final class Cell<T> {
+        final double    cx, cy, half;
+        int             depth;         // bumped for the whole subtree whenever the root grows above it
+        final List<Entry<T>> items = new ArrayList<>(4);
+        Cell<T>[]       children;      // null until split; NW, NE, SW, SE
+        Cell<T>         parent;
+
+        Cell(double cx, double cy, double half, int depth) {
+            this.cx = cx; this.cy = cy; this.half = half; this.depth = depth;
+        }
+
+        boolean contains(double minX, double minY, double maxX, double maxY) {
+            return minX >= cx - half && maxX <= cx + half && minY >= cy - half && maxY <= cy + half;
+        }
+
+        double distanceTo(double x, double y) {
+            double dx = Math.max(0, Math.abs(x - cx) - half);
+            double dy = Math.max(0, Math.abs(y - cy) - half);
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+    private Cell<T> root = new Cell<>(0, 0, INITIAL_HALF, 0);
+
+    public int size() { return entries.size(); }
+
+    public void clear() {
+        entries.clear();
+        root = new Cell<>(0, 0, INITIAL_HALF, 0);
+    }
+
+    public boolean contains(T item) { return entries.containsKey(item); }
+
+    // ==========================================================================
+    // UPDATES
+    // ==========================================================================
+    /** Inserts {@code item}, or moves it if it is already indexed. */
+    public void put(T item, double minX, double minY, double maxX, double maxY) {
+        Entry<T> e = entries.get(item);
+        if (e == null) { e = new Entry<>(item); entries.put(item, e); }
+        else if (e.cell.contains(minX, minY, maxX, maxY) && !fitsInChild(e.cell, minX, minY, maxX, maxY)) {
+            // Still belongs to the same cell: just refresh the box.
+            e.minX = minX; e.minY = minY; e.maxX = maxX; e.maxY = maxY;
+            return;
+        } else {
+            detach(e);
+        }
+        e.minX = minX; e.minY = minY; e.maxX = maxX; e.maxY = maxY;
+        while (!root.contains(minX, minY, maxX, maxY)) growRoot(minX, minY);
+        insert(root, e);
+    }
+
+    public boolean remove(T item) {
+        Entry<T> e = entries.remove(item);
+        if (e == null) return false;
+        detach(e);
+        return true;
+    }
+
+    private boolean fitsInChild(Cell<T> c, double minX, double minY, double maxX, double maxY) {
+        if (c.children == null || c.depth >= MAX_DEPTH) return false;
+        return !(minX < c.cx && maxX >= c.cx) && !(minY < c.cy && maxY >= c.cy);
+    }
+
+    private void insert(Cell<T> c, Entry<T> e) {
+        while (true) {
+            if (c.children == null && c.items.size() >= SPLIT_THRESHOLD && c.depth < MAX_DEPTH) split(c);
+            if (c.children != null) {
+                Cell<T> child = childContaining(c, e.minX, e.minY, e.maxX, e.maxY);
+                if (child != null) { c = child; continue; }
+            }
+            c.items.add(e);
+            e.cell = c;
+            return;
+        }
+    }
+
+    private Cell<T> childContaining(Cell<T> c, double minX, double minY, double maxX, double maxY) {
+        boolean west = maxX < c.cx, east = minX >= c.cx, north = maxY < c.cy, south = minY >= c.cy;
+        if (west  && north) return c.children[0];
+        if (east  && north) return c.children[1];
+        if (west  && south) return c.children[2];
+        if (east  && south) return c.children[3];
+        return null;
+    }
+
+    /** The four quadrants (NW, NE, SW, SE) of the cell centred on (cx, cy) with half-size 2h. */
+    @SuppressWarnings("unchecked")
+    private static <T> Cell<T>[] quadrants(double cx, double cy, double h, int depth) {
+        Cell<T>[] q = (Cell<T>[]) new Cell<?>[4];
+        q[0] = new Cell<>(cx - h, cy - h, h, depth); q[1] = new Cell<>(cx + h, cy - h, h, depth);
+        q[2] = new Cell<>(cx - h, cy + h, h, depth); q[3] = new Cell<>(cx + h, cy + h, h, depth);
+        return q;
+    }
+
+    private void split(Cell<T> c) {
+        c.children = quadrants(c.cx, c.cy, c.half / 2, c.depth + 1);
+        for (Cell<T> ch : c.children) ch.parent = c;
+
+        List<Entry<T>> keep = new ArrayList<>();
+        for (Entry<T> e : c.items) {
+            Cell<T> child = childContaining(c, e.minX, e.minY, e.maxX, e.maxY);
+            if (child != null) { child.items.add(e); e.cell = child; }
+            else keep.add(e);
+        }
+        c.items.clear();
+        c.items.addAll(keep);
+    }
+
+    private void detach(Entry<T> e) {
+        Cell<T> c = e.cell;
+        c.items.remove(e);
+        e.cell = null;
+        // Collapse empty leaf quartets so deleted regions do not keep deep empty chains alive.
+        while (c != null && c.parent != null && isEmptyLeafGroup(c.parent)) {
+            c.parent.children = null;
+            c = c.parent;
+        }
+    }
+
+    private boolean isEmptyLeafGroup(Cell<T> p) {
+        for (Cell<T> ch : p.children)
+            if (ch.children != null || !ch.items.isEmpty()) return false;
+        return true;
+    }
+
+    private void growRoot(double towardX, double towardY) {
+        Cell<T> old = root;
+        double  h   = old.half;
+        // New root is twice as large; the old root becomes one of its quadrants.
+        double ncx = towardX < old.cx ? old.cx - h : old.cx + h;
+        double ncy = towardY < old.cy ? old.cy - h : old.cy + h;
+        Cell<T> nr = new Cell<>(ncx, ncy, h * 2, 0);
+        nr.children = quadrants(ncx, ncy, h, 1);
+        int slot = (old.cx < ncx ? 0 : 1) + (old.cy < ncy ? 0 : 2);
+        nr.children[slot] = old;
+        for (Cell<T> ch : nr.children) ch.parent = nr;
+        root = nr;
+        deepen(old);
+    }
+
+    /** Every cell under {@code top} is now one level further from the root. */
+    private static <T> void deepen(Cell<T> top) {
+        ArrayList<Cell<T>> stack = new ArrayList<>();
+        stack.add(top);
+        while (!stack.isEmpty()) {
+            Cell<T> c = stack.remove(stack.size() - 1);
+            c.depth++;
+            if (c.children != null) for (Cell<T> ch : c.children) stack.add(ch);
+        }
+    }
+
+    /** Levels below the root of the deepest cell, counted by walking the tree rather than read from the cells. */
+    int height() {
+        int max = 0;
+        ArrayList<Cell<T>> stack = new ArrayList<>();
+        ArrayList<Integer> level = new ArrayList<>();
+        stack.add(root); level.add(0);
+        while (!stack.isEmpty()) {
+            Cell<T> c = stack.remove(stack.size() - 1);
+            int     d = level.remove(level.size() - 1);
+            max = Math.max(max, d);
+            if (c.children != null) for (Cell<T> ch : c.children) { stack.add(ch); level.add(d + 1); }
+        }
+        return max;
+    }
+
+    // ==========================================================================
+    // QUERIES
+    // ==========================================================================
+    /** All items whose bounding box intersects the rectangle. */
+    public List<T> query(double minX, double minY, double maxX, double maxY) {
+        List<T> out = new ArrayList<>();
+        ArrayList<Cell<T>> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Cell<T> c = stack.remove(stack.size() - 1);
+            if (c.cx + c.half < minX || c.cx - c.half > maxX || c.cy + c.half < minY || c.cy - c.half > maxY) continue;
+            for (Entry<T> e : c.items)
+                if (e.maxX >= minX && e.minX <= maxX && e.maxY >= minY && e.minY <= maxY) out.add(e.item);
+            if (c.children != null) for (Cell<T> ch : c.children) stack.add(ch);
+        }
+        return out;
+    }
+
+    /**
+     * Closest item to (x, y) according to {@code distance}, considering only
+     * items whose box lies within {@code maxDist}. Returns null if none do.
+     */
+    public T nearest(double x, double y, double maxDist, ToDoubleFunction<T> distance) {
+        T      best     = null;
+        double bestDist = maxDist;
+        ArrayList<Cell<T>> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Cell<T> c = stack.remove(stack.size() - 1);
+            if (c.distanceTo(x, y) > bestDist) continue;   // every item lies inside its cell
+            for (Entry<T> e : c.items) {
+                double bx = Math.max(0, Math.max(e.minX - x, x - e.maxX));
+                double by = Math.max(0, Math.max(e.minY - y, y - e.maxY));
+                if (bx * bx + by * by > bestDist * bestDist) continue;
+                double d = distance.applyAsDouble(e.item);
+                if (d <= bestDist) { bestDist = d; best = e.item; }
+            }
+            if (c.children != null) for (Cell<T> ch : c.children) stack.add(ch);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.VisuAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+
+/**
+ * The recorded steps of an algorithm animation. A recorder thread appends
+ * while the FX thread already plays the first steps, so every access is
+ * synchronized. Each step is published by the lock together with
+ * everything its closure captured.
+ * <p>
+ * Between {@link #beginRecording} and {@link #endRecording} only the
+ * recording thread may append. A recorder that was cancelled (interrupted),
+ * retired or replaced by a newer recording fails at its next append with a
+ * {@link CancellationException}. It can never leak steps into the trace
+ * that replaced it.
+ *
+ * Usage:
+ *   trace.beginRecording(n -> updateMessage(n + " steps"));   // on the recorder thread
+ *   trace.add(() -> node.circle.setFill(Color.GOLD));         // many times
+ *   trace.endRecording();
+ *   if (current < trace.size()) trace.get(current++).run();   // on the FX thread
+ */
+public final class StepTrace {
+
+    private static final int PROGRESS_EVERY = 512;
+
+    public interface Listener {
+        /** Called on the recording thread every few hundred steps and once at the end. */
+        void recorded(int steps);
+    }
+
+    private final ArrayList<Runnable> steps = new ArrayList<>();
+    private Thread   writer;                 // the current recorder, null between recordings
+    private Listener listener;
+    private final Set<Thread> retired = Collections.newSetFromMap(new WeakHashMap<>());   // recorders dropped by clear()
+
+    /** Makes the calling thread the only one allowed to append until {@link #endRecording}; fails if it was retired. */
+    public synchronized void beginRecording(Listener listener) {
+        Thread t = Thread.currentThread();
+        if (t.isInterrupted() || retired.contains(t)) throw new CancellationException("Recording cancelled");
+        writer = t;
+        this.listener = listener;
+    }
+
+    /** Ends the calling thread's recording; a no-op for a recorder that has already been replaced. */
+    public void endRecording() {
+        Listener done;
+        int count;
+        synchronized (this) {
+            if (writer != Thread.currentThread()) return;
+            writer = null;
+            done = listener;
+            listener = null;
+            count = steps.size();
+        }
+        if (done != null) done.recorded(count);
+    }
+
+    public boolean add(Runnable step) {
+        Listener progress;
+        int count;
+        synchronized (this) {
+            checkWriter();
+            steps.add(step);
+            count = steps.size();
+            progress = count % PROGRESS_EVERY == 0 ? listener : null;
+        }
+        if (progress != null) progress.recorded(count);
+        return true;
+    }
+
+    public synchronized boolean addAll(Collection<? extends Runnable> more) {
+        checkWriter();
+        return steps.addAll(more);
+    }
+
+    public synchronized Runnable get(int i)  { return steps.get(i); }
+    public synchronized int      size()      { return steps.size(); }
+    public synchronized boolean  isEmpty()   { return steps.isEmpty(); }
+
+    /** Drops every step and detaches the current recorder, whose next append will fail. */
+    public synchronized void clear() {
+        steps.clear();
+        if (writer != null) retired.add(writer);
+        writer = null;
+        listener = null;
+    }
+
+    /** Detaches {@code recorder}, whether or not it has begun: it can neither begin nor append any more. */
+    public synchronized void retire(Thread recorder) {
+        retired.add(recorder);
+        if (writer == recorder) { writer = null; listener = null; }
+    }
+
+    private void checkWriter() {
+        Thread t = Thread.currentThread();
+        if (t.isInterrupted() || (writer != null && writer != t) || retired.contains(t))
+            throw new CancellationException("Recording cancelled");
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Strongly connected components of a {@link CsrGraph} in O(V + E), with
+ * explicit stacks instead of recursion so a million-node chain cannot
+ * overflow the thread stack:
+ * <ul>
+ *   <li><b>Tarjan</b> – one DFS; a node whose low-link equals its own
+ *       discovery index closes a component, which is popped off the
+ *       component stack,</li>
+ *   <li><b>Kosaraju</b> – a DFS on the graph records finish order, then a
+ *       DFS on the transpose in reverse finish order peels off one
+ *       component per root.</li>
+ * </ul>
+ * Both number components in topological order of the condensation
+ * (component 0 has no incoming arcs from other components), so the two
+ * results are directly comparable. An optional {@link Listener} sees every
+ * event so the visualizer can record steps.
+ *
+ * Usage:
+ *   StronglyConnected.Result r = StronglyConnected.tarjan(csr, null);
+ *   CsrGraph dag = StronglyConnected.condensation(csr, r);
+ */
+public final class StronglyConnected {
+
+    private StronglyConnected() {}
+
+    public interface Listener {
+        /** Kosaraju only: 1 = finish order on the graph, 2 = components on the transpose. */
+        default void passStarted(int pass) {}
+        /** {@code viaEdge} is the tree edge that reached {@code node}, -1 for a DFS root. */
+        default void discovered(int node, int viaEdge, int index) {}
+        /** Tarjan only: {@code node}'s low-link dropped to {@code low} through {@code from}. */
+        default void lowLinkUpdated(int node, int from, int low) {}
+        default void finished(int node) {}
+        /** {@code order} counts components in the order they are found, starting at 0. */
+        default void componentFound(int order, int[] members) {}
+    }
+
+    public static final class Result {
+        public final int[] component;        // component id per node, topologically ordered
+        public int[]       memberOffset;     // members of c are members[memberOffset[c] .. memberOffset[c + 1])
+        public int[]       members;
+        public int         count, largest;
+        public long        arcScans, nanos;
+        public int         maxStack;         // deepest DFS path
+
+        Result(int n) { component = new int[n]; }
+
+        public int size(int c) { return memberOffset[c + 1] - memberOffset[c]; }
+    }
+
+    private static final Listener SILENT = new Listener() {};
+
+    // ==========================================================================
+    // TARJAN (single pass, low-links)
+    // ==========================================================================
+    public static Result tarjan(CsrGraph g, Listener listener) {
+        Listener l = listener != null ? listener : SILENT;
+        long t0 = System.nanoTime();
+        int n = g.n;
+        Result r = new Result(n);
+        int[] index = new int[n], low = new int[n], next = new int[n];
+        int[] path = new int[n], stack = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int counter = 0, found = 0, sp = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] >= 0) continue;
+            int depth = 0;
+            index[root] = low[root] = counter++;
+            next[root] = g.offset[root];
+            path[depth++] = root;
+            stack[sp++] = root; onStack[root] = true;
+            l.discovered(root, -1, index[root]);
+
+            while (depth > 0) {
+                int u = path[depth - 1];
+                if (next[u] < g.offset[u + 1]) {
+                    int a = next[u]++, v = g.target[a];
+                    r.arcScans++;
+                    if (index[v] < 0) {
+                        index[v] = low[v] = counter++;
+                        next[v] = g.offset[v];
+                        path[depth++] = v;
+                        stack[sp++] = v; onStack[v] = true;
+                        if (depth > r.maxStack) r.maxStack = depth;
+                        l.discovered(v, g.edge[a], index[v]);
+                    } else if (onStack[v] && index[v] < low[u]) {
+                        low[u] = index[v];
+                        l.lowLinkUpdated(u, v, low[u]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                l.finished(u);
+                if (depth > 0) {
+                    int p = path[depth - 1];
+                    if (low[u] < low[p]) {
+                        low[p] = low[u];
+                        l.lowLinkUpdated(p, u, low[p]);
+                    }
+                }
+                if (low[u] != index[u]) continue;
+
+                int from = sp;                                  // u is the root of a component
+                do onStack[stack[--from]] = false; while (stack[from] != u);
+                for (int i = from; i < sp; i++) r.component[stack[i]] = found;
+                if (listener != null) l.componentFound(found, Arrays.copyOfRange(stack, from, sp));
+                sp = from;
+                found++;
+            }
+        }
+        // Tarjan closes sink components first; flip to topological numbering.
+        for (int v = 0; v < n; v++) r.component[v] = found - 1 - r.component[v];
+        finish(r, found);
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    // ==========================================================================
+    // KOSARAJU (finish order, then the transpose)
+    // ==========================================================================
+    public static Result kosaraju(CsrGraph g, Listener listener) {
+        Listener l = listener != null ? listener : SILENT;
+        long t0 = System.nanoTime();
+        int n = g.n;
+        Result r = new Result(n);
+        int[] next = new int[n], path = new int[n], order = new int[n];
+        boolean[] seen = new boolean[n];
+        int finished = 0, counter = 0;
+
+        l.passStarted(1);
+        for (int root = 0; root < n; root++) {
+            if (seen[root]) continue;
+            int depth = 0;
+            seen[root] = true;
+            next[root] = g.offset[root];
+            path[depth++] = root;
+            l.discovered(root, -1, counter++);
+            while (depth > 0) {
+                int u = path[depth - 1];
+                if (next[u] < g.offset[u + 1]) {
+                    int a = next[u]++, v = g.target[a];
+                    r.arcScans++;
+                    if (seen[v]) continue;
+                    seen[v] = true;
+                    next[v] = g.offset[v];
+                    path[depth++] = v;
+                    if (depth > r.maxStack) r.maxStack = depth;
+                    l.discovered(v, g.edge[a], counter++);
+                    continue;
+                }
+                depth--;
+                order[finished++] = u;
+                l.finished(u);
+            }
+        }
+
+        // Pass 2: the root finishing last lies in a source component of the
+        // graph, i.e. a sink of the transpose, so its DFS cannot leak out.
+        l.passStarted(2);
+        CsrGraph t = g.reversed();
+        Arrays.fill(r.component, -1);
+        int found = 0;
+        counter = 0;
+        for (int i = n - 1; i >= 0; i--) {
+            int root = order[i];
+            if (r.component[root] >= 0) continue;
+            int top = 0, size = 0;
+            path[top++] = root;
+            r.component[root] = found;
+            l.discovered(root, -1, counter++);
+            while (top > 0) {
+                int u = path[--top];
+                next[size++] = u;                              // reuse: members of this component
+                for (int a = t.offset[u]; a < t.offset[u + 1]; a++) {
+                    int v = t.target[a];
+                    r.arcScans++;
+                    if (r.component[v] >= 0) continue;
+                    r.component[v] = found;
+                    path[top++] = v;
+                    l.discovered(v, t.edge[a], counter++);
+                }
+            }
+            if (listener != null) l.componentFound(found, Arrays.copyOf(next, size));
+            found++;
+        }
+        finish(r, found);
+        r.nanos = System.nanoTime() - t0;
+        return r;
+    }
+
+    /** Groups nodes by component (counting sort) and records the largest one. */
+    private static void finish(Result r, int count) {
+        int n = r.component.length;
+        r.count = count;
+        r.memberOffset = new int[count + 1];
+        for (int v = 0; v < n; v++) r.memberOffset[r.component[v] + 1]++;
+        for (int c = 0; c < count; c++) {
+            r.largest = Math.max(r.largest, r.memberOffset[c + 1]);
+            r.memberOffset[c + 1] += r.memberOffset[c];
+        }
+        r.members = new int[n];
+        int[] fill = Arrays.copyOf(r.memberOffset, count);
+        for (int v = 0; v < n; v++) r.members[fill[r.component[v]]++] = v;
+    }
+
+    // ==========================================================================
+    // CONDENSATION
+    // ==========================================================================
+    /**
+     * One node per component and one arc per pair of components joined by
+     * at least one arc, weighted with the cheapest of them. The result is a
+     * DAG whose node ids are already a topological order.
+     */
+    public static CsrGraph condensation(CsrGraph g, Result r) {
+        int k = r.count;
+        int[] stamp = new int[k], slot = new int[k];
+        int[] src = new int[16], dst = new int[16], w = new int[16];
+        int m = 0;
+        for (int cu = 0; cu < k; cu++) {
+            for (int i = r.memberOffset[cu]; i < r.memberOffset[cu + 1]; i++) {
+                int u = r.members[i];
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    int cv = r.component[g.target[a]];
+                    if (cv == cu) continue;
+                    if (stamp[cv] == cu + 1) {
+                        w[slot[cv]] = Math.min(w[slot[cv]], g.weight[a]);
+                        continue;
+                    }
+                    if (m == src.length) {
+                        src = Arrays.copyOf(src, m * 2); dst = Arrays.copyOf(dst, m * 2); w = Arrays.copyOf(w, m * 2);
+                    }
+                    stamp[cv] = cu + 1; slot[cv] = m;
+                    src[m] = cu; dst[m] = cv; w[m] = g.weight[a];
+                    m++;
+                }
+            }
+        }
+        boolean[] directed = new boolean[m];
+        Arrays.fill(directed, true);
+        return CsrGraph.of(k, Arrays.copyOf(src, m), Arrays.copyOf(dst, m), Arrays.copyOf(w, m), directed);
+    }
+}
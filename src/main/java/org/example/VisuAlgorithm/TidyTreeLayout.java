@@ -0,0 +1,133 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Tidy drawing of a binary tree (Reingold–Tilford, as refined by Walker)
+ * in linear time. Nodes on one level keep their left-to-right order, a
+ * parent sits centred over its children and a lone child goes off to its
+ * own side. Two subtrees are pushed together until their facing contours
+ * come within {@link #MIN_SEP} of each other at some level, so the drawing
+ * grows with the tree's breadth rather than its node count.
+ * <ul>
+ *   <li><b>setup</b> – bottom-up. Each node stores the half-distance to its
+ *       children. The right contour of the left subtree and the left
+ *       contour of the right subtree are walked together, only as deep as
+ *       the shallower one. Where one subtree ends first, its deepest
+ *       extreme leaf gets a <i>thread</i> to the next contour node of the
+ *       other subtree. Later walks then never have to descend into the
+ *       interior. Each contour step is paid for by a level that leaves the
+ *       contour for good, so the whole pass is O(n),</li>
+ *   <li><b>petrify</b> – top-down. Offsets are summed into absolute
+ *       positions, ignoring threads.</li>
+ * </ul>
+ * Both passes use explicit stacks, so degenerate trees are fine.
+ *
+ * Usage:
+ *   int[] x = TidyTreeLayout.layout(left, right, root);   // -1 = no child
+ *   double px = MARGIN + x[v] * spacing / TidyTreeLayout.MIN_SEP;
+ */
+public final class TidyTreeLayout {
+
+    /** Horizontal distance between neighbours on one level, in layout units. */
+    public static final int MIN_SEP = 2;
+
+    private TidyTreeLayout() {}
+
+    /**
+     * @param left  left child of each node, -1 if none
+     * @param right right child of each node, -1 if none
+     * @param root  the root, or -1 for an empty tree
+     * @return x of each node in layout units; the leftmost node is at 0
+     */
+    public static int[] layout(int[] left, int[] right, int root) {
+        int n = left.length;
+        int[] x = new int[n];
+        if (root < 0) return x;
+
+        // Working links: the real children, plus threads on leaves.
+        int[]     llink  = left.clone(), rlink = right.clone();
+        int[]     offset = new int[n];          // half-distance to the children, or a thread's length
+        boolean[] thread = new boolean[n];
+
+        // Deepest leftmost / rightmost node of each subtree: the node, its x relative to the subtree root, its level.
+        int[] lAddr = new int[n], lOff = new int[n], lLev = new int[n];
+        int[] rAddr = new int[n], rOff = new int[n], rLev = new int[n];
+
+        int[] order = preorder(left, right, root, n);
+        int[] level = new int[n];
+        for (int v : order) {
+            if (left[v]  >= 0) level[left[v]]  = level[v] + 1;
+            if (right[v] >= 0) level[right[v]] = level[v] + 1;
+        }
+
+        // Reverse preorder visits both children before their parent.
+        for (int i = order.length - 1; i >= 0; i--) {
+            int t = order[i], lc = left[t], rc = right[t];
+            if (lc < 0 && rc < 0) {
+                lAddr[t] = rAddr[t] = t;
+                lOff[t]  = rOff[t]  = 0;
+                lLev[t]  = rLev[t]  = level[t];
+                continue;
+            }
+
+            // Walk the facing contours; cursep is their distance at the current level.
+            int l = lc, r = rc;
+            int cursep = MIN_SEP, rootsep = MIN_SEP, loffsum = 0, roffsum = 0;
+            while (l >= 0 && r >= 0) {
+                if (cursep < MIN_SEP) { rootsep += MIN_SEP - cursep; cursep = MIN_SEP; }
+                if (rlink[l] >= 0) { loffsum += offset[l]; cursep -= offset[l]; l = rlink[l]; }
+                else               { loffsum -= offset[l]; cursep += offset[l]; l = llink[l]; }
+                if (llink[r] >= 0) { roffsum -= offset[r]; cursep -= offset[r]; r = llink[r]; }
+                else               { roffsum += offset[r]; cursep += offset[r]; r = rlink[r]; }
+            }
+            int half = (rootsep + 1) / 2;       // rounded up, so positions stay whole
+            offset[t] = half;
+
+            // Extremes of the combined subtree, now relative to t.
+            boolean leftDeeper  = rc < 0 || (lc >= 0 && lLev[lc] >= lLev[rc]);
+            boolean rightDeeper = lc < 0 || (rc >= 0 && rLev[rc] >= rLev[lc]);
+            if (leftDeeper) { lAddr[t] = lAddr[lc]; lOff[t] = lOff[lc] - half; lLev[t] = lLev[lc]; }
+            else            { lAddr[t] = lAddr[rc]; lOff[t] = lOff[rc] + half; lLev[t] = lLev[rc]; }
+            if (rightDeeper) { rAddr[t] = rAddr[rc]; rOff[t] = rOff[rc] + half; rLev[t] = rLev[rc]; }
+            else             { rAddr[t] = rAddr[lc]; rOff[t] = rOff[lc] - half; rLev[t] = rLev[lc]; }
+
+            // Thread the shallower subtree's deepest extreme to where the deeper one's contour continues.
+            if (l >= 0 && l != lc) {
+                int rr = rAddr[rc], rrX = rOff[rc] + half, lX = loffsum - half;
+                thread[rr] = true;
+                offset[rr] = Math.abs(rrX - lX);
+                if (lX <= rrX) llink[rr] = l; else rlink[rr] = l;
+            } else if (r >= 0 && r != rc) {
+                int ll = lAddr[lc], llX = lOff[lc] - half, rX = roffsum + half;
+                thread[ll] = true;
+                offset[ll] = Math.abs(rX - llX);
+                if (rX >= llX) rlink[ll] = r; else llink[ll] = r;
+            }
+        }
+
+        // Petrify: parents come before children in preorder.
+        int min = 0;
+        for (int v : order) {
+            min = Math.min(min, x[v]);
+            if (thread[v]) continue;            // a leaf: its links are threads, not children
+            if (left[v]  >= 0) x[left[v]]  = x[v] - offset[v];
+            if (right[v] >= 0) x[right[v]] = x[v] + offset[v];
+        }
+        for (int v : order) x[v] -= min;
+        return x;
+    }
+
+    private static int[] preorder(int[] left, int[] right, int root, int n) {
+        int[] order = new int[n], stack = new int[n];
+        int size = 0, top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int v = stack[--top];
+            order[size++] = v;
+            if (right[v] >= 0) stack[top++] = right[v];
+            if (left[v]  >= 0) stack[top++] = left[v];
+        }
+        return Arrays.copyOf(order, size);
+    }
+}
@@ -0,0 +1,162 @@
+package org.example.VisuAlgorithm;
+
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Records a {@link StepTrace} on a worker thread and keeps a controller's
+ * trace bar (a box with a status label and a Cancel button) in step with
+ * it. Everything but {@link #afterRecording} is for the FX thread.
+ * <p>
+ * A recorder reads only a copy of the structure that the caller took on
+ * the FX thread, never the scene graph. {@link #stop} therefore returns at
+ * once: it interrupts the recorder and detaches it from the trace, so its
+ * next append fails, and the caller may change the structure straight
+ * away. The stopped recording is let go in its own completion callback.
+ * <p>
+ * A recorder may also leave one follow-up job, such as an engine benchmark
+ * on the full generated graph. It starts only if the recording succeeds,
+ * runs under the same trace bar and Cancel button, and {@link #stop}
+ * cancels it too.
+ *
+ * Usage:
+ *   TraceRunner runner = new TraceRunner(steps, traceBox, traceStatusLabel, "graph-trace", this::traceFailed);
+ *   runner.start(() -> recordBfs(start));
+ *   runner.afterRecording("Measuring…", () -> benchmark(full), text -> show(text));   // inside the recorder
+ *   if (!runner.isRecording()) timeline.stop();     // nothing more will be appended
+ *   runner.stop();                                  // before clearing or rebuilding the graph
+ */
+public final class TraceRunner {
+
+    private final StepTrace           trace;
+    private final Node                box;
+    private final Label               status;
+    private final String              threadName;
+    private final Consumer<Throwable> onFailed;
+
+    /** One recording: its task, the thread running it and the follow-up it left. */
+    private static final class Recording {
+        final Task<Integer> task;
+        final Thread        thread;
+        volatile Runnable   pending;        // started once the recording succeeds
+
+        Recording(Task<Integer> task, Thread thread) { this.task = task; this.thread = thread; }
+    }
+
+    private volatile Recording recording;   // null once the recording has ended, failed or been stopped
+    private Task<String>       followUp;    // the running follow-up, if any
+
+    public TraceRunner(StepTrace trace, Node box, Label status, String threadName, Consumer<Throwable> onFailed) {
+        this.trace = trace; this.box = box; this.status = status;
+        this.threadName = threadName; this.onFailed = onFailed;
+    }
+
+    /** True while the recorder may still append steps. */
+    public boolean isRecording() { return recording != null; }
+
+    /** True while recording or while the follow-up job runs. */
+    public boolean isBusy() { return recording != null || followUp != null; }
+
+    /** Stops any earlier recording, then runs {@code record} on a new worker thread. */
+    public void start(Runnable record) {
+        stop();
+        Task<Integer> task = new Task<>() {
+            @Override
+            protected Integer call() {
+                trace.beginRecording(n -> updateMessage("Recording trace… " + n + " steps"));
+                try {
+                    record.run();
+                } finally {
+                    trace.endRecording();
+                }
+                return trace.size();
+            }
+        };
+        Thread t = new Thread(task, threadName);
+        t.setDaemon(true);
+        Recording r = new Recording(task, t);
+        recording = r;
+        status.textProperty().bind(task.messageProperty());
+        box.setVisible(true); box.setManaged(true);
+        task.setOnSucceeded(e -> finish(r, null));
+        task.setOnCancelled(e -> finish(r, null));
+        task.setOnFailed(e -> finish(r, task.getException()));
+        t.start();
+    }
+
+    /**
+     * Called by the recorder: once the recording succeeds, runs {@code job}
+     * on its own thread and hands its result to {@code onResult} on the FX
+     * thread. The job should check for interruption now and then, as
+     * {@link #stop} cancels it. A later call replaces an earlier one; a
+     * recorder that has been stopped cannot leave a job.
+     */
+    public void afterRecording(String message, Callable<String> job, Consumer<String> onResult) {
+        Recording r = recording;
+        if (r == null || r.thread != Thread.currentThread()) return;
+        r.pending = () -> {
+            Task<String> task = new Task<>() {
+                @Override
+                protected String call() throws Exception {
+                    updateMessage(message);
+                    return job.call();
+                }
+            };
+            followUp = task;
+            status.textProperty().bind(task.messageProperty());
+            box.setVisible(true); box.setManaged(true);
+            task.setOnSucceeded(e -> { if (endFollowUp(task)) onResult.accept(task.getValue()); });
+            task.setOnCancelled(e -> endFollowUp(task));
+            task.setOnFailed(e -> { if (endFollowUp(task)) onFailed.accept(task.getException()); });
+            Thread t = new Thread(task, threadName + "-followup");
+            t.setDaemon(true);
+            t.start();
+        };
+    }
+
+    /**
+     * Cancels the follow-up job and the recorder without waiting for either;
+     * whatever the recorder already appended stays playable, and nothing
+     * more can be. Returns false if nothing was recording.
+     */
+    public boolean stop() {
+        if (followUp != null) {
+            Task<String> task = followUp;
+            endFollowUp(task);
+            task.cancel(true);
+        }
+        Recording r = recording;
+        if (r == null) return false;
+        recording = null;
+        trace.retire(r.thread);
+        r.task.cancel(true);
+        status.textProperty().unbind();
+        box.setVisible(false); box.setManaged(false);
+        return true;
+    }
+
+    /** Completion callback of every recording, including one that {@link #stop} already let go. */
+    private void finish(Recording r, Throwable error) {
+        Runnable next = r.task.getState() == Worker.State.SUCCEEDED ? r.pending : null;
+        r.pending = null;
+        if (recording != r) return;
+        recording = null;
+        status.textProperty().unbind();
+        box.setVisible(false); box.setManaged(false);
+        if (error != null) onFailed.accept(error);
+        if (next != null) next.run();
+    }
+
+    private boolean endFollowUp(Task<String> task) {
+        if (followUp != task) return false;
+        followUp = null;
+        status.textProperty().unbind();
+        box.setVisible(false); box.setManaged(false);
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.VisuAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint-set forest on plain int arrays: union by rank, path halving in
+ * {@code find}. Every element starts as its own root. The counters record how
+ * many parent links each {@code find} walked, which shows how flat the forest
+ * stays (amortized inverse-Ackermann).
+ *
+ * Usage:
+ *   UnionFind uf = new UnionFind(n);
+ *   if (uf.union(u, v)) { ... edge joins two components ... }
+ *   double avg = uf.averageFindDepth();
+ */
+public final class UnionFind {
+
+    private final int[] parent;
+    private final int[] rank;
+    private final int[] size;
+    private int components;
+    private int largestSet;
+
+    public long finds, findSteps, unions;
+    public int  maxFindDepth;
+
+    public UnionFind(int n) {
+        parent = new int[n];
+        rank   = new int[n];
+        size   = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = i;
+        Arrays.fill(size, 1);
+        components = n;
+        largestSet = n == 0 ? 0 : 1;
+    }
+
+    public int find(int x) {
+        finds++;
+        int depth = 0;
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];      // path halving
+            x = parent[x];
+            depth++;
+        }
+        findSteps += depth;
+        if (depth > maxFindDepth) maxFindDepth = depth;
+        return x;
+    }
+
+    /** Merges the sets of {@code a} and {@code b}; false if they were already joined. */
+    public boolean union(int a, int b) {
+        int ra = find(a), rb = find(b);
+        if (ra == rb) return false;
+        if (rank[ra] < rank[rb]) { int t = ra; ra = rb; rb = t; }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        if (rank[ra] == rank[rb]) rank[ra]++;
+        if (size[ra] > largestSet) largestSet = size[ra];
+        unions++;
+        components--;
+        return true;
+    }
+
+    public boolean connected(int a, int b) { return find(a) == find(b); }
+
+    public int  elementCount()  { return parent.length; }
+    public int  components()    { return components; }
+    public int  largestSet()    { return largestSet; }
+    public int  parentOf(int x) { return parent[x]; }
+    public int  rankOf(int x)   { return rank[x]; }
+    /** Size of the set rooted at {@code root} (only meaningful for roots). */
+    public int  sizeOf(int root){ return size[root]; }
+
+    public int[] parentSnapshot() { return parent.clone(); }
+    /** The live parent array, for observers that only read it between operations. */
+    int[]        parents()        { return parent; }
+    public int[] rankSnapshot()   { return rank.clone(); }
+
+    public double averageFindDepth() { return finds == 0 ? 0 : findSteps / (double) finds; }
+}
@@ -1,16 +1,23 @@
 package org.example.VisuAlgorithm;
 
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.Group;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
@@ -18,10 +25,14 @@ import javafx.scene.shape.*;
 import javafx.scene.text.Text;
 import javafx.scene.transform.Scale;
 import javafx.scene.transform.Translate;
+import javafx.stage.FileChooser;
 import javafx.util.Duration;
 
 // Added imports for recording and capture
 import javafx.scene.image.WritableImage;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.scene.SnapshotParameters;
 import javafx.embed.swing.SwingFXUtils;
 import javax.imageio.ImageIO;
@@ -37,10 +48,15 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.jcodec.api.awt.AWTSequenceEncoder;
 import javafx.geometry.Point2D;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class graphController {
 
@@ -57,6 +73,14 @@ public class graphController {
     @FXML private TextField nodeValueField;
     @FXML private Button backButton;
     @FXML private Label resultLabel;
+    @FXML private ToggleButton layoutToggle;
+    @FXML private Button layoutPauseButton;
+    @FXML private Button importButton;
+    @FXML private Button randomButton;
+    @FXML private ComboBox<GraphGenerators.Model> generatorCombo;
+    @FXML private TextField generatorSizeField;
+    @FXML private TextField generatorSeedField;
+    @FXML private Button exportButton;
 
     // --- Capture buttons ---
     @FXML private Button screenshotBtn;
@@ -81,13 +105,48 @@ public class graphController {
     @FXML private TextField endNodeField;
     @FXML private Slider speedSlider;
     @FXML private Button playPauseButton;
+    @FXML private ToggleButton condenseToggle;
+    @FXML private HBox      dynamicEditBox;
+    @FXML private TextField dynamicWeightField;
+
+    // Grid Pathfinding Lab
+    @FXML private ToolBar   gridToolbar;
+    @FXML private ComboBox<GridMap.Generator>   gridGeneratorCombo;
+    @FXML private ComboBox<GridSearch.Movement> gridMovementCombo;
+    @FXML private TextField gridSizeField;
+    @FXML private TextField gridSeedField;
+    @FXML private Button    gridGenerateButton;
+    @FXML private Button    gridRunButton;
+    @FXML private VBox      gridResultsPane;
+    @FXML private TableView<GridSearch.Result> gridResultsTable;
+    @FXML private Label     gridSummaryLabel;
 
     // Data Representation Panels
     @FXML private VBox dataPane;
     @FXML private ToggleButton dataToggleBuild;
     @FXML private ToggleButton dataToggleAlgo;
-    @FXML private TextArea adjListArea;
-    @FXML private TextArea adjMatrixArea;
+    @FXML private ListView<GraphNode>  adjListView;
+    @FXML private AdjacencyMatrixView  adjMatrixView;
+    @FXML private Button               apspRunButton;
+    @FXML private CheckBox             apspCompareCheck;
+    @FXML private ImageView            apspView;
+    @FXML private Label                apspSummaryLabel;
+    @FXML private Button               centralityRunButton;
+    @FXML private ComboBox<String>     centralityMeasureCombo;
+    @FXML private TextField            centralitySourcesField;
+    @FXML private CheckBox             centralityCompareCheck;
+    @FXML private Label                centralitySummaryLabel;
+    @FXML private Button               pageRankRunButton;
+    @FXML private CheckBox             pageRankCompareCheck;
+    @FXML private TextField            pageRankDampingField;
+    @FXML private TextField            pageRankToleranceField;
+    @FXML private LineChart<Number, Number> pageRankChart;
+    @FXML private Label                pageRankSummaryLabel;
+    @FXML private Button               scheduleRunButton;
+    @FXML private TextField            scheduleWorkersField;
+    @FXML private Pane                 scheduleGanttPane;
+    @FXML private LineChart<Number, Number> scheduleMakespanChart;
+    @FXML private Label                scheduleSummaryLabel;
 
     // ===============================
     // LEFT SIDE: REAL-TIME STATE PANEL
@@ -101,6 +160,9 @@ public class graphController {
     @FXML private Separator extraSeparator;
     @FXML private Label     extraTitleLabel;
     @FXML private TextArea  extraArea;
+    @FXML private Separator auxSeparator;
+    @FXML private Label     auxTitleLabel;
+    @FXML private TextArea  auxArea;
 
     // ===============================
     // STATE VARIABLES
@@ -116,9 +178,14 @@ public class graphController {
     private final Stack<UndoCommand>   undoStack  = new Stack<>();
 
     private Timeline         timeline       = null;
-    private final List<Runnable> algorithmSteps = new ArrayList<>();
+    private final StepTrace  algorithmSteps = new StepTrace();
     private int currentStep = 0;
 
+    // Traces are recorded off the FX thread; playback starts on the first steps and waits for more
+    @FXML private HBox  traceBox;
+    @FXML private Label traceStatusLabel;
+    private TraceRunner traceRunner;
+
     // Canvas Pan & Zoom Sub-Container & Variables
     private final Group graphContentGroup = new Group();
     private final Scale scaleTransform = new Scale(1, 1);
@@ -127,11 +194,90 @@ public class graphController {
     private double dragStartX, dragStartY;
     private boolean canvasDragged = false;
 
+    // Picking: nodes and edges are hit-tested through spatial indexes instead of per-shape handlers
+    private static final double NODE_RADIUS         = 20;
+    private static final double EDGE_PICK_TOLERANCE = 6;   // screen pixels
+    private final SpatialIndex<GraphNode> nodeIndex = new SpatialIndex<>();
+    private final SpatialIndex<GraphEdge> edgeIndex = new SpatialIndex<>();
+    private boolean   spatialIndexStale = false;
+    private GraphNode pressedNode       = null;
+
+    // Sparse edge index keyed by (from.id, to.id); backs duplicate checks and the matrix view
+    private final EdgeKeyIndex<GraphEdge> edgeKeyIndex = new EdgeKeyIndex<>(e -> e.isDirected);
+    private final ObservableList<GraphNode> adjListItems = FXCollections.observableArrayList();
+    private int nextNodeId = 0;
+
+    // Import/export runs off the FX thread; huge graphs are rendered as a connected sample
+    private static final int MAX_RENDER_NODES = 3000;
+    private static final int MAX_RENDER_EDGES = 12000;
+    private Task<?> ioTask;
+
+    // Force-directed layout (runs on its own worker threads, drained once per pulse)
+    private ForceDirectedLayout forceLayout = null;
+    private AnimationTimer      layoutPump  = null;
+
+    // Grid lab: the map is painted into one pixel buffer (one pixel per cell) instead of shapes
+    private static final int GRID_DEFAULT_SIDE = 301;
+    private final Group     gridContentGroup = new Group();
+    private final ImageView gridView         = new ImageView();
+    private boolean         gridMode         = false;
+    private GridMap         gridMap;
+    private WritableImage   gridImage;
+    private int[]           gridPixels;
+    private int             gridStart = -1, gridGoal = -1;
+
+    // All-pairs heatmap: the Floyd–Warshall matrix, one pixel per (source, target) pair
+    private static final long APSP_REFRESH_NANOS = 200_000_000L;
+    private GraphData     fullGraphData;          // unsampled graph behind the canvas, until the next edit
+    private WritableImage apspImage;
+    private int[]         apspDist;               // final matrix, read by the hover readout
+    private String[]      apspLabels;
+    private final AtomicBoolean apspPaintPending = new AtomicBoolean();
+
+    // Centrality: scores of the last run, mapped onto the canvas nodes until the next edit
+    private Centrality.Result centralityResult;
+    private int[]             centralityIndexOf;      // canvas node -> node of the scored graph, -1 if absent
+
+    // PageRank: the canvas is repainted after every iteration, at most one repaint queued at a time
+    private PageRank.Result pageRankResult;
+    private final AtomicBoolean pageRankPaintPending = new AtomicBoolean();
+
+    // Dynamic Dijkstra: the tree survives edge edits made in algorithm mode; each edit appends its repair steps
+    private DynamicShortestPaths          dynamicPaths;
+    private final List<GraphEdge>         dynamicEdges  = new ArrayList<>();     // engine edge id -> canvas edge
+    private final Map<GraphEdge, Integer> dynamicEdgeId = new HashMap<>();
+    private final List<String>            dynamicLog    = new ArrayList<>();
+    private int[]           dynamicShownParent;                                  // tree edge currently drawn per node
+    private List<GraphNode> dynamicRepaired = List.of();
+    private GraphEdge       dynamicSelectedEdge;
+    private GraphNode       dynamicFirstNode;
+    private int             dynamicEdits;
+
+    // Condensation view: the original graph is parked here, with its undo history and view, while the canvas shows the SCC DAG
+    private static final class ParkedGraph {
+        final List<GraphNode>   nodes;
+        final List<GraphEdge>   edges;
+        final List<UndoCommand> undo;
+        final GraphData         full;
+        final int               nodeCounter;
+        final double            panX, panY, scale;
+
+        ParkedGraph(List<GraphNode> nodes, List<GraphEdge> edges, List<UndoCommand> undo, GraphData full,
+                    int nodeCounter, double panX, double panY, double scale) {
+            this.nodes = nodes; this.edges = edges; this.undo = undo; this.full = full;
+            this.nodeCounter = nodeCounter; this.panX = panX; this.panY = panY; this.scale = scale;
+        }
+    }
+    private ParkedGraph condensedFrom;
+    private static final String CONDENSED_EDIT_MESSAGE =
+            "The SCC DAG is a read-only view: toggle ⊙ Condense SCCs off to edit the original graph.";
+
     // ===============================
     // INITIALIZATION
     // ===============================
     @FXML
     public void initialize() {
+        traceRunner = new TraceRunner(algorithmSteps, traceBox, traceStatusLabel, "graph-trace", this::traceFailed);
         nodeTool.setSelected(true);
         nodeTool.setOnAction(e -> clearSelection());
         edgeTool.setOnAction(e -> clearSelection());
@@ -151,7 +297,7 @@ public class graphController {
                 canvasPane.getScene().addEventFilter(KeyEvent.KEY_PRESSED, event -> {
                     if (event.isShortcutDown()) { // isShortcutDown maps to Ctrl on Windows, Cmd on Mac
                         if (event.getCode() == KeyCode.Z) {
-                            handleUndo();
+                            if (!gridMode) handleUndo();
                             event.consume();
                         } else if (event.getCode() == KeyCode.EQUALS || event.getCode() == KeyCode.PLUS || event.getCode() == KeyCode.ADD) {
                             applyZoom(1.1, canvasPane.getWidth() / 2, canvasPane.getHeight() / 2);
@@ -171,11 +317,26 @@ public class graphController {
         if (algoComboBox != null) {
             algoComboBox.getItems().addAll(
                     "BFS (Breadth-First Search)",
+                    "Level-Synchronous BFS (Direction-Optimizing)",
                     "DFS (Depth-First Search)",
                     "Dijkstra's Shortest Path",
+                    "Dijkstra (Indexed 4-ary Heap)",
+                    "Dynamic Dijkstra (Edit & Repair)",
+                    "Bellman–Ford (Negative Weights)",
+                    "SPFA (Queue-Based Bellman–Ford)",
                     "Prim's MST",
+                    "Prim's MST (Indexed 4-ary Heap)",
                     "Kruskal's MST",
-                    "Topological Sorting (DAG)"
+                    "Borůvka's MST (Parallel Rounds)",
+                    "Edmonds–Karp Max-Flow (Min Cut)",
+                    "Dinic's Max-Flow (Level Graph)",
+                    "Tarjan's SCC (Strongly Connected Components)",
+                    "Kosaraju's SCC (Two-Pass)",
+                    "Connected Components (BFS Sweep)",
+                    "Connected Components (Union-Find)",
+                    "Connected Components (Label Propagation)",
+                    "Topological Sorting (DAG)",
+                    "DAG Scheduling (Kahn Levels & Critical Path)"
             );
 
             algoComboBox.setCellFactory(listView -> new ListCell<String>() {
@@ -186,11 +347,14 @@ public class graphController {
                         setText(null); setDisable(false); setStyle("");
                     } else {
                         setText(item);
-                        boolean reqWeight  = item.contains("Dijkstra") || item.contains("Prim") || item.contains("Kruskal");
+                        boolean reqWeight  = item.contains("Dijkstra") || item.contains("Prim") || item.contains("Kruskal")
+                                || item.contains("Borůvka") || item.contains("Max-Flow");
                         boolean hasUnweighted = edges.stream().anyMatch(e -> !e.isWeighted);
-                        boolean reqDAG     = item.contains("Topological");
+                        boolean reqDAG     = item.contains("Topological") || item.startsWith("DAG");
                         boolean notDAG     = !isDAG();
-                        if ((reqWeight && hasUnweighted) || (reqDAG && notDAG)) {
+                        boolean negative   = (item.contains("Dijkstra") || item.contains("Max-Flow")) && hasNegativeWeight();
+                        boolean directedOnly = item.startsWith("Connected") && edges.stream().anyMatch(e -> e.isDirected);
+                        if ((reqWeight && hasUnweighted) || (reqDAG && notDAG) || negative || directedOnly) {
                             setDisable(true);
                             setStyle("-fx-text-fill: gray; -fx-font-style: italic;");
                         } else {
@@ -208,13 +372,23 @@ public class graphController {
                         resultLabel.setText("Algorithm changed. Press ▶ Play to start!");
                     }
                 }
+                updateDynamicControls();
             });
         }
 
         setupCanvasPanAndZoom();
 
+        if (generatorCombo != null) {
+            generatorCombo.getItems().setAll(GraphGenerators.Model.values());
+            generatorCombo.setValue(GraphGenerators.Model.SMALL_RANDOM);
+        }
+        setupGridLab();
+
         if (resultLabel != null) resultLabel.setText("");
+        setupGraphRepresentations();
         updateGraphRepresentations();
+        setupAllPairs();
+        setupCentrality();
     }
 
     // ===============================
@@ -228,6 +402,11 @@ public class graphController {
         }
 
         graphContentGroup.getTransforms().addAll(panTransform, scaleTransform);
+        if (!canvasPane.getChildren().contains(gridContentGroup)) {
+            canvasPane.getChildren().add(gridContentGroup);
+        }
+        gridContentGroup.getTransforms().addAll(panTransform, scaleTransform);
+        gridContentGroup.setVisible(false);
 
         // 1. Trackpad Two-Finger Swipe to Pan
         canvasPane.setOnScroll(event -> {
@@ -243,19 +422,46 @@ public class graphController {
         });
 
         // 3. Mouse Click & Drag to Pan (Left, Middle, or Right Click)
+        //    Primary press on a node drags it.
         canvasPane.setOnMousePressed(event -> {
             lastPanX = event.getSceneX();
             lastPanY = event.getSceneY();
             dragStartX = lastPanX;
             dragStartY = lastPanY;
             canvasDragged = false;
+            pressedNode = null;
+
+            if (event.getButton() == MouseButton.PRIMARY && !isAlgorithmMode && !gridMode) {
+                Point2D local = graphContentGroup.sceneToLocal(event.getSceneX(), event.getSceneY());
+                GraphNode hit = pickNode(local.getX(), local.getY());
+                if (hit != null) {
+                    pressedNode  = hit;
+                    hit.offsetX = hit.circle.getCenterX() - local.getX();
+                    hit.offsetY = hit.circle.getCenterY() - local.getY();
+                    if (!edgeTool.isSelected()) selectNode(hit);
+                    return;
+                }
+            }
 
-            if (event.getButton() != MouseButton.PRIMARY || isAlgorithmMode) {
+            if (event.getButton() != MouseButton.PRIMARY || isAlgorithmMode || gridMode) {
                 canvasPane.setCursor(javafx.scene.Cursor.CLOSED_HAND);
             }
         });
 
         canvasPane.setOnMouseDragged(event -> {
+            if (Math.hypot(event.getSceneX() - dragStartX, event.getSceneY() - dragStartY) > 3) canvasDragged = true;
+
+            if (pressedNode != null) {
+                Point2D local = graphContentGroup.sceneToLocal(event.getSceneX(), event.getSceneY());
+                pressedNode.circle.setCenterX(local.getX() + pressedNode.offsetX);
+                pressedNode.circle.setCenterY(local.getY() + pressedNode.offsetY);
+                pressedNode.updateConnectedEdges();
+                reindexNodeAndEdges(pressedNode);
+                if (forceLayout != null) pinNode(pressedNode);
+                event.consume();
+                return;
+            }
+
             double deltaX = event.getSceneX() - lastPanX;
             double deltaY = event.getSceneY() - lastPanY;
 
@@ -275,6 +481,7 @@ public class graphController {
         });
 
         canvasPane.setOnMouseReleased(event -> {
+            pressedNode = null;
             canvasPane.setCursor(javafx.scene.Cursor.DEFAULT);
         });
     }
@@ -340,13 +547,24 @@ public class graphController {
         if (extraSeparator   != null) { extraSeparator.setVisible(false);  extraSeparator.setManaged(false);  }
         if (extraTitleLabel  != null) { extraTitleLabel.setText(""); extraTitleLabel.setVisible(false); extraTitleLabel.setManaged(false); }
         if (extraArea        != null) { extraArea.setText(""); extraArea.setVisible(false); extraArea.setManaged(false); }
+        setAuxState(null, null);
+    }
+
+    /** Fourth, optional panel for algorithms with a second auxiliary structure (e.g. Kruskal's forest). */
+    private void setAuxState(String title, String text) {
+        boolean show = text != null && !text.isEmpty();
+        if (auxSeparator  != null) { auxSeparator.setVisible(show);  auxSeparator.setManaged(show);  }
+        if (auxTitleLabel != null) { auxTitleLabel.setText(title != null ? title : "");
+            auxTitleLabel.setVisible(show); auxTitleLabel.setManaged(show); }
+        if (auxArea       != null) { auxArea.setText(show ? text : "");
+            auxArea.setVisible(show);       auxArea.setManaged(show);       }
     }
 
     // --- Intuitive Format Helpers ---
 
-    private String formatQueue(LinkedList<GraphNode> q) {
+    private String formatQueue(GraphSnapshot graph, LinkedList<GraphNode> q) {
         if (q.isEmpty()) return "(Queue is empty)";
-        List<String> labels = q.stream().map(n -> n.label.getText()).toList();
+        List<String> labels = q.stream().map(n -> graph.label(n)).toList();
         return "Front ➔ [ " + String.join(" | ", labels) + " ] ➔ Back";
     }
 
@@ -361,21 +579,66 @@ public class graphController {
         return sb.toString().trim();
     }
 
-    private String formatDistances(Map<GraphNode, Integer> snap) {
+    /**
+     * Immutable linked stack shared between recorded steps: a push allocates one
+     * frame and every step just keeps a pointer to its top, so recording costs
+     * O(1) per step instead of a copy of the whole stack.
+     */
+    private static final class StackFrame {
+        final String label; final StackFrame below; final int depth;
+        StackFrame(String label, StackFrame below) {
+            this.label = label; this.below = below; this.depth = below == null ? 1 : below.depth + 1;
+        }
+    }
+
+    private static final int PANEL_ITEM_LIMIT = 200;   // entries rendered in the state panel
+
+    /** Renders like {@link #formatStack(List)}, eliding the middle of very deep stacks. */
+    private String formatStack(StackFrame top) {
+        if (top == null) return "(Stack is empty)";
+        StringBuilder sb = new StringBuilder();
+        StackFrame f = top;
+        for (int shown = 0; f != null && (shown < PANEL_ITEM_LIMIT || f.below == null); shown++, f = f.below) {
+            if (f == top)               sb.append("  Top  ➔ [ ").append(f.label).append(" ]\n");
+            else if (f.below == null)   sb.append("  Base ➔ [ ").append(f.label).append(" ]\n");
+            else                        sb.append("         [ ").append(f.label).append(" ]\n");
+            if (shown == PANEL_ITEM_LIMIT - 1 && f.depth > 2) {
+                sb.append("         … ").append(f.depth - 2).append(" more …\n");
+                while (f.below.below != null) f = f.below;
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    /** First {@code count} entries of a shared, append-only order list, keeping only the tail when long. */
+    private String formatOrderPrefix(List<String> order, int count) {
+        if (count <= PANEL_ITEM_LIMIT) return String.join(" ➔ ", order.subList(0, count));
+        return "… (" + (count - PANEL_ITEM_LIMIT) + " earlier) ➔ "
+                + String.join(" ➔ ", order.subList(count - PANEL_ITEM_LIMIT, count));
+    }
+
+    private String formatDistances(GraphSnapshot graph, Map<GraphNode, Integer> snap) {
         if (snap == null || snap.isEmpty()) return "";
         StringBuilder sb = new StringBuilder("Node | Distance\n");
         sb.append("─────┼──────────\n");
-        for (GraphNode node : nodes) {
+        for (GraphNode node : graph.nodes) {
             Integer d = snap.get(node);
             String dStr = (d == null || d == Integer.MAX_VALUE) ? "∞" : String.valueOf(d);
-            sb.append(String.format("  %-2s | %s%n", node.label.getText(), dStr));
+            sb.append(String.format("  %-2s | %s%n", graph.label(node), dStr));
         }
         return sb.toString().trim();
     }
 
     private String formatMSTEdges(List<String> mstEdges, int total) {
-        if (mstEdges.isEmpty()) return "(None yet)";
-        return String.join("\n", mstEdges) + "\n─────────────\nTotal weight = " + total;
+        return formatMSTEdges(mstEdges, mstEdges.size(), total);
+    }
+
+    /** First {@code count} entries of a shared, append-only MST edge list, keeping only the tail when long. */
+    private String formatMSTEdges(List<String> mstEdges, int count, long total) {
+        if (count == 0) return "(None yet)";
+        int from = Math.max(0, count - PANEL_ITEM_LIMIT);
+        String head = from > 0 ? "  … (" + from + " earlier)\n" : "";
+        return head + String.join("\n", mstEdges.subList(from, count)) + "\n─────────────\nTotal weight = " + total;
     }
 
     // ===============================
@@ -413,13 +676,16 @@ public class graphController {
     // INTERNAL GRAPH CLASSES
     // ===============================
     class GraphNode {
+        final int id = nextNodeId++;
         Circle circle; Text label; double offsetX, offsetY;
         List<GraphEdge> connectedEdges = new ArrayList<>();
         Text distLabel;
+        int layoutIndex = -1; boolean pinned = false;
 
         GraphNode(double x, double y, String value) {
-            circle = new Circle(x, y, 20, Color.LIGHTBLUE);
+            circle = new Circle(x, y, NODE_RADIUS, Color.LIGHTBLUE);
             circle.setStroke(Color.BLACK); circle.setStrokeWidth(2);
+            circle.setMouseTransparent(true);
             label = new Text(value); label.setMouseTransparent(true);
 
             distLabel = new Text("∞");
@@ -437,54 +703,21 @@ public class graphController {
                 distLabel.xProperty().bind(circle.centerXProperty().subtract(distLabel.getLayoutBounds().getWidth() / 2));
                 distLabel.yProperty().bind(circle.centerYProperty().subtract(circle.getRadius() + 5));
             });
-            enableDrag();
-        }
-
-        void enableDrag() {
-            circle.setOnMousePressed(e -> {
-                if (isAlgorithmMode) return;
-
-                Point2D localPoint = graphContentGroup.sceneToLocal(e.getSceneX(), e.getSceneY());
-                offsetX = circle.getCenterX() - localPoint.getX();
-                offsetY = circle.getCenterY() - localPoint.getY();
-
-                if (!edgeTool.isSelected()) selectNode(this);
-                e.consume(); // Prevents canvas pan drag from triggering
-            });
-            circle.setOnMouseDragged(e -> {
-                if (isAlgorithmMode) return;
-
-                Point2D localPoint = graphContentGroup.sceneToLocal(e.getSceneX(), e.getSceneY());
-                circle.setCenterX(localPoint.getX() + offsetX);
-                circle.setCenterY(localPoint.getY() + offsetY);
-                updateConnectedEdges();
-                e.consume(); // Prevents canvas pan drag from triggering
-            });
-            circle.setOnMouseClicked(e -> {
-                if (e.getButton() == MouseButton.PRIMARY) {
-                    handleNodeClick(this);
-                }
-                e.consume();
-            });
         }
 
         void updateConnectedEdges() { for (GraphEdge edge : connectedEdges) edge.update(); }
     }
 
     class GraphEdge {
-        GraphNode from, to; Line line; Polygon arrowHead; Text weightText;
-        boolean isDirected, isWeighted;
+        final GraphNode from, to; Line line; Polygon arrowHead; Text weightText;
+        final boolean isDirected, isWeighted;
 
         GraphEdge(GraphNode from, GraphNode to, int weight, boolean directed, boolean weighted) {
             this.from = from; this.to = to; this.isDirected = directed; this.isWeighted = weighted;
             line = new Line(); line.setStrokeWidth(3); line.setStroke(Color.BLACK);
             weightText = new Text(String.valueOf(weight)); weightText.setMouseTransparent(true);
             arrowHead  = new Polygon(); arrowHead.setFill(Color.BLACK);
-
-            line.setOnMouseClicked(e -> {
-                if (e.getButton() == MouseButton.PRIMARY) selectEdge(this);
-                e.consume();
-            });
+            line.setMouseTransparent(true); arrowHead.setMouseTransparent(true);
         }
 
         void update() {
@@ -493,9 +726,9 @@ public class graphController {
             double dx = ex - sx, dy = ey - sy;
             double distance = Math.sqrt(dx * dx + dy * dy);
             if (distance < 1) return;
-            double r = from.circle.getRadius();
-            double startX = sx + (dx / distance) * r, startY = sy + (dy / distance) * r;
-            double endX   = ex - (dx / distance) * r, endY   = ey - (dy / distance) * r;
+            double r = from.circle.getRadius(), rt = to.circle.getRadius();
+            double startX = sx + (dx / distance) * r,  startY = sy + (dy / distance) * r;
+            double endX   = ex - (dx / distance) * rt, endY   = ey - (dy / distance) * rt;
             line.setStartX(startX); line.setStartY(startY);
             line.setEndX(endX);     line.setEndY(endY);
             if (isWeighted) { weightText.setX((startX + endX) / 2 + 5); weightText.setY((startY + endY) / 2 - 5); }
@@ -515,16 +748,29 @@ public class graphController {
     // ===============================
     @FXML
     private void handleCanvasClick(MouseEvent event) {
-        if (isAlgorithmMode) return;
+        if (gridMode) { handleGridClick(event); return; }
+        if (isAlgorithmMode) {
+            if (event.getButton() == MouseButton.PRIMARY && !canvasDragged && algoComboBox.getValue() != null
+                    && algoComboBox.getValue().startsWith("Dynamic")) {
+                Point2D local = graphContentGroup.sceneToLocal(event.getSceneX(), event.getSceneY());
+                handleDynamicClick(local.getX(), local.getY());
+            }
+            return;
+        }
 
         // Ensure only primary clicks create nodes, and ignore if it was a drag gesture
         if (event.getButton() != MouseButton.PRIMARY) return;
         if (canvasDragged) return;
-        if (event.getTarget() != canvasPane) return;
+
+        // Apply coordinates correctly mapped into the Pan/Zoom space
+        Point2D localPoint = graphContentGroup.sceneToLocal(event.getSceneX(), event.getSceneY());
+        GraphNode hitNode = pickNode(localPoint.getX(), localPoint.getY());
+        if (hitNode != null && hitNode.pinned && event.getClickCount() == 2) { unpinNode(hitNode); return; }
+        if (hitNode != null) { handleNodeClick(hitNode); return; }
+        GraphEdge hitEdge = pickEdge(localPoint.getX(), localPoint.getY());
+        if (hitEdge != null) { selectEdge(hitEdge); return; }
 
         if (nodeTool.isSelected()) {
-            // Apply coordinates correctly mapped into the Pan/Zoom space
-            Point2D localPoint = graphContentGroup.sceneToLocal(event.getSceneX(), event.getSceneY());
             createNode(localPoint.getX(), localPoint.getY());
         } else {
             clearSelection();
@@ -544,7 +790,7 @@ public class graphController {
         GraphNode node = new GraphNode(x, y, value);
         restoreNodeInternal(node);
         undoStack.push(new AddNodeCommand(node));
-        updateGraphRepresentations();
+        graphStructureChanged();
     }
 
     private void handleNodeClick(GraphNode node) {
@@ -559,12 +805,12 @@ public class graphController {
     }
 
     private void createEdge(GraphNode from, GraphNode to) {
-        if (edges.stream().anyMatch(e -> e.from == from && e.to == to)) return;
+        if (edgeKeyIndex.contains(from.id, to.id)) return;
         int weight = 1;
         try { weight = Integer.parseInt(weightField.getText()); } catch (NumberFormatException ignored) {}
         GraphEdge edge = new GraphEdge(from, to, weight, directedCheck.isSelected(), weightedCheck.isSelected());
         restoreEdgeInternal(edge); undoStack.push(new AddEdgeCommand(edge));
-        updateGraphRepresentations();
+        graphStructureChanged();
     }
 
     private void selectNode(GraphNode node) { clearSelection(); selectedNode = node; node.circle.setStroke(Color.RED); }
@@ -583,32 +829,41 @@ public class graphController {
             undoStack.push(new DeleteCommand(selectedEdge));
             removeEdgeInternal(selectedEdge); selectedEdge = null;
         }
-        updateGraphRepresentations();
+        graphStructureChanged();
     }
 
     private void handleUndo() {
-        if (!undoStack.isEmpty()) { undoStack.pop().undo(); clearSelection(); updateGraphRepresentations(); }
+        if (isAlgorithmMode && (dynamicPaths != null || traceRunner.isRecording())) resetAlgorithmState();   // the trace would no longer match
+        if (!undoStack.isEmpty()) { undoStack.pop().undo(); clearSelection(); graphStructureChanged(); }
     }
 
     private void removeNodeInternal(GraphNode node) {
         nodes.remove(node);
+        nodeIndex.remove(node);
+        adjListItems.remove(node);
         graphContentGroup.getChildren().removeAll(node.circle, node.label, node.distLabel);
     }
 
     private void restoreNodeInternal(GraphNode node) {
-        if (!nodes.contains(node)) nodes.add(node);
+        if (!nodeIndex.contains(node)) { nodes.add(node); adjListItems.add(node); }
         if (!graphContentGroup.getChildren().contains(node.circle))
             graphContentGroup.getChildren().addAll(node.circle, node.label, node.distLabel);
+        indexNode(node);
     }
 
     private void removeEdgeInternal(GraphEdge edge) {
         edges.remove(edge);
+        edgeIndex.remove(edge);
+        edgeKeyIndex.remove(edge.from.id, edge.to.id, edge);
         edge.from.connectedEdges.remove(edge); edge.to.connectedEdges.remove(edge);
         graphContentGroup.getChildren().removeAll(edge.line, edge.arrowHead, edge.weightText);
     }
 
     private void restoreEdgeInternal(GraphEdge edge) {
-        if (!edges.contains(edge)) edges.add(edge);
+        if (edgeKeyIndex.get(edge.from.id, edge.to.id) != edge) {
+            edgeKeyIndex.put(edge.from.id, edge.to.id, edge);
+            edges.add(edge);
+        }
         if (!edge.from.connectedEdges.contains(edge)) edge.from.connectedEdges.add(edge);
         if (!edge.to.connectedEdges.contains(edge))   edge.to.connectedEdges.add(edge);
         if (!graphContentGroup.getChildren().contains(edge.line)) {
@@ -618,56 +873,306 @@ public class graphController {
             if (edge.isWeighted) graphContentGroup.getChildren().add(idx,   edge.weightText);
         }
         edge.update();
+        indexEdge(edge);
+    }
+
+    // ===============================
+    // SPATIAL INDEX & PICKING
+    // ===============================
+    private void indexNode(GraphNode node) {
+        double x = node.circle.getCenterX(), y = node.circle.getCenterY(), r = node.circle.getRadius();
+        nodeIndex.put(node, x - r, y - r, x + r, y + r);
+    }
+
+    private void indexEdge(GraphEdge edge) {
+        Line l = edge.line;
+        edgeIndex.put(edge, Math.min(l.getStartX(), l.getEndX()), Math.min(l.getStartY(), l.getEndY()),
+                            Math.max(l.getStartX(), l.getEndX()), Math.max(l.getStartY(), l.getEndY()));
+    }
+
+    private void reindexNodeAndEdges(GraphNode node) {
+        indexNode(node);
+        for (GraphEdge e : node.connectedEdges) indexEdge(e);
+    }
+
+    // Layout frames move every node at once, so the index is rebuilt lazily on the next query.
+    private void ensureSpatialIndex() {
+        if (!spatialIndexStale) return;
+        for (GraphNode n : nodes) indexNode(n);
+        for (GraphEdge e : edges) indexEdge(e);
+        spatialIndexStale = false;
+    }
+
+    private GraphNode pickNode(double x, double y) {
+        ensureSpatialIndex();
+        return nodeIndex.nearest(x, y, NODE_RADIUS,
+                n -> Math.hypot(n.circle.getCenterX() - x, n.circle.getCenterY() - y));
+    }
+
+    private GraphEdge pickEdge(double x, double y) {
+        ensureSpatialIndex();
+        double tolerance = EDGE_PICK_TOLERANCE / scaleTransform.getX();
+        return edgeIndex.nearest(x, y, tolerance, e -> distanceToSegment(x, y,
+                e.line.getStartX(), e.line.getStartY(), e.line.getEndX(), e.line.getEndY()));
+    }
+
+    private static double distanceToSegment(double px, double py, double ax, double ay, double bx, double by) {
+        double dx = bx - ax, dy = by - ay, len2 = dx * dx + dy * dy;
+        double t  = len2 == 0 ? 0 : Math.max(0, Math.min(1, ((px - ax) * dx + (py - ay) * dy) / len2));
+        return Math.hypot(px - (ax + t * dx), py - (ay + t * dy));
     }
 
     @FXML
     public void generateRandomGraph() {
-        clearGraph();
-        Random random = new Random();
-        double width  = canvasPane.getWidth()  > 0 ? canvasPane.getWidth()  : 600;
-        double height = canvasPane.getHeight() > 0 ? canvasPane.getHeight() : 400;
-        int numNodes  = random.nextInt(4) + 5;
-        double cx = width / 2, cy = height / 2, r = Math.min(cx, cy) - 50;
-        double step = 2 * Math.PI / numNodes;
+        GraphGenerators.Model model = generatorCombo != null ? generatorCombo.getValue() : null;
+        generateModelGraph(model != null ? model : GraphGenerators.Model.SMALL_RANDOM);
+    }
 
-        for (int i = 0; i < numNodes; i++) {
-            GraphNode node = new GraphNode(cx + r * Math.cos(i * step), cy + r * Math.sin(i * step), String.valueOf(nodeCounter++));
-            restoreNodeInternal(node);
+    /** Runs one of the scalable generators in the background; large results are shown as a sample. */
+    private void generateModelGraph(GraphGenerators.Model model) {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        int n;
+        try {
+            n = Integer.parseInt(generatorSizeField.getText().trim().replace("_", "").replace(",", ""));
+        } catch (NumberFormatException e) {
+            // No size typed: the small random graph keeps its classic 5–8 nodes on a circle.
+            n = model == GraphGenerators.Model.SMALL_RANDOM ? new Random().nextInt(4) + 5 : 100;
         }
+        if (n < 1 || n > 10_000_000) { resultLabel.setText("Node count must be between 1 and 10,000,000."); return; }
+        long seed;
+        try { seed = Long.parseLong(generatorSeedField.getText().trim()); }
+        catch (NumberFormatException e) { seed = new Random().nextInt(1_000_000); }
+
         boolean directed = directedCheck.isSelected(), weighted = weightedCheck.isSelected();
-        List<GraphNode> connected = new ArrayList<>(), unconnected = new ArrayList<>(nodes);
-        connected.add(unconnected.remove(random.nextInt(unconnected.size())));
-        while (!unconnected.isEmpty()) {
-            GraphNode from = connected.get(random.nextInt(connected.size()));
-            GraphNode to   = unconnected.remove(random.nextInt(unconnected.size()));
-            restoreEdgeInternal(new GraphEdge(from, to, weighted ? random.nextInt(20) + 1 : 1, directed, weighted));
-            connected.add(to);
-        }
-        for (int i = 0; i < random.nextInt(3); i++) {
-            GraphNode from = nodes.get(random.nextInt(nodes.size()));
-            GraphNode to   = nodes.get(random.nextInt(nodes.size()));
-            if (from != to) {
-                boolean exists = edges.stream().anyMatch(e ->
-                        (e.from == from && e.to == to) || (!directed && e.from == to && e.to == from));
-                if (!exists)
-                    restoreEdgeInternal(new GraphEdge(from, to, weighted ? random.nextInt(20) + 1 : 1, directed, weighted));
+        int size = n;
+        long usedSeed = seed, start = System.nanoTime();
+        Task<GraphData> task = new Task<>() {
+            @Override
+            protected GraphData call() {
+                updateMessage(String.format("Generating %s with %,d nodes…", model, size));
+                return GraphGenerators.generate(model, size, directed, weighted, usedSeed);
             }
-        }
-        updateGraphRepresentations();
+        };
+        runBackgroundTask(task, randomButton, "Random", "Generation", g -> {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            boolean sampled = loadGraphData(g);
+            resultLabel.setText(String.format("%s: %,d nodes, %,d edges (seed %d) in %.2f s%s", model,
+                    g.nodeCount, g.edgeCount, usedSeed, seconds,
+                    sampled ? String.format(" — showing a connected sample of %,d nodes", nodes.size()) : ""));
+        });
     }
 
     @FXML
     public void clearGraph() {
-        nodes.clear();
-        edges.clear();
-        graphContentGroup.getChildren().clear();
+        detachGraph();
+        if (condensedFrom != null) {      // a new graph replaces the parked original too
+            condensedFrom = null;
+            if (condenseToggle != null) condenseToggle.setSelected(false);
+        }
         undoStack.clear();
         nodeCounter = 1;
-        clearSelection();
         updateGraphRepresentations();
+        invalidateNodeScores();
         resetPanAndZoom();
     }
 
+    /** Takes every node and edge off the canvas and out of the indexes; undo history, view and counter stay as they are. */
+    private void detachGraph() {
+        traceRunner.stop();
+        stopForceLayout();
+        clearSelection();
+        nodes.clear();
+        edges.clear();
+        nodeIndex.clear();
+        edgeIndex.clear();
+        edgeKeyIndex.clear();
+        adjListItems.clear();
+        graphContentGroup.getChildren().clear();
+    }
+
+    // ==========================================================================
+    // IMPORT & EXPORT (edge list, DIMACS, GraphML, binary)
+    // ==========================================================================
+    @FXML
+    private void importGraph() {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        FileChooser chooser = graphFileChooser("Import Graph");
+        File file = chooser.showOpenDialog(canvasPane.getScene().getWindow());
+        if (file == null) return;
+        GraphIO.Format format = chosenFormat(chooser, file);
+        boolean directed = directedCheck.isSelected();
+        long start = System.nanoTime();
+
+        Task<GraphData> task = new Task<>() {
+            @Override
+            protected GraphData call() throws Exception {
+                return GraphIO.read(file.toPath(), format, directed, (done, total) -> {
+                    updateProgress(done, total);
+                    updateMessage(String.format("Importing %s… %d%%", file.getName(), total > 0 ? done * 100 / total : 0));
+                });
+            }
+        };
+        runBackgroundTask(task, importButton, "📂 Import", "Import", g -> {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            boolean sampled = loadGraphData(g);
+            resultLabel.setText(String.format("Imported %s: %,d nodes, %,d edges in %.2f s%s", file.getName(),
+                    g.nodeCount, g.edgeCount, seconds,
+                    sampled ? String.format(" — showing a connected sample of %,d nodes", nodes.size()) : ""));
+        });
+    }
+
+    @FXML
+    private void exportGraph() {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        if (nodes.isEmpty()) { resultLabel.setText("Nothing to export."); return; }
+        FileChooser chooser = graphFileChooser("Export Graph");
+        File file = chooser.showSaveDialog(canvasPane.getScene().getWindow());
+        if (file == null) return;
+        GraphIO.Format format = chosenFormat(chooser, file);
+        GraphData data = snapshotGraphData();
+
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                GraphIO.write(file.toPath(), format, data, (done, total) -> {
+                    updateProgress(done, total);
+                    updateMessage(String.format("Exporting %s… %d%%", file.getName(), total > 0 ? done * 100 / total : 0));
+                });
+                return null;
+            }
+        };
+        runBackgroundTask(task, exportButton, "💾 Export", "Export",
+                v -> resultLabel.setText("Exported " + data.nodeCount + " nodes, " + data.edgeCount + " edges to " + file.getName()));
+    }
+
+    /**
+     * Runs {@code task} as the single {@link #ioTask}. Its button turns into
+     * Cancel and the buttons of the other background features are disabled
+     * meanwhile, since they share the handle and would otherwise cancel it.
+     */
+    private <T> void runBackgroundTask(Task<T> task, Button button, String idleText, String verb, Consumer<T> onDone) {
+        ioTask = task;
+        button.setText("✖ Cancel");
+        List<Button> blocked = new ArrayList<>();
+        for (Button other : new Button[]{ randomButton, importButton, exportButton, gridGenerateButton, gridRunButton,
+                apspRunButton, centralityRunButton, pageRankRunButton, scheduleRunButton }) {
+            if (other != null && other != button && !other.isDisable()) { other.setDisable(true); blocked.add(other); }
+        }
+        task.messageProperty().addListener((obs, o, msg) -> resultLabel.setText(msg));
+        Runnable finish = () -> {
+            ioTask = null;
+            button.setText(idleText);
+            for (Button other : blocked) other.setDisable(false);
+        };
+        task.setOnSucceeded(e -> { finish.run(); onDone.accept(task.getValue()); });
+        task.setOnCancelled(e -> { finish.run(); resultLabel.setText(verb + " cancelled."); });
+        task.setOnFailed(e -> {
+            finish.run();
+            Throwable ex = task.getException();
+            resultLabel.setText(verb + " failed: " + (ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName()));
+        });
+        Thread worker = new Thread(task, "graph-io");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private FileChooser graphFileChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        for (GraphIO.Format f : GraphIO.Format.values())
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(f.description, f.patterns));
+        return chooser;
+    }
+
+    private GraphIO.Format chosenFormat(FileChooser chooser, File file) {
+        GraphIO.Format byName = GraphIO.Format.forPath(file.toPath());
+        FileChooser.ExtensionFilter filter = chooser.getSelectedExtensionFilter();
+        if (filter == null || file.getName().contains(".")) return byName;
+        for (GraphIO.Format f : GraphIO.Format.values())
+            if (f.description.equals(filter.getDescription())) return f;
+        return byName;
+    }
+
+    /** Packs the canvas graph into the compact model; mixed graphs export undirected edges as two arcs. */
+    private GraphData snapshotGraphData() {
+        Map<GraphNode, Integer> index = new HashMap<>();
+        String[] labels = new String[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) { index.put(nodes.get(i), i); labels[i] = nodes.get(i).label.getText(); }
+        boolean directed = edges.stream().anyMatch(e -> e.isDirected);
+        boolean weighted = edges.stream().anyMatch(e -> e.isWeighted);
+
+        GraphData.Builder b = new GraphData.Builder(directed);
+        b.ensureNodes(nodes.size());
+        if (weighted) b.markWeighted();
+        for (GraphEdge e : edges) {
+            int u = index.get(e.from), v = index.get(e.to), w = parseWeight(e);
+            b.addEdge(u, v, w);
+            if (directed && !e.isDirected) b.addEdge(v, u, w);
+        }
+        GraphData g = b.build();
+        return new GraphData(g.nodeCount, g.edgeCount, g.src, g.dst, g.weight, directed, null, labels);
+    }
+
+    /** Replaces the canvas contents with {@code full}; returns true if only a sample could be drawn. */
+    private boolean loadGraphData(GraphData full) {
+        clearGraph();
+        GraphData g = full.sample(MAX_RENDER_NODES, MAX_RENDER_EDGES);
+        int n = g.nodeCount;
+        double width  = canvasPane.getWidth()  > 0 ? canvasPane.getWidth()  : 600;
+        double height = canvasPane.getHeight() > 0 ? canvasPane.getHeight() : 400;
+
+        GraphNode[] created = new GraphNode[n];
+        if (n <= 40) {
+            double cx = width / 2, cy = height / 2, r = Math.min(cx, cy) - 50, step = 2 * Math.PI / Math.max(1, n);
+            for (int i = 0; i < n; i++)
+                created[i] = new GraphNode(cx + r * Math.cos(i * step), cy + r * Math.sin(i * step), g.label(i));
+        } else {
+            // Grid in breadth-first order keeps neighbours close; the force layout can refine it.
+            int cols = (int) Math.ceil(Math.sqrt(n));
+            double gap = 3 * NODE_RADIUS + 10;
+            for (int i = 0; i < n; i++)
+                created[i] = new GraphNode(50 + (i % cols) * gap, 50 + (i / cols) * gap, g.label(i));
+        }
+        if (g.hasPositions() && n > 40) {
+            double side = Math.ceil(Math.sqrt(n)) * (3 * NODE_RADIUS + 10);
+            for (int i = 0; i < n; i++) {
+                created[i].circle.setCenterX(50 + g.x[i] * side);
+                created[i].circle.setCenterY(50 + g.y[i] * side);
+            }
+        }
+        for (GraphNode node : created) restoreNodeInternal(node);
+
+        for (int e = 0; e < g.edgeCount; e++) {
+            GraphNode from = created[g.src[e]], to = created[g.dst[e]];
+            if (from == to || (g.directed ? edgeKeyIndex.contains(from.id, to.id) : findEdge(from, to) != null)) continue;
+            restoreEdgeInternal(new GraphEdge(from, to, g.weight(e), g.directed, g.isWeighted()));
+        }
+        directedCheck.setSelected(g.directed);
+        weightedCheck.setSelected(g.isWeighted());
+        nodeCounter = n + 1;
+        graphStructureChanged();
+        fullGraphData = g != full ? full : null;
+        fitGraphToView();
+        return g != full;
+    }
+
+    private void fitGraphToView() {
+        if (nodes.isEmpty()) return;
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (GraphNode node : nodes) {
+            minX = Math.min(minX, node.circle.getCenterX()); maxX = Math.max(maxX, node.circle.getCenterX());
+            minY = Math.min(minY, node.circle.getCenterY()); maxY = Math.max(maxY, node.circle.getCenterY());
+        }
+        double w = canvasPane.getWidth()  > 0 ? canvasPane.getWidth()  : 600;
+        double h = canvasPane.getHeight() > 0 ? canvasPane.getHeight() : 400;
+        double bw = maxX - minX + 4 * NODE_RADIUS, bh = maxY - minY + 4 * NODE_RADIUS;
+        double scale = Math.max(0.2, Math.min(1, Math.min(w / bw, h / bh)));
+        scaleTransform.setX(scale);
+        scaleTransform.setY(scale);
+        panTransform.setX((w - scale * (maxX + minX)) / 2);
+        panTransform.setY((h - scale * (maxY + minY)) / 2);
+    }
+
     // ==========================================================================
     // CAPTURE & RECORDING LOGIC (LOCKED RESOLUTION & ANTI-FLOOD)
     // ==========================================================================
@@ -834,6 +1339,7 @@ public class graphController {
     }
 
     private void stopAll() {
+        stopForceLayout();
         if (isRecording) stopRecording();
         resetAlgorithmState();
         clearSelection();
@@ -856,6 +1362,7 @@ public class graphController {
     @FXML
     private void switchToAlgoMode() {
         if (nodes.isEmpty()) { System.out.println("Graph is empty! Build a graph first."); return; }
+        stopForceLayout();
         isAlgorithmMode = true; clearSelection();
         resultLabel.setText("Select an algorithm and press Play!");
 
@@ -864,8 +1371,10 @@ public class graphController {
         List<String> items = new ArrayList<>(algoComboBox.getItems());
         algoComboBox.getItems().clear(); algoComboBox.getItems().addAll(items);
         if (savedSel != null && (
-                (hasUnweightedEdges && (savedSel.contains("Dijkstra") || savedSel.contains("Prim") || savedSel.contains("Kruskal")))
-                        || (savedSel.contains("Topological") && !isDAG()))) {
+                (hasUnweightedEdges && (savedSel.contains("Dijkstra") || savedSel.contains("Prim") || savedSel.contains("Kruskal")
+                        || savedSel.contains("Borůvka") || savedSel.contains("Max-Flow")))
+                        || ((savedSel.contains("Topological") || savedSel.startsWith("DAG")) && !isDAG())
+                        || (savedSel.startsWith("Connected") && edges.stream().anyMatch(e -> e.isDirected)))) {
             algoComboBox.setValue(null);
         } else {
             algoComboBox.setValue(savedSel);
@@ -878,638 +1387,3525 @@ public class graphController {
 
         if (algoStatePane != null) { algoStatePane.setVisible(true); algoStatePane.setManaged(true); }
         clearStatePanel();
+        updateDynamicControls();
     }
 
     @FXML
     private void switchToBuildMode() {
         isAlgorithmMode = false;
+        if (condenseToggle != null && condenseToggle.isSelected()) {
+            condenseToggle.setSelected(false);
+            expandCondensation();
+        }
         resetAlgorithmState();
         algoToolbar.setVisible(false);
         playbackToolbar.setVisible(false);
         playbackToolbar.setManaged(false);
         buildToolbar.setVisible(true);
+        updateDynamicControls();
 
         if (algoStatePane != null) { algoStatePane.setVisible(false); algoStatePane.setManaged(false); }
     }
 
     // ===============================
-    // GRAPH REPRESENTATION
+    // FORCE-DIRECTED LAYOUT
     // ===============================
-    private void updateGraphRepresentations() {
-        if (adjListArea == null || adjMatrixArea == null) return;
-        StringBuilder listBuilder = new StringBuilder();
-        for (GraphNode node : nodes) {
-            listBuilder.append(node.label.getText()).append(" -> ");
-            List<String> neighbors = new ArrayList<>();
-            for (GraphEdge edge : edges) {
-                if (edge.from == node)
-                    neighbors.add(edge.to.label.getText() + (edge.isWeighted ? "(" + edge.weightText.getText() + ")" : ""));
-                else if (!edge.isDirected && edge.to == node)
-                    neighbors.add(edge.from.label.getText() + (edge.isWeighted ? "(" + edge.weightText.getText() + ")" : ""));
-            }
-            listBuilder.append(String.join(", ", neighbors)).append("\n");
+    @FXML
+    private void toggleForceLayout() {
+        if (layoutToggle.isSelected()) startForceLayout();
+        else                           stopForceLayout();
+    }
+
+    @FXML
+    private void toggleLayoutPause() {
+        if (forceLayout == null) return;
+        if (forceLayout.isPaused()) { forceLayout.resume(); layoutPump.start(); layoutPauseButton.setText("⏸"); }
+        else                        { forceLayout.pause();  layoutPauseButton.setText("▶"); }
+    }
+
+    private void startForceLayout() {
+        if (forceLayout != null) { forceLayout.stop(); forceLayout = null; }
+        if (nodes.size() < 2) {
+            resultLabel.setText("Add at least two nodes to run the layout.");
+            stopForceLayout();
+            return;
         }
-        adjListArea.setText(listBuilder.toString());
 
         int n = nodes.size();
-        if (n == 0) { adjMatrixArea.setText(""); return; }
-        String[][] matrix = new String[n][n];
-        for (int i = 0; i < n; i++) Arrays.fill(matrix[i], "0");
-        Map<GraphNode, Integer> indexMap = new HashMap<>();
-        for (int i = 0; i < n; i++) indexMap.put(nodes.get(i), i);
-        for (GraphEdge edge : edges) {
-            Integer u = indexMap.get(edge.from), v = indexMap.get(edge.to);
-            if (u == null || v == null) continue;
-            String w = edge.isWeighted ? edge.weightText.getText() : "1";
-            matrix[u][v] = w;
-            if (!edge.isDirected) matrix[v][u] = w;
-        }
-        StringBuilder matrixBuilder = new StringBuilder();
-        matrixBuilder.append(String.format("%-6s", ""));
-        for (GraphNode node : nodes) matrixBuilder.append(String.format("%-6s", node.label.getText()));
-        matrixBuilder.append("\n");
+        double[] x = new double[n], y = new double[n];
         for (int i = 0; i < n; i++) {
-            matrixBuilder.append(String.format("%-6s", nodes.get(i).label.getText()));
-            for (int j = 0; j < n; j++) matrixBuilder.append(String.format("%-6s", matrix[i][j]));
-            matrixBuilder.append("\n");
+            GraphNode node = nodes.get(i);
+            node.layoutIndex = i;
+            x[i] = node.circle.getCenterX(); y[i] = node.circle.getCenterY();
+        }
+        int[] src = new int[edges.size()], dst = new int[edges.size()];
+        for (int e = 0; e < edges.size(); e++) {
+            src[e] = edges.get(e).from.layoutIndex; dst[e] = edges.get(e).to.layoutIndex;
+        }
+
+        double width  = canvasPane.getWidth()  > 0 ? canvasPane.getWidth()  : 600;
+        double height = canvasPane.getHeight() > 0 ? canvasPane.getHeight() : 400;
+        forceLayout = new ForceDirectedLayout(x, y, src, dst, width, height);
+        for (GraphNode node : nodes)
+            if (node.pinned) forceLayout.pin(node.layoutIndex, node.circle.getCenterX(), node.circle.getCenterY());
+
+        if (layoutPump == null) {
+            layoutPump = new AnimationTimer() {
+                @Override public void handle(long now) { applyLayoutFrame(); }
+            };
         }
-        adjMatrixArea.setText(matrixBuilder.toString());
+        layoutPump.start();
+        forceLayout.start();
+
+        if (layoutToggle != null) layoutToggle.setSelected(true);
+        if (layoutPauseButton != null) { layoutPauseButton.setDisable(false); layoutPauseButton.setText("⏸"); }
     }
 
-    // ===============================
-    // ALGORITHM CORE LOGIC
-    // ===============================
-    @FXML
-    private void resetGraphColors() {
-        for (GraphNode n : nodes) {
-            n.circle.setFill(Color.LIGHTBLUE); n.circle.setStroke(Color.BLACK);
-            n.distLabel.setText("∞"); n.distLabel.setFill(Color.DARKRED); n.distLabel.setVisible(false);
+    private void stopForceLayout() {
+        if (layoutPump  != null) layoutPump.stop();
+        if (forceLayout != null) { forceLayout.stop(); forceLayout = null; }
+        for (GraphNode node : nodes) {
+            node.layoutIndex = -1;
+            if (node.pinned) { node.pinned = false; node.circle.getStrokeDashArray().clear(); }
         }
-        for (GraphEdge e : edges) { e.line.setStroke(Color.BLACK); e.line.setStrokeWidth(3); }
+        if (layoutToggle != null) layoutToggle.setSelected(false);
+        if (layoutPauseButton != null) { layoutPauseButton.setDisable(true); layoutPauseButton.setText("⏸"); }
     }
 
-    private GraphNode findNodeByValue(String value) {
-        if (value == null || value.isEmpty()) return null;
-        for (GraphNode node : nodes) if (node.label.getText().equals(value)) return node;
-        return null;
+    private void applyLayoutFrame() {
+        if (forceLayout == null) return;
+        ForceDirectedLayout.Frame frame = forceLayout.pollFrame();
+        if (frame == null) return;
+
+        for (GraphNode node : nodes) {
+            int i = node.layoutIndex;
+            // The frame may predate the latest pin; the canvas already holds where the user put it.
+            if (i < 0 || i >= frame.x.length || node.pinned || node == pressedNode) continue;
+            node.circle.setCenterX(frame.x[i]);
+            node.circle.setCenterY(frame.y[i]);
+        }
+        for (GraphEdge edge : edges) edge.update();
+        spatialIndexStale = true;
+
+        resultLabel.setText(String.format("Layout: iteration %d · max move %.2f px · energy %.0f · %.0f it/s%s",
+                frame.iteration, frame.maxDisplacement, frame.energy, frame.iterationsPerSecond,
+                frame.converged ? " · converged ✓" : ""));
+        if (layoutPauseButton != null) layoutPauseButton.setText(forceLayout.isPaused() ? "▶" : "⏸");
+        // The solver sleeps once converged; a pin or resume restarts the pump.
+        if (frame.converged) layoutPump.stop();
     }
 
-    private void initializeAlgorithm() {
-        if (timeline != null) { timeline.stop(); timeline = null; }
-        resetGraphColors();
-        resultLabel.setText("Starting Algorithm...");
-        algorithmSteps.clear();
-        currentStep = 0;
+    // Dragging a node while the layout runs pins it; the solver keeps settling the rest around it.
+    // It stays pinned after the drag is released; double-clicking it hands it back to the solver.
+    private void pinNode(GraphNode node) {
+        if (!node.pinned) { node.pinned = true; node.circle.getStrokeDashArray().setAll(6.0, 4.0); }
+        if (node.layoutIndex >= 0) forceLayout.pin(node.layoutIndex, node.circle.getCenterX(), node.circle.getCenterY());
+        layoutPump.start();
+    }
 
-        String selectedAlgo = algoComboBox.getValue();
-        if (algoNameLabel != null) algoNameLabel.setText(selectedAlgo != null ? selectedAlgo : "");
+    private void unpinNode(GraphNode node) {
+        if (!node.pinned) return;
+        node.pinned = false;
+        node.circle.getStrokeDashArray().clear();
+        if (node.layoutIndex >= 0) forceLayout.unpin(node.layoutIndex);
+        layoutPump.start();
+    }
 
-        GraphNode startNode = findNodeByValue(startNodeField.getText());
-        if (startNode == null && !nodes.isEmpty()) startNode = nodes.get(0);
-        GraphNode endNode = findNodeByValue(endNodeField.getText());
+    private void graphStructureChanged() {
+        updateGraphRepresentations();
+        invalidateNodeScores();
+        if (forceLayout != null) startForceLayout();
+    }
 
-        if (selectedAlgo != null) {
-            if      (selectedAlgo.startsWith("BFS"))         recordBFS(startNode);
-            else if (selectedAlgo.startsWith("DFS"))         recordDFS(startNode);
-            else if (selectedAlgo.startsWith("Prim")) {
-                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Prim's MST requires a fully weighted graph!"); return; }
-                recordPrim(startNode);
-            }
-            else if (selectedAlgo.startsWith("Kruskal")) {
-                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Kruskal's MST requires a fully weighted graph!"); return; }
-                recordKruskal();
-            }
-            else if (selectedAlgo.startsWith("Dijkstra")) {
-                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Dijkstra requires a fully weighted graph!"); return; }
-                recordDijkstra(startNode, endNode);
-            }
-            else if (selectedAlgo.startsWith("Topological")) {
-                if (!isDAG()) { resultLabel.setText("Error: Graph must be a directed acyclic graph (DAG)!"); return; }
-                recordTopologicalSort();
-            }
+    // ===============================
+    // GRID PATHFINDING LAB
+    // ===============================
+    // Maze / terrain maps up to 2000×2000 cells. Each cell is one pixel of a
+    // WritableImage, so repainting is one array fill plus one setPixels call;
+    // all searches run off the FX thread on primitive state (see GridSearch).
+
+    private static final int GRID_WALL     = 0xFF1F2937;
+    private static final int GRID_EXPANDED = 0xFF93C5FD;
+    private static final int GRID_PATH     = 0xFFDC2626;
+    private static final int GRID_START    = 0xFF16A34A;
+    private static final int GRID_GOAL     = 0xFF9333EA;
+
+    private void setupGridLab() {
+        gridView.setSmooth(false);
+        gridView.setPreserveRatio(true);
+        gridContentGroup.getChildren().setAll(gridView);
+
+        if (gridGeneratorCombo != null) {
+            gridGeneratorCombo.getItems().setAll(GridMap.Generator.values());
+            gridGeneratorCombo.setValue(GridMap.Generator.BRAIDED_MAZE);
+        }
+        if (gridMovementCombo != null) {
+            gridMovementCombo.getItems().setAll(GridSearch.Movement.values());
+            gridMovementCombo.setValue(GridSearch.Movement.EIGHT);
         }
+        if (gridResultsTable == null) return;
+
+        gridResultsTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        gridResultsTable.setPlaceholder(new Label("Generate a map and press ▶ Run All"));
+        gridResultsTable.getColumns().setAll(List.of(
+                gridColumn("Algorithm", r -> r.algorithm.label),
+                gridColumn("Expanded",  r -> r.note != null && r.nanos == 0 ? "—" : String.format("%,d", r.expanded)),
+                gridColumn("Scanned",   r -> r.note != null && r.nanos == 0 ? "—" : String.format("%,d", r.touched)),
+                gridColumn("Cost",      r -> r.found ? String.format("%.1f", r.cost / (double) GridSearch.STRAIGHT) : "—"),
+                gridColumn("Time",      r -> r.nanos == 0 ? "—" : String.format("%.1f ms", r.nanos / 1e6)),
+                gridColumn("Note",      r -> r.note != null ? r.note : "")));
+        gridResultsTable.getSelectionModel().selectedItemProperty().addListener((obs, o, r) -> paintGrid(r));
     }
 
-    private void setupTimeline() {
-        timeline = new Timeline(new KeyFrame(Duration.seconds(1.0), event -> {
-            if (currentStep < algorithmSteps.size()) {
-                algorithmSteps.get(currentStep).run();
-                currentStep++;
-            } else {
-                timeline.stop();
-                playPauseButton.setText("↺ Restart");
-            }
-        }));
-        timeline.setCycleCount(Timeline.INDEFINITE);
-        timeline.rateProperty().bind(speedSlider.valueProperty());
+    private static TableColumn<GridSearch.Result, String> gridColumn(String title,
+                                                                    java.util.function.Function<GridSearch.Result, String> value) {
+        TableColumn<GridSearch.Result, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(value.apply(cell.getValue())));
+        column.setSortable(false);
+        return column;
     }
 
     @FXML
-    private void togglePlayPause() {
-        if (nodes.isEmpty() || algoComboBox.getValue() == null) return;
-        if (timeline != null && timeline.getStatus() == javafx.animation.Animation.Status.RUNNING) {
-            timeline.pause(); playPauseButton.setText("▶ Play"); return;
-        }
-        if (algorithmSteps.isEmpty() || currentStep >= algorithmSteps.size()) initializeAlgorithm();
-        if (timeline == null) setupTimeline();
-        timeline.play(); playPauseButton.setText("⏸ Pause");
+    private void enterGridMode() {
+        if (ioTask != null) return;
+        stopForceLayout();
+        clearSelection();
+        gridMode = true;
+        showGridUi(true);
+        resetPanAndZoom();
+        if (gridMap == null) generateGrid();
+        else                 Platform.runLater(this::fitGridToView);   // after the results pane takes its width
     }
 
     @FXML
-    private void stepForward() {
-        if (nodes.isEmpty() || algoComboBox.getValue() == null) return;
-        if (timeline != null) { timeline.pause(); playPauseButton.setText("▶ Play"); }
-        if (algorithmSteps.isEmpty() || currentStep >= algorithmSteps.size()) {
-            initializeAlgorithm();
-            if (timeline == null) setupTimeline();
+    private void exitGridMode() {
+        if (ioTask != null) ioTask.cancel();
+        gridMode = false;
+        showGridUi(false);
+        resetPanAndZoom();
+        resultLabel.setText("");
+    }
+
+    private void showGridUi(boolean grid) {
+        buildToolbar.setVisible(!grid);
+        gridToolbar.setVisible(grid);
+        graphContentGroup.setVisible(!grid);
+        gridContentGroup.setVisible(grid);
+        gridResultsPane.setVisible(grid);
+        gridResultsPane.setManaged(grid);
+        if (grid && dataPane != null) {
+            dataPane.setVisible(false); dataPane.setManaged(false);
+            if (dataToggleBuild != null) dataToggleBuild.setSelected(false);
+            if (dataToggleAlgo  != null) dataToggleAlgo.setSelected(false);
         }
-        if (currentStep < algorithmSteps.size()) { algorithmSteps.get(currentStep).run(); currentStep++; }
     }
 
     @FXML
-    private void stepBackward() {
-        if (algorithmSteps.isEmpty() || currentStep <= 0) return;
-        if (timeline != null) { timeline.pause(); playPauseButton.setText("▶ Play"); }
-        currentStep--;
-        resetGraphColors();
-        resultLabel.setText("");
-        clearStatePanel();
-        for (int i = 0; i < currentStep; i++) algorithmSteps.get(i).run();
+    private void generateGrid() {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        int w = GRID_DEFAULT_SIDE, h = GRID_DEFAULT_SIDE;
+        String size = gridSizeField.getText().trim().toLowerCase().replace('×', 'x');
+        try {
+            if (!size.isEmpty()) {
+                String[] parts = size.split("x");
+                w = Integer.parseInt(parts[0].trim());
+                h = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : w;
+            }
+        } catch (NumberFormatException e) {
+            resultLabel.setText("Grid size must look like 500 or 800x600."); return;
+        }
+        if (w < 2 || h < 2 || w > GridMap.MAX_SIDE || h > GridMap.MAX_SIDE) {
+            resultLabel.setText("Grid sides must be between 2 and " + GridMap.MAX_SIDE + "."); return;
+        }
+        long seed;
+        try { seed = Long.parseLong(gridSeedField.getText().trim()); }
+        catch (NumberFormatException e) { seed = new Random().nextInt(1_000_000); }
+
+        GridMap.Generator generator = gridGeneratorCombo.getValue();
+        int width = w, height = h;
+        long usedSeed = seed;
+        Task<GridMap> task = new Task<>() {
+            @Override
+            protected GridMap call() {
+                updateMessage(String.format("Generating %s %d×%d…", generator, width, height));
+                return GridMap.generate(generator, width, height, usedSeed);
+            }
+        };
+        runBackgroundTask(task, gridGenerateButton, "Generate", "Generation", map -> {
+            gridMap    = map;
+            gridStart  = map.nearestFree(0);
+            gridGoal   = map.nearestFree(map.cellCount() - 1);
+            gridImage  = new WritableImage(map.width, map.height);
+            gridPixels = new int[map.cellCount()];
+            gridView.setImage(gridImage);
+            gridResultsTable.getItems().clear();
+            gridSummaryLabel.setText("");
+            fitGridToView();
+            paintGrid(null);
+            resultLabel.setText(String.format("%s %d×%d (seed %d). Press ▶ Run All to compare searches.",
+                    generator, map.width, map.height, usedSeed));
+        });
     }
 
     @FXML
-    private void resetAlgorithmState() {
-        if (timeline != null) { timeline.stop(); timeline = null; }
-        if (playPauseButton != null) playPauseButton.setText("▶ Play");
-        resetGraphColors();
-        if (isAlgorithmMode) resultLabel.setText("Select an algorithm and press Play!");
-        else                 resultLabel.setText("");
-        algorithmSteps.clear(); currentStep = 0;
-        clearStatePanel();
+    private void runGridSearches() {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        if (gridMap == null || gridStart < 0 || gridGoal < 0) return;
+        GridMap map = gridMap;
+        GridSearch.Movement movement = gridMovementCombo.getValue();
+        int start = gridStart, goal = gridGoal;
+        Task<List<GridSearch.Result>> task = new Task<>() {
+            @Override
+            protected List<GridSearch.Result> call() {
+                List<GridSearch.Result> results = new ArrayList<>();
+                for (GridSearch.Algorithm algorithm : GridSearch.Algorithm.values()) {
+                    updateMessage("Running " + algorithm + "…");
+                    results.add(GridSearch.run(map, algorithm, movement, start, goal));
+                }
+                return results;
+            }
+        };
+        runBackgroundTask(task, gridRunButton, "▶ Run All", "Search", results -> {
+            gridResultsTable.getItems().setAll(results);
+            gridSummaryLabel.setText(summarizeGridResults(results));
+            GridSearch.Result astar = results.get(GridSearch.Algorithm.ASTAR.ordinal());
+            gridResultsTable.getSelectionModel().select(astar);
+            resultLabel.setText(astar.found
+                    ? String.format("Shortest path: %.1f (%,d cells). Select a row to see what each search expanded.",
+                            astar.cost / (double) GridSearch.STRAIGHT, astar.path.length)
+                    : "No path between start and goal.");
+        });
     }
 
-    // ===============================
-    // ALGORITHM IMPLEMENTATIONS
-    // ===============================
+    /** Expanded cells of each search relative to Dijkstra, the uninformed baseline. */
+    private String summarizeGridResults(List<GridSearch.Result> results) {
+        GridSearch.Result base = results.get(GridSearch.Algorithm.DIJKSTRA.ordinal());
+        if (base.expanded == 0) return "";
+        StringBuilder sb = new StringBuilder("Expanded vs. Dijkstra:");
+        for (GridSearch.Result r : results) {
+            if (r == base || r.nanos == 0) continue;
+            sb.append(String.format("  %s %.1f%%", r.algorithm.label, 100.0 * r.expanded / base.expanded));
+        }
+        return sb.toString();
+    }
 
-    // ─────────────────────────────────────────────
+    private void handleGridClick(MouseEvent event) {
+        if (canvasDragged || gridMap == null || ioTask != null) return;
+        Point2D local = gridView.sceneToLocal(event.getSceneX(), event.getSceneY());
+        double scale = gridView.getFitWidth() / gridMap.width;
+        int x = (int) (local.getX() / scale), y = (int) (local.getY() / scale);
+        if (x < 0 || y < 0 || x >= gridMap.width || y >= gridMap.height) return;
+        int cell = gridMap.nearestFree(gridMap.cell(x, y));
+        if (cell < 0) return;
+        if (event.getButton() == MouseButton.PRIMARY)        gridStart = cell;
+        else if (event.getButton() == MouseButton.SECONDARY) gridGoal  = cell;
+        else return;
+        gridResultsTable.getItems().clear();
+        gridSummaryLabel.setText("");
+        paintGrid(null);
+    }
+
+    /** Scales the image so the whole map fits the canvas; pan and zoom then work as for graphs. */
+    private void fitGridToView() {
+        if (gridMap == null) return;
+        double scale = Math.min(canvasPane.getWidth() / gridMap.width, canvasPane.getHeight() / gridMap.height);
+        if (!(scale > 0)) scale = 1;
+        gridView.setFitWidth(gridMap.width * scale);
+        gridView.setFitHeight(gridMap.height * scale);
+        gridView.setLayoutX((canvasPane.getWidth()  - gridMap.width  * scale) / 2);
+        gridView.setLayoutY((canvasPane.getHeight() - gridMap.height * scale) / 2);
+    }
+
+    /** Repaints terrain, then the expanded cells and path of {@code overlay} (if any), then the endpoints. */
+    private void paintGrid(GridSearch.Result overlay) {
+        if (gridMap == null || gridImage == null) return;
+        int[] px = gridPixels;
+        for (int c = 0; c < px.length; c++) px[c] = terrainColor(gridMap.cost(c));
+        if (overlay != null) {
+            BitSet expanded = overlay.expandedCells;
+            for (int c = expanded.nextSetBit(0); c >= 0; c = expanded.nextSetBit(c + 1)) px[c] = blend(px[c], GRID_EXPANDED);
+        }
+
+        // At fit-to-view scale one cell can be far below a screen pixel, so thicken the marks.
+        int r = Math.max(0, (int) Math.round(gridMap.width / Math.max(1, gridView.getFitWidth())) - 1);
+        if (overlay != null) for (int c : overlay.path) paintGridMark(c, r, GRID_PATH);
+        if (gridStart >= 0) paintGridMark(gridStart, r + 2, GRID_START);
+        if (gridGoal  >= 0) paintGridMark(gridGoal,  r + 2, GRID_GOAL);
+
+        gridImage.getPixelWriter().setPixels(0, 0, gridMap.width, gridMap.height,
+                PixelFormat.getIntArgbInstance(), px, 0, gridMap.width);
+    }
+
+    private void paintGridMark(int cell, int radius, int color) {
+        int cx = gridMap.x(cell), cy = gridMap.y(cell);
+        for (int y = Math.max(0, cy - radius); y <= Math.min(gridMap.height - 1, cy + radius); y++)
+            for (int x = Math.max(0, cx - radius); x <= Math.min(gridMap.width - 1, cx + radius); x++)
+                gridPixels[gridMap.cell(x, y)] = color;
+    }
+
+    /** White for cost 1 fading to a tan for cost 9; walls are near-black. */
+    private static int terrainColor(int cost) {
+        if (cost == 0) return GRID_WALL;
+        int t = (cost - 1) * 255 / (GridMap.MAX_COST - 1);
+        int red = 255 - t * 40 / 255, green = 255 - t * 90 / 255, blue = 255 - t * 150 / 255;
+        return 0xFF000000 | red << 16 | green << 8 | blue;
+    }
+
+    private static int blend(int base, int tint) {
+        int r = ((base >> 16 & 0xFF) + (tint >> 16 & 0xFF)) / 2;
+        int g = ((base >> 8  & 0xFF) + (tint >> 8  & 0xFF)) / 2;
+        int b = ((base       & 0xFF) + (tint       & 0xFF)) / 2;
+        return 0xFF000000 | r << 16 | g << 8 | b;
+    }
+
+    // ===============================
+    // GRAPH REPRESENTATION
+    // ===============================
+    // The list and matrix are both virtualized: edits only touch the backing
+    // collections, and refreshing repaints just the rows/cells in view.
+    private void setupGraphRepresentations() {
+        if (adjListView != null) {
+            adjListView.setItems(adjListItems);
+            adjListView.setCellFactory(lv -> new ListCell<>() {
+                @Override
+                protected void updateItem(GraphNode node, boolean empty) {
+                    super.updateItem(node, empty);
+                    setText(empty || node == null ? null : adjacencyRow(node));
+                }
+            });
+        }
+        if (adjMatrixView != null) {
+            adjMatrixView.setModel(new AdjacencyMatrixView.Model() {
+                public int    size()         { return nodes.size(); }
+                public String header(int i)  { return nodes.get(i).label.getText(); }
+                public String cell(int r, int c) {
+                    GraphEdge e = findEdge(nodes.get(r), nodes.get(c));
+                    return e == null ? null : e.isWeighted ? e.weightText.getText() : "1";
+                }
+            });
+        }
+    }
+
+    private void updateGraphRepresentations() {
+        if (adjListView   != null) adjListView.refresh();
+        if (adjMatrixView != null) adjMatrixView.refresh();
+        fullGraphData = null;
+        if (apspDist != null) {
+            apspDist = null;
+            apspSummaryLabel.setText("Graph changed — run Floyd–Warshall again to refresh the heatmap.");
+        }
+    }
+
+    private String adjacencyRow(GraphNode node) {
+        StringBuilder sb = new StringBuilder(node.label.getText()).append(" -> ");
+        boolean first = true;
+        for (GraphEdge edge : node.connectedEdges) {
+            GraphNode other = edge.from == node ? edge.to : (!edge.isDirected ? edge.from : null);
+            if (other == null) continue;
+            if (!first) sb.append(", ");
+            sb.append(other.label.getText());
+            if (edge.isWeighted) sb.append('(').append(edge.weightText.getText()).append(')');
+            first = false;
+        }
+        return sb.toString();
+    }
+
+    // ===============================
+    // ALL-PAIRS SHORTEST PATHS
+    // ===============================
+    // Floyd–Warshall over the whole graph (the unsampled one if the canvas only
+    // shows a sample), cache-blocked and run on a ForkJoinPool. The matrix is
+    // drawn as an n×n heatmap that refreshes after each block of intermediates.
+    private static final int   APSP_UNREACHABLE = 0xFFF3F4F6;
+    private static final int[] HEAT_RAMP = colorRamp(256, 0xFF440154, 0xFF3B528B, 0xFF21918C, 0xFF5EC962, 0xFFFDE725);
+
+    private record AllPairsRun(int[] dist, int[] pixels, FloydWarshall.Result parallel, FloydWarshall.Result sequential) {}
+
+    private void setupAllPairs() {
+        if (apspView == null) return;
+        apspView.setOnMouseMoved(e -> {
+            if (apspDist == null) return;
+            int n = apspLabels.length;
+            double side = apspView.getBoundsInLocal().getWidth();
+            int row = Math.min(n - 1, (int) (e.getY() / side * n)), col = Math.min(n - 1, (int) (e.getX() / side * n));
+            if (row < 0 || col < 0) return;
+            int d = apspDist[row * n + col];
+            resultLabel.setText(String.format("d(%s → %s) = %s", apspLabels[row], apspLabels[col],
+                    FloydWarshall.reachable(d) ? Integer.toString(d) : "∞"));
+        });
+    }
+
+    @FXML
+    private void runAllPairs() {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        GraphData data = fullGraphData != null ? fullGraphData : snapshotGraphData();
+        int n = data.nodeCount;
+        if (n == 0) { apspSummaryLabel.setText("The graph is empty."); return; }
+        if (n > FloydWarshall.MAX_NODES) {
+            apspSummaryLabel.setText(String.format("Floyd–Warshall is limited to %,d nodes (this graph has %,d).", FloydWarshall.MAX_NODES, n));
+            return;
+        }
+        boolean compare = apspCompareCheck != null && apspCompareCheck.isSelected();
+        boolean behindSample = fullGraphData != null;
+        apspDist   = null;
+        apspLabels = new String[n];
+        for (int i = 0; i < n; i++) apspLabels[i] = data.label(i);
+        WritableImage image = new WritableImage(n, n);
+        apspImage = image;
+        apspView.setImage(image);
+        apspSummaryLabel.setText(String.format("%,d × %,d matrix…", n, n));
+
+        Task<AllPairsRun> task = new Task<>() {
+            private long lastPaint;
+
+            @Override
+            protected AllPairsRun call() {
+                int[] dist = FloydWarshall.matrix(CsrGraph.of(data));
+                int[] initial = compare ? dist.clone() : null;
+                int[] pixels = new int[n * n];
+                FloydWarshall.Listener live = (d, size, k) -> {
+                    updateMessage(String.format("Floyd–Warshall: %,d of %,d intermediate nodes…", k, size));
+                    long now = System.nanoTime();
+                    if (now - lastPaint < APSP_REFRESH_NANOS || !apspPaintPending.compareAndSet(false, true)) return;
+                    lastPaint = now;
+                    fillHeatmap(d, pixels);
+                    Platform.runLater(() -> {
+                        writeHeatmap(image, pixels, size);
+                        apspPaintPending.set(false);
+                    });
+                };
+                ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                FloydWarshall.Result parallel;
+                try {
+                    parallel = FloydWarshall.blocked(dist, n, pool, live);
+                } finally {
+                    pool.shutdownNow();
+                }
+                FloydWarshall.Result sequential = null;
+                if (initial != null && !parallel.hasNegativeCycle())
+                    sequential = FloydWarshall.sequential(initial, n, (d, size, k) ->
+                            updateMessage(String.format("Sequential baseline: %,d of %,d intermediate nodes…", k, size)));
+                return new AllPairsRun(dist, pixels, parallel, sequential);
+            }
+        };
+        runBackgroundTask(task, apspRunButton, "▶ Floyd–Warshall", "All-pairs run", run -> {
+            fillHeatmap(run.dist(), run.pixels());
+            writeHeatmap(image, run.pixels(), n);
+            apspDist = run.dist();
+            apspSummaryLabel.setText(summarizeAllPairs(run, behindSample));
+            resultLabel.setText(run.parallel().hasNegativeCycle()
+                    ? "Floyd–Warshall stopped: negative cycle through " + apspLabels[run.parallel().negativeCycleNode]
+                    : String.format("Floyd–Warshall: %,d pairs in %.2f s", (long) n * n, run.parallel().nanos / 1e9));
+        });
+    }
+
+    private String summarizeAllPairs(AllPairsRun run, boolean behindSample) {
+        FloydWarshall.Result p = run.parallel();
+        int n = p.n;
+        long reachable = 0;
+        for (int v : run.dist()) if (FloydWarshall.reachable(v)) reachable++;
+        StringBuilder sb = new StringBuilder(String.format("%,d nodes%s · %,d of %,d pairs reachable%n",
+                n, behindSample ? " (full graph behind the sample)" : "", reachable, (long) n * n));
+        if (p.hasNegativeCycle())
+            sb.append("Negative cycle through ").append(apspLabels[p.negativeCycleNode])
+              .append(" — distances are undefined.\n");
+        sb.append(String.format("Blocked %d×%d tiles, %d thread%s: %.2f s (%.2f G relaxations/s)",
+                p.block, p.block, p.threads, p.threads == 1 ? "" : "s", p.nanos / 1e9, p.relaxations / (double) Math.max(1, p.nanos)));
+        FloydWarshall.Result s = run.sequential();
+        if (s != null)
+            sb.append(String.format("%nSequential k-i-j: %.2f s → speedup %.2f×", s.nanos / 1e9, s.nanos / (double) Math.max(1, p.nanos)));
+        return sb.toString();
+    }
+
+    /** Linear ramp from the smallest (dark) to the largest (yellow) finite distance; unreachable pairs stay pale grey. */
+    private static void fillHeatmap(int[] dist, int[] argb) {
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int v : dist) {
+            if (!FloydWarshall.reachable(v)) continue;
+            if (v < min) min = v;
+            if (v > max) max = v;
+        }
+        double scale = max > min ? (HEAT_RAMP.length - 1) / (double) ((long) max - min) : 0;
+        for (int c = 0; c < dist.length; c++) {
+            int v = dist[c];
+            argb[c] = FloydWarshall.reachable(v) ? HEAT_RAMP[(int) (((long) v - min) * scale)] : APSP_UNREACHABLE;
+        }
+    }
+
+    private static void writeHeatmap(WritableImage image, int[] argb, int n) {
+        image.getPixelWriter().setPixels(0, 0, n, n, PixelFormat.getIntArgbInstance(), argb, 0, n);
+    }
+
+    /** {@code size} colours interpolated evenly through the given ARGB stops. */
+    private static int[] colorRamp(int size, int... stops) {
+        int[] ramp = new int[size];
+        for (int i = 0; i < size; i++) {
+            double t = i * (stops.length - 1) / (double) (size - 1);
+            int s = Math.min(stops.length - 2, (int) t);
+            double f = t - s;
+            int a = stops[s], b = stops[s + 1], rgb = 0;
+            for (int shift = 16; shift >= 0; shift -= 8) {
+                int ca = a >> shift & 0xFF, cb = b >> shift & 0xFF;
+                rgb |= (int) Math.round(ca + (cb - ca) * f) << shift;
+            }
+            ramp[i] = 0xFF000000 | rgb;
+        }
+        return ramp;
+    }
+
+    // ===============================
+    // CENTRALITY
+    // ===============================
+    // Betweenness and harmonic closeness over the whole graph (the unsampled
+    // one behind a sampled canvas), one shortest-path run per source spread
+    // over a ForkJoinPool (see Centrality). Canvas nodes are then coloured
+    // and sized by the chosen score; large graphs use sampled sources.
+    private static final int    CENTRALITY_EXACT_LIMIT = 5000;   // blank "sources": exact up to this many nodes
+    private static final int    CENTRALITY_SAMPLES     = 256;    // … sampled sources above it
+    private static final long   CENTRALITY_SEED        = 42;
+    private static final int[]  CENTRALITY_RAMP = colorRamp(256, 0xFFFFFFCC, 0xFFFED976, 0xFFFD8D3C, 0xFFE31A1C);
+
+    private record CentralityRun(Centrality.Result parallel, Centrality.Result sequential, boolean weighted) {}
+
+    private void setupCentrality() {
+        if (centralityMeasureCombo == null) return;
+        centralityMeasureCombo.getItems().setAll("Betweenness", "Closeness");
+        centralityMeasureCombo.setValue("Betweenness");
+        centralityMeasureCombo.setOnAction(e -> { if (centralityResult != null) paintCentrality(); });
+    }
+
+    @FXML
+    private void runCentrality() {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        GraphData data = fullGraphData != null ? fullGraphData : snapshotGraphData();
+        int n = data.nodeCount;
+        if (n == 0) { centralitySummaryLabel.setText("The graph is empty."); return; }
+        int k;
+        String text = centralitySourcesField.getText().trim();
+        if (text.isEmpty()) {
+            k = n <= CENTRALITY_EXACT_LIMIT ? n : CENTRALITY_SAMPLES;
+        } else {
+            try { k = Integer.parseInt(text); } catch (NumberFormatException ex) { k = 0; }
+            if (k <= 0) { centralitySummaryLabel.setText("Sources must be a positive whole number (or blank for auto)."); return; }
+        }
+        int[] sources = Centrality.sampleSources(n, k, CENTRALITY_SEED);
+        boolean compare = centralityCompareCheck != null && centralityCompareCheck.isSelected();
+        boolean behindSample = fullGraphData != null;
+        int[] indexOf = canvasIndexIn(data, behindSample);
+        centralitySummaryLabel.setText(String.format("%,d nodes, %,d sources…", n, sources.length));
+
+        Task<CentralityRun> task = new Task<>() {
+            @Override
+            protected CentralityRun call() {
+                CsrGraph g = CsrGraph.of(data);
+                boolean weighted = data.isWeighted();
+                ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                Centrality.Result parallel;
+                try {
+                    parallel = Centrality.run(g, weighted, sources, pool, (done, total) -> {
+                        updateProgress(done, total);
+                        updateMessage(String.format("Centrality: %,d of %,d sources…", done, total));
+                        return !isCancelled();
+                    });
+                } finally {
+                    pool.shutdownNow();
+                }
+                Centrality.Result sequential = null;
+                if (compare)
+                    sequential = Centrality.run(g, weighted, sources, null, (done, total) -> {
+                        updateMessage(String.format("Single-thread baseline: %,d of %,d sources…", done, total));
+                        return !isCancelled();
+                    });
+                return new CentralityRun(parallel, sequential, weighted);
+            }
+        };
+        runBackgroundTask(task, centralityRunButton, "▶ Centrality", "Centrality", run -> {
+            centralityResult  = run.parallel();
+            centralityIndexOf = indexOf;
+            paintCentrality();
+            centralitySummaryLabel.setText(summarizeCentrality(run, data, behindSample));
+            resultLabel.setText(String.format("Centrality: %,d %s source%s in %.2f s", run.parallel().sources,
+                    run.weighted() ? "Dijkstra" : "BFS", run.parallel().sources == 1 ? "" : "s", run.parallel().nanos / 1e9));
+        });
+    }
+
+    /** Canvas node i → node of {@code data}; matched by label when the canvas only shows a sample of it. */
+    private int[] canvasIndexIn(GraphData data, boolean behindSample) {
+        int[] indexOf = new int[nodes.size()];
+        if (!behindSample) {
+            for (int i = 0; i < indexOf.length; i++) indexOf[i] = i;
+            return indexOf;
+        }
+        Map<String, Integer> byLabel = new HashMap<>();
+        for (int i = 0; i < indexOf.length; i++) byLabel.put(nodes.get(i).label.getText(), i);
+        Arrays.fill(indexOf, -1);
+        for (int v = 0; v < data.nodeCount && !byLabel.isEmpty(); v++) {
+            Integer i = byLabel.remove(data.label(v));
+            if (i != null) indexOf[i] = v;
+        }
+        return indexOf;
+    }
+
+    /** Colours and sizes the canvas nodes by the chosen score relative to the top one. */
+    private void paintCentrality() {
+        double[] score = "Closeness".equals(centralityMeasureCombo.getValue())
+                ? centralityResult.closeness : centralityResult.betweenness;
+        double max = 0;
+        for (double s : score) max = Math.max(max, s);
+        for (int i = 0; i < nodes.size() && i < centralityIndexOf.length; i++) {
+            int v = centralityIndexOf[i];
+            paintHeat(nodes.get(i), v < 0 || max == 0 ? 0 : score[v] / max);
+        }
+        spatialIndexStale = true;
+    }
+
+    /** Heat-ramp fill and a radius from 0.6× to 1.4× of the default for a score {@code t} in [0, 1]. */
+    private void paintHeat(GraphNode node, double t) {
+        int argb = CENTRALITY_RAMP[(int) Math.round(t * (CENTRALITY_RAMP.length - 1))];
+        node.circle.setFill(Color.rgb(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF));
+        node.circle.setRadius(NODE_RADIUS * (0.6 + 0.8 * t));
+        node.updateConnectedEdges();
+    }
+
+    private String summarizeCentrality(CentralityRun run, GraphData data, boolean behindSample) {
+        Centrality.Result p = run.parallel();
+        int topB = Centrality.Result.argMax(p.betweenness), topC = Centrality.Result.argMax(p.closeness);
+        StringBuilder sb = new StringBuilder(String.format("%,d nodes%s · %s%n", p.n,
+                behindSample ? " (full graph behind the sample)" : "",
+                p.sampled() ? String.format("estimated from %,d sampled sources", p.sources) : "exact (every node a source)"));
+        sb.append(String.format("Top betweenness: %s (%.4f)%nTop closeness: %s (%.4f)%n",
+                data.label(topB), p.betweenness[topB], data.label(topC), p.closeness[topC]));
+        sb.append(String.format("%s, %d thread%s: %.2f s (%,.0f arc scans/s)", run.weighted() ? "Dijkstra" : "BFS",
+                p.threads, p.threads == 1 ? "" : "s", p.nanos / 1e9, p.arcScans / Math.max(1e-9, p.nanos / 1e9)));
+        Centrality.Result s = run.sequential();
+        if (s != null)
+            sb.append(String.format("%n1 thread: %.2f s → speedup %.2f×", s.nanos / 1e9, s.nanos / (double) Math.max(1, p.nanos)));
+        return sb.toString();
+    }
+
+    // ===============================
+    // PAGERANK
+    // ===============================
+    // Power iteration over the in-arc CSR of the whole graph (see PageRank),
+    // each sparse mat-vec split across a ForkJoinPool. After every iteration
+    // the residual is plotted and the canvas nodes are resized by rank.
+    private static final double PAGERANK_DAMPING    = 0.85;
+    private static final double PAGERANK_TOLERANCE  = 1e-6;
+    private static final int    PAGERANK_ITERATIONS = 200;
+
+    private record PageRankRun(PageRank.Result parallel, PageRank.Result sequential, int arcs) {}
+
+    @FXML
+    private void runPageRank() {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        GraphData data = fullGraphData != null ? fullGraphData : snapshotGraphData();
+        int n = data.nodeCount;
+        if (n == 0) { pageRankSummaryLabel.setText("The graph is empty."); return; }
+        double damping, tolerance;
+        try {
+            damping   = parseOr(pageRankDampingField, PAGERANK_DAMPING);
+            tolerance = parseOr(pageRankToleranceField, PAGERANK_TOLERANCE);
+        } catch (NumberFormatException ex) {
+            pageRankSummaryLabel.setText("Damping and tolerance must be numbers (e.g. 0.85 and 1e-6).");
+            return;
+        }
+        if (!(damping > 0 && damping < 1) || !(tolerance > 0)) {
+            pageRankSummaryLabel.setText("Damping must be between 0 and 1 and the tolerance positive.");
+            return;
+        }
+        boolean compare = pageRankCompareCheck != null && pageRankCompareCheck.isSelected();
+        boolean behindSample = fullGraphData != null;
+        int[] indexOf = canvasIndexIn(data, behindSample);
+        List<GraphNode> shown = new ArrayList<>(nodes);
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        pageRankChart.getData().setAll(List.of(series));
+        pageRankSummaryLabel.setText(String.format("%,d nodes: building the transposed matrix…", n));
+
+        Task<PageRankRun> task = new Task<>() {
+            @Override
+            protected PageRankRun call() {
+                PageRank.Matrix m = PageRank.Matrix.of(data);
+                PageRank.Listener live = (k, residual, rank) -> {
+                    updateMessage(String.format("PageRank iteration %d: L1 residual %.2e", k, residual));
+                    double log = Math.log10(Math.max(residual, Double.MIN_NORMAL));
+                    Platform.runLater(() -> series.getData().add(new XYChart.Data<>(k, log)));
+                    if (pageRankPaintPending.compareAndSet(false, true)) {
+                        double[] heat = rankHeat(rank, indexOf);
+                        Platform.runLater(() -> {
+                            if (nodes.equals(shown)) paintRankHeat(shown, heat);
+                            pageRankPaintPending.set(false);
+                        });
+                    }
+                    return !isCancelled();
+                };
+                ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+                PageRank.Result parallel;
+                try {
+                    parallel = PageRank.run(m, damping, tolerance, PAGERANK_ITERATIONS, pool, live);
+                } finally {
+                    pool.shutdownNow();
+                }
+                PageRank.Result sequential = null;
+                if (compare)
+                    sequential = PageRank.run(m, damping, tolerance, PAGERANK_ITERATIONS, null, (k, residual, rank) -> {
+                        updateMessage(String.format("Single-thread baseline: iteration %d of %d…", k, parallel.iterations));
+                        return !isCancelled();
+                    });
+                return new PageRankRun(parallel, sequential, m.arcCount());
+            }
+        };
+        runBackgroundTask(task, pageRankRunButton, "▶ PageRank", "PageRank", run -> {
+            PageRank.Result r = run.parallel();
+            pageRankResult = r;
+            if (nodes.equals(shown)) paintRankHeat(shown, rankHeat(r.rank, indexOf));
+            pageRankSummaryLabel.setText(summarizePageRank(run, data, damping, tolerance, behindSample));
+            resultLabel.setText(String.format("PageRank: %s after %d iteration%s in %.2f s", r.converged ? "converged" : "stopped",
+                    r.iterations, r.iterations == 1 ? "" : "s", r.nanos / 1e9));
+        });
+    }
+
+    /** √(rank / top shown rank) per canvas node: ranks are heavy-tailed, the root keeps small ones visible. */
+    private static double[] rankHeat(double[] rank, int[] indexOf) {
+        double max = 0;
+        for (int v : indexOf) if (v >= 0) max = Math.max(max, rank[v]);
+        double[] heat = new double[indexOf.length];
+        for (int i = 0; i < heat.length; i++) heat[i] = indexOf[i] < 0 || max == 0 ? 0 : Math.sqrt(rank[indexOf[i]] / max);
+        return heat;
+    }
+
+    private void paintRankHeat(List<GraphNode> shown, double[] heat) {
+        for (int i = 0; i < heat.length; i++) paintHeat(shown.get(i), heat[i]);
+        spatialIndexStale = true;
+    }
+
+    private static double parseOr(TextField field, double fallback) {
+        String text = field == null ? "" : field.getText().trim();
+        return text.isEmpty() ? fallback : Double.parseDouble(text);
+    }
+
+    private String summarizePageRank(PageRankRun run, GraphData data, double damping, double tolerance, boolean behindSample) {
+        PageRank.Result p = run.parallel();
+        int top = Centrality.Result.argMax(p.rank);
+        StringBuilder sb = new StringBuilder(String.format("%,d nodes, %,d arcs%s · damping %.2f, tolerance %.0e%n",
+                data.nodeCount, run.arcs(), behindSample ? " (full graph behind the sample)" : "", damping, tolerance));
+        sb.append(String.format("%s after %d iterations (L1 residual %.2e)%n", p.converged ? "Converged" : "Not converged",
+                p.iterations, p.iterations == 0 ? 0 : p.residuals[p.iterations - 1]));
+        sb.append(String.format("Top: %s (rank %.5f, %.1f× the mean)%n", data.label(top), p.rank[top], p.rank[top] * data.nodeCount));
+        sb.append(String.format("%d thread%s: %.2f s, %.2f ms per iteration, ~%.2f GB/s streamed", p.threads, p.threads == 1 ? "" : "s",
+                p.nanos / 1e9, p.nanos / 1e6 / Math.max(1, p.iterations), p.gigabytesPerSecond()));
+        PageRank.Result s = run.sequential();
+        if (s != null)
+            sb.append(String.format("%n1 thread: %.2f s, ~%.2f GB/s → speedup %.2f×", s.nanos / 1e9, s.gigabytesPerSecond(),
+                    s.nanos / (double) Math.max(1, p.nanos)));
+        return sb.toString();
+    }
+
+    // ===============================
+    // DAG SCHEDULE
+    // ===============================
+    // Edges are tasks (weight = duration, 1 when unweighted) and nodes the
+    // events between them; see DagSchedule. The panel draws the list schedule
+    // for k workers as a Gantt chart and plots makespan against k next to the
+    // two lower bounds, the critical path and work / k.
+    private static final int SCHEDULE_WORKERS     = 2;
+    private static final int SCHEDULE_MAX_WORKERS = 64;
+    private static final int SCHEDULE_SWEEP_ALL   = 50_000;   // tasks; above this only k = 1, 2, 4, … are simulated
+    private static final int SCHEDULE_GANTT_ROWS  = 16;
+    private static final int SCHEDULE_BAR_LIMIT   = 4000;
+
+    private record ScheduleRun(DagSchedule.Plan plan, DagSchedule.Schedule schedule, int[] ks, long[] makespans) {}
+
+    @FXML
+    private void runSchedule() {
+        if (ioTask != null) { ioTask.cancel(); return; }
+        GraphData data = fullGraphData != null ? fullGraphData : snapshotGraphData();
+        if (data.edgeCount == 0 || !data.directed) {
+            scheduleSummaryLabel.setText("Scheduling needs a directed acyclic graph with at least one edge.");
+            return;
+        }
+        Integer workers = parseWorkers();
+        if (workers == null) return;
+        scheduleSummaryLabel.setText(String.format("%,d tasks: computing Kahn levels and the critical path…", data.edgeCount));
+
+        Task<ScheduleRun> task = new Task<>() {
+            @Override
+            protected ScheduleRun call() {
+                int[] duration = new int[data.edgeCount];
+                for (int e = 0; e < duration.length; e++) duration[e] = data.weight(e);
+                DagSchedule.Plan plan = DagSchedule.analyze(data.nodeCount,
+                        Arrays.copyOf(data.src, data.edgeCount), Arrays.copyOf(data.dst, data.edgeCount), duration);
+                return simulateSchedule(plan, workers, k -> {
+                    updateMessage(String.format("List scheduling on %d worker%s…", k, k == 1 ? "" : "s"));
+                    return !isCancelled();
+                });
+            }
+        };
+        runBackgroundTask(task, scheduleRunButton, "▶ Schedule", "Scheduling", run -> {
+            showSchedule(run, e -> data.label(data.src[e]) + "→" + data.label(data.dst[e]));
+            resultLabel.setText(String.format("Schedule: makespan %,d on %d worker%s (critical path %,d)",
+                    run.schedule().makespan, workers, workers == 1 ? "" : "s", run.plan().length));
+        });
+    }
+
+    /** Worker count from the panel, {@link #SCHEDULE_WORKERS} if blank; null (with a message) if invalid. */
+    private Integer parseWorkers() {
+        String text = scheduleWorkersField == null ? "" : scheduleWorkersField.getText().trim();
+        if (text.isEmpty()) return SCHEDULE_WORKERS;
+        try {
+            int k = Integer.parseInt(text);
+            if (k >= 1 && k <= SCHEDULE_MAX_WORKERS) return k;
+        } catch (NumberFormatException ignored) {}
+        String msg = "Workers must be a whole number from 1 to " + SCHEDULE_MAX_WORKERS + ".";
+        if (scheduleSummaryLabel != null) scheduleSummaryLabel.setText(msg);
+        resultLabel.setText(msg);
+        return null;
+    }
+
+    /**
+     * Schedules {@code plan} on {@code workers} and sweeps k for the makespan
+     * plot: every k up to {@link #SCHEDULE_MAX_WORKERS} on small DAGs, stopping
+     * once the critical path is reached, powers of two on large ones.
+     * {@code before} is told each k and may cancel the run.
+     */
+    private static ScheduleRun simulateSchedule(DagSchedule.Plan plan, int workers, java.util.function.IntPredicate before) {
+        boolean every = plan.m <= SCHEDULE_SWEEP_ALL;
+        int[]  ks        = new int[SCHEDULE_MAX_WORKERS];
+        long[] makespans = new long[SCHEDULE_MAX_WORKERS];
+        int count = 0;
+        DagSchedule.Schedule chosen = null;
+        for (int k = 1; k <= SCHEDULE_MAX_WORKERS; k = every ? k + 1 : k * 2) {
+            if (!before.test(k)) throw new java.util.concurrent.CancellationException();
+            DagSchedule.Schedule s = DagSchedule.listSchedule(plan, k);
+            ks[count] = k; makespans[count++] = s.makespan;
+            if (k == workers) chosen = s;
+            if (s.makespan == plan.length && k >= workers) break;          // more workers cannot help
+        }
+        if (chosen == null) {
+            if (!before.test(workers)) throw new java.util.concurrent.CancellationException();
+            chosen = DagSchedule.listSchedule(plan, workers);
+        }
+        return new ScheduleRun(plan, chosen, Arrays.copyOf(ks, count), Arrays.copyOf(makespans, count));
+    }
+
+    private void showSchedule(ScheduleRun run, java.util.function.IntFunction<String> taskName) {
+        drawGantt(run.plan(), run.schedule(), taskName);
+        XYChart.Series<Number, Number> list = new XYChart.Series<>(), critical = new XYChart.Series<>(), work = new XYChart.Series<>();
+        list.setName("List schedule"); critical.setName("Critical path"); work.setName("Work / k");
+        for (int i = 0; i < run.ks().length; i++) {
+            int k = run.ks()[i];
+            list.getData().add(new XYChart.Data<>(k, run.makespans()[i]));
+            critical.getData().add(new XYChart.Data<>(k, run.plan().length));
+            work.getData().add(new XYChart.Data<>(k, run.plan().work / (double) k));
+        }
+        scheduleMakespanChart.getData().setAll(List.of(list, critical, work));
+        scheduleSummaryLabel.setText(summarizeSchedule(run));
+    }
+
+    /** One row per worker (the first {@link #SCHEDULE_GANTT_ROWS}); critical tasks red, the rest coloured by Kahn level. */
+    private void drawGantt(DagSchedule.Plan p, DagSchedule.Schedule s, java.util.function.IntFunction<String> taskName) {
+        scheduleGanttPane.getChildren().clear();
+        double width  = scheduleGanttPane.getWidth() > 0 ? scheduleGanttPane.getWidth() : 380;
+        double height = scheduleGanttPane.getPrefHeight() - 14;
+        int    rows   = Math.min(s.workers, SCHEDULE_GANTT_ROWS);
+        double left   = 30, rowH = height / rows, scale = (width - left - 6) / Math.max(1, s.makespan);
+        for (int w = 0; w < rows; w++) {
+            Text t = new Text(4, w * rowH + rowH / 2 + 4, "W" + (w + 1));
+            t.setStyle("-fx-font-size: 10px;");
+            scheduleGanttPane.getChildren().add(t);
+        }
+        int drawn = 0;
+        for (int e = 0; e < p.m && drawn < SCHEDULE_BAR_LIMIT; e++) {
+            if (s.worker[e] >= rows || p.duration[e] == 0) continue;
+            double x = left + s.start[e] * scale, barW = Math.max(1, p.duration[e] * scale);
+            Rectangle bar = new Rectangle(x, s.worker[e] * rowH + 1, barW, Math.max(1, rowH - 2));
+            bar.setFill(p.critical(e) ? Color.web("#ef4444") : componentColor(p.level[p.src[e]]));
+            bar.setStroke(Color.WHITE);
+            Tooltip.install(bar, new Tooltip(String.format("%s: %,d → %,d (slack %,d)", taskName.apply(e),
+                    s.start[e], s.start[e] + p.duration[e], p.slack(e))));
+            scheduleGanttPane.getChildren().add(bar);
+            if (barW > 34 && rowH > 12 && drawn < PANEL_ITEM_LIMIT) {
+                Text name = new Text(x + 3, s.worker[e] * rowH + rowH / 2 + 4, taskName.apply(e));
+                name.setStyle("-fx-font-size: 9px;");
+                name.setMouseTransparent(true);
+                scheduleGanttPane.getChildren().add(name);
+            }
+            drawn++;
+        }
+        Text zero = new Text(left, height + 12, "0"), end = new Text(width - 40, height + 12, String.format("%,d", s.makespan));
+        zero.setStyle("-fx-font-size: 10px;"); end.setStyle("-fx-font-size: 10px;");
+        scheduleGanttPane.getChildren().addAll(zero, end);
+    }
+
+    private String summarizeSchedule(ScheduleRun run) {
+        DagSchedule.Plan p = run.plan();
+        DagSchedule.Schedule s = run.schedule();
+        int widest = 0;
+        for (int L = 0; L < p.levels(); L++) widest = Math.max(widest, p.levelStart[L + 1] - p.levelStart[L]);
+        StringBuilder sb = new StringBuilder(String.format("%,d tasks between %,d events · %,d Kahn levels (widest %,d events)%n",
+                p.m, p.n, p.levels(), widest));
+        sb.append(String.format("Critical path %,d over %,d tasks · work %,d → speedup ≤ %.2f×%n",
+                p.length, p.criticalPath().length, p.work, p.speedupLimit()));
+        sb.append(String.format("k = %d: makespan %,d, speedup %.2f×, utilization %.0f%% (Graham bound %,.1f)",
+                s.workers, s.makespan, p.work / (double) Math.max(1, s.makespan), s.utilization() * 100,
+                p.work / (double) s.workers + p.length));
+        int[] ks = run.ks();
+        long[] ms = run.makespans();
+        int floor = -1;
+        for (int i = 0; i < ks.length && floor < 0; i++) if (ms[i] == p.length) floor = ks[i];
+        sb.append(floor > 0 ? String.format("%nMakespan reaches the critical path at k = %d", floor)
+                            : String.format("%nStill above the critical path at k = %d", ks[ks.length - 1]));
+        if (s.workers > SCHEDULE_GANTT_ROWS) sb.append(String.format(" · Gantt shows the first %d workers", SCHEDULE_GANTT_ROWS));
+        return sb.toString();
+    }
+
+    /** Drops centrality and PageRank results after an edit; their colours and sizes no longer match the graph. */
+    private void invalidateNodeScores() {
+        if (centralityResult == null && pageRankResult == null) return;
+        if (centralityResult != null && centralitySummaryLabel != null)
+            centralitySummaryLabel.setText("Graph changed — run Centrality again to refresh the scores.");
+        if (pageRankResult != null && pageRankSummaryLabel != null)
+            pageRankSummaryLabel.setText("Graph changed — run PageRank again to refresh the ranks.");
+        centralityResult  = null;
+        centralityIndexOf = null;
+        pageRankResult    = null;
+        for (GraphNode n : nodes) n.circle.setFill(Color.LIGHTBLUE);
+        restoreNodeSizes();
+    }
+
+    private void restoreNodeSizes() {
+        for (GraphNode n : nodes) {
+            if (n.circle.getRadius() == NODE_RADIUS) continue;
+            n.circle.setRadius(NODE_RADIUS);
+            n.updateConnectedEdges();
+            spatialIndexStale = true;
+        }
+    }
+
+    private GraphEdge findEdge(GraphNode u, GraphNode v) { return edgeKeyIndex.find(u.id, v.id); }
+
+    // ===============================
+    // ALGORITHM CORE LOGIC
+    // ===============================
+    @FXML
+    private void resetGraphColors() {
+        for (GraphNode n : nodes) {
+            n.circle.setFill(Color.LIGHTBLUE); n.circle.setStroke(Color.BLACK);
+            n.distLabel.setText("∞"); n.distLabel.setFill(Color.DARKRED); n.distLabel.setVisible(false);
+        }
+        restoreNodeSizes();
+        for (GraphEdge e : edges) { e.line.setStroke(Color.BLACK); e.line.setStrokeWidth(3); }
+    }
+
+    private GraphNode findNodeByValue(String value) {
+        if (value == null || value.isEmpty()) return null;
+        for (GraphNode node : nodes) if (node.label.getText().equals(value)) return node;
+        return null;
+    }
+
+    private void initializeAlgorithm() {
+        traceRunner.stop();
+        if (timeline != null) { timeline.stop(); timeline = null; }
+        resetGraphColors();
+        resultLabel.setText("Starting Algorithm...");
+        algorithmSteps.clear();
+        currentStep = 0;
+
+        String selectedAlgo = algoComboBox.getValue();
+        if (algoNameLabel != null) algoNameLabel.setText(selectedAlgo != null ? selectedAlgo : "");
+
+        GraphNode found = findNodeByValue(startNodeField.getText());
+        final GraphNode startNode = found != null || nodes.isEmpty() ? found : nodes.get(0);
+        final GraphNode endNode   = findNodeByValue(endNodeField.getText());
+        final GraphSnapshot graph = new GraphSnapshot();       // the recorder reads this copy, never the canvas
+
+        Runnable record = null;
+        if (selectedAlgo != null) {
+            if      (selectedAlgo.startsWith("BFS"))         record = () -> recordBFS(graph, startNode);
+            else if (selectedAlgo.startsWith("Level-Sync"))  record = () -> recordLevelBfs(graph, startNode);
+            else if (selectedAlgo.startsWith("DFS"))         record = () -> recordDFS(graph, startNode);
+            else if (selectedAlgo.startsWith("Prim")) {
+                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Prim's MST requires a fully weighted graph!"); return; }
+                if (selectedAlgo.contains("Indexed")) record = () -> recordPrimIndexed(graph, startNode);
+                else                                  record = () -> recordPrim(graph, startNode);
+            }
+            else if (selectedAlgo.startsWith("Kruskal")) {
+                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Kruskal's MST requires a fully weighted graph!"); return; }
+                record = () -> recordKruskal(graph);
+            }
+            else if (selectedAlgo.startsWith("Borůvka")) {
+                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Borůvka's MST requires a fully weighted graph!"); return; }
+                record = () -> recordBoruvka(graph);
+            }
+            else if (selectedAlgo.contains("Max-Flow")) {
+                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Max-flow needs capacities: use a fully weighted graph!"); return; }
+                if (hasNegativeWeight()) { resultLabel.setText("Error: Capacities cannot be negative!"); return; }
+                if (endNode == null || endNode == startNode) { resultLabel.setText("Error: Max-flow needs a sink: set an End node different from the Start node!"); return; }
+                record = () -> recordMaxFlow(graph, startNode, endNode, selectedAlgo.startsWith("Dinic"));
+            }
+            else if (selectedAlgo.startsWith("Dynamic")) {
+                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Dynamic Dijkstra requires a fully weighted graph!"); return; }
+                if (hasNegativeWeight()) { resultLabel.setText("Error: Dijkstra is wrong with negative weights. Use Bellman–Ford or SPFA!"); return; }
+                clearDynamicState();
+                record = () -> recordDynamicDijkstra(graph, startNode);
+            }
+            else if (selectedAlgo.startsWith("Dijkstra")) {
+                if (edges.stream().anyMatch(e -> !e.isWeighted)) { resultLabel.setText("Error: Dijkstra requires a fully weighted graph!"); return; }
+                if (hasNegativeWeight()) { resultLabel.setText("Error: Dijkstra is wrong with negative weights. Use Bellman–Ford or SPFA!"); return; }
+                if (selectedAlgo.contains("Indexed")) record = () -> recordDijkstraIndexed(graph, startNode, endNode);
+                else                                  record = () -> recordDijkstra(graph, startNode, endNode);
+            }
+            else if (selectedAlgo.startsWith("Bellman"))     record = () -> recordBellmanFord(graph, startNode, endNode, false);
+            else if (selectedAlgo.startsWith("SPFA"))        record = () -> recordBellmanFord(graph, startNode, endNode, true);
+            else if (selectedAlgo.startsWith("Tarjan"))      record = () -> recordSCC(graph, true);
+            else if (selectedAlgo.startsWith("Kosaraju"))    record = () -> recordSCC(graph, false);
+            else if (selectedAlgo.startsWith("Connected")) {
+                if (edges.stream().anyMatch(e -> e.isDirected)) { resultLabel.setText("Error: Connected Components needs an undirected graph. Use Tarjan or Kosaraju for SCCs!"); return; }
+                record = () -> recordConnectedComponents(graph, selectedAlgo);
+            }
+            else if (selectedAlgo.startsWith("Topological")) {
+                if (!isDAG()) { resultLabel.setText("Error: Graph must be a directed acyclic graph (DAG)!"); return; }
+                record = () -> recordTopologicalSort(graph);
+            }
+            else if (selectedAlgo.startsWith("DAG")) {
+                if (!isDAG()) { resultLabel.setText("Error: Graph must be a directed acyclic graph (DAG)!"); return; }
+                if (hasNegativeWeight()) { resultLabel.setText("Error: Task durations (edge weights) cannot be negative!"); return; }
+                Integer workers = parseWorkers();
+                record = () -> recordDagSchedule(graph, workers == null ? SCHEDULE_WORKERS : workers);
+            }
+        }
+        if (record != null) traceRunner.start(record);
+    }
+
+    /** A recorder that threw: stop playback at what it appended and say why. */
+    private void traceFailed(Throwable error) {
+        if (timeline != null) { timeline.stop(); playPauseButton.setText("↺ Restart"); }
+        resultLabel.setText("Trace recording failed: " + (error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName()));
+    }
+
+    @FXML
+    private void cancelTrace() {
+        boolean recording = traceRunner.isRecording();
+        if (!traceRunner.isBusy()) return;
+        traceRunner.stop();
+        resultLabel.setText(recording ? "Trace cancelled after " + algorithmSteps.size() + " steps; the recorded prefix can still be played."
+                                      : "Full-graph measurement cancelled.");
+    }
+
+    /**
+     * Called by a recorder: once the trace is recorded, measures the engines
+     * on the full generated graph under the trace bar's Cancel button, which
+     * reset, clear and every new trace press too. The text lands in
+     * {@code result[0]}, and {@code finalStep} is repainted if playback has
+     * already reached it.
+     */
+    private void benchmarkFullGraph(String[] result, Runnable finalStep, Callable<String> benchmark) {
+        traceRunner.afterRecording("Measuring the full generated graph…", benchmark, text -> {
+            result[0] = text;
+            if (currentStep > 0 && currentStep == algorithmSteps.size() && algorithmSteps.get(currentStep - 1) == finalStep) finalStep.run();
+        });
+    }
+
+    /** Lets a cancelled benchmark give up between runs. */
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException("Benchmark cancelled");
+    }
+
+    private void setupTimeline() {
+        timeline = new Timeline(new KeyFrame(Duration.seconds(1.0), event -> {
+            if (currentStep < algorithmSteps.size()) {
+                algorithmSteps.get(currentStep).run();
+                currentStep++;
+            } else if (!traceRunner.isRecording()) {
+                timeline.stop();
+                playPauseButton.setText("↺ Restart");
+            }
+        }));
+        timeline.setCycleCount(Timeline.INDEFINITE);
+        timeline.rateProperty().bind(speedSlider.valueProperty());
+    }
+
+    @FXML
+    private void togglePlayPause() {
+        if (nodes.isEmpty() || algoComboBox.getValue() == null) return;
+        if (timeline != null && timeline.getStatus() == javafx.animation.Animation.Status.RUNNING) {
+            timeline.pause(); playPauseButton.setText("▶ Play"); return;
+        }
+        if (!traceRunner.isRecording() && (algorithmSteps.isEmpty() || currentStep >= algorithmSteps.size())) initializeAlgorithm();
+        if (timeline == null) setupTimeline();
+        timeline.play(); playPauseButton.setText("⏸ Pause");
+    }
+
+    @FXML
+    private void stepForward() {
+        if (nodes.isEmpty() || algoComboBox.getValue() == null) return;
+        if (timeline != null) { timeline.pause(); playPauseButton.setText("▶ Play"); }
+        if (!traceRunner.isRecording() && (algorithmSteps.isEmpty() || currentStep >= algorithmSteps.size())) {
+            initializeAlgorithm();
+            if (timeline == null) setupTimeline();
+        }
+        if (currentStep < algorithmSteps.size()) { algorithmSteps.get(currentStep).run(); currentStep++; }
+    }
+
+    @FXML
+    private void stepBackward() {
+        if (algorithmSteps.isEmpty() || currentStep <= 0) return;
+        if (timeline != null) { timeline.pause(); playPauseButton.setText("▶ Play"); }
+        currentStep--;
+        resetGraphColors();
+        resultLabel.setText("");
+        clearStatePanel();
+        for (int i = 0; i < currentStep; i++) algorithmSteps.get(i).run();
+    }
+
+    @FXML
+    private void resetAlgorithmState() {
+        traceRunner.stop();
+        if (timeline != null) { timeline.stop(); timeline = null; }
+        if (playPauseButton != null) playPauseButton.setText("▶ Play");
+        resetGraphColors();
+        if (isAlgorithmMode) resultLabel.setText("Select an algorithm and press Play!");
+        else                 resultLabel.setText("");
+        algorithmSteps.clear(); currentStep = 0;
+        clearStatePanel();
+        clearDynamicState();
+    }
+
+    // ===============================
+    // ALGORITHM IMPLEMENTATIONS
+    // ===============================
+
+    // ─────────────────────────────────────────────
     // BFS
     // ─────────────────────────────────────────────
-    private void recordBFS(GraphNode startNode) {
-        final String DS_TITLE = "Active Queue:";
+    private void recordBFS(GraphSnapshot graph, GraphNode startNode) {
+        final String DS_TITLE = "Active Queue:";
+
+        LinkedList<GraphNode> queue = new LinkedList<>();
+        Set<GraphNode>        visited     = new LinkedHashSet<>();
+        List<String>          visitedOrder = new ArrayList<>();
+
+        queue.add(startNode);
+        visited.add(startNode);
+
+        final String initQ = formatQueue(graph, queue);
+        algorithmSteps.add(() -> {
+            startNode.circle.setFill(Color.YELLOW);
+            setAlgoState("Found starting node '" + graph.label(startNode) + "' and pushed to Queue.",
+                    DS_TITLE, initQ, "(None)", null, null);
+        });
+
+        while (!queue.isEmpty()) {
+            GraphNode current = queue.poll();
+            visitedOrder.add(graph.label(current));
+
+            final GraphNode exploringNode = current;
+            final String visitStr   = String.join(" ➔ ", visitedOrder);
+            final String resultPath = "Traversal Order: " + visitStr;
+            final String qSnap      = formatQueue(graph, queue);
+
+            algorithmSteps.add(() -> {
+                exploringNode.circle.setFill(Color.MAGENTA);
+                resultLabel.setText(resultPath);
+                setAlgoState("Popped '" + graph.label(exploringNode) + "' from Queue for exploration.",
+                        DS_TITLE, qSnap, visitStr, null, null);
+            });
+
+            for (GraphEdge edge : graph.incident(current)) {
+                GraphNode neighbor = null;
+                if      (edge.from == current)                       neighbor = edge.to;
+                else if (!edge.isDirected && edge.to == current)     neighbor = edge.from;
+
+                if (neighbor != null && !visited.contains(neighbor)) {
+                    visited.add(neighbor);
+                    queue.add(neighbor);
+
+                    final GraphEdge te       = edge;
+                    final GraphNode nextNode = neighbor;
+                    final String updatedQ    = formatQueue(graph, queue);
+                    final String vs          = String.join(" ➔ ", visitedOrder);
+
+                    algorithmSteps.add(() -> {
+                        te.line.setStroke(Color.ORANGE);
+                        nextNode.circle.setFill(Color.YELLOW);
+                        setAlgoState("Discovered unvisited neighbor '" + graph.label(nextNode) + "' -> Enqueuing.",
+                                DS_TITLE, updatedQ, vs, null, null);
+                    });
+                }
+            }
+
+            final String visitStr2 = String.join(" ➔ ", visitedOrder);
+            final String finalQSnap = formatQueue(graph, queue);
+
+            algorithmSteps.add(() -> {
+                exploringNode.circle.setFill(Color.GREEN);
+                setAlgoState("Finished exploring '" + graph.label(exploringNode) + "'. Marked as complete.",
+                        DS_TITLE, finalQSnap, visitStr2, null, null);
+            });
+        }
+
+        final String finalOrder = String.join(" ➔ ", visitedOrder);
+        algorithmSteps.add(() -> {
+            resultLabel.setText("BFS Complete! Order: " + finalOrder);
+            setAlgoState("✅ BFS Traversal Complete!", DS_TITLE, formatQueue(graph, queue), finalOrder, null, null);
+        });
+    }
+
+    // ─────────────────────────────────────────────
+    // Level-Synchronous BFS (Direction-Optimizing)
+    // ─────────────────────────────────────────────
+    // One step per level. The engine decides per level whether the frontier
+    // pushes along its out-edges (top-down) or the unvisited nodes pull from
+    // the frontier (bottom-up); see DirectionOptimizingBfs.
+    private void recordLevelBfs(GraphSnapshot graph, GraphNode startNode) {
+        final String DS_TITLE    = "Frontier:";
+        final String EXTRA_TITLE = "Levels (↓ top-down, ↑ bottom-up):";
+
+        Map<GraphNode, Integer> index = graph.index;
+        CsrGraph g = graph.csr;
+        int s = index.get(startNode);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        DirectionOptimizingBfs.Result r;
+        try {
+            r = DirectionOptimizingBfs.run(g, null, s, pool, true);
+        } finally {
+            pool.shutdown();
+        }
+
+        List<List<GraphNode>> byDepth = new ArrayList<>();
+        for (int v = 0; v < g.n; v++) {
+            if (r.depth[v] < 0) continue;
+            while (byDepth.size() <= r.depth[v]) byDepth.add(new ArrayList<>());
+            byDepth.get(r.depth[v]).add(graph.nodes.get(v));
+        }
+        List<String> levelLines = new ArrayList<>();
+
+        final String startFrontier = formatFrontier(graph, 0, byDepth.get(0));
+        algorithmSteps.add(() -> {
+            startNode.circle.setFill(Color.YELLOW);
+            resultLabel.setText("Level 0: " + graph.label(startNode));
+            setAlgoState("Level 0: the frontier is just the start node '" + graph.label(startNode) + "'.",
+                    DS_TITLE, startFrontier, "Reached 1 of " + g.n + " graph.nodes", EXTRA_TITLE, "(None yet)");
+        });
+
+        int reached = 1;
+        for (DirectionOptimizingBfs.Level level : r.levels) {
+            int d = level.depth;
+            List<GraphNode> previous = byDepth.get(d);
+            List<GraphNode> next     = d + 1 < byDepth.size() ? byDepth.get(d + 1) : List.of();
+            List<GraphEdge> tree     = new ArrayList<>(next.size());
+            for (GraphNode node : next) tree.add(graph.edges.get(r.parentEdge[index.get(node)]));
+            reached += level.discovered;
+            levelLines.add(String.format("L%-2d %s %-9s frontier %-4d graph.edges %-5d found %d", d,
+                    level.bottomUp ? "↑" : "↓", level.bottomUp ? "bottom-up" : "top-down",
+                    level.frontier, level.edgesExamined, level.discovered));
+
+            final int    lineCount   = levelLines.size();
+            final String frontierTxt = next.isEmpty() ? "(Empty: nothing new was found)" : formatFrontier(graph, d + 1, next);
+            final String reachedTxt  = "Reached " + reached + " of " + g.n + " graph.nodes";
+            final String action      = level.bottomUp
+                    ? String.format("Level %d → %d, bottom-up: the frontier's %d node(s) have more graph.edges than 1/%d of the unvisited graph.nodes' graph.edges, "
+                            + "so every unvisited node scans its in-graph.edges for a frontier parent (%d examined, %d found).",
+                            d, d + 1, level.frontier, DirectionOptimizingBfs.ALPHA, level.edgesExamined, level.discovered)
+                    : String.format("Level %d → %d, top-down: the %d frontier node(s) scan their out-graph.edges (%d examined) "
+                            + "and claim %d unvisited neighbour(s).",
+                            d, d + 1, level.frontier, level.edgesExamined, level.discovered);
+            algorithmSteps.add(() -> {
+                for (GraphNode node : previous) node.circle.setFill(Color.GREEN);
+                for (GraphEdge e : tree)        e.line.setStroke(Color.ORANGE);
+                for (GraphNode node : next)     node.circle.setFill(Color.YELLOW);
+                resultLabel.setText(String.format("Level %d: %d node(s) %s", d + 1, next.size(), level.bottomUp ? "↑ bottom-up" : "↓ top-down"));
+                setAlgoState(action, DS_TITLE, frontierTxt, reachedTxt, EXTRA_TITLE, formatLinesPrefix(levelLines, lineCount));
+            });
+        }
+
+        final int    finalReached = reached, levels = byDepth.size() - 1, bottomUp = r.bottomUpLevels();
+        final String canvasBench  = benchmarkBfs(g, s, "Canvas graph");
+        final String[] fullBench  = { null };
+        final GraphData full      = graph.full;
+        Runnable finalStep = () -> {
+            for (GraphNode node : byDepth.get(byDepth.size() - 1)) node.circle.setFill(Color.GREEN);
+            resultLabel.setText(String.format("Level-synchronous BFS complete: %d graph.nodes in %d level%s, %d expanded bottom-up",
+                    finalReached, levels, levels == 1 ? "" : "s", bottomUp));
+            setAlgoState("✅ BFS complete. Every reached node's depth is its level.", DS_TITLE, "(Done)",
+                    "Reached " + finalReached + " of " + g.n + " graph.nodes", EXTRA_TITLE, formatLinesPrefix(levelLines, levelLines.size()));
+            setAuxState("Engine Comparison (best of 3):", canvasBench + (fullBench[0] != null ? "\n\n" + fullBench[0]
+                    : full != null ? "\n\nFull generated graph: measuring…" : ""));
+        };
+        algorithmSteps.add(finalStep);
+
+        // The canvas shows a sample; the speedup only shows on the whole graph.
+        if (full != null) benchmarkFullGraph(fullBench, finalStep, () ->
+                benchmarkBfs(CsrGraph.of(full), 0, String.format("Full generated graph (%,d graph.nodes, from its first node)", full.nodeCount)));
+    }
+
+    private String formatFrontier(GraphSnapshot graph, int depth, List<GraphNode> frontier) {
+        StringJoiner sj = new StringJoiner(", ", "Level " + depth + " (" + frontier.size() + "): ", "");
+        for (int i = 0; i < frontier.size(); i++) {
+            if (i == PANEL_ITEM_LIMIT) { sj.add("… +" + (frontier.size() - PANEL_ITEM_LIMIT)); break; }
+            sj.add(graph.label(frontier.get(i)));
+        }
+        return sj.toString();
+    }
+
+    /** Queue BFS vs. parallel top-down vs. direction-optimizing on {@code g}, best of three runs each. */
+    private static String benchmarkBfs(CsrGraph g, int s, String title) {
+        CsrGraph in = g.reversed();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        DirectionOptimizingBfs.Result queue = null, topDown = null, optimized = null;
+        try {
+            for (int rep = 0; rep < 3; rep++) {
+                checkCancelled();
+                queue     = faster(queue,     DirectionOptimizingBfs.sequential(g, s));
+                topDown   = faster(topDown,   DirectionOptimizingBfs.run(g, in, s, pool, false));
+                optimized = faster(optimized, DirectionOptimizingBfs.run(g, in, s, pool, true));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return String.format("%s:%n"
+                        + "Queue BFS: %,d edges, %.2f ms%n"
+                        + "Top-down, %d thread%s: %,d edges, %.2f ms%n"
+                        + "Direction-optimizing: %,d edges, %.2f ms%n"
+                        + "  %d of %d levels bottom-up, %.1f× vs queue BFS",
+                title, queue.edgesExamined, queue.nanos / 1e6,
+                topDown.threads, topDown.threads == 1 ? "" : "s", topDown.edgesExamined, topDown.nanos / 1e6,
+                optimized.edgesExamined, optimized.nanos / 1e6,
+                optimized.bottomUpLevels(), optimized.levels.size(), queue.nanos / (double) Math.max(1, optimized.nanos));
+    }
+
+    private static DirectionOptimizingBfs.Result faster(DirectionOptimizingBfs.Result best, DirectionOptimizingBfs.Result run) {
+        return best == null || run.nanos < best.nanos ? run : best;
+    }
+
+    // ─────────────────────────────────────────────
+    // DFS
+    // ─────────────────────────────────────────────
+    private void recordDFS(GraphSnapshot graph, GraphNode startNode) {
+        final String DS_TITLE = "Recursion Call Stack:";
+        List<String> visitedOrder = new ArrayList<>();
+
+        // DepthFirst keeps the explicit path stack; the recorder mirrors it as the call stack panel.
+        DepthFirst.from(graph.csr, graph.index.get(startNode), new DepthFirst.Listener() {
+            StackFrame callStack;
+
+            @Override
+            public void discovered(int v, int viaEdge) {
+                callStack = dfsEnter(graph, graph.nodes.get(v), viaEdge >= 0 ? graph.edges.get(viaEdge) : null,
+                        callStack, visitedOrder, DS_TITLE);
+            }
+
+            @Override
+            public void finished(int v) {
+                callStack = callStack.below;
+                final StackFrame poppedStack  = callStack;
+                final int        visitCount   = visitedOrder.size();
+                final GraphNode  finishedNode = graph.nodes.get(v);
+                algorithmSteps.add(() -> {
+                    finishedNode.circle.setFill(Color.GREEN);
+                    setAlgoState("No unvisited neighbors left for '" + graph.label(finishedNode) + "'. Backtracking (Pop from Stack).",
+                            DS_TITLE, formatStack(poppedStack), formatOrderPrefix(visitedOrder, visitCount), null, null);
+                });
+            }
+        });
+
+        final int total = visitedOrder.size();
+        algorithmSteps.add(() -> {
+            String finalOrder = formatOrderPrefix(visitedOrder, total);
+            resultLabel.setText("DFS Complete! Order: " + finalOrder);
+            setAlgoState("✅ DFS Traversal Complete!", DS_TITLE, formatStack((StackFrame) null), finalOrder, null, null);
+        });
+    }
+
+    /** Pushes {@code current} and records the "push" and "checking neighbors" steps. */
+    private StackFrame dfsEnter(GraphSnapshot graph, GraphNode current, GraphEdge edgeToReach, StackFrame callStack,
+                                List<String> visitedOrder, String dsTitle) {
+        final StackFrame stack = new StackFrame(graph.label(current), callStack);
+        visitedOrder.add(graph.label(current));
+
+        final int       visitCount = visitedOrder.size();
+        final GraphNode cn         = current;
+        final GraphEdge te         = edgeToReach;
+        algorithmSteps.add(() -> {
+            String visitStr = formatOrderPrefix(visitedOrder, visitCount);
+            if (te != null) te.line.setStroke(Color.ORANGE);
+            cn.circle.setFill(Color.YELLOW);
+            resultLabel.setText("Traversal Order: " + visitStr);
+            setAlgoState((te != null ? "Traversing deep into node '" : "Starting DFS at node '")
+                            + graph.label(cn) + "' (Push to Stack).",
+                    dsTitle, formatStack(stack), visitStr, null, null);
+        });
+        algorithmSteps.add(() -> {
+            cn.circle.setFill(Color.MAGENTA);
+            setAlgoState("Checking neighbors of '" + graph.label(cn) + "'...",
+                    dsTitle, formatStack(stack), formatOrderPrefix(visitedOrder, visitCount), null, null);
+        });
+        return stack;
+    }
+
+    // ─────────────────────────────────────────────
+    // Prim's MST
+    // ─────────────────────────────────────────────
+    private void recordPrim(GraphSnapshot graph, GraphNode startNode) {
+        final String DS_TITLE    = "Candidate Edges (Min-Heap):";
+        final String EXTRA_TITLE = "MST Edges Chosen:";
+
+        Set<GraphNode>        visited  = new HashSet<>();
+        PriorityQueue<GraphEdge> pq    = new PriorityQueue<>(Comparator.comparingInt(this::parseWeight));
+        List<String>          mstEdges = new ArrayList<>();
+        int[]                 totalW   = {0};
+
+        visited.add(startNode);
+        for (GraphEdge e : graph.incident(startNode)) pq.add(e);
+
+        final String initPQ  = formatEdgePQ(graph, pq);
+        final String initMST = "(None)";
+        algorithmSteps.add(() -> {
+            startNode.circle.setFill(Color.YELLOW);
+            resultLabel.setText("Prim's MST: Started at " + graph.label(startNode));
+            setAlgoState("Initialized Prim's at '" + graph.label(startNode) + "'. Added adjacent graph.edges to PQ.",
+                    DS_TITLE, initPQ, graph.label(startNode), EXTRA_TITLE, initMST);
+        });
+
+        while (!pq.isEmpty() && visited.size() < graph.nodes.size()) {
+            GraphEdge minEdge = pq.poll();
+
+            GraphNode unvisited = null;
+            if      (visited.contains(minEdge.from) && !visited.contains(minEdge.to))   unvisited = minEdge.to;
+            else if (!minEdge.isDirected && visited.contains(minEdge.to)
+                    && !visited.contains(minEdge.from))                                  unvisited = minEdge.from;
+
+            if (unvisited != null) {
+                visited.add(unvisited);
+                int w = graph.weight(minEdge);
+                totalW[0] += w;
+                mstEdges.add("  " + graph.label(minEdge.from) + " ─ " + graph.label(minEdge.to)
+                        + "  (Weight: " + w + ")");
+
+                for (GraphEdge e : graph.incident(unvisited)) {
+                    GraphNode nb = (e.from == unvisited) ? e.to
+                            : (!e.isDirected && e.to == unvisited) ? e.from : null;
+                    if (nb != null && !visited.contains(nb)) pq.add(e);
+                }
+
+                final GraphNode   nextNode    = unvisited;
+                final GraphEdge   mstEdge     = minEdge;
+                final int         currTotal   = totalW[0];
+                final String      pqSnap      = formatEdgePQ(graph, pq);
+                final String      visitSnap   = String.join(", ", visited.stream().map(n -> graph.label(n)).toList());
+                final String      mstSnap     = formatMSTEdges(mstEdges, currTotal);
+
+                algorithmSteps.add(() -> {
+                    mstEdge.line.setStroke(Color.ORANGE); mstEdge.line.setStrokeWidth(5);
+                    nextNode.circle.setFill(Color.YELLOW);
+                    resultLabel.setText("Prim's MST - Total Weight: " + currTotal);
+                    setAlgoState("Extracted minimum edge connecting to '" + graph.label(nextNode) + "'.",
+                            DS_TITLE, pqSnap, visitSnap, EXTRA_TITLE, mstSnap);
+                });
+            }
+        }
+
+        final String finalVisit = String.join(", ", visited.stream().map(n -> graph.label(n)).toList());
+        final String finalMST   = formatMSTEdges(mstEdges, totalW[0]);
+        algorithmSteps.add(() -> {
+            for (GraphNode node : visited) node.circle.setFill(Color.GREEN);
+            resultLabel.setText("Prim's MST Complete! Total Weight: " + totalW[0]);
+            setAlgoState("✅ All graph.nodes connected! Prim's MST Complete.", DS_TITLE, "(Empty)", finalVisit, EXTRA_TITLE, finalMST);
+        });
+    }
+
+    // ─────────────────────────────────────────────
+    // Kruskal's MST
+    // ─────────────────────────────────────────────
+    private static final int FOREST_PANEL_LIMIT = 40;   // above this the forest panel shows a summary only
+
+    private void recordKruskal(GraphSnapshot graph) {
+        final String DS_TITLE    = "Sorted Edges Remaining:";
+        final String EXTRA_TITLE = "MST Edges Chosen:";
+        final String AUX_TITLE   = "Disjoint-Set Forest (union by rank, path halving):";
+
+        // Everything below runs on node indices; weights are parsed once.
+        Map<GraphNode, Integer> index = graph.index;
+        int n = graph.nodes.size(), m = graph.edges.size();
+        int[] u = new int[m], v = new int[m], w = new int[m];
+        long[] keys = new long[m];
+        for (int e = 0; e < m; e++) {
+            GraphEdge edge = graph.edges.get(e);
+            u[e] = index.get(edge.from); v[e] = index.get(edge.to); w[e] = graph.weight(edge);
+            keys[e] = (long) w[e] << 32 | e;   // sorts by weight, ties by insertion order
+        }
+        Arrays.sort(keys);
+        final int[] order = new int[m];
+        for (int k = 0; k < m; k++) order[k] = (int) keys[k];
+
+        UnionFind uf = new UnionFind(n);
+        boolean snapshotForest = n <= FOREST_PANEL_LIMIT;
+        List<String> mstEdges = new ArrayList<>();
+        List<String> mstNodes = new ArrayList<>();
+        boolean[] inTree = new boolean[n];
+        long total = 0;
+
+        final String initForest = formatForest(graph, uf.parentSnapshot(), uf.rankSnapshot(), ForestStats.of(uf));
+        algorithmSteps.add(() -> {
+            resultLabel.setText("Kruskal's MST: Sorted all graph.edges globally by weight.");
+            setAlgoState("Sorted all graph.edges by weight. Ready to pick the smallest non-cycling graph.edges.",
+                    DS_TITLE, formatSortedEdges(graph, order, w, 0), "(None)", EXTRA_TITLE, "(None)");
+            setAuxState(AUX_TITLE, initForest);
+        });
+
+        for (int k = 0; k < m && mstEdges.size() < n - 1; k++) {
+            int e = order[k];
+            final GraphEdge edge   = graph.edges.get(e);
+            final boolean   joined = uf.union(u[e], v[e]);
+            if (joined) {
+                if (!inTree[u[e]]) { inTree[u[e]] = true; mstNodes.add(graph.label(edge.from)); }
+                if (!inTree[v[e]]) { inTree[v[e]] = true; mstNodes.add(graph.label(edge.to)); }
+            }
+            final int         next       = k + 1;
+            final int         nodeCount  = mstNodes.size();
+            final ForestStats stats      = ForestStats.of(uf);
+            final int[]       parentSnap = snapshotForest ? uf.parentSnapshot() : null;
+            final int[]       rankSnap   = snapshotForest ? uf.rankSnapshot()   : null;
+
+            if (joined) {
+                total += w[e];
+                mstEdges.add("  ✓ " + graph.label(edge.from) + " ─ " + graph.label(edge.to) + "  (Weight: " + w[e] + ")");
+                final int  mstCount  = mstEdges.size();
+                final long currTotal = total;
+
+                algorithmSteps.add(() -> {
+                    edge.line.setStroke(Color.ORANGE); edge.line.setStrokeWidth(5);
+                    edge.from.circle.setFill(Color.YELLOW); edge.to.circle.setFill(Color.YELLOW);
+                    resultLabel.setText("Kruskal's MST - Total Weight: " + currTotal);
+                    setAlgoState("✓ Edge safely bridges components without forming a cycle.",
+                            DS_TITLE, formatSortedEdges(graph, order, w, next), formatOrderPrefix(mstNodes, nodeCount),
+                            EXTRA_TITLE, formatMSTEdges(mstEdges, mstCount, currTotal));
+                    setAuxState(AUX_TITLE, formatForest(graph, parentSnap, rankSnap, stats));
+                });
+            } else {
+                final int  mstCount  = mstEdges.size();
+                final long currTotal = total;
+
+                algorithmSteps.add(() -> {
+                    edge.line.setStroke(Color.RED);
+                    setAlgoState("✗ Skipped edge: '" + graph.label(edge.from) + "' and '" + graph.label(edge.to)
+                                    + "' already share a root, so it would create a cycle.",
+                            DS_TITLE, formatSortedEdges(graph, order, w, next), formatOrderPrefix(mstNodes, nodeCount),
+                            EXTRA_TITLE, mstCount == 0 ? "(None)" : formatMSTEdges(mstEdges, mstCount, currTotal));
+                    setAuxState(AUX_TITLE, formatForest(graph, parentSnap, rankSnap, stats));
+                });
+            }
+        }
+
+        final int    finalCount  = mstNodes.size();
+        final int    finalEdges  = mstEdges.size();
+        final long   finalTotal  = total;
+        final String finalForest = formatForest(graph, uf.parentSnapshot(), uf.rankSnapshot(), ForestStats.of(uf));
+        algorithmSteps.add(() -> {
+            for (int i = 0; i < n; i++) if (inTree[i]) graph.nodes.get(i).circle.setFill(Color.GREEN);
+            resultLabel.setText("Kruskal's MST Complete! Total Weight: " + finalTotal);
+            setAlgoState("✅ Maximum graph.edges reached. Kruskal's MST Complete!", DS_TITLE, "(Empty)",
+                    formatOrderPrefix(mstNodes, finalCount), EXTRA_TITLE, formatMSTEdges(mstEdges, finalEdges, finalTotal));
+            setAuxState(AUX_TITLE, finalForest);
+        });
+    }
+
+    /** Next few edges of the sorted order, starting at position {@code from}. */
+    private String formatSortedEdges(GraphSnapshot graph, int[] order, int[] w, int from) {
+        if (from >= order.length) return "(Empty)";
+        StringBuilder sb = new StringBuilder();
+        for (int k = from; k < order.length; k++) {
+            if (k - from >= 6) { sb.append("  … ").append(order.length - k).append(" more"); break; }
+            GraphEdge e = graph.edges.get(order[k]);
+            sb.append(String.format("  %-4s ─ %-4s | Weight = %-3d%n",
+                    graph.label(e.from), graph.label(e.to), w[order[k]]));
+        }
+        return sb.toString().trim();
+    }
+
+    /** Union-find counters captured after one Kruskal step. */
+    private record ForestStats(int sets, int largest, long finds, double avgDepth, int maxDepth, long unions) {
+        static ForestStats of(UnionFind uf) {
+            return new ForestStats(uf.components(), uf.largestSet(), uf.finds,
+                    uf.averageFindDepth(), uf.maxFindDepth, uf.unions);
+        }
+
+        @Override public String toString() {
+            return String.format("Sets: %d   Largest: %d nodes%nFinds: %d   Avg depth: %.2f   Max depth: %d   Unions: %d",
+                    sets, largest, finds, avgDepth, maxDepth, unions);
+        }
+    }
+
+    /**
+     * Text drawing of a small disjoint-set forest: one tree per non-trivial
+     * set, singletons folded onto one line, counters underneath. Large
+     * forests ({@code parent == null}) show the counters only.
+     */
+    private String formatForest(GraphSnapshot graph, int[] parent, int[] rank, ForestStats stats) {
+        if (parent == null || parent.length > FOREST_PANEL_LIMIT) return stats.toString();
+        int n = parent.length;
+        List<List<Integer>> children = new ArrayList<>();
+        for (int i = 0; i < n; i++) children.add(new ArrayList<>());
+        for (int i = 0; i < n; i++) if (parent[i] != i) children.get(parent[i]).add(i);
+
+        StringBuilder sb = new StringBuilder();
+        List<String> singletons = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (parent[i] != i) continue;
+            if (children.get(i).isEmpty()) { singletons.add(graph.label(graph.nodes.get(i))); continue; }
+            sb.append("  ").append(graph.label(graph.nodes.get(i))).append("  (rank ").append(rank[i]).append(")\n");
+            appendForestChildren(graph, sb, children, i, "  ");
+        }
+        if (!singletons.isEmpty()) sb.append("  Singletons: ").append(String.join(", ", singletons)).append("\n");
+        return sb.append(stats).toString();
+    }
+
+    private void appendForestChildren(GraphSnapshot graph, StringBuilder sb, List<List<Integer>> children, int node, String indent) {
+        List<Integer> kids = children.get(node);
+        for (int c = 0; c < kids.size(); c++) {
+            boolean last = c == kids.size() - 1;
+            sb.append(indent).append(last ? "└─ " : "├─ ").append(graph.label(graph.nodes.get(kids.get(c)))).append("\n");
+            appendForestChildren(graph, sb, children, kids.get(c), indent + (last ? "   " : "│  "));
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Borůvka's MST (parallel rounds)
+    // ─────────────────────────────────────────────
+    // One step per round: every component adds its cheapest outgoing edge at
+    // once (see SpanningForest), so the canvas shows all picks of a round
+    // together and nodes are recoloured by the component they now belong to.
+    // Edge directions are ignored, as in Kruskal.
+    private void recordBoruvka(GraphSnapshot graph) {
+        final String DS_TITLE    = "Cheapest Edge per Component:";
+        final String EXTRA_TITLE = "MST Edges Chosen:";
+        final String AUX_TITLE   = "Borůvka Rounds:";
+
+        Map<GraphNode, Integer> index = graph.index;
+        int n = graph.nodes.size(), m = graph.edges.size();
+        int[] src = new int[m], dst = new int[m], w = new int[m];
+        for (int e = 0; e < m; e++) {
+            GraphEdge edge = graph.edges.get(e);
+            src[e] = index.get(edge.from); dst[e] = index.get(edge.to); w[e] = graph.weight(edge);
+        }
+        CsrGraph g = CsrGraph.of(n, src, dst, w, null);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        SpanningForest.Result r;
+        try {
+            r = SpanningForest.boruvka(g, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        algorithmSteps.add(() -> {
+            for (int i = 0; i < n; i++) graph.nodes.get(i).circle.setFill(componentColor(i));
+            resultLabel.setText("Borůvka's MST: " + n + " single-node components");
+            setAlgoState("Every node starts as its own component. Each round, all components pick their cheapest outgoing edge in parallel.",
+                    DS_TITLE, "(None yet)", n + " components", EXTRA_TITLE, "(None yet)");
+            setAuxState(AUX_TITLE, "(None yet)");
+        });
+
+        UnionFind uf = new UnionFind(n);
+        List<String> mstEdges   = new ArrayList<>();
+        List<String> roundLines = new ArrayList<>();
+        long total = 0;
+        for (int round = 0, from = 0; round < r.rounds; round++) {
+            int to = r.roundEnd[round], before = r.roundComponents[round];
+            List<GraphEdge> picked = new ArrayList<>(to - from);
+            StringBuilder picks = new StringBuilder();
+            for (int i = from; i < to; i++) {
+                int e = r.edges[i];
+                GraphEdge edge = graph.edges.get(e);
+                uf.union(src[e], dst[e]);
+                picked.add(edge);
+                total += w[e];
+                String line = "  " + graph.label(edge.from) + " ─ " + graph.label(edge.to) + "  (Weight: " + w[e] + ")";
+                mstEdges.add(line);
+                if (i - from < PANEL_ITEM_LIMIT) picks.append(line).append('\n');
+            }
+            if (to - from > PANEL_ITEM_LIMIT) picks.append("  … +").append(to - from - PANEL_ITEM_LIMIT);
+            int after = uf.components();
+            roundLines.add(String.format("R%-2d %d → %d components, +%d graph.edges, %d arc scans",
+                    round + 1, before, after, to - from, r.roundScans[round]));
+
+            final int[]  colorOf   = new int[n];
+            for (int v = 0; v < n; v++) colorOf[v] = uf.find(v);
+            final List<GraphEdge> earlier = round == 0 ? List.of() : pickedEdges(graph, r, round - 1);
+            final int    roundNo   = round + 1, mstCount = mstEdges.size(), lineCount = roundLines.size();
+            final long   currTotal = total;
+            final String pickTxt   = picks.toString().trim();
+            final String compTxt   = before + " → " + after + " components";
+            algorithmSteps.add(() -> {
+                for (GraphEdge e : earlier) e.line.setStroke(Color.GREEN);
+                for (GraphEdge e : picked)  { e.line.setStroke(Color.ORANGE); e.line.setStrokeWidth(5); }
+                for (int v = 0; v < n; v++) graph.nodes.get(v).circle.setFill(componentColor(colorOf[v]));
+                resultLabel.setText(String.format("Borůvka round %d: %s, Total Weight: %d", roundNo, compTxt, currTotal));
+                setAlgoState(String.format("Round %d: each of the %d components added its cheapest outgoing edge (%d distinct), then the components merged.",
+                                roundNo, before, picked.size()),
+                        DS_TITLE, pickTxt, compTxt, EXTRA_TITLE, formatMSTEdges(mstEdges, mstCount, currTotal));
+                setAuxState(AUX_TITLE, formatLinesPrefix(roundLines, lineCount));
+            });
+            from = to;
+        }
+
+        final List<GraphEdge> last       = r.rounds == 0 ? List.of() : pickedEdges(graph, r, r.rounds - 1);
+        final int             components = uf.components();
+        final long            finalTotal = total;
+        final String          canvasBench = benchmarkMst(n, src, dst, w, "Canvas graph");
+        final String[]        fullBench  = { null };
+        final GraphData       full       = graph.full;
+        Runnable finalStep = () -> {
+            for (GraphEdge e : last) e.line.setStroke(Color.GREEN);
+            resultLabel.setText(String.format("Borůvka's MST Complete! Total Weight: %d in %d round%s%s", finalTotal,
+                    r.rounds, r.rounds == 1 ? "" : "s", components > 1 ? " (" + components + " trees: the graph is disconnected)" : ""));
+            setAlgoState("✅ No component has an outgoing edge left. Borůvka's MST Complete!", DS_TITLE, "(Done)",
+                    components + (components == 1 ? " component" : " components"), EXTRA_TITLE,
+                    formatMSTEdges(mstEdges, mstEdges.size(), finalTotal));
+            setAuxState("MST Engine Comparison (best of 3):", String.join("\n", roundLines) + "\n\n" + canvasBench
+                    + (fullBench[0] != null ? "\n\n" + fullBench[0] : full != null ? "\n\nFull generated graph: measuring…" : ""));
+        };
+        algorithmSteps.add(finalStep);
+
+        if (full != null && full.weight != null) benchmarkFullGraph(fullBench, finalStep, () ->
+                benchmarkMst(full.nodeCount, full.src, full.dst, full.weight,
+                        String.format("Full generated graph (%,d graph.nodes, %,d graph.edges)", full.nodeCount, full.edgeCount)));
+    }
+
+    /** Canvas edges Borůvka added in round {@code round}. */
+    private List<GraphEdge> pickedEdges(GraphSnapshot graph, SpanningForest.Result r, int round) {
+        int from = round == 0 ? 0 : r.roundEnd[round - 1];
+        List<GraphEdge> list = new ArrayList<>(r.roundEnd[round] - from);
+        for (int i = from; i < r.roundEnd[round]; i++) list.add(graph.edges.get(r.edges[i]));
+        return list;
+    }
+
+    /**
+     * Prim (indexed 4-ary heap), Kruskal and Borůvka on one undirected
+     * graph, best of three runs each. Work is counted in each engine's own
+     * basic operations: arc scans plus heap operations and sift moves for
+     * Prim, edge scans, union-find steps and n·log₂n sort steps for Kruskal,
+     * arc scans and union-find steps for Borůvka.
+     */
+    private static String benchmarkMst(int n, int[] src, int[] dst, int[] w, String title) {
+        CsrGraph g = CsrGraph.of(n, src, dst, w, null);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        HeapEngines.Stats prim = null;
+        SpanningForest.Result kruskal = null, serial = null, parallel = null;
+        try {
+            for (int rep = 0; rep < 3; rep++) {
+                checkCancelled();
+                HeapEngines.Stats p = HeapEngines.primIndexed(g, 0, HEAP_ARITY);
+                if (prim == null || p.nanos < prim.nanos) prim = p;
+                kruskal  = faster(kruskal,  SpanningForest.kruskal(n, src, dst, w));
+                serial   = faster(serial,   SpanningForest.boruvka(g, null));
+                parallel = faster(parallel, SpanningForest.boruvka(g, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long primWork = prim.scans + prim.queueOperations() + prim.siftMoves;
+        return String.format("%s:%n"
+                        + "Prim: work %,d, %.2f ms%s%n"
+                        + "Kruskal: work %,d, %.2f ms%n"
+                        + "Borůvka: work %,d in %d rounds%n"
+                        + "  1 thread %.2f ms, %d thread%s %.2f ms (%.2f× speedup)",
+                title, primWork, prim.nanos / 1e6,
+                prim.pops < n ? String.format(" (first node's component only: %,d nodes)", prim.pops) : "",
+                kruskal.work(), kruskal.nanos / 1e6,
+                parallel.work(), parallel.rounds,
+                serial.nanos / 1e6, parallel.threads, parallel.threads == 1 ? "" : "s", parallel.nanos / 1e6,
+                serial.nanos / (double) Math.max(1, parallel.nanos));
+    }
+
+    private static SpanningForest.Result faster(SpanningForest.Result best, SpanningForest.Result run) {
+        return best == null || run.nanos < best.nanos ? run : best;
+    }
+
+    // ─────────────────────────────────────────────
+    // Connected Components (BFS sweep / union-find / label propagation)
+    // ─────────────────────────────────────────────
+    // Nodes are coloured by the smallest node id in their current set, so a
+    // merge recolours the absorbed set with the survivor's colour. The BFS
+    // sweep adds one component per step, union-find one merging edge per step,
+    // and label propagation one hooking or pointer-jumping pass per step.
+    // Steps replay in order, so each one stores only the nodes it recolours.
+    private void recordConnectedComponents(GraphSnapshot graph, String engine) {
+        final String DS_TITLE    = engine.contains("Label") ? "Parent Pointers (non-roots):" : "Current Sets:";
+        final String EXTRA_TITLE = "Components:";
+
+        Map<GraphNode, Integer> index = graph.index;
+        int n = graph.nodes.size(), m = graph.edges.size();
+        int[] src = new int[m], dst = new int[m];
+        for (int e = 0; e < m; e++) {
+            GraphEdge edge = graph.edges.get(e);
+            src[e] = index.get(edge.from); dst[e] = index.get(edge.to);
+        }
+
+        algorithmSteps.add(() -> {
+            for (int v = 0; v < n; v++) graph.nodes.get(v).circle.setFill(engine.contains("BFS") ? Color.LIGHTGRAY : componentColor(v));
+            resultLabel.setText("Connected Components: " + n + " graph.nodes, " + m + " graph.edges");
+            setAlgoState(engine.contains("BFS") ? "BFS sweep: start a BFS from every node no earlier BFS reached."
+                            : engine.contains("Union") ? "Union-find: every node is its own set; each edge unions the sets of its endpoints."
+                            : "Label propagation: every node is its own star. Each round, larger roots hook onto smaller labels across graph.edges, "
+                              + "then pointer jumping flattens the trees back into stars.",
+                    DS_TITLE, "(None yet)", engine.contains("BFS") ? "0 components" : n + " sets", null, null);
+        });
+
+        int[] shown = new int[n];                   // colour each node has after the steps so far
+        for (int v = 0; v < n; v++) shown[v] = engine.contains("BFS") ? -1 : v;
+        GraphEdge[] lastMerged = { null };
+        int[] stepNo = { 0 };
+        ConnectedComponents.Listener listener = (phase, edge, parent) -> {
+            int[] colorOf = smallestMember(parent);
+            int   sets    = 0, changed = 0;
+            for (int v = 0; v < n; v++) {
+                if (colorOf[v] == v) sets++;
+                if (colorOf[v] >= 0 && colorOf[v] != shown[v]) changed++;
+            }
+            final int[] recolored = new int[changed], colors = new int[changed];
+            for (int v = 0, i = 0; v < n; v++) {
+                if (colorOf[v] < 0 || colorOf[v] == shown[v]) continue;
+                recolored[i] = v; colors[i++] = shown[v] = colorOf[v];
+            }
+            final int    setCount = sets, step = ++stepNo[0];
+            final String setsText = phase == ConnectedComponents.Phase.HOOK || phase == ConnectedComponents.Phase.JUMP
+                    ? formatParents(graph, parent) : formatSets(graph, colorOf);
+            final GraphEdge merged = edge >= 0 ? graph.edges.get(edge) : null, previous = lastMerged[0];
+            if (merged != null) lastMerged[0] = merged;
+            final String action = switch (phase) {
+                case COMPONENT -> "BFS from " + graph.label(graph.nodes.get(lastRootOf(parent))) + " labelled a whole component.";
+                case UNION     -> "Edge " + graph.label(merged.from) + " ─ " + graph.label(merged.to)
+                                  + " joined two sets; the larger smallest-id set takes the other's colour.";
+                case HOOK      -> "Hooking pass: each root adopted the smallest label across its graph.edges (atomic min).";
+                case JUMP      -> "Pointer jumping: every node now points to its grandparent, p[v] = p[p[v]].";
+            };
+            algorithmSteps.add(() -> {
+                for (int i = 0; i < recolored.length; i++) graph.nodes.get(recolored[i]).circle.setFill(componentColor(colors[i]));
+                if (previous != null) previous.line.setStroke(Color.GREEN);
+                if (merged != null) { merged.line.setStroke(Color.ORANGE); merged.line.setStrokeWidth(5); }
+                if (phase == ConnectedComponents.Phase.COMPONENT)
+                    for (int v : recolored) for (GraphEdge e : graph.incident(graph.nodes.get(v))) e.line.setStroke(Color.GREEN);
+                resultLabel.setText(String.format("Connected Components, step %d: %d %s", step, setCount,
+                        phase == ConnectedComponents.Phase.COMPONENT ? "components found" : "sets"));
+                setAlgoState(action, DS_TITLE, setsText, setCount + (phase == ConnectedComponents.Phase.COMPONENT ? " found" : " sets"),
+                        null, null);
+            });
+        };
+
+        ConnectedComponents.Result r;
+        if (engine.contains("BFS")) {
+            r = ConnectedComponents.bfs(CsrGraph.of(n, src, dst, null, null), listener);
+        } else if (engine.contains("Union")) {
+            r = ConnectedComponents.unionFind(n, src, dst, listener);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+            try {
+                r = ConnectedComponents.labelPropagation(n, src, dst, pool, listener);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        final String    finalSets   = formatSets(graph, r.label);
+        final String    canvasBench = benchmarkComponents(n, src, dst, "Canvas graph");
+        final String[]  fullBench   = { null };
+        final GraphData full        = graph.full;
+        Runnable finalStep = () -> {
+            for (int v = 0; v < n; v++) graph.nodes.get(v).circle.setFill(componentColor(r.label[v]));
+            resultLabel.setText(String.format("Connected Components Complete! %d component%s, largest %d node%s", r.components,
+                    r.components == 1 ? "" : "s", r.largest, r.largest == 1 ? "" : "s"));
+            setAlgoState("✅ Every node carries the smallest node id of its component.", DS_TITLE, "(Done)",
+                    r.components + (r.components == 1 ? " component" : " components"), EXTRA_TITLE, finalSets);
+            setAuxState("Components Engine Comparison (best of 3):", canvasBench
+                    + (fullBench[0] != null ? "\n\n" + fullBench[0] : full != null ? "\n\nFull generated graph: measuring…" : ""));
+        };
+        algorithmSteps.add(finalStep);
+
+        if (full != null) benchmarkFullGraph(fullBench, finalStep, () ->
+                benchmarkComponents(full.nodeCount, Arrays.copyOf(full.src, full.edgeCount), Arrays.copyOf(full.dst, full.edgeCount),
+                        String.format("Full generated graph (%,d graph.nodes, %,d graph.edges)", full.nodeCount, full.edgeCount)));
+    }
+
+    /** Smallest member of each node's tree in a parent array (-1 stays -1); read-only, no path compression. */
+    private static int[] smallestMember(int[] parent) {
+        int n = parent.length;
+        int[] root = new int[n], min = new int[n];
+        Arrays.fill(min, Integer.MAX_VALUE);
+        for (int v = 0; v < n; v++) {
+            int x = v;
+            if (parent[x] >= 0) while (parent[x] != x) x = parent[x];
+            root[v] = parent[v] < 0 ? -1 : x;
+            if (root[v] >= 0) min[x] = Math.min(min[x], v);
+        }
+        for (int v = 0; v < n; v++) root[v] = root[v] < 0 ? -1 : min[root[v]];
+        return root;
+    }
+
+    /** The root of the most recent BFS: the largest label in use. */
+    private static int lastRootOf(int[] label) {
+        int last = 0;
+        for (int l : label) last = Math.max(last, l);
+        return last;
+    }
+
+    private String formatSets(GraphSnapshot graph, int[] colorOf) {
+        Map<Integer, List<GraphNode>> sets = new TreeMap<>();
+        for (int v = 0; v < colorOf.length; v++)
+            if (colorOf[v] >= 0) sets.computeIfAbsent(colorOf[v], k -> new ArrayList<>()).add(graph.nodes.get(v));
+        List<String> lines = new ArrayList<>();
+        for (List<GraphNode> members : sets.values()) lines.add(formatMembers(graph, members));
+        return lines.isEmpty() ? "(None yet)" : formatLinesPrefix(lines, lines.size());
+    }
+
+    private String formatParents(GraphSnapshot graph, int[] parent) {
+        List<String> lines = new ArrayList<>();
+        for (int v = 0; v < parent.length; v++)
+            if (parent[v] != v) lines.add(graph.label(graph.nodes.get(v)) + " → " + graph.label(graph.nodes.get(parent[v])));
+        return lines.isEmpty() ? "(All roots)" : formatLinesPrefix(lines, lines.size());
+    }
+
+    /**
+     * BFS sweep, union-find and label propagation (1 thread and the pool) on
+     * one undirected graph, best of three runs each. Work counts arc scans for
+     * BFS, edge scans plus find steps for union-find, and edge scans plus
+     * pointer jumps for label propagation.
+     */
+    private static String benchmarkComponents(int n, int[] src, int[] dst, String title) {
+        CsrGraph g = CsrGraph.of(n, src, dst, null, null);
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        ConnectedComponents.Result bfs = null, uf = null, serial = null, parallel = null;
+        try {
+            for (int rep = 0; rep < 3; rep++) {
+                checkCancelled();
+                bfs      = faster(bfs,      ConnectedComponents.bfs(g, null));
+                uf       = faster(uf,       ConnectedComponents.unionFind(n, src, dst, null));
+                serial   = faster(serial,   ConnectedComponents.labelPropagation(n, src, dst, null, null));
+                parallel = faster(parallel, ConnectedComponents.labelPropagation(n, src, dst, pool, null));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        boolean agree = Arrays.equals(bfs.label, uf.label) && Arrays.equals(bfs.label, parallel.label);
+        return String.format("%s: %,d component%s (largest %,d)%n"
+                        + "BFS sweep: work %,d, %.2f ms%n"
+                        + "Union-find: work %,d (%.2f steps/find), %.2f ms%n"
+                        + "Label propagation: work %,d in %d round%s, %d jump pass%s%n"
+                        + "  1 thread %.2f ms, %d thread%s %.2f ms (%.2f× speedup)%n%s",
+                title, bfs.components, bfs.components == 1 ? "" : "s", bfs.largest,
+                bfs.work(), bfs.nanos / 1e6,
+                uf.work(), uf.findSteps / Math.max(1.0, 2.0 * src.length + n), uf.nanos / 1e6,
+                parallel.work(), parallel.rounds, parallel.rounds == 1 ? "" : "s",
+                parallel.jumpPasses, parallel.jumpPasses == 1 ? "" : "es",
+                serial.nanos / 1e6, parallel.threads, parallel.threads == 1 ? "" : "s", parallel.nanos / 1e6,
+                serial.nanos / (double) Math.max(1, parallel.nanos),
+                agree ? "✓ All engines agree" : "⚠ Engines disagree!");
+    }
+
+    private static ConnectedComponents.Result faster(ConnectedComponents.Result best, ConnectedComponents.Result run) {
+        return best == null || run.nanos < best.nanos ? run : best;
+    }
+
+    // ─────────────────────────────────────────────
+    // Dijkstra's Shortest Path
+    // ─────────────────────────────────────────────
+    private void recordDijkstra(GraphSnapshot graph, GraphNode startNode, GraphNode endNode) {
+        final String DS_TITLE    = "Priority Queue (Node, Dist):";
+        final String EXTRA_TITLE = "Distance Map:";
+
+        Map<GraphNode, Integer> distances = new HashMap<>();
+        Map<GraphNode, GraphEdge> edgeTo  = new HashMap<>();
+        Set<GraphNode>            settled  = new HashSet<>();
+        List<String>              settledOrder = new ArrayList<>();
+
+        class ND implements Comparable<ND> {
+            GraphNode node; int dist;
+            ND(GraphNode n, int d) { node = n; dist = d; }
+            public int compareTo(ND o) { return Integer.compare(dist, o.dist); }
+        }
+        PriorityQueue<ND> pq = new PriorityQueue<>();
+        for (GraphNode n : graph.nodes) distances.put(n, Integer.MAX_VALUE);
+        distances.put(startNode, 0);
+        pq.add(new ND(startNode, 0));
+
+        java.util.function.Supplier<String> snapPQ = () -> {
+            List<ND> list = new ArrayList<>(pq); Collections.sort(list);
+            StringBuilder sb = new StringBuilder();
+            int c = 0;
+            for (ND nd : list) {
+                if (c++ >= 7) { sb.append("  …\n"); break; }
+                sb.append(String.format("  %-4s → dist = %s%n",
+                        graph.label(nd.node),
+                        nd.dist == Integer.MAX_VALUE ? "∞" : nd.dist));
+            }
+            return sb.length() == 0 ? "(Empty)" : sb.toString().trim();
+        };
+
+        final Map<GraphNode, Integer> distSnap0 = new HashMap<>(distances);
+        final String pqSnap0 = snapPQ.get();
+        algorithmSteps.add(() -> {
+            for (GraphNode n : graph.nodes) n.distLabel.setVisible(true);
+            startNode.circle.setFill(Color.YELLOW);
+            startNode.distLabel.setText("0"); startNode.distLabel.setFill(Color.GREEN);
+            resultLabel.setText("Dijkstra: Starting at " + graph.label(startNode));
+            setAlgoState("Set starting node distance to 0. All other graph.nodes are ∞.",
+                    DS_TITLE, pqSnap0, "(None settled)", EXTRA_TITLE, formatDistances(graph, distSnap0));
+        });
+
+        while (!pq.isEmpty()) {
+            ND current = pq.poll();
+            GraphNode u = current.node;
+            if (settled.contains(u)) continue;
+            settled.add(u);
+            settledOrder.add(graph.label(u));
+
+            final GraphNode exploringNode = u;
+            final int       currDist      = current.dist;
+            final String    settled0      = String.join(" ➔ ", settledOrder);
+            final String    pqSnap1       = snapPQ.get();
+            final Map<GraphNode, Integer> distSnap1 = new HashMap<>(distances);
+
+            algorithmSteps.add(() -> {
+                if (exploringNode != startNode) exploringNode.circle.setFill(Color.MAGENTA);
+                exploringNode.distLabel.setFill(Color.DARKBLUE);
+                resultLabel.setText("Dijkstra: Locking in " + graph.label(exploringNode) + " at optimal distance: " + currDist);
+                setAlgoState("Locked in optimal distance for '" + graph.label(exploringNode) + "'. Evaluating neighbors...",
+                        DS_TITLE, pqSnap1, settled0, EXTRA_TITLE, formatDistances(graph, distSnap1));
+            });
+
+            if (endNode != null && u == endNode) break;
+
+            for (GraphEdge edge : graph.incident(u)) {
+                GraphNode v = null;
+                if      (edge.from == u)                        v = edge.to;
+                else if (!edge.isDirected && edge.to == u)     v = edge.from;
+
+                if (v != null && !settled.contains(v)) {
+                    int w      = graph.weight(edge);
+                    int newDist = currDist + w;
+
+                    if (newDist < distances.get(v)) {
+                        distances.put(v, newDist);
+                        edgeTo.put(v, edge);
+                        pq.add(new ND(v, newDist));
+
+                        final GraphNode   nb       = v;
+                        final GraphEdge   te       = edge;
+                        final int         ndist    = newDist;
+                        final String      pqSnap2  = snapPQ.get();
+                        final String      settled2 = String.join(" ➔ ", settledOrder);
+                        final Map<GraphNode, Integer> distSnap2 = new HashMap<>(distances);
 
-        LinkedList<GraphNode> queue = new LinkedList<>();
-        Set<GraphNode>        visited     = new LinkedHashSet<>();
-        List<String>          visitedOrder = new ArrayList<>();
+                        algorithmSteps.add(() -> {
+                            te.line.setStroke(Color.ORANGE);
+                            if (nb != startNode) nb.circle.setFill(Color.YELLOW);
+                            nb.distLabel.setText(String.valueOf(ndist)); nb.distLabel.setFill(Color.DARKRED);
+                            resultLabel.setText("Dijkstra: Relaxed " + graph.label(nb) + " → dist = " + ndist);
+                            setAlgoState("Relaxation Step! Found a shorter path to '" + graph.label(nb) + "' (New Dist: " + ndist + ").",
+                                    DS_TITLE, pqSnap2, settled2, EXTRA_TITLE, formatDistances(graph, distSnap2));
+                        });
+                    }
+                }
+            }
 
-        queue.add(startNode);
-        visited.add(startNode);
+            final String settled3 = String.join(" ➔ ", settledOrder);
+            final Map<GraphNode, Integer> distSnap3 = new HashMap<>(distances);
+            algorithmSteps.add(() -> {
+                if (exploringNode != startNode && exploringNode != endNode) {
+                    exploringNode.circle.setFill(Color.LIGHTGREEN);
+                    exploringNode.distLabel.setFill(Color.DARKGREEN);
+                }
+                setAlgoState("✓ Fully evaluated node '" + graph.label(exploringNode) + "'.",
+                        DS_TITLE, snapPQ.get(), settled3, EXTRA_TITLE, formatDistances(graph, distSnap3));
+            });
+        }
+
+        if (endNode != null) {
+            if (distances.get(endNode) == Integer.MAX_VALUE) {
+                algorithmSteps.add(() -> {
+                    resultLabel.setText("Dijkstra: Target " + graph.label(endNode) + " is unreachable!");
+                    setAlgoState("Algorithm exhausted. Target node is completely disconnected.", DS_TITLE, "(Empty)",
+                            String.join(" ➔ ", settledOrder), null, null);
+                });
+            } else {
+                final int finalDist = distances.get(endNode);
+                algorithmSteps.add(() -> {
+                    resultLabel.setText("Dijkstra: Shortest path found! Total dist = " + finalDist);
+                    setAlgoState("Target Reached! Tracing shortest path backward...",
+                            DS_TITLE, "(Empty)", String.join(" ➔ ", settledOrder),
+                            EXTRA_TITLE, formatDistances(graph, distances));
+                });
+                GraphNode curr = endNode;
+                List<Runnable> path = new ArrayList<>();
+                while (curr != startNode && edgeTo.containsKey(curr)) {
+                    GraphEdge e = edgeTo.get(curr);
+                    final GraphEdge pe = e; final GraphNode pn = curr;
+                    path.add(() -> { pe.line.setStroke(Color.GREEN); pe.line.setStrokeWidth(5);
+                        pn.circle.setFill(Color.GREEN); pn.distLabel.setFill(Color.WHITE); });
+                    curr = (e.to == curr) ? e.from : e.to;
+                }
+                Collections.reverse(path);
+                algorithmSteps.addAll(path);
+                algorithmSteps.add(() -> { startNode.circle.setFill(Color.GREEN); startNode.distLabel.setFill(Color.WHITE); });
+            }
+        } else {
+            algorithmSteps.add(() -> {
+                resultLabel.setText("Dijkstra: Shortest path tree computed for all graph.nodes.");
+                setAlgoState("All reachable graph.nodes settled. Shortest Path Tree (SPT) generated.", DS_TITLE, "(Empty)",
+                        String.join(" ➔ ", settledOrder), EXTRA_TITLE, formatDistances(graph, distances));
+            });
+        }
+    }
+
+    // ─────────────────────────────────────────────
+    // Dynamic Dijkstra (edit & repair)
+    // ─────────────────────────────────────────────
+    // The shortest-path tree outlives the run: in algorithm mode an edge can
+    // be reweighted, deleted or inserted, and DynamicShortestPaths repairs
+    // only the nodes the edit affects. Each edit appends its own steps (edited
+    // edge, invalidated subtree in orange, re-settled nodes in gold) and a
+    // counter of nodes touched against a full recompute.
+    private void recordDynamicDijkstra(GraphSnapshot graph, GraphNode startNode) {
+        final String DS_TITLE    = "Shortest-Path Tree (settle order):";
+        final String EXTRA_TITLE = "Distance Map:";
+
+        Map<GraphNode, Integer> index = graph.index;
+        int n = graph.nodes.size();
+        DynamicShortestPaths sp = new DynamicShortestPaths(n, index.get(startNode));
+        List<GraphEdge>         spEdges = new ArrayList<>();
+        Map<GraphEdge, Integer> spIds   = new HashMap<>();
+        for (GraphEdge edge : graph.edges) {
+            int id = sp.addEdge(index.get(edge.from), index.get(edge.to), graph.weight(edge), edge.isDirected);
+            spEdges.add(edge);
+            spIds.put(edge, id);
+        }
+        int[] shownParent = new int[n];
+        Arrays.fill(shownParent, -1);
 
-        final String initQ = formatQueue(queue);
         algorithmSteps.add(() -> {
+            for (GraphNode node : graph.nodes) { node.distLabel.setText("∞"); node.distLabel.setVisible(true); }
             startNode.circle.setFill(Color.YELLOW);
-            setAlgoState("Found starting node '" + startNode.label.getText() + "' and pushed to Queue.",
-                    DS_TITLE, initQ, "(None)", null, null);
+            startNode.distLabel.setText("0"); startNode.distLabel.setFill(Color.GREEN);
+            resultLabel.setText("Dynamic Dijkstra: building the shortest-path tree from " + graph.label(startNode));
+            setAlgoState("A normal Dijkstra run first. Its distances and parent graph.edges are kept, so later edits only repair what they change.",
+                    DS_TITLE, "(None yet)", "(None settled)", null, null);
         });
 
-        while (!queue.isEmpty()) {
-            GraphNode current = queue.poll();
-            visitedOrder.add(current.label.getText());
+        List<String> settledOrder = new ArrayList<>();
+        DynamicShortestPaths.Stats full = sp.computeAll(new DynamicShortestPaths.Listener() {
+            @Override public void invalidated(int[] ids, int count) {}
 
-            final GraphNode exploringNode = current;
-            final String visitStr   = String.join(" ➔ ", visitedOrder);
-            final String resultPath = "Traversal Order: " + visitStr;
-            final String qSnap      = formatQueue(queue);
+            @Override public void settled(int v, long dist, int parentEdge) {
+                settledOrder.add(graph.label(graph.nodes.get(v)));
+                shownParent[v] = parentEdge;
+                final GraphNode node  = graph.nodes.get(v);
+                final GraphEdge tree  = parentEdge < 0 ? null : spEdges.get(parentEdge);
+                final String    order = formatLinesPrefix(settledOrder, settledOrder.size());
+                algorithmSteps.add(() -> {
+                    if (node != startNode) node.circle.setFill(Color.LIGHTGREEN);
+                    node.distLabel.setText(String.valueOf(dist)); node.distLabel.setFill(Color.DARKGREEN);
+                    if (tree != null) { tree.line.setStroke(Color.GREEN); tree.line.setStrokeWidth(5); }
+                    resultLabel.setText("Dynamic Dijkstra: settled " + graph.label(node) + " at distance " + dist);
+                    setAlgoState("Settled '" + graph.label(node) + "'" + (tree != null ? " through the green tree edge." : " (source)."),
+                            DS_TITLE, order, settledOrder.size() + " settled", null, null);
+                });
+            }
+        });
 
-            algorithmSteps.add(() -> {
-                exploringNode.circle.setFill(Color.MAGENTA);
-                resultLabel.setText(resultPath);
-                setAlgoState("Popped '" + exploringNode.label.getText() + "' from Queue for exploration.",
-                        DS_TITLE, qSnap, visitStr, null, null);
-            });
+        final long[] distSnap = new long[n];
+        for (int v = 0; v < n; v++) distSnap[v] = sp.dist(v);
+        final Runnable readyStep = () -> {
+            resultLabel.setText(String.format("Dynamic Dijkstra: tree ready (%d graph.nodes, %d arc scans). Edit an edge to see the repair.",
+                    full.settled, full.arcScans));
+            setAlgoState("✅ Tree ready. Click an edge, then Set Weight or Delete Edge; or click two graph.nodes to insert an edge "
+                            + "(weight from the w field, direction from the Directed box).",
+                    DS_TITLE, formatLinesPrefix(settledOrder, settledOrder.size()), full.settled + " settled",
+                    EXTRA_TITLE, formatDistances(graph, distSnap));
+            setAuxState("Dynamic Repair Log:", "(No edits yet)");
+        };
+        algorithmSteps.add(readyStep);
+        // Edits run on the FX thread: hand the tree over there, unless this trace was cancelled or replaced.
+        Platform.runLater(() -> {
+            if (algorithmSteps.isEmpty() || algorithmSteps.get(algorithmSteps.size() - 1) != readyStep) return;
+            dynamicEdges.addAll(spEdges);
+            dynamicEdgeId.putAll(spIds);
+            dynamicShownParent = shownParent;
+            dynamicPaths       = sp;
+        });
+    }
 
-            for (GraphEdge edge : current.connectedEdges) {
-                GraphNode neighbor = null;
-                if      (edge.from == current)                       neighbor = edge.to;
-                else if (!edge.isDirected && edge.to == current)     neighbor = edge.from;
+    private void clearDynamicState() {
+        if (dynamicSelectedEdge != null) dynamicSelectedEdge.line.getStrokeDashArray().clear();
+        if (dynamicFirstNode != null) dynamicFirstNode.circle.setStroke(Color.BLACK);
+        dynamicPaths = null;
+        dynamicEdges.clear();
+        dynamicEdgeId.clear();
+        dynamicLog.clear();
+        dynamicRepaired     = List.of();
+        dynamicSelectedEdge = null;
+        dynamicFirstNode    = null;
+        dynamicEdits        = 0;
+    }
 
-                if (neighbor != null && !visited.contains(neighbor)) {
-                    visited.add(neighbor);
-                    queue.add(neighbor);
+    private void updateDynamicControls() {
+        if (dynamicEditBox == null) return;
+        String algo = algoComboBox.getValue();
+        boolean show = isAlgorithmMode && algo != null && algo.startsWith("Dynamic");
+        dynamicEditBox.setVisible(show);
+        dynamicEditBox.setManaged(show);
+    }
 
-                    final GraphEdge te       = edge;
-                    final GraphNode nextNode = neighbor;
-                    final String updatedQ    = formatQueue(queue);
-                    final String vs          = String.join(" ➔ ", visitedOrder);
+    private long[] dynamicDistances() {
+        long[] d = new long[dynamicPaths.nodeCount()];
+        for (int v = 0; v < d.length; v++) d[v] = dynamicPaths.dist(v);
+        return d;
+    }
 
-                    algorithmSteps.add(() -> {
-                        te.line.setStroke(Color.ORANGE);
-                        nextNode.circle.setFill(Color.YELLOW);
-                        setAlgoState("Discovered unvisited neighbor '" + nextNode.label.getText() + "' -> Enqueuing.",
-                                DS_TITLE, updatedQ, vs, null, null);
-                    });
-                }
+    /** Algorithm-mode click: nodes start or finish an edge insert, edges are selected for reweighting or deletion. */
+    private void handleDynamicClick(double x, double y) {
+        if (traceRunner.isRecording()) { resultLabel.setText("Still recording the tree: edits start once it is ready."); return; }
+        if (condensedFrom != null) { resultLabel.setText(CONDENSED_EDIT_MESSAGE); return; }
+        if (dynamicPaths == null) {
+            resultLabel.setText("Run Dynamic Dijkstra first: edits repair its shortest-path tree.");
+            return;
+        }
+        GraphNode node = pickNode(x, y);
+        if (node != null) {
+            if (dynamicFirstNode == null) {
+                dynamicFirstNode = node;
+                node.circle.setStroke(Color.ORANGE);
+                resultLabel.setText("Insert: click the second endpoint for an edge from " + node.label.getText());
+                return;
             }
+            GraphNode first = dynamicFirstNode;
+            first.circle.setStroke(Color.BLACK);
+            dynamicFirstNode = null;
+            if (first != node) insertDynamicEdge(first, node);
+            return;
+        }
+        GraphEdge edge = pickEdge(x, y);
+        if (dynamicSelectedEdge != null) dynamicSelectedEdge.line.getStrokeDashArray().clear();
+        dynamicSelectedEdge = edge;
+        if (edge == null) { resultLabel.setText(""); return; }
+        edge.line.getStrokeDashArray().setAll(10.0, 6.0);
+        resultLabel.setText(String.format("Selected %s (weight %d%s). Enter a weight and press Set Weight, or Delete Edge.",
+                describeEdge(edge), dynamicPaths.weight(dynamicEdgeId.get(edge)),
+                dynamicPaths.treeChild(dynamicEdgeId.get(edge)) >= 0 ? ", tree edge" : ""));
+    }
 
-            final String visitStr2 = String.join(" ➔ ", visitedOrder);
-            final String finalQSnap = formatQueue(queue);
+    @FXML
+    private void applyDynamicWeight() {
+        if (traceRunner.isRecording()) return;
+        if (condensedFrom != null) { resultLabel.setText(CONDENSED_EDIT_MESSAGE); return; }
+        if (dynamicPaths == null || dynamicSelectedEdge == null) { resultLabel.setText("Select an edge first (run Dynamic Dijkstra, then click an edge)."); return; }
+        Integer w = parseDynamicWeight(null);
+        if (w == null) return;
+        GraphEdge edge = dynamicSelectedEdge;
+        int id = dynamicEdgeId.get(edge), old = dynamicPaths.weight(id);
+        if (w == old) { resultLabel.setText("The weight is already " + old + "."); return; }
+        int child = dynamicPaths.treeChild(id);
+        String effect = w < old
+                ? "Cheaper edge: nodes it now reaches more cheaply improve, and the improvement spreads outward."
+                : child >= 0 ? "Dearer tree edge: the subtree below " + nodes.get(child).label.getText() + " loses its distances and is repaired."
+                             : "Dearer non-tree edge: no shortest path uses it, so nothing changes.";
+        edge.weightText.setText(String.valueOf(w));
+        runDynamicEdit(String.format("w(%s): %d → %d", describeEdge(edge), old, w), effect, edge, false,
+                listener -> dynamicPaths.setWeight(id, w, listener));
+    }
 
-            algorithmSteps.add(() -> {
-                exploringNode.circle.setFill(Color.GREEN);
-                setAlgoState("Finished exploring '" + exploringNode.label.getText() + "'. Marked as complete.",
-                        DS_TITLE, finalQSnap, visitStr2, null, null);
-            });
+    @FXML
+    private void deleteDynamicEdge() {
+        if (traceRunner.isRecording()) return;
+        if (condensedFrom != null) { resultLabel.setText(CONDENSED_EDIT_MESSAGE); return; }
+        if (dynamicPaths == null || dynamicSelectedEdge == null) { resultLabel.setText("Select an edge first (run Dynamic Dijkstra, then click an edge)."); return; }
+        GraphEdge edge = dynamicSelectedEdge;
+        int id = dynamicEdgeId.get(edge), child = dynamicPaths.treeChild(id);
+        String effect = child >= 0
+                ? "Deleted a tree edge: the subtree below " + nodes.get(child).label.getText() + " is cut off and repaired from the rest of the tree."
+                : "Deleted a non-tree edge: no shortest path used it, so nothing changes.";
+        edge.line.getStrokeDashArray().clear();
+        dynamicSelectedEdge = null;
+        removeEdgeInternal(edge);
+        undoStack.push(new DeleteCommand(edge));
+        graphStructureChanged();
+        runDynamicEdit("delete " + describeEdge(edge), effect, edge, true, listener -> dynamicPaths.deleteEdge(id, listener));
+    }
+
+    private void insertDynamicEdge(GraphNode from, GraphNode to) {
+        boolean directed = directedCheck.isSelected();
+        if (edgeKeyIndex.contains(from.id, to.id) || (!directed && edgeKeyIndex.contains(to.id, from.id))) {
+            resultLabel.setText("There is already an edge " + from.label.getText() + " → " + to.label.getText() + ".");
+            return;
         }
+        Integer w = parseDynamicWeight(1);
+        if (w == null) return;
+        Map<GraphNode, Integer> index = indexNodes();
+        GraphEdge edge = new GraphEdge(from, to, w, directed, true);
+        restoreEdgeInternal(edge);
+        undoStack.push(new AddEdgeCommand(edge));
+        graphStructureChanged();
+        runDynamicEdit("insert " + describeEdge(edge) + " (weight " + w + ")",
+                "New edge: if it offers a shorter path to an endpoint, the improvement spreads outward; otherwise nothing changes.",
+                edge, false, listener -> {
+                    int[] id = new int[1];
+                    DynamicShortestPaths.Stats s = dynamicPaths.insertEdge(index.get(from), index.get(to), w, directed, listener, id);
+                    while (dynamicEdges.size() <= id[0]) dynamicEdges.add(null);
+                    dynamicEdges.set(id[0], edge);
+                    dynamicEdgeId.put(edge, id[0]);
+                    return s;
+                });
+    }
 
-        final String finalOrder = String.join(" ➔ ", visitedOrder);
+    /** Non-negative weight from the w field, {@code fallback} if it is blank; null (with a message) if invalid. */
+    private Integer parseDynamicWeight(Integer fallback) {
+        String text = dynamicWeightField.getText().trim();
+        if (text.isEmpty() && fallback != null) return fallback;
+        try {
+            int w = Integer.parseInt(text);
+            if (w >= 0) return w;
+        } catch (NumberFormatException ignored) {}
+        resultLabel.setText("Enter a non-negative whole number in the w field: Dijkstra needs non-negative weights.");
+        return null;
+    }
+
+    private String describeEdge(GraphEdge e) {
+        return e.from.label.getText() + (e.isDirected ? " → " : " ─ ") + e.to.label.getText();
+    }
+
+    /**
+     * Applies one edit through {@code edit} and appends its repair steps:
+     * the edit itself, the invalidated subtree, one step per re-settled node,
+     * newly unreachable nodes and a summary against a full recompute.
+     */
+    private void runDynamicEdit(String title, String effect, GraphEdge edited, boolean removed,
+                                java.util.function.Function<DynamicShortestPaths.Listener, DynamicShortestPaths.Stats> edit) {
+        final String DS_TITLE    = "Repair (" + title + "):";
+        final String EXTRA_TITLE = "Distance Map:";
+        if (timeline != null) { timeline.pause(); playPauseButton.setText("▶ Play"); }
+        while (currentStep < algorithmSteps.size()) algorithmSteps.get(currentStep++).run();
+
+        final List<GraphNode> previous = dynamicRepaired;
+        final int editNo = ++dynamicEdits;
+        final GraphSnapshot graph = new GraphSnapshot();
         algorithmSteps.add(() -> {
-            resultLabel.setText("BFS Complete! Order: " + finalOrder);
-            setAlgoState("✅ BFS Traversal Complete!", DS_TITLE, formatQueue(queue), finalOrder, null, null);
+            for (GraphNode node : previous) if (node.circle.getFill() == Color.GOLD) node.circle.setFill(Color.LIGHTGREEN);
+            if (!removed) { edited.line.setStroke(Color.ORANGE); edited.line.setStrokeWidth(6); }
+            resultLabel.setText("Edit #" + editNo + ": " + title);
+            setAlgoState(effect, DS_TITLE, "(Applying the edit)", "", null, null);
+        });
+
+        List<GraphNode> invalidated = new ArrayList<>(), repaired = new ArrayList<>();
+        List<String> repairOrder = new ArrayList<>();
+        DynamicShortestPaths.Stats stats = edit.apply(new DynamicShortestPaths.Listener() {
+            @Override public void invalidated(int[] ids, int count) {
+                List<GraphNode> cut = new ArrayList<>(count);
+                List<GraphEdge> lost = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int v = ids[i];
+                    cut.add(nodes.get(v));
+                    if (dynamicShownParent[v] >= 0) lost.add(dynamicEdges.get(dynamicShownParent[v]));
+                    dynamicShownParent[v] = -1;
+                }
+                invalidated.addAll(cut);
+                final String names = formatLinesPrefix(cut.stream().map(g -> g.label.getText()).toList(), cut.size());
+                algorithmSteps.add(() -> {
+                    for (GraphEdge e : lost) if (e != edited || !removed) { e.line.setStroke(Color.BLACK); e.line.setStrokeWidth(3); }
+                    for (GraphNode node : cut) { node.circle.setFill(Color.ORANGE); node.distLabel.setText("?"); node.distLabel.setFill(Color.DARKRED); }
+                    resultLabel.setText(String.format("Edit #%d: %d node%s lost their shortest path", editNo, cut.size(), cut.size() == 1 ? "" : "s"));
+                    setAlgoState("Orange: the subtree below the changed tree edge. Each node is re-seeded from its cheapest edge "
+                            + "out of the intact part of the tree, then Dijkstra runs on the subtree only.", DS_TITLE, names,
+                            cut.size() + " invalidated", null, null);
+                });
+            }
+
+            @Override public void settled(int v, long dist, int parentEdge) {
+                GraphNode node = nodes.get(v);
+                repaired.add(node);
+                repairOrder.add(node.label.getText() + " = " + dist);
+                final GraphEdge oldTree = dynamicShownParent[v] >= 0 ? dynamicEdges.get(dynamicShownParent[v]) : null;
+                final GraphEdge newTree = parentEdge >= 0 ? dynamicEdges.get(parentEdge) : null;
+                dynamicShownParent[v] = parentEdge;
+                final String order = formatLinesPrefix(repairOrder, repairOrder.size());
+                final int    count = repairOrder.size();
+                algorithmSteps.add(() -> {
+                    if (oldTree != null && oldTree != newTree && (oldTree != edited || !removed)) {
+                        oldTree.line.setStroke(Color.BLACK); oldTree.line.setStrokeWidth(3);
+                    }
+                    if (newTree != null) { newTree.line.setStroke(Color.GREEN); newTree.line.setStrokeWidth(5); }
+                    node.circle.setFill(Color.GOLD);
+                    node.distLabel.setText(String.valueOf(dist)); node.distLabel.setFill(Color.DARKGREEN);
+                    resultLabel.setText("Edit #" + editNo + ": repaired " + node.label.getText() + " → distance " + dist);
+                    setAlgoState("Gold: settled again during the repair. Only nodes whose distance can change are visited.",
+                            DS_TITLE, order, count + " repaired", null, null);
+                });
+            }
         });
+
+        List<GraphNode> unreachable = new ArrayList<>();
+        Map<GraphNode, Integer> index = graph.index;
+        for (GraphNode node : invalidated) if (dynamicPaths.dist(index.get(node)) == DynamicShortestPaths.INF) unreachable.add(node);
+        dynamicRepaired = repaired;
+
+        DynamicShortestPaths.Stats full = dynamicPaths.recomputeFromScratch();
+        dynamicLog.add(String.format("#%d %s: %d / %d nodes, %,d / %,d arcs",
+                editNo, title, stats.touched, full.touched, stats.arcScans, full.arcScans));
+        final String counter = String.format("Repair touched %d node%s (%d invalidated, %d re-settled), %,d arc scans, %.3f ms.%n"
+                        + "A full recompute settles %d nodes with %,d arc scans, %.3f ms.%n%s",
+                stats.touched, stats.touched == 1 ? "" : "s", stats.invalidated, stats.settled, stats.arcScans, stats.nanos / 1e6,
+                full.touched, full.arcScans, full.nanos / 1e6,
+                full.mismatches == 0 ? "✓ Same distances as the full recompute." : "⚠ " + full.mismatches + " distances differ from the full recompute!");
+        final boolean treeEdge = !removed && dynamicPaths.treeChild(dynamicEdgeId.get(edited)) >= 0;
+        final long[]  distSnap = dynamicDistances();
+        final String  log      = "touched / full recompute\n" + formatLinesPrefix(dynamicLog, dynamicLog.size());
+        algorithmSteps.add(() -> {
+            for (GraphNode node : unreachable) { node.circle.setFill(Color.LIGHTGRAY); node.distLabel.setText("∞"); }
+            if (!removed) { edited.line.setStroke(treeEdge ? Color.GREEN : Color.BLACK); edited.line.setStrokeWidth(treeEdge ? 5 : 3); }
+            resultLabel.setText(String.format("Edit #%d repaired: %d node%s touched vs %d for a full recompute%s", editNo,
+                    stats.touched, stats.touched == 1 ? "" : "s", full.touched,
+                    unreachable.isEmpty() ? "" : " (" + unreachable.size() + " now unreachable)"));
+            setAlgoState("✅ " + counter, DS_TITLE, "(Done)", stats.touched + " touched / " + full.touched + " full",
+                    EXTRA_TITLE, formatDistances(graph, distSnap));
+            setAuxState("Dynamic Repair Log:", log);
+        });
+
+        if (timeline == null) setupTimeline();
+        timeline.play();
+        playPauseButton.setText("⏸ Pause");
     }
 
     // ─────────────────────────────────────────────
-    // DFS
+    // Dijkstra / Prim on an indexed d-ary heap
     // ─────────────────────────────────────────────
-    private void recordDFS(GraphNode startNode) {
-        final String DS_TITLE = "Recursion Call Stack:";
-        Set<GraphNode> visited     = new HashSet<>();
-        List<String>   visitedOrder = new ArrayList<>();
-        List<String>   callStack   = new ArrayList<>();
+    private static final int HEAP_ARITY = 4;
 
-        dfsHelper(startNode, null, visited, visitedOrder, callStack, DS_TITLE);
+    private void recordDijkstraIndexed(GraphSnapshot graph, GraphNode startNode, GraphNode endNode) {
+        final String DS_TITLE    = "Indexed " + HEAP_ARITY + "-ary Heap (slot: node = dist):";
+        final String EXTRA_TITLE = "Distance Map:";
 
-        final String finalOrder = String.join(" ➔ ", visitedOrder);
+        Map<GraphNode, Integer> index = graph.index;
+        CsrGraph g = graph.csr;
+        int n = g.n, s = index.get(startNode), target = endNode != null ? index.get(endNode) : -1;
+        long[]    dist       = new long[n];
+        int[]     parentEdge = new int[n];
+        boolean[] settled    = new boolean[n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        Arrays.fill(parentEdge, -1);
+        List<String> settledOrder = new ArrayList<>();
+
+        IndexedHeap heap = new IndexedHeap(n, HEAP_ARITY);
+        List<String> siftLog = new ArrayList<>();
+        heap.setListener((id, from, to) -> siftLog.add(graph.label(graph.nodes.get(id)) + " " + from + "→" + to));
+
+        dist[s] = 0;
+        heap.insert(s, 0);
+        final String heap0 = formatHeap(graph, heap), dist0 = formatDistances(graph, dist);
         algorithmSteps.add(() -> {
-            resultLabel.setText("DFS Complete! Order: " + finalOrder);
-            setAlgoState("✅ DFS Traversal Complete!", DS_TITLE, formatStack(new ArrayList<>()), finalOrder, null, null);
+            for (GraphNode node : graph.nodes) node.distLabel.setVisible(true);
+            startNode.circle.setFill(Color.YELLOW);
+            startNode.distLabel.setText("0"); startNode.distLabel.setFill(Color.GREEN);
+            resultLabel.setText("Dijkstra (indexed heap): Starting at " + graph.label(startNode));
+            setAlgoState("insert(" + graph.label(startNode) + ", 0). Every node gets at most one heap slot.",
+                    DS_TITLE, heap0, "(None settled)", EXTRA_TITLE, dist0);
         });
-    }
 
-    private void dfsHelper(GraphNode current, GraphEdge edgeToReach,
-                           Set<GraphNode> visited, List<String> visitedOrder,
-                           List<String> callStack, String dsTitle) {
-        visited.add(current);
-        callStack.add(current.label.getText());
-        visitedOrder.add(current.label.getText());
+        while (!heap.isEmpty()) {
+            siftLog.clear();
+            int u = heap.pollMin();
+            settled[u] = true;
+            settledOrder.add(graph.label(graph.nodes.get(u)));
+
+            final GraphNode exploringNode = graph.nodes.get(u);
+            final long      currDist      = dist[u];
+            final String    siftText      = describeSift("extract-min → " + graph.label(exploringNode), siftLog, "sift-down");
+            final String    heap1 = formatHeap(graph, heap), dist1 = formatDistances(graph, dist);
+            final int       settledCount  = settledOrder.size();
+            algorithmSteps.add(() -> {
+                if (exploringNode != startNode) exploringNode.circle.setFill(Color.MAGENTA);
+                exploringNode.distLabel.setFill(Color.DARKBLUE);
+                resultLabel.setText("Dijkstra: Locking in " + graph.label(exploringNode) + " at optimal distance: " + currDist);
+                setAlgoState(siftText, DS_TITLE, heap1, formatOrderPrefix(settledOrder, settledCount), EXTRA_TITLE, dist1);
+            });
+
+            if (u == target) break;
+
+            for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                int v = g.target[a];
+                long nd = currDist + g.weight[a];
+                if (settled[v] || nd >= dist[v]) continue;
+                dist[v] = nd;
+                parentEdge[v] = g.edge[a];
+                siftLog.clear();
+                boolean decrease = heap.contains(v);
+                if (decrease) heap.decreaseKey(v, nd); else heap.insert(v, nd);
+
+                final GraphNode nb    = graph.nodes.get(v);
+                final GraphEdge te    = graph.edges.get(g.edge[a]);
+                final long      ndist = nd;
+                final String    op    = (decrease ? "decrease-key(" : "insert(") + graph.label(nb) + ", " + nd + ")";
+                final String    text  = describeSift(op, siftLog, "sift-up");
+                final String    heap2 = formatHeap(graph, heap), dist2 = formatDistances(graph, dist);
+                algorithmSteps.add(() -> {
+                    te.line.setStroke(Color.ORANGE);
+                    if (nb != startNode) nb.circle.setFill(Color.YELLOW);
+                    nb.distLabel.setText(String.valueOf(ndist)); nb.distLabel.setFill(Color.DARKRED);
+                    resultLabel.setText("Dijkstra: Relaxed " + graph.label(nb) + " → dist = " + ndist);
+                    setAlgoState(text, DS_TITLE, heap2, formatOrderPrefix(settledOrder, settledCount), EXTRA_TITLE, dist2);
+                });
+            }
 
-        final List<String> stackSnap = new ArrayList<>(callStack);
-        final String stackStr  = formatStack(stackSnap);
-        final String visitStr  = String.join(" ➔ ", visitedOrder);
-        final String resultPath = "Traversal Order: " + visitStr;
-        final GraphNode cn = current;
+            final String heap3 = formatHeap(graph, heap), dist3 = formatDistances(graph, dist);
+            algorithmSteps.add(() -> {
+                if (exploringNode != startNode && exploringNode != endNode) {
+                    exploringNode.circle.setFill(Color.LIGHTGREEN);
+                    exploringNode.distLabel.setFill(Color.DARKGREEN);
+                }
+                setAlgoState("✓ Fully evaluated node '" + graph.label(exploringNode) + "'.",
+                        DS_TITLE, heap3, formatOrderPrefix(settledOrder, settledCount), EXTRA_TITLE, dist3);
+            });
+        }
 
-        if (edgeToReach != null) {
-            final GraphEdge te = edgeToReach;
+        final String comparison = compareHeapEngines(
+                HeapEngines.dijkstraIndexed(g, s, HEAP_ARITY), HeapEngines.dijkstraLazy(g, s));
+        final int    settledTotal = settledOrder.size();
+        if (target >= 0 && dist[target] != Long.MAX_VALUE) {
+            final long finalDist = dist[target];
             algorithmSteps.add(() -> {
-                te.line.setStroke(Color.ORANGE);
-                cn.circle.setFill(Color.YELLOW);
-                resultLabel.setText(resultPath);
-                setAlgoState("Traversing deep into node '" + cn.label.getText() + "' (Push to Stack).",
-                        dsTitle, stackStr, visitStr, null, null);
+                resultLabel.setText("Dijkstra: Shortest path found! Total dist = " + finalDist);
+                setAlgoState("Target Reached! Tracing shortest path backward...", DS_TITLE, "(Done)",
+                        formatOrderPrefix(settledOrder, settledTotal), "Heap Engine Comparison (full run):", comparison);
             });
+            List<Runnable> path = new ArrayList<>();
+            for (int v = target; v != s && parentEdge[v] >= 0; ) {
+                final GraphEdge pe = graph.edges.get(parentEdge[v]); final GraphNode pn = graph.nodes.get(v);
+                path.add(() -> { pe.line.setStroke(Color.GREEN); pe.line.setStrokeWidth(5);
+                    pn.circle.setFill(Color.GREEN); pn.distLabel.setFill(Color.WHITE); });
+                v = index.get(pe.to) == v ? index.get(pe.from) : index.get(pe.to);
+            }
+            Collections.reverse(path);
+            algorithmSteps.addAll(path);
+            algorithmSteps.add(() -> { startNode.circle.setFill(Color.GREEN); startNode.distLabel.setFill(Color.WHITE); });
         } else {
+            final String message = target >= 0 ? "Dijkstra: Target " + graph.label(endNode) + " is unreachable!"
+                                                : "Dijkstra: Shortest path tree computed for all graph.nodes.";
             algorithmSteps.add(() -> {
-                cn.circle.setFill(Color.YELLOW);
-                resultLabel.setText(resultPath);
-                setAlgoState("Starting DFS at node '" + cn.label.getText() + "' (Push to Stack).",
-                        dsTitle, stackStr, visitStr, null, null);
+                resultLabel.setText(message);
+                setAlgoState("All reachable graph.nodes settled.", DS_TITLE, "(Empty)",
+                        formatOrderPrefix(settledOrder, settledTotal), "Heap Engine Comparison (full run):", comparison);
             });
         }
+    }
 
-        final GraphNode exploringNode = current;
+    private void recordPrimIndexed(GraphSnapshot graph, GraphNode startNode) {
+        final String DS_TITLE    = "Indexed " + HEAP_ARITY + "-ary Heap (slot: node = key):";
+        final String EXTRA_TITLE = "MST Edges Chosen:";
+
+        Map<GraphNode, Integer> index = graph.index;
+        CsrGraph g = graph.csr;
+        int n = g.n, s = index.get(startNode);
+        int[]     bestEdge = new int[n];
+        boolean[] inTree   = new boolean[n];
+        Arrays.fill(bestEdge, -1);
+        List<String> mstEdges = new ArrayList<>(), treeOrder = new ArrayList<>();
+        long total = 0;
+
+        IndexedHeap heap = new IndexedHeap(n, HEAP_ARITY);
+        List<String> siftLog = new ArrayList<>();
+        heap.setListener((id, from, to) -> siftLog.add(graph.label(graph.nodes.get(id)) + " " + from + "→" + to));
+        heap.insert(s, 0);
+
+        final String heap0 = formatHeap(graph, heap);
         algorithmSteps.add(() -> {
-            exploringNode.circle.setFill(Color.MAGENTA);
-            setAlgoState("Checking neighbors of '" + exploringNode.label.getText() + "'...",
-                    dsTitle, stackStr, visitStr, null, null);
+            startNode.circle.setFill(Color.YELLOW);
+            resultLabel.setText("Prim's MST (indexed heap): Started at " + graph.label(startNode));
+            setAlgoState("insert(" + graph.label(startNode) + ", 0). Heap keys are the cheapest known connection to the tree.",
+                    DS_TITLE, heap0, "(None)", EXTRA_TITLE, "(None)");
         });
 
-        for (GraphEdge edge : current.connectedEdges) {
-            GraphNode neighbor = null;
-            if      (edge.from == current)                    neighbor = edge.to;
-            else if (!edge.isDirected && edge.to == current) neighbor = edge.from;
-            if (neighbor != null && !visited.contains(neighbor))
-                dfsHelper(neighbor, edge, visited, visitedOrder, callStack, dsTitle);
-        }
+        while (!heap.isEmpty()) {
+            siftLog.clear();
+            int u = heap.pollMin();
+            inTree[u] = true;
+            treeOrder.add(graph.label(graph.nodes.get(u)));
+            final GraphNode nextNode = graph.nodes.get(u);
+            final GraphEdge mstEdge  = bestEdge[u] >= 0 ? graph.edges.get(bestEdge[u]) : null;
+            if (mstEdge != null) {
+                int w = (int) heap.key(u);
+                total += w;
+                mstEdges.add("  " + graph.label(mstEdge.from) + " ─ " + graph.label(mstEdge.to) + "  (Weight: " + w + ")");
+            }
+            final long   currTotal = total;
+            final String text  = describeSift("extract-min → " + graph.label(nextNode), siftLog, "sift-down");
+            final String heap1 = formatHeap(graph, heap), mst1 = formatMSTEdges(mstEdges, (int) currTotal);
+            final int    treeCount = treeOrder.size();
+            algorithmSteps.add(() -> {
+                if (mstEdge != null) { mstEdge.line.setStroke(Color.ORANGE); mstEdge.line.setStrokeWidth(5); }
+                nextNode.circle.setFill(Color.YELLOW);
+                resultLabel.setText("Prim's MST - Total Weight: " + currTotal);
+                setAlgoState(text, DS_TITLE, heap1, formatOrderPrefix(treeOrder, treeCount), EXTRA_TITLE, mst1);
+            });
 
-        callStack.remove(callStack.size() - 1);
-        final List<String> poppedStack   = new ArrayList<>(callStack);
-        final String       poppedStr     = formatStack(poppedStack);
-        final String       visitStr2     = String.join(" ➔ ", visitedOrder);
-        final GraphNode    finishedNode  = current;
+            for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                int v = g.target[a];
+                if (inTree[v]) continue;
+                boolean present = heap.contains(v);
+                if (present && g.weight[a] >= heap.key(v)) continue;
+                siftLog.clear();
+                final GraphEdge replaced = present ? graph.edges.get(bestEdge[v]) : null;
+                if (present) heap.decreaseKey(v, g.weight[a]); else heap.insert(v, g.weight[a]);
+                bestEdge[v] = g.edge[a];
+
+                final GraphEdge candidate = graph.edges.get(g.edge[a]);
+                final String op    = (present ? "decrease-key(" : "insert(") + graph.label(graph.nodes.get(v)) + ", " + g.weight[a] + ")";
+                final String text2 = describeSift(op, siftLog, "sift-up");
+                final String heap2 = formatHeap(graph, heap);
+                algorithmSteps.add(() -> {
+                    if (replaced != null) { replaced.line.setStroke(Color.BLACK); replaced.line.setStrokeWidth(3); }
+                    candidate.line.setStroke(Color.GOLD);
+                    setAlgoState(text2, DS_TITLE, heap2, formatOrderPrefix(treeOrder, treeCount), EXTRA_TITLE, mst1);
+                });
+            }
+        }
 
+        final long   finalTotal = total;
+        final String finalMST   = formatMSTEdges(mstEdges, (int) finalTotal);
+        final String comparison = compareHeapEngines(
+                HeapEngines.primIndexed(g, s, HEAP_ARITY), HeapEngines.primLazy(g, s));
+        final int    treeTotal  = treeOrder.size();
+        final List<GraphNode> treeNodes = new ArrayList<>();
+        for (int i = 0; i < n; i++) if (inTree[i]) treeNodes.add(graph.nodes.get(i));
         algorithmSteps.add(() -> {
-            finishedNode.circle.setFill(Color.GREEN);
-            setAlgoState("No unvisited neighbors left for '" + finishedNode.label.getText() + "'. Backtracking (Pop from Stack).",
-                    dsTitle, poppedStr, visitStr2, null, null);
+            for (GraphEdge e : graph.edges)
+                if (Color.GOLD.equals(e.line.getStroke())) { e.line.setStroke(Color.BLACK); e.line.setStrokeWidth(3); }
+            for (GraphNode node : treeNodes) node.circle.setFill(Color.GREEN);
+            resultLabel.setText("Prim's MST Complete! Total Weight: " + finalTotal);
+            setAlgoState("✅ All graph.nodes connected! Prim's MST Complete.", EXTRA_TITLE, finalMST,
+                    formatOrderPrefix(treeOrder, treeTotal), "Heap Engine Comparison (full run):", comparison);
         });
     }
 
+    /**
+     * The canvas graph copied on the FX thread for a trace recorder, which
+     * runs on a worker thread and reads nothing else: labels, weights,
+     * adjacency and the unsampled graph are plain values taken here, so
+     * editing, clearing or rebuilding the canvas mid-recording cannot race
+     * with it. Node i is {@code nodes.get(i)} and edge e is
+     * {@code edges.get(e)}; the recorder only hands those on to its steps,
+     * which paint them on the FX thread. Edge endpoints and flags are final.
+     */
+    private final class GraphSnapshot {
+        final List<GraphNode>         nodes;
+        final List<GraphEdge>         edges;
+        final Map<GraphNode, Integer> index;
+        final CsrGraph                csr;
+        final GraphData               full;          // unsampled graph behind the canvas, or null
+        private final String[]              labels;
+        private final int[]                 weights;
+        private final Map<GraphEdge, Integer> edgeIndex = new HashMap<>();
+        private final List<List<GraphEdge>>  incident  = new ArrayList<>();
+
+        GraphSnapshot() {
+            nodes   = List.copyOf(graphController.this.nodes);
+            edges   = List.copyOf(graphController.this.edges);
+            index   = indexNodes();
+            csr     = buildCsr(index);
+            full    = fullGraphData;
+            labels  = new String[nodes.size()];
+            weights = new int[edges.size()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = nodes.get(i).label.getText();
+                incident.add(List.copyOf(nodes.get(i).connectedEdges));
+            }
+            for (int e = 0; e < weights.length; e++) { weights[e] = parseWeight(edges.get(e)); edgeIndex.put(edges.get(e), e); }
+        }
+
+        String          label(GraphNode v)    { return labels[index.get(v)]; }
+        List<GraphEdge> incident(GraphNode v) { return incident.get(index.get(v)); }
+        int             weight(GraphEdge e)   { return weights[edgeIndex.get(e)]; }
+    }
+
+    private Map<GraphNode, Integer> indexNodes() {
+        Map<GraphNode, Integer> index = new HashMap<>();
+        for (int i = 0; i < nodes.size(); i++) index.put(nodes.get(i), i);
+        return index;
+    }
+
+    /** CSR view of the canvas graph: node i is {@code nodes.get(i)}, arc edge ids index {@code edges}. */
+    private CsrGraph buildCsr(Map<GraphNode, Integer> index) {
+        int m = edges.size();
+        int[] src = new int[m], dst = new int[m], w = new int[m];
+        boolean[] directed = new boolean[m];
+        for (int e = 0; e < m; e++) {
+            GraphEdge edge = edges.get(e);
+            src[e] = index.get(edge.from); dst[e] = index.get(edge.to);
+            w[e] = parseWeight(edge); directed[e] = edge.isDirected;
+        }
+        return CsrGraph.of(nodes.size(), src, dst, w, directed);
+    }
+
+    private String formatHeap(GraphSnapshot graph, IndexedHeap heap) {
+        if (heap.isEmpty()) return "(Empty)";
+        StringBuilder sb = new StringBuilder();
+        int slot = 0, width = 1, level = 0, limit = Math.min(heap.size(), 1 + HEAP_ARITY + HEAP_ARITY * HEAP_ARITY);
+        while (slot < limit) {
+            sb.append("L").append(level).append(":");
+            for (int i = 0; i < width && slot < limit; i++, slot++) {
+                int id = heap.idAt(slot);
+                sb.append(" [").append(slot).append("] ").append(graph.label(graph.nodes.get(id))).append('=').append(heap.key(id));
+            }
+            sb.append('\n');
+            width *= HEAP_ARITY; level++;
+        }
+        if (heap.size() > limit) sb.append("  … ").append(heap.size() - limit).append(" deeper entries");
+        return sb.toString().trim();
+    }
+
+    private String describeSift(String op, List<String> siftLog, String direction) {
+        if (siftLog.isEmpty()) return op + ": already in heap order, no moves.";
+        return op + ": " + direction + " " + String.join(", ", siftLog) + " (" + siftLog.size() + " move"
+                + (siftLog.size() == 1 ? "" : "s") + ").";
+    }
+
+    private String formatDistances(GraphSnapshot graph, long[] dist) {
+        StringBuilder sb = new StringBuilder("Node | Distance\n");
+        sb.append("─────┼──────────\n");
+        for (int i = 0; i < graph.nodes.size() && i < PANEL_ITEM_LIMIT; i++)
+            sb.append(String.format("  %-2s | %s%n", graph.label(graph.nodes.get(i)),
+                    dist[i] == Long.MAX_VALUE ? "∞" : String.valueOf(dist[i])));
+        if (graph.nodes.size() > PANEL_ITEM_LIMIT) sb.append("  … ").append(graph.nodes.size() - PANEL_ITEM_LIMIT).append(" more");
+        return sb.toString().trim();
+    }
+
+    private String compareHeapEngines(HeapEngines.Stats indexed, HeapEngines.Stats lazy) {
+        return String.format("Indexed %d-ary heap:%n  %d insert, %d decrease-key, %d pop%n  0 stale pops, peak size %d%n  %d sift moves, %.3f ms%n"
+                        + "Lazy PriorityQueue:%n  %d push, %d pop%n  %d stale pops, peak size %d%n  %.3f ms%n"
+                        + "Queue operations: %d vs %d",
+                HEAP_ARITY, indexed.pushes, indexed.decreaseKeys, indexed.pops, indexed.maxQueue, indexed.siftMoves, indexed.nanos / 1e6,
+                lazy.pushes, lazy.pops, lazy.stalePops, lazy.maxQueue, lazy.nanos / 1e6,
+                indexed.queueOperations(), lazy.queueOperations());
+    }
+
     // ─────────────────────────────────────────────
-    // Prim's MST
+    // Bellman–Ford / SPFA (negative weights allowed)
     // ─────────────────────────────────────────────
-    private void recordPrim(GraphNode startNode) {
-        final String DS_TITLE    = "Candidate Edges (Min-Heap):";
-        final String EXTRA_TITLE = "MST Edges Chosen:";
+    private static final int QUEUE_PANEL_LIMIT = 12;
 
-        Set<GraphNode>        visited  = new HashSet<>();
-        PriorityQueue<GraphEdge> pq    = new PriorityQueue<>(Comparator.comparingInt(this::parseWeight));
-        List<String>          mstEdges = new ArrayList<>();
-        int[]                 totalW   = {0};
+    private void recordBellmanFord(GraphSnapshot graph, GraphNode startNode, GraphNode endNode, boolean queueBased) {
+        final String NAME        = queueBased ? "SPFA" : "Bellman–Ford";
+        final String DS_TITLE    = queueBased ? "FIFO Queue (Front → Back):" : "Round Progress:";
+        final String EXTRA_TITLE = "Distance Map:";
+        final String AUX_TITLE   = "Relaxations per Round:";
 
-        visited.add(startNode);
-        for (GraphEdge e : startNode.connectedEdges) pq.add(e);
+        Map<GraphNode, Integer> index = graph.index;
+        CsrGraph g = graph.csr;
+        int n = g.n, s = index.get(startNode), target = endNode != null ? index.get(endNode) : -1;
+
+        // Steps replay in order (also when stepping back), so they share one distance array they update as they run.
+        long[] shownDist = new long[n];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();      // mirror of the SPFA queue for the panel
+        List<String> relaxedOrder = new ArrayList<>();       // every relaxed node label, append-only
+        List<String> roundLines   = new ArrayList<>();
+        int[] roundStart = {0};
 
-        final String initPQ  = formatEdgePQ(pq);
-        final String initMST = "(None)";
         algorithmSteps.add(() -> {
+            Arrays.fill(shownDist, Long.MAX_VALUE);
+            shownDist[s] = 0;
+            for (GraphNode node : graph.nodes) node.distLabel.setVisible(true);
             startNode.circle.setFill(Color.YELLOW);
-            resultLabel.setText("Prim's MST: Started at " + startNode.label.getText());
-            setAlgoState("Initialized Prim's at '" + startNode.label.getText() + "'. Added adjacent edges to PQ.",
-                    DS_TITLE, initPQ, startNode.label.getText(), EXTRA_TITLE, initMST);
+            startNode.distLabel.setText("0"); startNode.distLabel.setFill(Color.GREEN);
+            resultLabel.setText(NAME + ": Starting at " + graph.label(startNode));
+            setAlgoState("Set starting node distance to 0. All other graph.nodes are ∞. Negative weights are allowed.",
+                    DS_TITLE, queueBased ? "  " + graph.label(startNode) : "Round 0", "(None)",
+                    EXTRA_TITLE, formatDistances(graph, shownDist));
+            setAuxState(AUX_TITLE, "Round | Scanned | Relaxed");
         });
 
-        while (!pq.isEmpty() && visited.size() < nodes.size()) {
-            GraphEdge minEdge = pq.poll();
+        BellmanFord.Listener recorder = new BellmanFord.Listener() {
+            int round;
 
-            GraphNode unvisited = null;
-            if      (visited.contains(minEdge.from) && !visited.contains(minEdge.to))   unvisited = minEdge.to;
-            else if (!minEdge.isDirected && visited.contains(minEdge.to)
-                    && !visited.contains(minEdge.from))                                  unvisited = minEdge.from;
+            /** Classic rounds: position in the V−1 bound; {@code scans} is shown once the round is over. */
+            String dsText(long scans) {
+                if (queueBased) return formatQueueMirror(graph, queue);
+                return "Round " + round + " of at most " + Math.max(1, n - 1)
+                        + "\nArcs scanned per round: up to " + g.arcCount()
+                        + (scans >= 0 ? "\nScanned this round: " + scans : "");
+            }
 
-            if (unvisited != null) {
-                visited.add(unvisited);
-                int w = parseWeight(minEdge);
-                totalW[0] += w;
-                mstEdges.add("  " + minEdge.from.label.getText() + " ─ " + minEdge.to.label.getText()
-                        + "  (Weight: " + w + ")");
+            @Override public void roundStarted(int r) {
+                round = r;
+                roundStart[0] = relaxedOrder.size();
+                final String ds = dsText(-1), text = queueBased
+                        ? "Round " + r + ": process the " + queue.size() + " node(s) queued by the previous round."
+                        : "Round " + r + ": relax every arc leaving a reachable node.";
+                final int lines = roundLines.size();
+                algorithmSteps.add(() -> {
+                    resultLabel.setText(NAME + ": Round " + r);
+                    setAlgoState(text, DS_TITLE, ds, "(None yet this round)", EXTRA_TITLE, formatDistances(graph, shownDist));
+                    setAuxState(AUX_TITLE, formatRoundLines(roundLines, lines));
+                });
+            }
 
-                for (GraphEdge e : unvisited.connectedEdges) {
-                    GraphNode nb = (e.from == unvisited) ? e.to
-                            : (!e.isDirected && e.to == unvisited) ? e.from : null;
-                    if (nb != null && !visited.contains(nb)) pq.add(e);
-                }
+            @Override public void enqueued(int v) { queue.addLast(v); }
 
-                final GraphNode   nextNode    = unvisited;
-                final GraphEdge   mstEdge     = minEdge;
-                final int         currTotal   = totalW[0];
-                final String      pqSnap      = formatEdgePQ(pq);
-                final String      visitSnap   = String.join(", ", visited.stream().map(n -> n.label.getText()).toList());
-                final String      mstSnap     = formatMSTEdges(mstEdges, currTotal);
+            @Override public void dequeued(int u) {
+                queue.pollFirst();
+                final GraphNode node = graph.nodes.get(u);
+                final String ds = formatQueueMirror(graph, queue);
+                final int from = roundStart[0], to = relaxedOrder.size(), lines = roundLines.size();
+                algorithmSteps.add(() -> {
+                    if (node != startNode) node.circle.setFill(Color.MAGENTA);
+                    setAlgoState("Dequeued '" + graph.label(node) + "'. Relaxing its outgoing arcs…", DS_TITLE, ds,
+                            formatRelaxedRange(relaxedOrder, from, to), EXTRA_TITLE, formatDistances(graph, shownDist));
+                    setAuxState(AUX_TITLE, formatRoundLines(roundLines, lines));
+                });
+            }
 
+            @Override public void relaxed(int u, int v, int edge, long d) {
+                relaxedOrder.add(graph.label(graph.nodes.get(v)));
+                final GraphNode nb = graph.nodes.get(v), from = graph.nodes.get(u);
+                final GraphEdge te = graph.edges.get(edge);
+                final int       r  = round, lo = roundStart[0], hi = relaxedOrder.size(), lines = roundLines.size();
+                // SPFA queues v right after this event; show the queue as it will be.
+                final String ds = queueBased ? formatQueueMirror(graph, queue, v) : dsText(-1);
                 algorithmSteps.add(() -> {
-                    mstEdge.line.setStroke(Color.ORANGE); mstEdge.line.setStrokeWidth(5);
-                    nextNode.circle.setFill(Color.YELLOW);
-                    resultLabel.setText("Prim's MST - Total Weight: " + currTotal);
-                    setAlgoState("Extracted minimum edge connecting to '" + nextNode.label.getText() + "'.",
-                            DS_TITLE, pqSnap, visitSnap, EXTRA_TITLE, mstSnap);
+                    shownDist[v] = d;
+                    te.line.setStroke(Color.ORANGE);
+                    if (nb != startNode) nb.circle.setFill(Color.YELLOW);
+                    nb.distLabel.setText(String.valueOf(d)); nb.distLabel.setFill(d < 0 ? Color.PURPLE : Color.DARKRED);
+                    resultLabel.setText(NAME + " (round " + r + "): Relaxed " + graph.label(nb) + " → dist = " + d);
+                    setAlgoState("Relaxation! " + graph.label(from) + " → " + graph.label(nb)
+                                    + " (w = " + graph.weight(te) + ") gives a shorter distance: " + d + ".",
+                            DS_TITLE, ds, formatRelaxedRange(relaxedOrder, lo, hi), EXTRA_TITLE, formatDistances(graph, shownDist));
+                    setAuxState(AUX_TITLE, formatRoundLines(roundLines, lines));
                 });
             }
+
+            @Override public void roundFinished(int r, long scans, long relaxed) {
+                roundLines.add(String.format("%5d | %7d | %7d", r, scans, relaxed));
+                final int lines = roundLines.size(), lo = roundStart[0], hi = relaxedOrder.size();
+                final String ds = queueBased ? formatQueueMirror(graph, queue) : dsText(scans);
+                final String text = relaxed == 0
+                        ? "Round " + r + " changed nothing → every distance is final. Stopping early."
+                        : "Round " + r + " done: scanned " + scans + " arcs, lowered " + relaxed + " distance(s).";
+                algorithmSteps.add(() -> {
+                    setAlgoState(text, DS_TITLE, ds, formatRelaxedRange(relaxedOrder, lo, hi),
+                            EXTRA_TITLE, formatDistances(graph, shownDist));
+                    setAuxState(AUX_TITLE, formatRoundLines(roundLines, lines));
+                });
+            }
+        };
+
+        BellmanFord.Result result = queueBased ? BellmanFord.spfa(g, s, recorder) : BellmanFord.classic(g, s, recorder);
+        final String comparison = compareShortestPathEngines(g, s, result);
+        final int    lines      = roundLines.size();
+
+        if (result.hasNegativeCycle()) {
+            int[] cycle = result.cycle, cycleEdges = result.cycleEdges;
+            long weight = 0;
+            StringBuilder walk = new StringBuilder();
+            for (int i = 0; i < cycle.length; i++) {
+                weight += graph.weight(graph.edges.get(cycleEdges[i]));
+                walk.append(graph.label(graph.nodes.get(cycle[i]))).append(" → ");
+            }
+            walk.append(graph.label(graph.nodes.get(cycle[0])));
+            boolean singleEdge = cycle.length == 2 && cycleEdges[0] == cycleEdges[1];
+            final String message = "Negative cycle: " + walk + " (total weight " + weight + ")";
+            final String detail  = singleEdge
+                    ? "An undirected edge with negative weight is a negative cycle by itself (go there and back). Shortest paths are undefined."
+                    : "Distances keep dropping around this cycle forever, so shortest paths through it are undefined.";
+            algorithmSteps.add(() -> {
+                for (int i = 0; i < cycle.length; i++) {
+                    GraphEdge e = graph.edges.get(cycleEdges[i]);
+                    e.line.setStroke(Color.PURPLE); e.line.setStrokeWidth(6);
+                    graph.nodes.get(cycle[i]).circle.setFill(Color.RED);
+                }
+                resultLabel.setText(NAME + ": " + message);
+                setAlgoState("⚠ " + detail, DS_TITLE, "(Stopped)", message,
+                        "Engine Comparison (full run):", comparison);
+                setAuxState(AUX_TITLE, formatRoundLines(roundLines, lines));
+            });
+            return;
         }
 
-        final String finalVisit = String.join(", ", visited.stream().map(n -> n.label.getText()).toList());
-        final String finalMST   = formatMSTEdges(mstEdges, totalW[0]);
-        algorithmSteps.add(() -> {
-            for (GraphNode node : visited) node.circle.setFill(Color.GREEN);
-            resultLabel.setText("Prim's MST Complete! Total Weight: " + totalW[0]);
-            setAlgoState("✅ All nodes connected! Prim's MST Complete.", DS_TITLE, "(Empty)", finalVisit, EXTRA_TITLE, finalMST);
-        });
+        if (target >= 0 && result.dist[target] != Long.MAX_VALUE) {
+            final long finalDist = result.dist[target];
+            algorithmSteps.add(() -> {
+                resultLabel.setText(NAME + ": Shortest path found! Total dist = " + finalDist);
+                setAlgoState("No negative cycle. Tracing shortest path backward...", DS_TITLE, "(Done)",
+                        formatRelaxedRange(relaxedOrder, 0, relaxedOrder.size()), "Engine Comparison (full run):", comparison);
+                setAuxState(AUX_TITLE, formatRoundLines(roundLines, lines));
+            });
+            List<Runnable> path = new ArrayList<>();
+            for (int v = target; v != s && result.parentEdge[v] >= 0; v = result.parent[v]) {
+                final GraphEdge pe = graph.edges.get(result.parentEdge[v]); final GraphNode pn = graph.nodes.get(v);
+                path.add(() -> { pe.line.setStroke(Color.GREEN); pe.line.setStrokeWidth(5);
+                    pn.circle.setFill(Color.GREEN); pn.distLabel.setFill(Color.WHITE); });
+            }
+            Collections.reverse(path);
+            algorithmSteps.addAll(path);
+            algorithmSteps.add(() -> { startNode.circle.setFill(Color.GREEN); startNode.distLabel.setFill(Color.WHITE); });
+        } else {
+            final String message = target >= 0 ? NAME + ": Target " + graph.label(endNode) + " is unreachable!"
+                                                : NAME + ": Shortest path tree computed for all graph.nodes.";
+            algorithmSteps.add(() -> {
+                for (int v = 0; v < n; v++)
+                    if (result.parentEdge[v] >= 0) { GraphEdge e = graph.edges.get(result.parentEdge[v]); e.line.setStroke(Color.GREEN); e.line.setStrokeWidth(5); }
+                resultLabel.setText(message);
+                setAlgoState("No negative cycle reachable from the start. Green graph.edges form the shortest path tree.",
+                        DS_TITLE, "(Done)", formatRelaxedRange(relaxedOrder, 0, relaxedOrder.size()),
+                        "Engine Comparison (full run):", comparison);
+                setAuxState(AUX_TITLE, formatRoundLines(roundLines, lines));
+            });
+        }
     }
 
-    // ─────────────────────────────────────────────
-    // Kruskal's MST
-    // ─────────────────────────────────────────────
-    private void recordKruskal() {
-        final String DS_TITLE    = "Sorted Edges Remaining:";
-        final String EXTRA_TITLE = "MST Edges Chosen:";
+    private String formatQueueMirror(GraphSnapshot graph, ArrayDeque<Integer> queue) { return formatQueueMirror(graph, queue, -1); }
+
+    /** Front of the SPFA queue, plus {@code pending} at the back if it is about to be enqueued. */
+    private String formatQueueMirror(GraphSnapshot graph, ArrayDeque<Integer> queue, int pending) {
+        boolean addPending = pending >= 0 && !queue.contains(pending);
+        int total = queue.size() + (addPending ? 1 : 0);
+        if (total == 0) return "(Empty)";
+        StringBuilder sb = new StringBuilder("  ");
+        int shown = 0;
+        for (int v : queue) {
+            if (shown++ == QUEUE_PANEL_LIMIT) break;
+            sb.append(graph.label(graph.nodes.get(v))).append("  ");
+        }
+        if (addPending && shown < QUEUE_PANEL_LIMIT) sb.append(graph.label(graph.nodes.get(pending)));
+        if (total > QUEUE_PANEL_LIMIT) sb.append("… (").append(total).append(" queued)");
+        return sb.toString().trim();
+    }
 
-        Map<GraphNode, GraphNode> parent = new HashMap<>();
-        for (GraphNode node : nodes) parent.put(node, node);
+    /** Labels relaxed between positions {@code from} and {@code to} of the shared relaxation log. */
+    private String formatRelaxedRange(List<String> relaxedOrder, int from, int to) {
+        if (from >= to) return "(None yet this round)";
+        int start = Math.max(from, to - PANEL_ITEM_LIMIT);
+        String head = start > from ? "… (" + (start - from) + " earlier), " : "";
+        return head + String.join(", ", relaxedOrder.subList(start, to));
+    }
 
-        java.util.function.Function<GraphNode, GraphNode> find = new java.util.function.Function<>() {
-            @Override public GraphNode apply(GraphNode node) {
-                if (parent.get(node) == node) return node;
-                GraphNode root = apply(parent.get(node)); parent.put(node, root); return root;
-            }
-        };
+    private String formatRoundLines(List<String> roundLines, int count) {
+        StringBuilder sb = new StringBuilder("Round | Scanned | Relaxed");
+        int start = Math.max(0, count - QUEUE_PANEL_LIMIT);
+        if (start > 0) sb.append("\n  … ").append(start).append(" earlier rounds");
+        for (int i = start; i < count; i++) sb.append('\n').append(roundLines.get(i));
+        return sb.toString();
+    }
 
-        List<GraphEdge> sortedEdges = new ArrayList<>(edges);
-        sortedEdges.sort(Comparator.comparingInt(this::parseWeight));
+    /** Headless runs of all three engines on the same graph, to show the O(VE) cost next to Dijkstra. */
+    private String compareShortestPathEngines(CsrGraph g, int s, BellmanFord.Result visualized) {
+        BellmanFord.Result classic = BellmanFord.classic(g, s, null), spfa = BellmanFord.spfa(g, s, null);
+        HeapEngines.Stats dijkstra = HeapEngines.dijkstraIndexed(g, s, HEAP_ARITY);
+        StringBuilder sb = new StringBuilder(String.format(
+                "Bellman–Ford: %d rounds%n  %d arc scans, %d relaxations, %.3f ms%n"
+                        + "SPFA: %d rounds, %d queue pushes%n  %d arc scans, %d relaxations, %.3f ms%n"
+                        + "Dijkstra (%d-ary heap):%n  %d arc scans, %d relaxations, %.3f ms",
+                classic.rounds, classic.scans, classic.relaxations, classic.nanos / 1e6,
+                spfa.rounds, spfa.queuePushes, spfa.scans, spfa.relaxations, spfa.nanos / 1e6,
+                HEAP_ARITY, dijkstra.scans, dijkstra.relaxations, dijkstra.nanos / 1e6));
+        if (visualized.hasNegativeCycle()) {
+            sb.append("\nDijkstra cannot detect negative cycles and returns an answer anyway.");
+        } else {
+            int wrong = 0;
+            for (int v = 0; v < g.n; v++) if (dijkstra.dist[v] != visualized.dist[v]) wrong++;
+            if (wrong > 0) sb.append("\n⚠ Dijkstra is wrong on ").append(wrong).append(" node(s) here (negative weights).");
+        }
+        return sb.toString();
+    }
 
-        List<String> mstEdges   = new ArrayList<>();
-        Set<GraphNode> mstNodes = new HashSet<>();
-        int[] totalW = {0};
-        int[] edgesAdded = {0};
+    // ─────────────────────────────────────────────
+    // Max-Flow / Min-Cut (Edmonds–Karp / Dinic)
+    // ─────────────────────────────────────────────
+    // Edge weights are capacities; the start node is the source and the end
+    // node the sink. Steps repaint only the edges they change: the previous
+    // highlight falls back to its flow colour (red = saturated, blue = partly
+    // used), so replaying the steps in order rebuilds the picture.
+    private static final int LEVEL_PANEL_LIMIT = 20;   // level lines shown in the level-graph panel
+
+    private void recordMaxFlow(GraphSnapshot graph, GraphNode startNode, GraphNode endNode, boolean dinic) {
+        final String NAME        = dinic ? "Dinic" : "Edmonds–Karp";
+        final String DS_TITLE    = dinic ? "Level Graph (BFS from source):" : "Augmenting Path (shortest, by BFS):";
+        final String EXTRA_TITLE = "Augmentations:";
+        final String AUX_TITLE   = "Residual Graph (flow / capacity):";
+
+        Map<GraphNode, Integer> index = graph.index;
+        int n = graph.nodes.size(), m = graph.edges.size(), s = index.get(startNode), t = index.get(endNode);
+        int[] src = new int[m], dst = new int[m], cap = new int[m];
+        boolean[] directed = new boolean[m];
+        for (int e = 0; e < m; e++) {
+            GraphEdge edge = graph.edges.get(e);
+            src[e] = index.get(edge.from); dst[e] = index.get(edge.to);
+            cap[e] = graph.weight(edge); directed[e] = edge.isDirected;
+        }
 
-        LinkedList<GraphEdge> remaining = new LinkedList<>(sortedEdges);
+        int[] flow = new int[m];                              // flow as of the step being recorded
+        List<String> augLines = new ArrayList<>();
+        List<Integer> highlighted = new ArrayList<>();        // graph.edges the previous step drew orange
+        List<Integer> levelEdges  = new ArrayList<>();        // gold graph.edges of the current Dinic phase
 
-        final String initRemaining = formatEdgeList(remaining, 6);
+        final String initResidual = formatResidual(graph, flow, cap, directed);
         algorithmSteps.add(() -> {
-            resultLabel.setText("Kruskal's MST: Sorted all edges globally by weight.");
-            setAlgoState("Sorted all edges by weight. Ready to pick the smallest non-cycling edges.",
-                    DS_TITLE, initRemaining, "(None)", EXTRA_TITLE, "(None)");
+            startNode.circle.setFill(Color.YELLOW); endNode.circle.setFill(Color.ORANGE);
+            resultLabel.setText(NAME + ": max flow from " + graph.label(startNode) + " to " + graph.label(endNode));
+            setAlgoState("Every edge's weight is its capacity. The residual graph starts as the graph itself: no flow yet.",
+                    DS_TITLE, "(None yet)", "Flow = 0", EXTRA_TITLE, "(None yet)");
+            setAuxState(AUX_TITLE, initResidual);
         });
 
-        for (GraphEdge edge : sortedEdges) {
-            if (edgesAdded[0] >= nodes.size() - 1) break;
-            remaining.remove(edge);
+        MaxFlow.Listener recorder = new MaxFlow.Listener() {
+            int phase;
 
-            GraphNode root1 = find.apply(edge.from), root2 = find.apply(edge.to);
-            boolean   cycle = (root1 == root2);
-
-            if (!cycle) {
-                parent.put(root1, root2);
-                edgesAdded[0]++;
-                mstNodes.add(edge.from); mstNodes.add(edge.to);
-                int w = parseWeight(edge);
-                totalW[0] += w;
-                mstEdges.add("  ✓ " + edge.from.label.getText() + " ─ " + edge.to.label.getText() + "  (Weight: " + w + ")");
+            /** Ids and current flows of the given highlighted graph.edges, so the next step can repaint them; empties the list. */
+            int[][] take(List<Integer> list) {
+                int[] ids = new int[list.size()], flows = new int[ids.length];
+                for (int i = 0; i < ids.length; i++) { ids[i] = list.get(i); flows[i] = flow[ids[i]]; }
+                list.clear();
+                return new int[][] { ids, flows };
+            }
 
-                final GraphEdge mstEdge    = edge;
-                final String    remSnap    = formatEdgeList(remaining, 6);
-                final String    visitSnap  = String.join(", ", mstNodes.stream().map(n -> n.label.getText()).toList());
-                final String    mstSnap    = formatMSTEdges(mstEdges, totalW[0]);
-                final int       currTotal  = totalW[0];
+            @Override public void phaseStarted(int p, int[] level) {
+                phase = p;
+                int[][] restore = take(highlighted);
+                final int[] levelOf = level.clone();
+                List<GraphEdge> admissible = new ArrayList<>();
+                for (int e = 0; e < m; e++) {
+                    boolean along   = flow[e] < cap[e] && levelOf[src[e]] >= 0 && levelOf[dst[e]] == levelOf[src[e]] + 1;
+                    boolean against = (directed[e] ? flow[e] > 0 : flow[e] > -cap[e])
+                            && levelOf[dst[e]] >= 0 && levelOf[src[e]] == levelOf[dst[e]] + 1;
+                    if (along || against) { admissible.add(graph.edges.get(e)); levelEdges.add(e); }
+                }
+                final String levels = formatLevels(graph, levelOf);
+                final String text   = String.format("Phase %d: BFS over arcs with spare capacity labels every node with its distance from the source. "
+                        + "Gold graph.edges lead one level deeper; only they may carry flow in this phase (sink at level %d).", p, levelOf[t]);
+                final long   total  = flowTotal(flow, src, dst, s);
+                final int    lines  = augLines.size();
+                final String residual = formatResidual(graph, flow, cap, directed);
+                algorithmSteps.add(() -> {
+                    repaintFlow(restore[0], restore[1], cap);
+                    for (int v = 0; v < n; v++) graph.nodes.get(v).circle.setFill(levelOf[v] >= 0 ? componentColor(levelOf[v]) : Color.LIGHTGRAY);
+                    for (GraphEdge e : admissible) { e.line.setStroke(Color.GOLD); e.line.setStrokeWidth(5); }
+                    resultLabel.setText(String.format("Dinic phase %d: level graph has %d graph.edges", p, admissible.size()));
+                    setAlgoState(text, DS_TITLE, levels, "Flow = " + total, EXTRA_TITLE, formatLinesPrefix(augLines, lines));
+                    setAuxState(AUX_TITLE, residual);
+                });
+            }
 
+            @Override public void augmented(int[] pathNodes, int[] pathEdges, int length, int amount, long total) {
+                int[][] restore = take(highlighted);
+                StringJoiner walk = new StringJoiner(" → ");
+                walk.add(graph.label(graph.nodes.get(pathNodes[0])));
+                List<GraphEdge> path = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    int e = pathEdges[i];
+                    flow[e] += src[e] == pathNodes[i] ? amount : -amount;
+                    path.add(graph.edges.get(e));
+                    highlighted.add(e);
+                    walk.add(graph.label(graph.nodes.get(pathNodes[i + 1])));
+                }
+                augLines.add(String.format("#%d%s +%d via %s", augLines.size() + 1, dinic ? " (phase " + phase + ")" : "", amount, walk));
+                final String pathTxt  = walk + "\nBottleneck: " + amount + " (" + length + " edge" + (length == 1 ? "" : "s") + ")";
+                final String residual = formatResidual(graph, flow, cap, directed);
+                final int    lines    = augLines.size();
                 algorithmSteps.add(() -> {
-                    mstEdge.line.setStroke(Color.ORANGE); mstEdge.line.setStrokeWidth(5);
-                    mstEdge.from.circle.setFill(Color.YELLOW); mstEdge.to.circle.setFill(Color.YELLOW);
-                    resultLabel.setText("Kruskal's MST - Total Weight: " + currTotal);
-                    setAlgoState("✓ Edge safely bridges components without forming a cycle.",
-                            DS_TITLE, remSnap, visitSnap, EXTRA_TITLE, mstSnap);
+                    repaintFlow(restore[0], restore[1], cap);
+                    for (GraphEdge e : path) { e.line.setStroke(Color.ORANGE); e.line.setStrokeWidth(6); }
+                    resultLabel.setText(String.format("%s augmentation %d: +%d, flow = %d", NAME, lines, amount, total));
+                    setAlgoState(dinic
+                                    ? "Blocking flow: follow gold graph.edges from the source until the sink, push the bottleneck, then resume from the first saturated edge."
+                                    : "BFS found the shortest path with spare capacity. Push its bottleneck; back-arcs let later paths undo this flow.",
+                            dinic ? "Path in phase " + phase + ":" : DS_TITLE, pathTxt, "Flow = " + total,
+                            EXTRA_TITLE, formatLinesPrefix(augLines, lines));
+                    setAuxState(AUX_TITLE, residual);
                 });
-            } else {
-                final GraphEdge cycleEdge = edge;
-                final String    remSnap2  = formatEdgeList(remaining, 6);
-                final String    visitSnap2= String.join(", ", mstNodes.stream().map(n -> n.label.getText()).toList());
-                final String    mstSnap2  = mstEdges.isEmpty() ? "(None)" : formatMSTEdges(mstEdges, totalW[0]);
+            }
 
+            @Override public void phaseFinished(int p, long pushed) {
+                levelEdges.addAll(highlighted);
+                highlighted.clear();
+                int[][] restore = take(levelEdges);
+                final long   total    = flowTotal(flow, src, dst, s);
+                final int    lines    = augLines.size();
+                final String residual = formatResidual(graph, flow, cap, directed);
                 algorithmSteps.add(() -> {
-                    cycleEdge.line.setStroke(Color.RED);
-                    setAlgoState("✗ Skipped edge: Connecting '" + cycleEdge.from.label.getText() + "' and '" + cycleEdge.to.label.getText() + "' creates a cycle.",
-                            DS_TITLE, remSnap2, visitSnap2, EXTRA_TITLE, mstSnap2);
+                    repaintFlow(restore[0], restore[1], cap);
+                    resultLabel.setText(String.format("Dinic phase %d: blocking flow pushed %d, flow = %d", p, pushed, total));
+                    setAlgoState("Phase " + p + " complete: every source-to-sink path in the level graph now has a saturated (red) edge. "
+                                    + "The next BFS finds only longer paths.",
+                            DS_TITLE, "(Blocked)", "Flow = " + total, EXTRA_TITLE, formatLinesPrefix(augLines, lines));
+                    setAuxState(AUX_TITLE, residual);
                 });
             }
+        };
+
+        MaxFlow.Result r = dinic ? MaxFlow.dinic(n, src, dst, cap, directed, s, t, recorder)
+                                 : MaxFlow.edmondsKarp(n, src, dst, cap, directed, s, t, recorder);
+
+        int[][] restore = { new int[highlighted.size()], new int[highlighted.size()] };
+        for (int i = 0; i < highlighted.size(); i++) { restore[0][i] = highlighted.get(i); restore[1][i] = r.flow[highlighted.get(i)]; }
+        List<String> cutLines = new ArrayList<>();
+        for (int e : r.cutEdges) {
+            GraphEdge edge = graph.edges.get(e);
+            boolean reversed = !r.sourceSide[src[e]];
+            cutLines.add("  " + graph.label(reversed ? edge.to : edge.from) + " → "
+                    + graph.label(reversed ? edge.from : edge.to) + "  (capacity " + cap[e] + ")");
         }
+        final String cutTxt     = (cutLines.isEmpty() ? "(None: the sink is unreachable)" : formatLinesPrefix(cutLines, cutLines.size()))
+                + "\n─────────────\nCut capacity = " + r.maxFlow;
+        final String comparison = benchmarkFlow(n, src, dst, cap, directed, s, t, "Canvas graph", 3);
+        final String[] fullBench = { null };
+        final GraphData full     = graph.full;
+        final int      sideCount = countTrue(r.sourceSide);
+        Runnable finalStep = () -> {
+            repaintFlow(restore[0], restore[1], cap);
+            for (int v = 0; v < n; v++) graph.nodes.get(v).circle.setFill(r.sourceSide[v] ? Color.LIGHTGREEN : Color.LIGHTPINK);
+            for (int e : r.cutEdges) { graph.edges.get(e).line.setStroke(Color.MAGENTA); graph.edges.get(e).line.setStrokeWidth(7); }
+            resultLabel.setText(String.format("%s complete! Max flow = %d = min cut (%d edge%s), %d augmentation%s in %d %s",
+                    NAME, r.maxFlow, r.cutEdges.length, r.cutEdges.length == 1 ? "" : "s", r.augmentations,
+                    r.augmentations == 1 ? "" : "s", r.phases, dinic ? (r.phases == 1 ? "phase" : "phases") : "BFS runs"));
+            setAlgoState("✅ No augmenting path is left. The " + sideCount + " green node(s) still reachable from the source in the residual graph "
+                            + "form the source side; the magenta graph.edges leaving it are saturated and their capacities add up to the max flow.",
+                    "Minimum Cut:", cutTxt, "Flow = " + r.maxFlow, EXTRA_TITLE, formatLinesPrefix(augLines, augLines.size()));
+            setAuxState("Engine Comparison:", comparison + (fullBench[0] != null ? "\n\n" + fullBench[0]
+                    : full != null ? "\n\nFull generated graph: measuring…" : ""));
+        };
+        algorithmSteps.add(finalStep);
 
-        final String finalVisit = String.join(", ", mstNodes.stream().map(n -> n.label.getText()).toList());
-        final String finalMST   = formatMSTEdges(mstEdges, totalW[0]);
-        algorithmSteps.add(() -> {
-            for (GraphNode node : mstNodes) node.circle.setFill(Color.GREEN);
-            resultLabel.setText("Kruskal's MST Complete! Total Weight: " + totalW[0]);
-            setAlgoState("✅ Maximum edges reached. Kruskal's MST Complete!", DS_TITLE, "(Empty)", finalVisit, EXTRA_TITLE, finalMST);
+        // Sampled canvas: the phase/augmentation gap only opens up on the whole network.
+        if (full != null && full.weight != null && full.nodeCount > 1) benchmarkFullGraph(fullBench, finalStep, () -> {
+            boolean[] dir = new boolean[full.edgeCount];
+            Arrays.fill(dir, full.directed);
+            try {
+                return benchmarkFlow(full.nodeCount, full.src, full.dst, full.weight, dir, 0, full.nodeCount - 1,
+                        String.format("Full generated graph (%,d graph.nodes, first → last node)", full.nodeCount), 1);
+            } catch (IllegalArgumentException ex) {
+                return "Full generated graph: " + ex.getMessage();
+            }
         });
     }
 
-    // ─────────────────────────────────────────────
-    // Dijkstra's Shortest Path
-    // ─────────────────────────────────────────────
-    private void recordDijkstra(GraphNode startNode, GraphNode endNode) {
-        final String DS_TITLE    = "Priority Queue (Node, Dist):";
-        final String EXTRA_TITLE = "Distance Map:";
+    /** Stroke for an edge carrying {@code flow} of {@code capacity}: black unused, blue partly used, red saturated. */
+    private void paintFlowEdge(GraphEdge e, int flow, int capacity) {
+        int used = Math.abs(flow);
+        if (used == 0)             { e.line.setStroke(Color.BLACK);      e.line.setStrokeWidth(3); }
+        else if (used >= capacity) { e.line.setStroke(Color.RED);        e.line.setStrokeWidth(5); }
+        else                       { e.line.setStroke(Color.DODGERBLUE); e.line.setStrokeWidth(3 + 2.0 * used / capacity); }
+    }
 
-        Map<GraphNode, Integer> distances = new HashMap<>();
-        Map<GraphNode, GraphEdge> edgeTo  = new HashMap<>();
-        Set<GraphNode>            settled  = new HashSet<>();
-        List<String>              settledOrder = new ArrayList<>();
+    private void repaintFlow(int[] ids, int[] flows, int[] cap) {
+        for (int i = 0; i < ids.length; i++) paintFlowEdge(edges.get(ids[i]), flows[i], cap[ids[i]]);
+    }
 
-        class ND implements Comparable<ND> {
-            GraphNode node; int dist;
-            ND(GraphNode n, int d) { node = n; dist = d; }
-            public int compareTo(ND o) { return Integer.compare(dist, o.dist); }
+    /** Net flow out of the source. */
+    private static long flowTotal(int[] flow, int[] src, int[] dst, int s) {
+        long total = 0;
+        for (int e = 0; e < flow.length; e++) {
+            if (src[e] == s && dst[e] != s) total += flow[e];
+            else if (dst[e] == s && src[e] != s) total -= flow[e];
         }
-        PriorityQueue<ND> pq = new PriorityQueue<>();
-        for (GraphNode n : nodes) distances.put(n, Integer.MAX_VALUE);
-        distances.put(startNode, 0);
-        pq.add(new ND(startNode, 0));
+        return total;
+    }
 
-        java.util.function.Supplier<String> snapPQ = () -> {
-            List<ND> list = new ArrayList<>(pq); Collections.sort(list);
-            StringBuilder sb = new StringBuilder();
-            int c = 0;
-            for (ND nd : list) {
-                if (c++ >= 7) { sb.append("  …\n"); break; }
-                sb.append(String.format("  %-4s → dist = %s%n",
-                        nd.node.label.getText(),
-                        nd.dist == Integer.MAX_VALUE ? "∞" : nd.dist));
-            }
-            return sb.length() == 0 ? "(Empty)" : sb.toString().trim();
-        };
+    /** Flow and both residual capacities of the first edges; an undirected edge can carry flow either way. */
+    private String formatResidual(GraphSnapshot graph, int[] flow, int[] cap, boolean[] directed) {
+        if (flow.length == 0) return "(No graph.edges)";
+        StringBuilder sb = new StringBuilder();
+        int shown = Math.min(flow.length, PANEL_ITEM_LIMIT);
+        for (int e = 0; e < shown; e++) {
+            GraphEdge edge = graph.edges.get(e);
+            GraphNode a = flow[e] < 0 ? edge.to : edge.from, b = flow[e] < 0 ? edge.from : edge.to;
+            int f = Math.abs(flow[e]), back = directed[e] ? 0 : cap[e];
+            int along = flow[e] < 0 ? back - f : cap[e] - f, against = (flow[e] < 0 ? cap[e] : back) + f;
+            sb.append(String.format("  %-4s %s %-4s %3d / %-3d  residual → %d, ← %d%n", graph.label(a),
+                    directed[e] || flow[e] != 0 ? "→" : "─", graph.label(b), f, cap[e], along, against));
+        }
+        if (flow.length > shown) sb.append("  … ").append(flow.length - shown).append(" more graph.edges");
+        return sb.toString().stripTrailing();
+    }
 
-        final Map<GraphNode, Integer> distSnap0 = new HashMap<>(distances);
-        final String pqSnap0 = snapPQ.get();
-        algorithmSteps.add(() -> {
-            for (GraphNode n : nodes) n.distLabel.setVisible(true);
-            startNode.circle.setFill(Color.YELLOW);
-            startNode.distLabel.setText("0"); startNode.distLabel.setFill(Color.GREEN);
-            resultLabel.setText("Dijkstra: Starting at " + startNode.label.getText());
-            setAlgoState("Set starting node distance to 0. All other nodes are ∞.",
-                    DS_TITLE, pqSnap0, "(None settled)", EXTRA_TITLE, formatDistances(distSnap0));
-        });
+    private String formatLevels(GraphSnapshot graph, int[] level) {
+        List<List<GraphNode>> byLevel = new ArrayList<>();
+        for (int v = 0; v < level.length; v++) {
+            if (level[v] < 0) continue;
+            while (byLevel.size() <= level[v]) byLevel.add(new ArrayList<>());
+            byLevel.get(level[v]).add(graph.nodes.get(v));
+        }
+        StringJoiner sj = new StringJoiner("\n");
+        for (int d = 0; d < byLevel.size(); d++) {
+            if (d == LEVEL_PANEL_LIMIT) { sj.add("… " + (byLevel.size() - d) + " deeper levels"); break; }
+            sj.add(formatFrontier(graph, d, byLevel.get(d)));
+        }
+        return sj.toString();
+    }
 
-        while (!pq.isEmpty()) {
-            ND current = pq.poll();
-            GraphNode u = current.node;
-            if (settled.contains(u)) continue;
-            settled.add(u);
-            settledOrder.add(u.label.getText());
+    private static int countTrue(boolean[] flags) {
+        int count = 0;
+        for (boolean f : flags) if (f) count++;
+        return count;
+    }
 
-            final GraphNode exploringNode = u;
-            final int       currDist      = current.dist;
-            final String    settled0      = String.join(" ➔ ", settledOrder);
-            final String    pqSnap1       = snapPQ.get();
-            final Map<GraphNode, Integer> distSnap1 = new HashMap<>(distances);
+    private static final int FLOW_EK_BENCH_LIMIT = 50_000;   // edges; Edmonds–Karp's O(VE²) is skipped above this
+
+    /** Lets a cancelled flow benchmark give up after any augmentation. */
+    private static final MaxFlow.Listener FLOW_CANCEL_CHECK = new MaxFlow.Listener() {
+        @Override public void augmented(int[] nodes, int[] edges, int length, int amount, long total) { checkCancelled(); }
+        @Override public void phaseFinished(int phase, long pushed) { checkCancelled(); }
+    };
+
+    /** Edmonds–Karp vs. Dinic on one network: BFS passes, augmentations, arc scans and time (best of {@code reps}). */
+    private static String benchmarkFlow(int n, int[] src, int[] dst, int[] cap, boolean[] directed, int s, int t, String title, int reps) {
+        boolean withEk = src.length <= FLOW_EK_BENCH_LIMIT;
+        MaxFlow.Result ek = null, dinic = null;
+        for (int rep = 0; rep < reps; rep++) {
+            checkCancelled();
+            if (withEk) {
+                MaxFlow.Result a = MaxFlow.edmondsKarp(n, src, dst, cap, directed, s, t, FLOW_CANCEL_CHECK);
+                if (ek == null || a.nanos < ek.nanos) ek = a;
+            }
+            MaxFlow.Result b = MaxFlow.dinic(n, src, dst, cap, directed, s, t, FLOW_CANCEL_CHECK);
+            if (dinic == null || b.nanos < dinic.nanos) dinic = b;
+        }
+        if (ek == null)
+            return String.format("%s (max flow %,d):%n"
+                            + "Edmonds–Karp: skipped above %,d edges%n"
+                            + "Dinic: %,d phases, %,d augmentations, %,d arc scans, %.2f ms",
+                    title, dinic.maxFlow, FLOW_EK_BENCH_LIMIT,
+                    dinic.phases, dinic.augmentations, dinic.arcScans, dinic.nanos / 1e6);
+        return String.format("%s (max flow %,d):%n"
+                        + "Edmonds–Karp: %,d BFS runs, %,d augmentations, %,d arc scans, %.2f ms%n"
+                        + "Dinic: %,d phases, %,d augmentations, %,d arc scans, %.2f ms%n"
+                        + "  %.1f× fewer BFS passes, %.1f× faster",
+                title, dinic.maxFlow,
+                ek.phases, ek.augmentations, ek.arcScans, ek.nanos / 1e6,
+                dinic.phases, dinic.augmentations, dinic.arcScans, dinic.nanos / 1e6,
+                ek.phases / (double) Math.max(1, dinic.phases), ek.nanos / (double) Math.max(1, dinic.nanos));
+    }
 
-            algorithmSteps.add(() -> {
-                if (exploringNode != startNode) exploringNode.circle.setFill(Color.MAGENTA);
-                exploringNode.distLabel.setFill(Color.DARKBLUE);
-                resultLabel.setText("Dijkstra: Locking in " + exploringNode.label.getText() + " at optimal distance: " + currDist);
-                setAlgoState("Locked in optimal distance for '" + exploringNode.label.getText() + "'. Evaluating neighbors...",
-                        DS_TITLE, pqSnap1, settled0, EXTRA_TITLE, formatDistances(distSnap1));
-            });
+    // ─────────────────────────────────────────────
+    // Strongly Connected Components (Tarjan / Kosaraju)
+    // ─────────────────────────────────────────────
+    private void recordSCC(GraphSnapshot graph, boolean tarjan) {
+        final String NAME        = tarjan ? "Tarjan" : "Kosaraju";
+        final String DS_TITLE    = tarjan ? "SCC Stack (node #index):" : "Finish Stack:";
+        final String EXTRA_TITLE = "Components Found:";
+
+        Map<GraphNode, Integer> index = graph.index;
+        CsrGraph g = graph.csr;
+        int n = graph.nodes.size();
+        List<String> visitOrder     = new ArrayList<>();
+        List<String> componentLines = new ArrayList<>();
+        List<StackFrame> finishFrames = new ArrayList<>();     // Kosaraju: the finish stack after each push
+        int[] finishPos = new int[n], foundIn = new int[n];
+        Arrays.fill(foundIn, -1);
+
+        StronglyConnected.Listener recorder = new StronglyConnected.Listener() {
+            StackFrame stack;                                   // Tarjan: SCC stack; Kosaraju: finish stack / remainder
+            int pass = 1;
+
+            @Override
+            public void passStarted(int p) {
+                pass = p;
+                final boolean first = p == 1;
+                algorithmSteps.add(() -> {
+                    if (!first) resetGraphColors();
+                    resultLabel.setText(NAME + ": pass " + (first ? 1 : 2));
+                    setAlgoState(first
+                                    ? "Pass 1: DFS on the graph. A node is pushed onto the finish stack once all its successors are done."
+                                    : "Pass 2: DFS on the transpose (every arrow reversed), taking roots from the top of the finish stack. Each DFS tree is one SCC.",
+                            DS_TITLE, formatStack(stack), "(None)", null, null);
+                });
+            }
 
-            if (endNode != null && u == endNode) break;
+            @Override
+            public void discovered(int v, int viaEdge, int idx) {
+                GraphNode node = graph.nodes.get(v);
+                String label = graph.label(node);
+                visitOrder.add(label);
+                if (tarjan) stack = new StackFrame(label + " #" + idx, stack);
+                else if (pass == 2 && viaEdge < 0) stack = finishPos[v] > 0 ? finishFrames.get(finishPos[v] - 1) : null;
+                final GraphEdge  via        = viaEdge >= 0 ? graph.edges.get(viaEdge) : null;
+                final StackFrame stackSnap  = stack;
+                final int        visitCount = visitOrder.size(), found = componentLines.size();
+                final Color      fill       = pass == 2 ? componentColor(found) : Color.YELLOW;
+                final String     action     = tarjan
+                        ? "Discover '" + label + "' (index = low = " + idx + ") and push it onto the SCC stack."
+                        : pass == 1 ? "Pass 1: visiting '" + label + "'."
+                        : viaEdge < 0 ? "Pop '" + label + "' from the finish stack: it starts SCC " + (found + 1) + "."
+                        : "'" + label + "' reaches the root on the transpose, so it joins SCC " + (found + 1) + ".";
+                algorithmSteps.add(() -> {
+                    if (via != null) via.line.setStroke(Color.ORANGE);
+                    node.circle.setFill(fill);
+                    resultLabel.setText(NAME + ": visiting " + label);
+                    setAlgoState(action, DS_TITLE, formatStack(stackSnap), formatOrderPrefix(visitOrder, visitCount),
+                            EXTRA_TITLE, formatLinesPrefix(componentLines, found));
+                });
+            }
 
-            for (GraphEdge edge : u.connectedEdges) {
-                GraphNode v = null;
-                if      (edge.from == u)                        v = edge.to;
-                else if (!edge.isDirected && edge.to == u)     v = edge.from;
+            @Override
+            public void lowLinkUpdated(int u, int from, int low) {
+                GraphNode node = graph.nodes.get(u);
+                final StackFrame stackSnap  = stack;
+                final int        visitCount = visitOrder.size(), found = componentLines.size();
+                final String     action     = "low('" + graph.label(node) + "') ← " + low + " via '"
+                        + graph.label(graph.nodes.get(from)) + "': it can reach a node still on the stack.";
+                algorithmSteps.add(() -> {
+                    node.circle.setFill(Color.MAGENTA);
+                    setAlgoState(action, DS_TITLE, formatStack(stackSnap), formatOrderPrefix(visitOrder, visitCount),
+                            EXTRA_TITLE, formatLinesPrefix(componentLines, found));
+                });
+            }
 
-                if (v != null && !settled.contains(v)) {
-                    int w      = parseWeight(edge);
-                    int newDist = currDist + w;
+            @Override
+            public void finished(int u) {
+                if (tarjan || pass != 1) return;
+                GraphNode node = graph.nodes.get(u);
+                stack = new StackFrame(graph.label(node), stack);
+                finishFrames.add(stack);
+                finishPos[u] = finishFrames.size();
+                final StackFrame stackSnap  = stack;
+                final int        visitCount = visitOrder.size();
+                algorithmSteps.add(() -> {
+                    node.circle.setFill(Color.GREEN);
+                    setAlgoState("All successors of '" + graph.label(node) + "' are done: push it onto the finish stack.",
+                            DS_TITLE, formatStack(stackSnap), formatOrderPrefix(visitOrder, visitCount), null, null);
+                });
+            }
 
-                    if (newDist < distances.get(v)) {
-                        distances.put(v, newDist);
-                        edgeTo.put(v, edge);
-                        pq.add(new ND(v, newDist));
+            @Override
+            public void componentFound(int order, int[] members) {
+                List<GraphNode> group = new ArrayList<>(members.length);
+                for (int v : members) { group.add(graph.nodes.get(v)); foundIn[v] = order; }
+                List<GraphEdge> inner = new ArrayList<>();
+                for (GraphNode node : group)
+                    for (GraphEdge e : graph.incident(node))
+                        if (e.from == node && foundIn[index.get(e.to)] == order) inner.add(e);
+                if (tarjan) for (int i = 0; i < members.length; i++) stack = stack.below;
+                componentLines.add("SCC " + (order + 1) + " (" + members.length + "): " + formatMembers(graph, group));
+
+                final StackFrame stackSnap  = stack;
+                final int        visitCount = visitOrder.size(), found = componentLines.size();
+                final Color      color      = componentColor(order);
+                final String     root       = tarjan ? graph.label(graph.nodes.get(members[0])) : null;
+                final String     action     = tarjan
+                        ? "low('" + root + "') = index('" + root + "'): it roots a component. Pop " + members.length + " node(s) off the stack as SCC " + found + "."
+                        : "The DFS tree on the transpose is complete: SCC " + found + " has " + members.length + " node(s).";
+                algorithmSteps.add(() -> {
+                    for (GraphNode node : group) node.circle.setFill(color);
+                    for (GraphEdge e : inner)    e.line.setStroke(color.darker());
+                    resultLabel.setText(NAME + ": found SCC " + found);
+                    setAlgoState(action, DS_TITLE, formatStack(stackSnap), formatOrderPrefix(visitOrder, visitCount),
+                            EXTRA_TITLE, formatLinesPrefix(componentLines, found));
+                });
+            }
+        };
 
-                        final GraphNode   nb       = v;
-                        final GraphEdge   te       = edge;
-                        final int         ndist    = newDist;
-                        final String      pqSnap2  = snapPQ.get();
-                        final String      settled2 = String.join(" ➔ ", settledOrder);
-                        final Map<GraphNode, Integer> distSnap2 = new HashMap<>(distances);
+        StronglyConnected.Result result = tarjan ? StronglyConnected.tarjan(g, recorder) : StronglyConnected.kosaraju(g, recorder);
+        final String comparison = compareSccEngines(g);
+        final int    count      = result.count, largest = result.largest, visitCount = visitOrder.size();
+        List<GraphEdge> crossing = new ArrayList<>();
+        for (GraphEdge e : graph.edges) if (result.component[index.get(e.from)] != result.component[index.get(e.to)]) crossing.add(e);
+        algorithmSteps.add(() -> {
+            for (GraphEdge e : crossing) e.line.setStroke(Color.GRAY);
+            resultLabel.setText(String.format("%s: %d strongly connected component%s, largest has %d node%s",
+                    NAME, count, count == 1 ? "" : "s", largest, largest == 1 ? "" : "s"));
+            setAlgoState("✅ Every node is in exactly one SCC. Toggle ⊙ Condense SCCs to collapse them into a DAG.",
+                    DS_TITLE, "(Done)", formatOrderPrefix(visitOrder, visitCount),
+                    EXTRA_TITLE, formatLinesPrefix(componentLines, count));
+            setAuxState("Engine Comparison (full run):", comparison);
+        });
+    }
 
-                        algorithmSteps.add(() -> {
-                            te.line.setStroke(Color.ORANGE);
-                            if (nb != startNode) nb.circle.setFill(Color.YELLOW);
-                            nb.distLabel.setText(String.valueOf(ndist)); nb.distLabel.setFill(Color.DARKRED);
-                            resultLabel.setText("Dijkstra: Relaxed " + nb.label.getText() + " → dist = " + ndist);
-                            setAlgoState("Relaxation Step! Found a shorter path to '" + nb.label.getText() + "' (New Dist: " + ndist + ").",
-                                    DS_TITLE, pqSnap2, settled2, EXTRA_TITLE, formatDistances(distSnap2));
-                        });
-                    }
-                }
-            }
+    /** First {@code count} lines of a shared, append-only list, keeping only the tail when long. */
+    private String formatLinesPrefix(List<String> lines, int count) {
+        if (count == 0) return "(None yet)";
+        int from = Math.max(0, count - PANEL_ITEM_LIMIT);
+        return (from > 0 ? "  … (" + from + " earlier)\n" : "") + String.join("\n", lines.subList(from, count));
+    }
 
-            final String settled3 = String.join(" ➔ ", settledOrder);
-            final Map<GraphNode, Integer> distSnap3 = new HashMap<>(distances);
-            algorithmSteps.add(() -> {
-                if (exploringNode != startNode && exploringNode != endNode) {
-                    exploringNode.circle.setFill(Color.LIGHTGREEN);
-                    exploringNode.distLabel.setFill(Color.DARKGREEN);
-                }
-                setAlgoState("✓ Fully evaluated node '" + exploringNode.label.getText() + "'.",
-                        DS_TITLE, snapPQ.get(), settled3, EXTRA_TITLE, formatDistances(distSnap3));
-            });
+    private String formatMembers(GraphSnapshot graph, List<GraphNode> group) {
+        StringJoiner sj = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < group.size(); i++) {
+            if (i == 12) { sj.add("… +" + (group.size() - 12)); break; }
+            sj.add(graph.label(group.get(i)));
         }
+        return sj.toString();
+    }
 
-        if (endNode != null) {
-            if (distances.get(endNode) == Integer.MAX_VALUE) {
-                algorithmSteps.add(() -> {
-                    resultLabel.setText("Dijkstra: Target " + endNode.label.getText() + " is unreachable!");
-                    setAlgoState("Algorithm exhausted. Target node is completely disconnected.", DS_TITLE, "(Empty)",
-                            String.join(" ➔ ", settledOrder), null, null);
-                });
-            } else {
-                final int finalDist = distances.get(endNode);
-                algorithmSteps.add(() -> {
-                    resultLabel.setText("Dijkstra: Shortest path found! Total dist = " + finalDist);
-                    setAlgoState("Target Reached! Tracing shortest path backward...",
-                            DS_TITLE, "(Empty)", String.join(" ➔ ", settledOrder),
-                            EXTRA_TITLE, formatDistances(distances));
-                });
-                GraphNode curr = endNode;
-                List<Runnable> path = new ArrayList<>();
-                while (curr != startNode && edgeTo.containsKey(curr)) {
-                    GraphEdge e = edgeTo.get(curr);
-                    final GraphEdge pe = e; final GraphNode pn = curr;
-                    path.add(() -> { pe.line.setStroke(Color.GREEN); pe.line.setStrokeWidth(5);
-                        pn.circle.setFill(Color.GREEN); pn.distLabel.setFill(Color.WHITE); });
-                    curr = (e.to == curr) ? e.from : e.to;
-                }
-                Collections.reverse(path);
-                algorithmSteps.addAll(path);
-                algorithmSteps.add(() -> { startNode.circle.setFill(Color.GREEN); startNode.distLabel.setFill(Color.WHITE); });
+    private String compareSccEngines(CsrGraph g) {
+        StronglyConnected.Result t = StronglyConnected.tarjan(g, null), k = StronglyConnected.kosaraju(g, null);
+        CsrGraph dag = StronglyConnected.condensation(g, t);
+        return String.format("Tarjan: 1 DFS, %d arc scans, depth %d, %.3f ms%n"
+                        + "Kosaraju: 2 DFS + transpose, %d arc scans, %.3f ms%n"
+                        + "Condensation: %d node(s), %d edge(s)",
+                t.arcScans, t.maxStack, t.nanos / 1e6, k.arcScans, k.nanos / 1e6, dag.n, dag.arcCount());
+    }
+
+    // ─────────────────────────────────────────────
+    // Condensation DAG
+    // ─────────────────────────────────────────────
+    // Collapses every SCC into one node at its members' centroid so the DAG can
+    // be fed to Topological Sort; toggling back restores the original objects.
+    @FXML
+    private void toggleCondensation() {
+        resetAlgorithmState();
+        if (condenseToggle.isSelected()) condenseGraph();
+        else                             expandCondensation();
+        String selected = algoComboBox.getValue();
+        List<String> items = new ArrayList<>(algoComboBox.getItems());
+        algoComboBox.getItems().setAll(items);                  // re-evaluates the disabled entries
+        algoComboBox.setValue(selected != null && (selected.contains("Topological") || selected.startsWith("DAG")) && !isDAG() ? null : selected);
+    }
+
+    private void condenseGraph() {
+        if (nodes.isEmpty()) { condenseToggle.setSelected(false); return; }
+        GraphSnapshot graph = new GraphSnapshot();
+        CsrGraph g = graph.csr;
+        StronglyConnected.Result r = StronglyConnected.tarjan(g, null);
+        CsrGraph dag = StronglyConnected.condensation(g, r);
+        boolean weighted = edges.stream().anyMatch(e -> e.isWeighted);
+
+        List<GraphNode> originalNodes = new ArrayList<>(nodes);
+        ParkedGraph parked = new ParkedGraph(originalNodes, new ArrayList<>(edges), new ArrayList<>(undoStack), fullGraphData,
+                nodeCounter, panTransform.getX(), panTransform.getY(), scaleTransform.getX());
+        GraphNode[] created = new GraphNode[r.count];
+        for (int c = 0; c < r.count; c++) {
+            double x = 0, y = 0;
+            List<GraphNode> group = new ArrayList<>(r.size(c));
+            for (int i = r.memberOffset[c]; i < r.memberOffset[c + 1]; i++) {
+                GraphNode member = originalNodes.get(r.members[i]);
+                group.add(member);
+                x += member.circle.getCenterX(); y += member.circle.getCenterY();
             }
-        } else {
-            algorithmSteps.add(() -> {
-                resultLabel.setText("Dijkstra: Shortest path tree computed for all nodes.");
-                setAlgoState("All reachable nodes settled. Shortest Path Tree (SPT) generated.", DS_TITLE, "(Empty)",
-                        String.join(" ➔ ", settledOrder), EXTRA_TITLE, formatDistances(distances));
-            });
+            String label = group.size() == 1 ? graph.label(group.get(0)) : formatMembers(graph, group);
+            created[c] = new GraphNode(x / group.size(), y / group.size(), label);
         }
+
+        detachGraph();
+        undoStack.clear();                // the DAG view starts its own history; the original one is parked
+        for (GraphNode node : created) restoreNodeInternal(node);
+        for (int u = 0; u < dag.n; u++)
+            for (int a = dag.offset[u]; a < dag.offset[u + 1]; a++)
+                restoreEdgeInternal(new GraphEdge(created[u], created[dag.target[a]], dag.weight[a], true, weighted));
+        condensedFrom = parked;
+        graphStructureChanged();
+        resultLabel.setText(String.format("Condensed %d nodes into %d SCCs joined by %d edges — Topological Sort now applies.",
+                originalNodes.size(), r.count, dag.arcCount()));
+    }
+
+    private void expandCondensation() {
+        if (condensedFrom == null) return;
+        ParkedGraph parked = condensedFrom;
+        condensedFrom = null;
+        detachGraph();
+        for (GraphNode node : parked.nodes) restoreNodeInternal(node);
+        for (GraphEdge edge : parked.edges) restoreEdgeInternal(edge);
+        undoStack.clear();
+        undoStack.addAll(parked.undo);
+        nodeCounter = parked.nodeCounter;
+        graphStructureChanged();
+        fullGraphData = parked.full;      // graphStructureChanged drops it, but nothing about the original changed
+        panTransform.setX(parked.panX);
+        panTransform.setY(parked.panY);
+        scaleTransform.setX(parked.scale);
+        scaleTransform.setY(parked.scale);
+        resultLabel.setText("Original graph restored.");
     }
 
     // ─────────────────────────────────────────────
@@ -1518,100 +4914,216 @@ public class graphController {
     private boolean isDAG() {
         if (edges.isEmpty()) return directedCheck.isSelected();
         if (edges.stream().anyMatch(e -> !e.isDirected)) return false;
-        Set<GraphNode> visited = new HashSet<>(), recStack = new HashSet<>();
-        for (GraphNode node : nodes)
-            if (!visited.contains(node) && hasCycleDFS(node, visited, recStack)) return false;
-        return true;
-    }
-
-    private boolean hasCycleDFS(GraphNode node, Set<GraphNode> visited, Set<GraphNode> recStack) {
-        visited.add(node); recStack.add(node);
-        for (GraphEdge edge : node.connectedEdges) {
-            if (edge.from != node) continue;
-            GraphNode nb = edge.to;
-            if      (!visited.contains(nb) && hasCycleDFS(nb, visited, recStack)) return true;
-            else if (recStack.contains(nb))                                         return true;
-        }
-        recStack.remove(node); return false;
+        return !DepthFirst.hasCycle(buildCsr(indexNodes()));
     }
 
-    private void recordTopologicalSort() {
+    private void recordTopologicalSort(GraphSnapshot graph) {
         final String DS_TITLE = "Result Stack:";
 
-        Set<GraphNode> visited    = new HashSet<>();
-        List<GraphNode> finished  = new ArrayList<>();
-        List<String>    dfsVisit  = new ArrayList<>();
-        List<String>    finishStack = new ArrayList<>();
+        List<String> dfsVisit    = new ArrayList<>();
+        StackFrame[] finishStack = { null };
 
         algorithmSteps.add(() -> {
             resultLabel.setText("Topological Sort: Searching for dependencies...");
             setAlgoState("Running specialized DFS. Nodes will be pushed to the Result Stack upon backtracking.", DS_TITLE, "(Empty)", "(None)", null, null);
         });
 
-        for (GraphNode node : nodes)
-            if (!visited.contains(node))
-                topoSortHelper(node, visited, finished, dfsVisit, finishStack, DS_TITLE);
+        int[] topo = DepthFirst.forest(graph.csr, new DepthFirst.Listener() {
+            @Override
+            public void discovered(int v, int viaEdge) {
+                if (viaEdge >= 0) {
+                    final GraphEdge te = graph.edges.get(viaEdge);
+                    algorithmSteps.add(() -> te.line.setStroke(Color.ORANGE));
+                }
+                topoVisit(graph, graph.nodes.get(v), dfsVisit, finishStack[0], DS_TITLE);
+            }
+
+            @Override
+            public void finished(int v) {
+                GraphNode node = graph.nodes.get(v);
+                finishStack[0] = new StackFrame(graph.label(node), finishStack[0]);
+                final StackFrame fsSnap     = finishStack[0];
+                final int        visitCount = dfsVisit.size();
+                algorithmSteps.add(() -> {
+                    node.circle.setFill(Color.MAGENTA);
+                    resultLabel.setText("Topological Sort: " + graph.label(node) + " dependencies resolved.");
+                    setAlgoState("All dependencies for '" + graph.label(node) + "' resolved. Pushing to Result Stack.",
+                            DS_TITLE, formatStack(fsSnap), formatOrderPrefix(dfsVisit, visitCount), null, null);
+                });
+            }
+        }).topologicalOrder();
 
-        Collections.reverse(finished);
-        List<String> labels = new ArrayList<>();
-        for (GraphNode n : finished) labels.add(n.label.getText());
-        final String finalOrder = String.join(" ➔ ", labels);
+        List<GraphNode> finished = new ArrayList<>(topo.length);
+        List<String>    labels   = new ArrayList<>(topo.length);
+        for (int v : topo) { finished.add(graph.nodes.get(v)); labels.add(graph.label(graph.nodes.get(v))); }
+        final StackFrame fullStack = finishStack[0];
 
         for (int i = 0; i < finished.size(); i++) {
-            final GraphNode n         = finished.get(i);
-            final String    orderSoFar = String.join(" ➔ ", labels.subList(0, i + 1));
-            final String    fsSnap    = formatStack(finishStack);
+            final GraphNode n     = finished.get(i);
+            final int       count = i + 1;
             algorithmSteps.add(() -> {
+                String orderSoFar = formatOrderPrefix(labels, count);
                 n.circle.setFill(Color.ORANGE);
                 resultLabel.setText("Topological Order: " + orderSoFar);
-                setAlgoState("Popping dependencies to reveal linear Topological flow: '" + n.label.getText() + "'", DS_TITLE, fsSnap, orderSoFar, null, null);
+                setAlgoState("Popping dependencies to reveal linear Topological flow: '" + graph.label(n) + "'",
+                        DS_TITLE, formatStack(fullStack), orderSoFar, null, null);
             });
         }
 
         algorithmSteps.add(() -> {
+            String finalOrder = formatOrderPrefix(labels, labels.size());
             for (GraphNode n : finished)  n.circle.setFill(Color.GREEN);
-            for (GraphEdge e : edges)     e.line.setStroke(Color.BLACK);
+            for (GraphEdge e : graph.edges)     e.line.setStroke(Color.BLACK);
             resultLabel.setText("Topological Order: " + finalOrder);
             setAlgoState("✅ Directed Acyclic Graph sorted linearly!", DS_TITLE, "(Done)", finalOrder, null, null);
         });
     }
 
-    private void topoSortHelper(GraphNode node, Set<GraphNode> visited, List<GraphNode> finished,
-                                List<String> dfsVisit, List<String> finishStack, String dsTitle) {
-        visited.add(node);
-        dfsVisit.add(node.label.getText());
+    /** Records the "visiting" step for {@code node} in the topological-sort DFS. */
+    private void topoVisit(GraphSnapshot graph, GraphNode node, List<String> dfsVisit,
+                           StackFrame finishStack, String dsTitle) {
+        dfsVisit.add(graph.label(node));
+        final GraphNode visiting   = node;
+        final int       visitCount = dfsVisit.size();
+        algorithmSteps.add(() -> {
+            visiting.circle.setFill(Color.YELLOW);
+            resultLabel.setText("Topological Sort: Visiting " + graph.label(visiting));
+            setAlgoState("Checking prerequisites for '" + graph.label(visiting) + "'...",
+                    dsTitle, formatStack(finishStack), formatOrderPrefix(dfsVisit, visitCount), null, null);
+        });
+    }
 
-        final GraphNode visiting  = node;
-        final String    vsSnap    = String.join(" ➔ ", dfsVisit);
-        final String    fsSnap1   = formatStack(finishStack);
+    // ─────────────────────────────────────────────
+    // DAG Scheduling: Kahn levels, critical path, k workers
+    // ─────────────────────────────────────────────
+    // Edges are tasks lasting their weight (1 when unweighted), nodes are the
+    // events between them. Plays Kahn's levels, the critical path and then the
+    // list schedule on the panel's worker count, one step per event time.
+    private void recordDagSchedule(GraphSnapshot graph, int workers) {
+        final String DS_TITLE = "Ready Levels (Kahn):";
+        Map<GraphNode, Integer> index = graph.index;
+        int n = graph.nodes.size(), m = graph.edges.size();
+        int[] src = new int[m], dst = new int[m], duration = new int[m];
+        for (int e = 0; e < m; e++) {
+            GraphEdge edge = graph.edges.get(e);
+            src[e] = index.get(edge.from); dst[e] = index.get(edge.to);
+            duration[e] = edge.isWeighted ? graph.weight(edge) : 1;
+        }
+        DagSchedule.Plan     plan = DagSchedule.analyze(n, src, dst, duration);
+        ScheduleRun          run  = simulateSchedule(plan, workers, k -> true);
+        DagSchedule.Schedule s    = run.schedule();
+        List<GraphEdge> tasks = new ArrayList<>(graph.edges);
 
+        final int[] inDegree = new int[n];
+        for (int e = 0; e < m; e++) inDegree[dst[e]]++;
         algorithmSteps.add(() -> {
-            visiting.circle.setFill(Color.YELLOW);
-            resultLabel.setText("Topological Sort: Visiting " + visiting.label.getText());
-            setAlgoState("Checking prerequisites for '" + visiting.label.getText() + "'...", dsTitle, fsSnap1, vsSnap, null, null);
+            for (int v = 0; v < n; v++) { graph.nodes.get(v).distLabel.setText("in " + inDegree[v]); graph.nodes.get(v).distLabel.setVisible(true); }
+            resultLabel.setText("DAG Scheduling: graph.edges are tasks, weights their durations");
+            setAlgoState("Kahn's algorithm: every node whose in-degree is 0 is ready. Removing a whole level at once "
+                    + "exposes which events can happen in parallel.", DS_TITLE, "(None yet)", "0 / " + n + " placed", null, null);
         });
 
-        for (GraphEdge edge : node.connectedEdges) {
-            if (edge.from != node) continue;
-            GraphNode nb = edge.to;
-            if (!visited.contains(nb)) {
-                final GraphEdge te = edge;
-                algorithmSteps.add(() -> te.line.setStroke(Color.ORANGE));
-                topoSortHelper(nb, visited, finished, dfsVisit, finishStack, dsTitle);
+        int[] remaining = inDegree.clone();
+        List<String> levelLines = new ArrayList<>();
+        for (int L = 0; L < plan.levels(); L++) {
+            List<GraphNode> members = new ArrayList<>();
+            for (int i = plan.levelStart[L]; i < plan.levelStart[L + 1]; i++) {
+                int u = plan.order[i];
+                members.add(graph.nodes.get(u));
+                for (int e = 0; e < m; e++) if (src[e] == u) remaining[dst[e]]--;
             }
+            levelLines.add("Level " + L + ": " + formatMembers(graph, members));
+            final int    level   = L, placed = plan.levelStart[L + 1];
+            final int[]  inSnap  = remaining.clone();
+            final String lines   = formatLinesPrefix(levelLines, levelLines.size());
+            algorithmSteps.add(() -> {
+                for (GraphNode node : members) { node.circle.setFill(componentColor(level)); node.distLabel.setText("L" + level); }
+                for (int v = 0; v < n; v++) if (plan.level[v] > level) graph.nodes.get(v).distLabel.setText("in " + inSnap[v]);
+                resultLabel.setText("Kahn level " + level + ": " + formatMembers(graph, members) + " ready together");
+                setAlgoState("Level " + level + " has in-degree 0 once the earlier levels are done. "
+                        + "Removing its out-graph.edges lowers the in-degrees below.", DS_TITLE, lines, placed + " / " + n + " placed", null, null);
+            });
         }
 
-        finished.add(node);
-        finishStack.add(node.label.getText());
+        final String levelsText = formatLinesPrefix(levelLines, levelLines.size());
+        int[] path = plan.criticalPath();
+        List<String> pathNames = new ArrayList<>();
+        for (int e : path) pathNames.add(describeEdge(tasks.get(e)) + " (" + duration[e] + ")");
+        algorithmSteps.add(() -> {
+            for (int v = 0; v < n; v++) graph.nodes.get(v).distLabel.setText("t=" + plan.earliest[v]);
+            resultLabel.setText("Earliest event times: longest path from any source, in Kahn order");
+            setAlgoState("Forward pass: an event happens when its slowest incoming task finishes (earliest = max over "
+                    + "in-graph.edges of earliest(tail) + duration).", DS_TITLE, levelsText, plan.levels() + " levels", null, null);
+        });
+        final String criticalText = formatLinesPrefix(pathNames, pathNames.size());
+        algorithmSteps.add(() -> {
+            for (int e = 0; e < m; e++) {
+                if (plan.critical(e)) { tasks.get(e).line.setStroke(Color.RED); tasks.get(e).line.setStrokeWidth(6); }
+                else                    tasks.get(e).line.setStroke(Color.LIGHTGRAY);
+            }
+            resultLabel.setText(String.format("Critical path: length %d, work %d → at most %.2f× faster than 1 worker",
+                    plan.length, plan.work, plan.speedupLimit()));
+            setAlgoState("Backward pass gives the latest times; red tasks have zero slack. No schedule can beat the critical "
+                    + "path, however many workers it has.", "Critical Path:", criticalText, path.length + " tasks",
+                    DS_TITLE, levelsText);
+        });
 
-        final List<String> fsSnap2 = new ArrayList<>(finishStack);
-        final String       fsStr   = formatStack(fsSnap2);
-        final String       vsSnap2 = String.join(" ➔ ", dfsVisit);
+        // Simulation: one step per distinct start time, then the finish.
+        long[] eventTime = new long[n];
+        for (int e = 0; e < m; e++) eventTime[dst[e]] = Math.max(eventTime[dst[e]], s.start[e] + duration[e]);
+        TreeSet<Long> times = new TreeSet<>();
+        for (int e = 0; e < m; e++) times.add(s.start[e]);
+        times.add(s.makespan);
+        Integer[] byStart = new Integer[m];
+        long[]    ends    = new long[m];
+        for (int e = 0; e < m; e++) { byStart[e] = e; ends[e] = s.start[e] + duration[e]; }
+        Arrays.sort(byStart, Comparator.comparingLong(e -> s.start[e]));
+        Arrays.sort(ends);
+        int[] current = new int[workers];          // last task started on each worker
+        Arrays.fill(current, -1);
+        int started = 0, done = 0;
+        for (long t : times) {
+            while (started < m && s.start[byStart[started]] <= t) { int e = byStart[started++]; current[s.worker[e]] = e; }
+            while (done < m && ends[done] <= t) done++;
+            List<String> status = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                int e = current[w];
+                status.add("W" + (w + 1) + ": " + (e >= 0 && t < s.start[e] + duration[e]
+                        ? describeEdge(tasks.get(e)) + " [" + s.start[e] + ", " + (s.start[e] + duration[e]) + ")" : "idle"));
+            }
+            final long   time   = t;
+            final int    doneSnap = done;
+            final String lines  = formatLinesPrefix(status, status.size());
+            algorithmSteps.add(() -> {
+                for (int e = 0; e < m; e++) {
+                    Line line = tasks.get(e).line;
+                    long end = s.start[e] + duration[e];
+                    if (s.start[e] > time)      { line.setStroke(Color.LIGHTGRAY); line.setStrokeWidth(3); }
+                    else if (end > time)        { line.setStroke(componentColor(s.worker[e])); line.setStrokeWidth(6); }
+                    else                        { line.setStroke(Color.GREEN); line.setStrokeWidth(3); }
+                }
+                for (int v = 0; v < n; v++)
+                    if (eventTime[v] <= time) graph.nodes.get(v).circle.setFill(Color.LIGHTGREEN);
+                resultLabel.setText(time == s.makespan
+                        ? String.format("All tasks done at t=%d on %d worker%s", time, workers, workers == 1 ? "" : "s")
+                        : String.format("t=%d: free workers take the ready task with the earliest latest start", time));
+                setAlgoState("List scheduling on " + workers + " worker" + (workers == 1 ? "" : "s")
+                        + ": a task is ready once its tail event has happened; thick graph.edges are running, coloured by worker.",
+                        "Workers at t=" + time + ":", lines, doneSnap + " / " + m + " tasks done", null, null);
+            });
+        }
 
         algorithmSteps.add(() -> {
-            visiting.circle.setFill(Color.MAGENTA);
-            resultLabel.setText("Topological Sort: " + visiting.label.getText() + " dependencies resolved.");
-            setAlgoState("All dependencies for '" + visiting.label.getText() + "' resolved. Pushing to Result Stack.", dsTitle, fsStr, vsSnap2, null, null);
+            for (int e = 0; e < m; e++) {
+                GraphEdge edge = tasks.get(e);
+                edge.line.setStroke(plan.critical(e) ? Color.RED : Color.GREEN);
+                edge.line.setStrokeWidth(plan.critical(e) ? 6 : 3);
+            }
+            showSchedule(run, e -> describeEdge(tasks.get(e)));
+            resultLabel.setText(String.format("Makespan %d on %d worker%s · critical path %d · work %d",
+                    s.makespan, workers, workers == 1 ? "" : "s", plan.length, plan.work));
+            setAlgoState("✅ " + summarizeSchedule(run), "Critical Path:", criticalText, path.length + " tasks",
+                    DS_TITLE, levelsText);
         });
     }
 
@@ -1619,12 +5131,22 @@ public class graphController {
     // PRIVATE UTILITY HELPERS
     // ===============================
 
+    /** Distinct pastel per component id: hues step by the golden angle so neighbours in id differ strongly. */
+    private static Color componentColor(int c) {
+        return Color.hsb((c * 137.508) % 360, 0.45, 0.95);
+    }
+
+    private boolean hasNegativeWeight() {
+        for (GraphEdge e : edges) if (parseWeight(e) < 0) return true;
+        return false;
+    }
+
     private int parseWeight(GraphEdge e) {
         if (!e.isWeighted) return 1;
         try { return Integer.parseInt(e.weightText.getText()); } catch (NumberFormatException ex) { return 1; }
     }
 
-    private String formatEdgePQ(PriorityQueue<GraphEdge> pq) {
+    private String formatEdgePQ(GraphSnapshot graph, PriorityQueue<GraphEdge> pq) {
         if (pq.isEmpty()) return "(Empty)";
         List<GraphEdge> list = new ArrayList<>(pq);
         list.sort(Comparator.comparingInt(this::parseWeight));
@@ -1633,19 +5155,7 @@ public class graphController {
         for (GraphEdge e : list) {
             if (c++ >= 7) { sb.append("  …\n"); break; }
             sb.append(String.format("  %-4s ─ %-4s | Weight = %-3d%n",
-                    e.from.label.getText(), e.to.label.getText(), parseWeight(e)));
-        }
-        return sb.toString().trim();
-    }
-
-    private String formatEdgeList(LinkedList<GraphEdge> list, int max) {
-        if (list.isEmpty()) return "(Empty)";
-        StringBuilder sb = new StringBuilder();
-        int c = 0;
-        for (GraphEdge e : list) {
-            if (c++ >= max) { sb.append("  …\n"); break; }
-            sb.append(String.format("  %-4s ─ %-4s | Weight = %-3d%n",
-                    e.from.label.getText(), e.to.label.getText(), parseWeight(e)));
+                    graph.label(e.from), graph.label(e.to), graph.weight(e)));
         }
         return sb.toString().trim();
     }
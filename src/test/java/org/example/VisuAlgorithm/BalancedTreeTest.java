@@ -0,0 +1,142 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BalancedTreeTest {
+
+    private static final class N extends BalancedTree.Node<N> {
+        N(int value) { super(value); }
+    }
+
+    private static class Tree extends BalancedTree<N> {
+        final Balance mode;
+        N   root;
+        int size;
+        Tree(Balance mode) { this.mode = mode; }
+        @Override protected N       root()             { return root; }
+        @Override protected void    setRoot(N node)    { root = node; }
+        @Override protected N       newNode(int value) { return new N(value); }
+        @Override protected Balance balance()          { return mode; }
+        @Override protected void    resized(int delta) { size += delta; }
+    }
+
+    /** Keys in order, links both ways, stored heights true; returns the height. */
+    private static int assertShape(N n, N parent, long lo, long hi) {
+        if (n == null) return 0;
+        assertTrue(n.value > lo && n.value < hi, n.value + " out of order");
+        assertTrue(n.parent == parent, "bad parent link at " + n.value);
+        int h = 1 + Math.max(assertShape(n.left, n, lo, n.value), assertShape(n.right, n, n.value, hi));
+        assertEquals(h, n.height, "stored height at " + n.value);
+        return h;
+    }
+
+    private static void assertAvl(N n) {
+        if (n == null) return;
+        assertTrue(Math.abs(BalancedTree.balanceOf(n)) <= 1, "balance factor at " + n.value);
+        assertAvl(n.left);
+        assertAvl(n.right);
+    }
+
+    /** No red node with a red child and the same black count on every path; returns that count. */
+    private static int assertRedBlack(N n) {
+        if (n == null) return 1;
+        if (n.red) assertFalse(BalancedTree.isRed(n.left) || BalancedTree.isRed(n.right), "red-red at " + n.value);
+        int l = assertRedBlack(n.left), r = assertRedBlack(n.right);
+        assertEquals(l, r, "black heights differ under " + n.value);
+        return l + (n.red ? 0 : 1);
+    }
+
+    private static void assertHeap(N n) {
+        if (n == null) return;
+        if (n.left  != null) assertTrue(n.left.priority  <= n.priority, "heap order at " + n.value);
+        if (n.right != null) assertTrue(n.right.priority <= n.priority, "heap order at " + n.value);
+        assertHeap(n.left);
+        assertHeap(n.right);
+    }
+
+    private static void inorder(N n, List<Integer> out) {
+        if (n == null) return;
+        inorder(n.left, out);
+        out.add(n.value);
+        inorder(n.right, out);
+    }
+
+    private static void assertTree(Tree t, TreeSet<Integer> expected) {
+        assertEquals(expected.size(), t.size);
+        if (t.root != null) assertNull(t.root.parent);
+        assertShape(t.root, null, Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Integer> keys = new ArrayList<>();
+        inorder(t.root, keys);
+        assertEquals(new ArrayList<>(expected), keys);
+        switch (t.mode) {
+            case AVL       -> assertAvl(t.root);
+            case RED_BLACK -> { assertFalse(BalancedTree.isRed(t.root)); assertRedBlack(t.root); }
+            case TREAP     -> assertHeap(t.root);
+            case PLAIN     -> { }
+        }
+    }
+
+    @Test
+    void invariantsHoldAfterEveryRandomInsertAndDelete() {
+        for (BalancedTree.Balance mode : BalancedTree.Balance.values()) {
+            Random           rng      = new Random(31);
+            Tree             t        = new Tree(mode);
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int step = 0; step < 3000; step++) {
+                int key = rng.nextInt(400);
+                if (rng.nextInt(3) > 0) {
+                    N added = t.insert(key, rng.nextInt(100));
+                    assertEquals(expected.add(key), added != null, mode + ": insert " + key);
+                } else {
+                    N removed = t.delete(key);
+                    assertEquals(expected.remove(key), removed != null, mode + ": delete " + key);
+                    if (removed != null) assertTrue(removed.parent == null && removed.left == null && removed.right == null);
+                }
+                assertTree(t, expected);
+            }
+        }
+    }
+
+    @Test
+    void sortedKeysStayLogarithmicExceptInThePlainTree() {
+        int n = 1 << 12;
+        for (BalancedTree.Balance mode : BalancedTree.Balance.values()) {
+            Tree   t   = new Tree(mode);
+            Random rng = new Random(2);
+            for (int k = 0; k < n; k++) t.insert(k, rng.nextInt(1_000_000));
+            int h = BalancedTree.heightOf(t.root);
+            switch (mode) {
+                case PLAIN     -> assertEquals(n, h);
+                case AVL       -> assertTrue(h <= 1.45 * 12 + 1, "AVL height " + h);
+                case RED_BLACK -> assertTrue(h <= 2 * 13, "red-black height " + h);
+                case TREAP     -> assertTrue(h <= 4 * 12, "treap height " + h);
+            }
+        }
+    }
+
+    @Test
+    void hooksSeeEveryRotationAndStage() {
+        // 1, 2, 3 into an AVL tree: one left rotation at 1 lifts 2.
+        List<String> log = new ArrayList<>();
+        Tree t = new Tree(BalancedTree.Balance.AVL) {
+            @Override protected void rotated(N x, N y) { log.add("rotate " + x.value + " under " + y.value); }
+            @Override protected void stageDone(N pivot, N added, N removed) {
+                log.add(added != null ? "add " + added.value : removed != null ? "remove " + removed.value : "pivot " + pivot.value);
+            }
+        };
+        for (int k = 1; k <= 3; k++) t.insert(k, 0);
+        assertEquals(List.of("add 1", "add 2", "add 3", "rotate 1 under 2", "pivot 2"), log);
+        assertEquals(1, t.rotations);
+        assertEquals(2, t.root.value);
+    }
+}
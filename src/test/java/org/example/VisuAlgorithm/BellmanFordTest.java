@@ -0,0 +1,116 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BellmanFordTest {
+
+    private static final class Edges {
+        final int[] src, dst, w;
+        Edges(int[] src, int[] dst, int[] w) { this.src = src; this.dst = dst; this.w = w; }
+        CsrGraph graph(int n) {
+            boolean[] dir = new boolean[src.length];
+            Arrays.fill(dir, true);
+            return CsrGraph.of(n, src, dst, w, dir);
+        }
+    }
+
+    /** Negative arcs, but a potential difference on top of a non-negative base rules out negative cycles. */
+    private static Edges randomEdges(int n, int m, Random rng) {
+        int[] potential = new int[n];
+        for (int v = 0; v < n; v++) potential[v] = rng.nextInt(40);
+        int[] src = new int[m], dst = new int[m], w = new int[m];
+        for (int e = 0; e < m; e++) {
+            src[e] = rng.nextInt(n);
+            dst[e] = rng.nextInt(n);
+            w[e]   = rng.nextInt(20) + potential[src[e]] - potential[dst[e]];
+        }
+        return new Edges(src, dst, w);
+    }
+
+    /** n - 1 rounds over every edge, no early exit. */
+    private static long[] reference(int n, Edges g, int s) {
+        long[] dist = new long[n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[s] = 0;
+        for (int round = 1; round < n; round++)
+            for (int e = 0; e < g.src.length; e++)
+                if (dist[g.src[e]] != Long.MAX_VALUE && dist[g.src[e]] + g.w[e] < dist[g.dst[e]])
+                    dist[g.dst[e]] = dist[g.src[e]] + g.w[e];
+        return dist;
+    }
+
+    /** Every reached node's tree edge leads from its parent and accounts for its distance exactly. */
+    private static void assertTree(Edges g, int s, BellmanFord.Result r) {
+        for (int v = 0; v < r.dist.length; v++) {
+            if (v == s || r.dist[v] == Long.MAX_VALUE) { assertEquals(-1, r.parentEdge[v]); continue; }
+            int e = r.parentEdge[v];
+            assertEquals(v, g.dst[e]);
+            assertEquals(r.parent[v], g.src[e]);
+            assertEquals(r.dist[r.parent[v]] + g.w[e], r.dist[v]);
+        }
+    }
+
+    @Test
+    void classicAndSpfaMatchReferenceOnRandomGraphs() {
+        Random rng = new Random(13);
+        for (int trial = 0; trial < 300; trial++) {
+            int      n = 1 + rng.nextInt(50);
+            Edges    e = randomEdges(n, rng.nextInt(4 * n + 1), rng);
+            CsrGraph g = e.graph(n);
+            int      s = rng.nextInt(n);
+            long[]   expected = reference(n, e, s);
+            for (BellmanFord.Result r : new BellmanFord.Result[] { BellmanFord.classic(g, s, null), BellmanFord.spfa(g, s, null) }) {
+                assertFalse(r.hasNegativeCycle());
+                assertArrayEquals(expected, r.dist);
+                assertTree(e, s, r);
+            }
+        }
+    }
+
+    @Test
+    void negativeCycleIsWalkedAndSumsBelowZero() {
+        // 0 -> 1 -> 2 -> 3 -> 1 with 1 -> 2 -> 3 -> 1 summing to -1
+        Edges    e = new Edges(new int[] { 0, 1, 2, 3, 3 }, new int[] { 1, 2, 3, 1, 4 }, new int[] { 2, 3, -6, 2, 1 });
+        CsrGraph g = e.graph(5);
+        for (BellmanFord.Result r : new BellmanFord.Result[] { BellmanFord.classic(g, 0, null), BellmanFord.spfa(g, 0, null) }) {
+            assertTrue(r.hasNegativeCycle());
+            int  k   = r.cycle.length;
+            long sum = 0;
+            assertEquals(k, r.cycleEdges.length);
+            for (int i = 0; i < k; i++) {
+                int edge = r.cycleEdges[i];
+                assertEquals(r.cycle[i], e.src[edge]);
+                assertEquals(r.cycle[(i + 1) % k], e.dst[edge]);
+                sum += e.w[edge];
+            }
+            assertTrue(sum < 0, "cycle sums to " + sum);
+        }
+    }
+
+    @Test
+    void unreachableNodesStayUnreached() {
+        Edges              e = new Edges(new int[] { 0, 2 }, new int[] { 1, 3 }, new int[] { 4, 1 });
+        BellmanFord.Result r = BellmanFord.spfa(e.graph(4), 0, null);
+        assertArrayEquals(new long[] { 0, 4, Long.MAX_VALUE, Long.MAX_VALUE }, r.dist);
+        assertEquals(-1, r.parent[3]);
+    }
+
+    @Test
+    void classicStopsAfterAQuietRound() {
+        // A path 0 -> 1 -> ... -> 9 listed in order settles in round one; round two changes nothing.
+        int   n   = 10;
+        int[] src = new int[n - 1], dst = new int[n - 1], w = new int[n - 1];
+        for (int i = 0; i + 1 < n; i++) { src[i] = i; dst[i] = i + 1; w[i] = 1; }
+        BellmanFord.Result r = BellmanFord.classic(new Edges(src, dst, w).graph(n), 0, null);
+        assertEquals(2, r.rounds);
+        assertEquals(n - 1, r.dist[n - 1]);
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CentralityTest {
+
+    private static final double EPS = 1e-9;
+
+    private static Centrality.Result all(CsrGraph g, boolean weighted) {
+        return Centrality.run(g, weighted, Centrality.allSources(g.n), null, null);
+    }
+
+    private static CsrGraph undirected(int n, int[] src, int[] dst) { return CsrGraph.of(n, src, dst, null, null); }
+
+    private static CsrGraph directed(int n, int[] src, int[] dst) {
+        boolean[] dir = new boolean[src.length];
+        Arrays.fill(dir, true);
+        return CsrGraph.of(n, src, dst, null, dir);
+    }
+
+    /**
+     * Definition-level scores: all-pairs distances and path counts by
+     * relaxing to a fixed point, then σ_st(v) = σ_sv·σ_vt wherever
+     * d(s, v) + d(v, t) = d(s, t).
+     */
+    private static double[][] reference(CsrGraph g, boolean weighted) {
+        int n = g.n;
+        long INF = Long.MAX_VALUE / 4;
+        long[][] d = new long[n][n];
+        for (long[] row : d) Arrays.fill(row, INF);
+        for (int s = 0; s < n; s++) {
+            d[s][s] = 0;
+            for (boolean changed = true; changed; ) {
+                changed = false;
+                for (int u = 0; u < n; u++)
+                    for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                        long nd = d[s][u] + (weighted ? g.weight[a] : 1);
+                        if (nd < d[s][g.target[a]]) { d[s][g.target[a]] = nd; changed = true; }
+                    }
+            }
+        }
+        double[][] sigma = new double[n][n];
+        for (int s = 0; s < n; s++) {
+            Integer[] byDist = new Integer[n];
+            for (int v = 0; v < n; v++) byDist[v] = v;
+            int src = s;
+            Arrays.sort(byDist, (x, y) -> Long.compare(d[src][x], d[src][y]));
+            sigma[s][s] = 1;
+            for (int u : byDist) {
+                if (d[s][u] >= INF) continue;
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++) {
+                    int v = g.target[a];
+                    if (v != u && d[s][u] + (weighted ? g.weight[a] : 1) == d[s][v]) sigma[s][v] += sigma[s][u];
+                }
+            }
+        }
+        double[] betweenness = new double[n], closeness = new double[n];
+        for (int s = 0; s < n; s++)
+            for (int t = 0; t < n; t++) {
+                if (s == t || d[s][t] >= INF) continue;
+                closeness[t] += 1.0 / d[s][t];
+                for (int v = 0; v < n; v++)
+                    if (v != s && v != t && d[s][v] + d[v][t] == d[s][t]) betweenness[v] += sigma[s][v] * sigma[v][t] / sigma[s][t];
+            }
+        for (int v = 0; v < n; v++) {
+            betweenness[v] = n > 2 ? betweenness[v] / ((n - 1.0) * (n - 2.0)) : 0;
+            closeness[v]   = n > 1 ? closeness[v] / (n - 1) : 0;
+        }
+        return new double[][] { betweenness, closeness };
+    }
+
+    @Test
+    void pathStarAndCycleHaveTheirTextbookScores() {
+        Centrality.Result path = all(undirected(3, new int[] { 0, 1 }, new int[] { 1, 2 }), false);
+        assertArrayEquals(new double[] { 0, 1, 0 }, path.betweenness, EPS);
+        assertArrayEquals(new double[] { 0.75, 1, 0.75 }, path.closeness, EPS);
+
+        Centrality.Result star = all(undirected(5, new int[] { 0, 0, 0, 0 }, new int[] { 1, 2, 3, 4 }), false);
+        assertArrayEquals(new double[] { 1, 0, 0, 0, 0 }, star.betweenness, EPS);
+        assertArrayEquals(new double[] { 1, 0.625, 0.625, 0.625, 0.625 }, star.closeness, EPS);
+        assertEquals(0, Centrality.Result.argMax(star.betweenness));
+
+        Centrality.Result cycle = all(undirected(4, new int[] { 0, 1, 2, 3 }, new int[] { 1, 2, 3, 0 }), false);
+        for (int v = 0; v < 4; v++) {
+            assertEquals(1 / 6.0, cycle.betweenness[v], EPS);     // half of each opposite pair's two paths
+            assertEquals(2.5 / 3, cycle.closeness[v], EPS);
+        }
+    }
+
+    @Test
+    void directedAndWeightedGraphsFollowTheirShortestPaths() {
+        Centrality.Result chain = all(directed(3, new int[] { 0, 1 }, new int[] { 1, 2 }), false);
+        assertArrayEquals(new double[] { 0, 0.5, 0 }, chain.betweenness, EPS);
+        assertArrayEquals(new double[] { 0, 0.5, 0.75 }, chain.closeness, EPS);     // closeness counts how v is reached
+
+        // The direct 0-2 edge costs 3, so the weighted shortest path runs through 1.
+        CsrGraph triangle = CsrGraph.of(3, new int[] { 0, 1, 0 }, new int[] { 1, 2, 2 }, new int[] { 1, 1, 3 }, null);
+        assertArrayEquals(new double[] { 0, 1, 0 }, all(triangle, true).betweenness, EPS);
+        assertArrayEquals(new double[] { 0, 0, 0 }, all(triangle, false).betweenness, EPS);
+    }
+
+    @Test
+    void randomGraphsMatchTheDefinitionInlineAndOnAPool() {
+        Random       rng  = new Random(41);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int trial = 0; trial < 60; trial++) {
+                int       n        = 1 + rng.nextInt(25), m = rng.nextInt(3 * n);
+                boolean   weighted = rng.nextBoolean();
+                int[]     src = new int[m], dst = new int[m], w = new int[m];
+                boolean[] dir = new boolean[m];
+                for (int e = 0; e < m; e++) { src[e] = rng.nextInt(n); dst[e] = rng.nextInt(n); w[e] = 1 + rng.nextInt(3); dir[e] = rng.nextBoolean(); }
+                CsrGraph g = CsrGraph.of(n, src, dst, w, dir);
+
+                double[][]        expected = reference(g, weighted);
+                Centrality.Result inline   = Centrality.run(g, weighted, Centrality.allSources(n), null, null);
+                Centrality.Result parallel = Centrality.run(g, weighted, Centrality.allSources(n), pool, null);
+                for (Centrality.Result r : new Centrality.Result[] { inline, parallel }) {
+                    assertArrayEquals(expected[0], r.betweenness, 1e-9);
+                    assertArrayEquals(expected[1], r.closeness, 1e-9);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void samplingEveryNodeIsExactAndAListenerCanCancel() {
+        CsrGraph g = undirected(6, new int[] { 0, 1, 2, 3, 4 }, new int[] { 1, 2, 3, 4, 5 });
+        int[] sample = Centrality.sampleSources(6, 3, 7);
+        assertEquals(3, Arrays.stream(sample).distinct().count());
+        assertTrue(Arrays.stream(sample).allMatch(s -> s >= 0 && s < 6));
+        assertTrue(Centrality.run(g, false, sample, null, null).sampled());
+        assertArrayEquals(all(g, false).betweenness, Centrality.run(g, false, Centrality.sampleSources(6, 9, 7), null, null).betweenness, EPS);
+
+        assertThrows(CancellationException.class, () -> Centrality.run(g, false, Centrality.allSources(6), null, (done, total) -> done < 2));
+        assertThrows(IllegalArgumentException.class, () -> Centrality.run(
+                CsrGraph.of(2, new int[] { 0 }, new int[] { 1 }, new int[] { 0 }, null), true, Centrality.allSources(2), null, null));
+    }
+}
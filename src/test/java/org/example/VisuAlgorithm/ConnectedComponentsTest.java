@@ -0,0 +1,97 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectedComponentsTest {
+
+    /** Smallest id per component by naive relabelling: merge the larger label into the smaller per edge. */
+    private static int[] reference(int n, int[] src, int[] dst) {
+        int[] label = new int[n];
+        for (int v = 0; v < n; v++) label[v] = v;
+        for (int e = 0; e < src.length; e++) {
+            int a = label[src[e]], b = label[dst[e]];
+            if (a == b) continue;
+            int keep = Math.min(a, b), drop = Math.max(a, b);
+            for (int v = 0; v < n; v++) if (label[v] == drop) label[v] = keep;
+        }
+        return label;
+    }
+
+    private static void assertResult(int[] expected, ConnectedComponents.Result r, String what) {
+        assertArrayEquals(expected, r.label, what);
+        int[] size = new int[expected.length];
+        int components = 0, largest = 0;
+        for (int l : expected) { if (size[l]++ == 0) components++; largest = Math.max(largest, size[l]); }
+        assertEquals(components, r.components, what);
+        assertEquals(largest, r.largest, what);
+    }
+
+    @Test
+    void everyEngineGivesTheSamePartition() {
+        Random       rng  = new Random(45);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int trial = 0; trial < 80; trial++) {
+                int   n   = 1 + rng.nextInt(trial < 70 ? 200 : 50_000);
+                int   m   = rng.nextInt(trial % 3 == 0 ? n / 2 + 1 : 2 * n);     // some trials stay very fragmented
+                int[] src = new int[m], dst = new int[m];
+                for (int e = 0; e < m; e++) { src[e] = rng.nextInt(n); dst[e] = rng.nextInt(n); }
+                int[] expected = n <= 200 ? reference(n, src, dst) : ConnectedComponents.bfs(CsrGraph.of(n, src, dst, null, null), null).label;
+                String what = "trial " + trial + ", n = " + n;
+
+                assertResult(expected, ConnectedComponents.bfs(CsrGraph.of(n, src, dst, null, null), null), "bfs, " + what);
+                assertResult(expected, ConnectedComponents.unionFind(n, src, dst, null), "union-find, " + what);
+                assertResult(expected, ConnectedComponents.labelPropagation(n, src, dst, null, null), "propagation, " + what);
+                assertResult(expected, ConnectedComponents.labelPropagation(n, src, dst, pool, null), "propagation on pool, " + what);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void longPathNeedsOnlyLogarithmicJumpPasses() {
+        // Ids shuffled along the path, so hooking cannot simply chain down from the smallest id.
+        int   n = 1 << 16;
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) perm[i] = i;
+        Random rng = new Random(46);
+        for (int i = n - 1; i > 0; i--) { int j = rng.nextInt(i + 1), t = perm[i]; perm[i] = perm[j]; perm[j] = t; }
+        int[] src = new int[n - 1], dst = new int[n - 1];
+        for (int i = 0; i < n - 1; i++) { src[i] = perm[i]; dst[i] = perm[i + 1]; }
+
+        ConnectedComponents.Result r = ConnectedComponents.labelPropagation(n, src, dst, null, null);
+        assertEquals(1, r.components);
+        for (int l : r.label) assertEquals(0, l);
+        assertTrue(r.rounds <= 4 * 16, r.rounds + " rounds");
+    }
+
+    @Test
+    void listenerSeesPhasesAndNeverALabelBelowTheFinalOne() {
+        int[] src = { 0, 2, 3, 5 }, dst = { 1, 3, 4, 5 };
+        int[] expected = reference(6, src, dst);
+        int[] components = { 0 }, unions = { 0 };
+        ConnectedComponents.bfs(CsrGraph.of(6, src, dst, null, null), (phase, edge, parent) -> {
+            assertEquals(ConnectedComponents.Phase.COMPONENT, phase);
+            components[0]++;
+        });
+        assertEquals(3, components[0]);
+        ConnectedComponents.unionFind(6, src, dst, (phase, edge, parent) -> {
+            assertEquals(ConnectedComponents.Phase.UNION, phase);
+            assertTrue(edge >= 0 && edge < 3, "only merging edges are reported");
+            unions[0]++;
+        });
+        assertEquals(3, unions[0]);
+        ConnectedComponents.labelPropagation(6, src, dst, null, (phase, edge, parent) -> {
+            assertTrue(phase == ConnectedComponents.Phase.HOOK || phase == ConnectedComponents.Phase.JUMP);
+            for (int v = 0; v < 6; v++) assertTrue(parent[v] >= expected[v], "labels only decrease to the component minimum");
+        });
+    }
+}
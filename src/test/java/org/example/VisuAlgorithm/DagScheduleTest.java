@@ -0,0 +1,105 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DagScheduleTest {
+
+    /** Random DAG on n events: every task runs from a lower to a higher node id. */
+    private static DagSchedule.Plan randomPlan(int n, int m, Random rng) {
+        int[] src = new int[m], dst = new int[m], duration = new int[m];
+        for (int e = 0; e < m; e++) {
+            int a = rng.nextInt(n), b = rng.nextInt(n - 1);
+            if (b >= a) b++;
+            src[e] = Math.min(a, b); dst[e] = Math.max(a, b);
+            duration[e] = rng.nextInt(10);                 // zero-length tasks included
+        }
+        return DagSchedule.analyze(n, src, dst, duration);
+    }
+
+    /** Longest path into every node by relaxing in id order, which is topological here. */
+    private static long[] earliest(DagSchedule.Plan p) {
+        long[] t = new long[p.n];
+        for (int v = 0; v < p.n; v++)
+            for (int e = 0; e < p.m; e++) if (p.dst[e] == v) t[v] = Math.max(t[v], t[p.src[e]] + p.duration[e]);
+        return t;
+    }
+
+    /** Tasks start once their event has happened, and no worker runs two tasks at once. */
+    private static void assertFeasible(DagSchedule.Plan p, DagSchedule.Schedule s) {
+        long[] event = new long[p.n];
+        for (int e = 0; e < p.m; e++) event[p.dst[e]] = Math.max(event[p.dst[e]], s.start[e] + p.duration[e]);
+        List<List<Integer>> byWorker = new ArrayList<>();
+        for (int w = 0; w < s.workers; w++) byWorker.add(new ArrayList<>());
+        for (int e = 0; e < p.m; e++) {
+            assertTrue(s.start[e] >= event[p.src[e]], "task " + e + " starts before its event");
+            assertTrue(s.worker[e] >= 0 && s.worker[e] < s.workers);
+            assertTrue(s.start[e] + p.duration[e] <= s.makespan);
+            byWorker.get(s.worker[e]).add(e);
+        }
+        for (List<Integer> tasks : byWorker) {
+            tasks.sort((a, b) -> s.start[a] != s.start[b] ? Long.compare(s.start[a], s.start[b])
+                                                        : Integer.compare(p.duration[a], p.duration[b]));   // zero-length tasks first
+            for (int i = 1; i < tasks.size(); i++)
+                assertTrue(s.start[tasks.get(i - 1)] + p.duration[tasks.get(i - 1)] <= s.start[tasks.get(i)], "worker overlap");
+        }
+    }
+
+    @Test
+    void planMatchesBruteForceLongestPaths() {
+        Random rng = new Random(44);
+        for (int trial = 0; trial < 200; trial++) {
+            DagSchedule.Plan p = randomPlan(2 + rng.nextInt(30), rng.nextInt(60), rng);
+            long[] expected = earliest(p);
+            long   length   = 0;
+            for (int v = 0; v < p.n; v++) {
+                assertEquals(expected[v], p.earliest[v], "earliest of " + v);
+                assertTrue(p.latest[v] >= p.earliest[v]);
+                length = Math.max(length, expected[v]);
+            }
+            assertEquals(length, p.length);
+            long path = 0;
+            for (int e : p.criticalPath()) { assertTrue(p.critical(e)); path += p.duration[e]; }
+            assertEquals(p.m == 0 ? 0 : length, path);
+            for (int e = 0; e < p.m; e++) {
+                assertTrue(p.slack(e) >= 0, "negative slack on " + e);
+                assertTrue(p.level[p.dst[e]] > p.level[p.src[e]], "task " + e + " does not climb a level");
+            }
+        }
+    }
+
+    @Test
+    void makespanLiesBetweenTheLowerBoundsAndGrahamsBound() {
+        Random rng = new Random(45);
+        for (int trial = 0; trial < 300; trial++) {
+            DagSchedule.Plan p = randomPlan(2 + rng.nextInt(40), rng.nextInt(120), rng);
+            for (int k : new int[] { 1, 2, 3, 8 }) {
+                DagSchedule.Schedule s = DagSchedule.listSchedule(p, k);
+                assertFeasible(p, s);
+                String what = "trial " + trial + ", " + k + " workers";
+                assertTrue(s.makespan >= p.length, what + ": beats the critical path");
+                assertTrue(s.makespan * k >= p.work, what + ": beats work / k");
+                assertTrue(s.makespan * k <= p.work + (long) k * p.length, what + ": exceeds work / k + length");
+                assertEquals(p.work, s.busy);
+                assertTrue(s.maxRunning <= k);
+                if (k == 1) assertEquals(p.work, s.makespan, what + ": one worker never idles");
+            }
+            assertEquals(p.length, DagSchedule.listSchedule(p, Math.max(1, p.m)).makespan, "one worker per task follows the critical path");
+        }
+    }
+
+    @Test
+    void badInputIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> DagSchedule.analyze(2, new int[] { 0, 1 }, new int[] { 1, 0 }, new int[] { 1, 1 }));
+        assertThrows(IllegalArgumentException.class, () -> DagSchedule.analyze(2, new int[] { 0 }, new int[] { 1 }, new int[] { -1 }));
+        DagSchedule.Plan p = DagSchedule.analyze(2, new int[] { 0 }, new int[] { 1 }, new int[] { 3 });
+        assertThrows(IllegalArgumentException.class, () -> DagSchedule.listSchedule(p, 0));
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DepthFirstTest {
+
+    private static CsrGraph randomGraph(int n, int m, boolean directed, Random rng) {
+        int[] src = new int[m], dst = new int[m];
+        boolean[] dir = new boolean[m];
+        for (int e = 0; e < m; e++) { src[e] = rng.nextInt(n); dst[e] = rng.nextInt(n); dir[e] = directed || rng.nextBoolean(); }
+        return CsrGraph.of(n, src, dst, null, dir);
+    }
+
+    /** Random DAG: every edge runs from a lower to a higher position in a shuffled order. */
+    private static CsrGraph randomDag(int n, int m, Random rng) {
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) rank[i] = i;
+        for (int i = n - 1; i > 0; i--) { int j = rng.nextInt(i + 1), t = rank[i]; rank[i] = rank[j]; rank[j] = t; }
+        int[] src = new int[m], dst = new int[m];
+        for (int e = 0; e < m; e++) {
+            int a = rng.nextInt(n), b = rng.nextInt(n - 1);
+            if (b >= a) b++;
+            src[e] = rank[Math.min(a, b)]; dst[e] = rank[Math.max(a, b)];
+        }
+        boolean[] dir = new boolean[m];
+        Arrays.fill(dir, true);
+        return CsrGraph.of(n, src, dst, null, dir);
+    }
+
+    /** The textbook recursion, logging "+v via e" on discovery and "-v" on finish. */
+    private static void recursive(CsrGraph g, int u, int via, boolean[] seen, List<String> log) {
+        seen[u] = true;
+        log.add("+" + u + " via " + via);
+        for (int a = g.offset[u]; a < g.offset[u + 1]; a++)
+            if (!seen[g.target[a]]) recursive(g, g.target[a], g.edge[a], seen, log);
+        log.add("-" + u);
+    }
+
+    private static DepthFirst.Listener logger(List<String> log) {
+        return new DepthFirst.Listener() {
+            @Override public void discovered(int node, int viaEdge) { log.add("+" + node + " via " + viaEdge); }
+            @Override public void finished(int node)                { log.add("-" + node); }
+        };
+    }
+
+    /** Kahn's algorithm: a cycle exactly when some node never reaches in-degree zero. */
+    private static boolean kahnFindsCycle(CsrGraph g) {
+        int[] indeg = new int[g.n], queue = new int[g.n];
+        for (int a = 0; a < g.arcCount(); a++) indeg[g.target[a]]++;
+        int head = 0, tail = 0;
+        for (int v = 0; v < g.n; v++) if (indeg[v] == 0) queue[tail++] = v;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = g.offset[u]; a < g.offset[u + 1]; a++) if (--indeg[g.target[a]] == 0) queue[tail++] = g.target[a];
+        }
+        return tail < g.n;
+    }
+
+    @Test
+    void eventsMatchTheRecursiveDfs() {
+        Random rng = new Random(31);
+        for (int trial = 0; trial < 300; trial++) {
+            int      n = 1 + rng.nextInt(40);
+            CsrGraph g = randomGraph(n, rng.nextInt(3 * n), rng.nextBoolean(), rng);
+
+            int source = rng.nextInt(n);
+            List<String> expected = new ArrayList<>(), actual = new ArrayList<>();
+            recursive(g, source, -1, new boolean[n], expected);
+            DepthFirst.Result r = DepthFirst.from(g, source, logger(actual));
+            assertEquals(expected, actual);
+            assertEquals(expected.size() / 2, r.count);
+
+            expected.clear(); actual.clear();
+            boolean[] seen = new boolean[n];
+            for (int v = 0; v < n; v++) if (!seen[v]) recursive(g, v, -1, seen, expected);
+            r = DepthFirst.forest(g, logger(actual));
+            assertEquals(expected, actual);
+            assertEquals(n, r.count);
+
+            List<String> order = new ArrayList<>(), finish = new ArrayList<>();
+            for (int i = 0; i < n; i++) { order.add("+" + r.order[i]); finish.add("-" + r.finishOrder[i]); }
+            assertEquals(expected.stream().filter(s -> s.startsWith("+")).map(s -> s.substring(0, s.indexOf(' '))).toList(), order);
+            assertEquals(expected.stream().filter(s -> s.startsWith("-")).toList(), finish);
+        }
+    }
+
+    @Test
+    void reversedFinishOrderSortsEveryDag() {
+        Random rng = new Random(7);
+        for (int trial = 0; trial < 300; trial++) {
+            int      n = 2 + rng.nextInt(50);
+            CsrGraph g = randomDag(n, rng.nextInt(4 * n), rng);
+            assertFalse(DepthFirst.hasCycle(g));
+
+            int[] topo = DepthFirst.forest(g, null).topologicalOrder();
+            int[] pos  = new int[n];
+            Arrays.fill(pos, -1);
+            for (int i = 0; i < topo.length; i++) pos[topo[i]] = i;
+            for (int v = 0; v < n; v++) assertTrue(pos[v] >= 0, v + " missing from the order");
+            for (int u = 0; u < n; u++)
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++)
+                    assertTrue(pos[u] < pos[g.target[a]], "arc " + u + " -> " + g.target[a] + " runs backwards");
+        }
+    }
+
+    @Test
+    void cycleCheckAgreesWithKahn() {
+        Random rng = new Random(12);
+        int cyclic = 0;
+        for (int trial = 0; trial < 500; trial++) {
+            int      n = 1 + rng.nextInt(30);
+            CsrGraph g = randomGraph(n, rng.nextInt(2 * n), true, rng);
+            boolean expected = kahnFindsCycle(g);
+            assertEquals(expected, DepthFirst.hasCycle(g), "trial " + trial);
+            if (expected) cyclic++;
+        }
+        assertTrue(cyclic > 50 && cyclic < 450, "both outcomes exercised: " + cyclic);
+    }
+
+    @Test
+    void selfLoopAndUndirectedEdgeAreCycles() {
+        assertTrue(DepthFirst.hasCycle(CsrGraph.of(1, new int[] { 0 }, new int[] { 0 }, null, new boolean[] { true })));
+        assertTrue(DepthFirst.hasCycle(CsrGraph.of(2, new int[] { 0 }, new int[] { 1 }, null, null)));
+        assertFalse(DepthFirst.hasCycle(CsrGraph.of(2, new int[] { 0 }, new int[] { 1 }, null, new boolean[] { true })));
+    }
+
+    @Test
+    void millionNodeChainWalksWithoutOverflow() {
+        int n = 1_000_000;
+        int[] src = new int[n - 1], dst = new int[n - 1];
+        for (int i = 0; i < n - 1; i++) { src[i] = i; dst[i] = i + 1; }
+        boolean[] dir = new boolean[n - 1];
+        Arrays.fill(dir, true);
+        CsrGraph g = CsrGraph.of(n, src, dst, null, dir);
+
+        DepthFirst.Result r = DepthFirst.from(g, 0, null);
+        assertEquals(n, r.count);
+        assertEquals(n, r.maxStack);
+        assertEquals(n - 1, r.finishOrder[0]);
+        assertEquals(0, r.topologicalOrder()[0]);
+        assertFalse(DepthFirst.hasCycle(g));
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirectionOptimizingBfsTest {
+
+    private static CsrGraph randomGraph(int n, int m, boolean directed, Random rng) {
+        int[]     src = new int[m], dst = new int[m];
+        boolean[] dir = new boolean[m];
+        for (int e = 0; e < m; e++) { src[e] = rng.nextInt(n); dst[e] = rng.nextInt(n); dir[e] = directed; }
+        return CsrGraph.of(n, src, dst, null, dir);
+    }
+
+    /** Same depths as the queue BFS; every parent is one level up and reaches the node through its recorded edge. */
+    private static void assertBfsTree(CsrGraph g, int source, DirectionOptimizingBfs.Result expected, DirectionOptimizingBfs.Result r, String what) {
+        assertArrayEquals(expected.depth, r.depth, what);
+        assertEquals(expected.reached, r.reached, what);
+        assertEquals(source, r.parent[source]);
+        int discovered = 0;
+        for (DirectionOptimizingBfs.Level level : r.levels) discovered += level.discovered;
+        assertEquals(r.reached - 1, discovered, what + ": levels account for every node");
+        for (int v = 0; v < g.n; v++) {
+            if (v == source || r.depth[v] < 0) { assertEquals(v == source ? source : -1, r.parent[v]); continue; }
+            int p = r.parent[v];
+            assertEquals(r.depth[v] - 1, r.depth[p], what + ": parent of " + v);
+            boolean arc = false;
+            for (int a = g.offset[p]; a < g.offset[p + 1]; a++) arc |= g.target[a] == v && g.edge[a] == r.parentEdge[v];
+            assertTrue(arc, what + ": no arc " + p + " -> " + v + " with edge " + r.parentEdge[v]);
+        }
+    }
+
+    @Test
+    void everyModeMatchesTheQueueBfs() {
+        Random       rng  = new Random(38);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int trial = 0; trial < 60; trial++) {
+                int      n      = 1 + rng.nextInt(trial < 50 ? 200 : 30_000);
+                CsrGraph g      = randomGraph(n, rng.nextInt(8 * n + 1), rng.nextBoolean(), rng);
+                CsrGraph in     = g.reversed();
+                int      source = rng.nextInt(n);
+
+                DirectionOptimizingBfs.Result queue = DirectionOptimizingBfs.sequential(g, source);
+                assertBfsTree(g, source, queue, queue, "queue");
+                assertBfsTree(g, source, queue, DirectionOptimizingBfs.run(g, in, source, null, false), "top-down, trial " + trial);
+                assertBfsTree(g, source, queue, DirectionOptimizingBfs.run(g, null, source, null, true), "optimizing, trial " + trial);
+                assertBfsTree(g, source, queue, DirectionOptimizingBfs.run(g, in, source, pool, false), "top-down on pool, trial " + trial);
+                assertBfsTree(g, source, queue, DirectionOptimizingBfs.run(g, in, source, pool, true), "optimizing on pool, trial " + trial);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void denseGraphGoesBottomUpAndExaminesFewerArcs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            CsrGraph g = randomGraph(100_000, 1_600_000, false, new Random(39));
+            DirectionOptimizingBfs.Result queue     = DirectionOptimizingBfs.sequential(g, 0);
+            DirectionOptimizingBfs.Result optimized = DirectionOptimizingBfs.run(g, g.reversed(), 0, pool, true);
+            assertBfsTree(g, 0, queue, optimized, "optimizing");
+            assertTrue(optimized.bottomUpLevels() > 0);
+            assertTrue(optimized.edgesExamined * 2 < queue.edgesExamined, optimized.edgesExamined + " vs " + queue.edgesExamined);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DynamicShortestPathsTest {
+
+    /** The test's own copy of the edge list, so the reference never reads the engine's adjacency. */
+    private static final class Edge {
+        final int u, v; final boolean directed;
+        int w; boolean alive = true;
+        Edge(int u, int v, int w, boolean directed) { this.u = u; this.v = v; this.w = w; this.directed = directed; }
+    }
+
+    private static long[] bellmanFord(int n, int source, List<Edge> edges) {
+        long[] d = new long[n];
+        Arrays.fill(d, DynamicShortestPaths.INF);
+        d[source] = 0;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (Edge e : edges) {
+                if (!e.alive) continue;
+                if (d[e.u] != DynamicShortestPaths.INF && d[e.u] + e.w < d[e.v]) { d[e.v] = d[e.u] + e.w; changed = true; }
+                if (!e.directed && d[e.v] != DynamicShortestPaths.INF && d[e.v] + e.w < d[e.u]) { d[e.u] = d[e.v] + e.w; changed = true; }
+            }
+        }
+        return d;
+    }
+
+    /** Distances equal the reference and every reached node hangs off a live tree edge that is tight. */
+    private static void assertTree(DynamicShortestPaths sp, List<Edge> edges, String what) {
+        long[] expected = bellmanFord(sp.nodeCount(), sp.source(), edges);
+        for (int v = 0; v < sp.nodeCount(); v++) {
+            assertEquals(expected[v], sp.dist(v), what + ": dist of " + v);
+            int pe = sp.parentEdge(v);
+            if (v == sp.source() || expected[v] == DynamicShortestPaths.INF) { assertEquals(-1, pe, what + ": parent of " + v); continue; }
+            assertTrue(sp.isAlive(pe), what + ": dead tree edge under " + v);
+            Edge e = edges.get(pe);
+            assertTrue(e.v == v || (!e.directed && e.u == v), what + ": tree edge " + pe + " does not enter " + v);
+            assertEquals(sp.dist(v), sp.dist(sp.other(pe, v)) + e.w, what + ": tree edge into " + v + " is not tight");
+        }
+        assertEquals(0, sp.recomputeFromScratch().mismatches, what);
+    }
+
+    @Test
+    void everyEditLeavesTheSameDistancesAsAFullRecompute() {
+        Random rng = new Random(43);
+        for (int trial = 0; trial < 40; trial++) {
+            int                  n      = 1 + rng.nextInt(40);
+            int                  source = rng.nextInt(n);
+            DynamicShortestPaths sp     = new DynamicShortestPaths(n, source);
+            List<Edge>           edges  = new ArrayList<>();
+            for (int i = rng.nextInt(3 * n); i > 0; i--) {
+                Edge e = new Edge(rng.nextInt(n), rng.nextInt(n), rng.nextInt(10), rng.nextBoolean());
+                assertEquals(edges.size(), sp.addEdge(e.u, e.v, e.w, e.directed));
+                edges.add(e);
+            }
+            sp.computeAll(null);
+            assertTree(sp, edges, "initial, trial " + trial);
+
+            for (int step = 0; step < 150; step++) {
+                List<Integer> live = new ArrayList<>();
+                for (int i = 0; i < edges.size(); i++) if (edges.get(i).alive) live.add(i);
+                int    op   = live.isEmpty() ? 0 : rng.nextInt(4);
+                String what = "trial " + trial + ", step " + step + ", op " + op;
+                if (op == 0) {
+                    Edge  e  = new Edge(rng.nextInt(n), rng.nextInt(n), rng.nextInt(10), rng.nextBoolean());
+                    int[] id = new int[1];
+                    sp.insertEdge(e.u, e.v, e.w, e.directed, null, id);
+                    assertEquals(edges.size(), id[0]);
+                    edges.add(e);
+                } else if (op == 1) {
+                    int id = live.get(rng.nextInt(live.size()));
+                    sp.deleteEdge(id, null);
+                    edges.get(id).alive = false;
+                    assertFalse(sp.isAlive(id));
+                } else {
+                    int id = live.get(rng.nextInt(live.size())), w = rng.nextInt(12);
+                    sp.setWeight(id, w, null);
+                    edges.get(id).w = w;
+                    assertEquals(w, sp.weight(id));
+                }
+                assertTree(sp, edges, what);
+            }
+        }
+    }
+
+    @Test
+    void listenerReportsExactlyTheRepairedSubtree() {
+        // Chain 0 -> 1 -> 2 -> 3 plus a detour 0 -> 3; cutting 1 -> 2 strands 2 and reroutes 3.
+        DynamicShortestPaths sp = new DynamicShortestPaths(4, 0);
+        sp.addEdge(0, 1, 1, true);
+        int cut = sp.addEdge(1, 2, 1, true);
+        sp.addEdge(2, 3, 1, true);
+        sp.addEdge(0, 3, 10, true);
+        sp.computeAll(null);
+        assertEquals(3, sp.dist(3));
+
+        List<Integer> invalidated = new ArrayList<>(), settled = new ArrayList<>();
+        DynamicShortestPaths.Stats s = sp.deleteEdge(cut, new DynamicShortestPaths.Listener() {
+            @Override public void invalidated(int[] nodes, int count) { for (int i = 0; i < count; i++) invalidated.add(nodes[i]); }
+            @Override public void settled(int v, long dist, int parentEdge) { settled.add(v); }
+        });
+        invalidated.sort(null);
+        assertEquals(List.of(2, 3), invalidated);
+        assertEquals(List.of(3), settled);
+        assertEquals(2, s.invalidated);
+        assertEquals(DynamicShortestPaths.INF, sp.dist(2));
+        assertEquals(10, sp.dist(3));
+
+        // 2 -> 3 left the tree with 2; making it heavier changes nothing and touches nothing.
+        assertEquals(-1, sp.treeChild(2));
+        DynamicShortestPaths.Stats none = sp.setWeight(2, 5, null);
+        assertEquals(0, none.invalidated);
+        assertEquals(0, none.settled);
+        assertThrows(IllegalArgumentException.class, () -> sp.setWeight(0, -1, null));
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EdgeKeyIndexTest {
+
+    private static final class Edge {
+        final int from, to; final boolean directed;
+        Edge(int from, int to, boolean directed) { this.from = from; this.to = to; this.directed = directed; }
+    }
+
+    /** What the old matrix did: scan every edge for one leading from u to v. */
+    private static Edge scan(List<Edge> edges, int u, int v) {
+        for (Edge e : edges) if (e.from == u && e.to == v) return e;
+        for (Edge e : edges) if (!e.directed && e.from == v && e.to == u) return e;
+        return null;
+    }
+
+    @Test
+    void findMatchesAScanOfEveryEdge() {
+        Random             rng   = new Random(23);
+        EdgeKeyIndex<Edge> idx   = new EdgeKeyIndex<>(e -> e.directed);
+        List<Edge>         edges = new ArrayList<>();
+        int                n     = 40;
+        for (int step = 0; step < 3000; step++) {
+            int u = rng.nextInt(n), v = rng.nextInt(n);
+            if (rng.nextInt(3) > 0) {
+                // Same rule as the editor: one edge per stored orientation.
+                if (idx.contains(u, v)) continue;
+                Edge e = new Edge(u, v, rng.nextBoolean());
+                idx.put(u, v, e);
+                edges.add(e);
+            } else if (!edges.isEmpty()) {
+                Edge e = edges.remove(rng.nextInt(edges.size()));
+                assertTrue(idx.remove(e.from, e.to, e));
+            }
+            assertEquals(edges.size(), idx.size());
+            for (int q = 0; q < 20; q++) {
+                int a = rng.nextInt(n), b = rng.nextInt(n);
+                assertSame(scan(edges, a, b), idx.find(a, b), a + " -> " + b);
+            }
+        }
+    }
+
+    @Test
+    void undirectedEdgeIsFoundBothWaysButDirectedOnlyForward() {
+        EdgeKeyIndex<Edge> idx = new EdgeKeyIndex<>(e -> e.directed);
+        Edge und = new Edge(1, 2, false), dir = new Edge(3, 4, true);
+        idx.put(1, 2, und);
+        idx.put(3, 4, dir);
+        assertSame(und, idx.find(1, 2));
+        assertSame(und, idx.find(2, 1));
+        assertSame(dir, idx.find(3, 4));
+        assertNull(idx.find(4, 3));
+        assertNull(idx.get(2, 1));
+    }
+
+    @Test
+    void removeLeavesAReplacementAlone() {
+        EdgeKeyIndex<Edge> idx = new EdgeKeyIndex<>(e -> e.directed);
+        Edge old = new Edge(0, 1, true), now = new Edge(0, 1, true);
+        idx.put(0, 1, old);
+        idx.put(0, 1, now);
+        assertFalse(idx.remove(0, 1, old));
+        assertSame(now, idx.get(0, 1));
+    }
+
+    @Test
+    void negativeAndLargeIdsDoNotCollide() {
+        EdgeKeyIndex<Edge> idx = new EdgeKeyIndex<>(e -> e.directed);
+        idx.put(0, -1, new Edge(0, -1, true));
+        assertFalse(idx.contains(-1, 0));
+        assertFalse(idx.contains(1, -1));
+        assertTrue(EdgeKeyIndex.key(Integer.MAX_VALUE, 0) != EdgeKeyIndex.key(0, Integer.MAX_VALUE));
+    }
+}
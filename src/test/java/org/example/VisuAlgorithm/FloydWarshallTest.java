@@ -0,0 +1,120 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FloydWarshallTest {
+
+    /**
+     * Random directed graph with some negative arcs but no negative cycle:
+     * each weight is a non-negative base plus a potential difference.
+     */
+    private static CsrGraph randomGraph(int n, int m, Random rng) {
+        int[] potential = new int[n];
+        for (int v = 0; v < n; v++) potential[v] = rng.nextInt(50);
+        int[]     src = new int[m], dst = new int[m], w = new int[m];
+        boolean[] dir = new boolean[m];
+        for (int e = 0; e < m; e++) {
+            src[e] = rng.nextInt(n);
+            dst[e] = rng.nextInt(n);
+            w[e]   = rng.nextInt(30) + potential[src[e]] - potential[dst[e]];
+            dir[e] = true;
+        }
+        return CsrGraph.of(n, src, dst, w, dir);
+    }
+
+    /** Bellman–Ford from every source, written out plainly; unreachable entries become {@link FloydWarshall#INF}. */
+    private static int[] reference(CsrGraph g) {
+        int n = g.n;
+        int[] d = new int[n * n];
+        for (int s = 0; s < n; s++) {
+            long[] dist = new long[n];
+            Arrays.fill(dist, Long.MAX_VALUE);
+            dist[s] = 0;
+            for (boolean changed = true; changed; ) {
+                changed = false;
+                for (int u = 0; u < n; u++) {
+                    if (dist[u] == Long.MAX_VALUE) continue;
+                    for (int a = g.offset[u]; a < g.offset[u + 1]; a++)
+                        if (dist[u] + g.weight[a] < dist[g.target[a]]) { dist[g.target[a]] = dist[u] + g.weight[a]; changed = true; }
+                }
+            }
+            for (int v = 0; v < n; v++) d[s * n + v] = dist[v] == Long.MAX_VALUE ? FloydWarshall.INF : (int) dist[v];
+        }
+        return d;
+    }
+
+    /** Unreachable entries may drift below INF through negative arcs; fold them back for comparison. */
+    private static int[] normalized(int[] d) {
+        int[] out = d.clone();
+        for (int i = 0; i < out.length; i++) if (!FloydWarshall.reachable(out[i])) out[i] = FloydWarshall.INF;
+        return out;
+    }
+
+    @Test
+    void sequentialAndBlockedMatchReferenceAcrossSeveralTiles() {
+        Random       rng  = new Random(5);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n : new int[] { 1, 7, 64, 65, 150 }) {
+                CsrGraph g        = randomGraph(n, 3 * n, rng);
+                int[]    expected = reference(g);
+
+                int[] seq = FloydWarshall.matrix(g);
+                assertFalse(FloydWarshall.sequential(seq, n, null).hasNegativeCycle());
+                assertArrayEquals(expected, normalized(seq), "sequential, n = " + n);
+
+                int[] inline = FloydWarshall.matrix(g);
+                assertFalse(FloydWarshall.blocked(inline, n, null, null).hasNegativeCycle());
+                assertArrayEquals(expected, normalized(inline), "blocked without pool, n = " + n);
+
+                int[] par = FloydWarshall.matrix(g);
+                assertFalse(FloydWarshall.blocked(par, n, pool, null).hasNegativeCycle());
+                assertArrayEquals(expected, normalized(par), "blocked on pool, n = " + n);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void negativeCycleIsReported() {
+        CsrGraph g = CsrGraph.of(4, new int[] { 0, 1, 2, 2 }, new int[] { 1, 2, 0, 3 }, new int[] { 1, -3, 1, 5 },
+                new boolean[] { true, true, true, true });
+        FloydWarshall.Result seq = FloydWarshall.sequential(FloydWarshall.matrix(g), 4, null);
+        FloydWarshall.Result blk = FloydWarshall.blocked(FloydWarshall.matrix(g), 4, null, null);
+        assertTrue(seq.hasNegativeCycle());
+        assertTrue(blk.hasNegativeCycle());
+        assertTrue(seq.negativeCycleNode <= 2);
+        assertTrue(blk.negativeCycleNode <= 2);
+    }
+
+    @Test
+    void undirectedEdgesWorkBothWays() {
+        CsrGraph g = CsrGraph.of(3, new int[] { 0, 1 }, new int[] { 1, 2 }, new int[] { 4, 6 }, null);
+        int[]    d = FloydWarshall.matrix(g);
+        FloydWarshall.sequential(d, 3, null);
+        assertEquals(10, d[2 * 3]);
+        assertEquals(10, d[2]);
+        assertEquals(0, d[4]);
+    }
+
+    @Test
+    void listenerSeesEveryBlockInOrder() {
+        CsrGraph g    = randomGraph(150, 300, new Random(9));
+        int[]    last = { 0 };
+        FloydWarshall.sequential(FloydWarshall.matrix(g), 150, (dist, n, k) -> {
+            assertTrue(k > last[0]);
+            last[0] = k;
+        });
+        assertEquals(150, last[0]);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ForceDirectedLayoutTest {
+
+    private static final int[] SRC = { 0, 1, 2, 3, 4, 0 };
+    private static final int[] DST = { 1, 2, 3, 4, 5, 3 };
+
+    /** Six nodes bunched in one corner, so the solver has somewhere to push them. */
+    private static ForceDirectedLayout bunched() {
+        double[] x = new double[6], y = new double[6];
+        for (int i = 0; i < 6; i++) { x[i] = 10 + 3 * i; y[i] = 10 + 2 * (i % 3); }
+        return new ForceDirectedLayout(x, y, SRC, DST, 400, 400);
+    }
+
+    /** Polls until the solver publishes a converged frame; the layout sleeps after that one. */
+    private static ForceDirectedLayout.Frame settle(ForceDirectedLayout layout) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            ForceDirectedLayout.Frame f = layout.pollFrame();
+            if (f != null && f.converged) return f;
+            Thread.sleep(2);
+        }
+        return null;
+    }
+
+    @Test
+    void pinnedNodeStaysPutWhileTheRestSpreadOut() throws InterruptedException {
+        ForceDirectedLayout layout = bunched();
+        layout.pin(2, 123, 45);
+        layout.start();
+        try {
+            ForceDirectedLayout.Frame f = settle(layout);
+            assertNotNull(f, "layout never converged");
+            assertEquals(123.0, f.x[2]);
+            assertEquals(45.0, f.y[2]);
+            assertTrue(Math.hypot(f.x[0] - 10, f.y[0] - 10) > 20, "node 0 never moved");
+        } finally {
+            layout.stop();
+        }
+    }
+
+    @Test
+    void unpinWakesAConvergedLayoutAndFreesTheNode() throws InterruptedException {
+        ForceDirectedLayout layout = bunched();
+        layout.pin(5, 390, 390);
+        layout.start();
+        try {
+            assertNotNull(settle(layout), "layout never converged");
+
+            layout.unpin(5);
+            ForceDirectedLayout.Frame f = settle(layout);
+            assertNotNull(f, "unpin did not wake the layout");
+            assertTrue(f.x[5] != 390 || f.y[5] != 390, "node 5 is still pinned");
+        } finally {
+            layout.stop();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphGeneratorsTest {
+
+    /** No self-loops and no pair twice (in either orientation when undirected). */
+    private static void assertSimple(GraphData g) {
+        Set<Long> seen = new HashSet<>();
+        for (int e = 0; e < g.edgeCount; e++) {
+            int u = g.src[e], v = g.dst[e];
+            assertTrue(u != v, "self-loop at " + u);
+            if (!g.directed && u > v) { int t = u; u = v; v = t; }
+            assertTrue(seen.add((long) u * g.nodeCount + v), "edge " + u + " - " + v + " twice");
+        }
+    }
+
+    private static boolean connected(GraphData g) {
+        UnionFind uf = new UnionFind(g.nodeCount);
+        for (int e = 0; e < g.edgeCount; e++) uf.union(g.src[e], g.dst[e]);
+        return uf.components() == 1;
+    }
+
+    private static int[] degrees(GraphData g) {
+        int[] deg = new int[g.nodeCount];
+        for (int e = 0; e < g.edgeCount; e++) { deg[g.src[e]]++; deg[g.dst[e]]++; }
+        return deg;
+    }
+
+    @Test
+    void smallRandomIsASpanningTreePlusAtMostTwoEdges() {
+        boolean[] extrasSeen = new boolean[3];
+        for (long seed = 0; seed < 200; seed++) {
+            int       n = 5 + (int) (seed % 4);
+            GraphData g = GraphGenerators.generate(GraphGenerators.Model.SMALL_RANDOM, n, seed % 2 == 0, true, seed);
+            assertEquals(n, g.nodeCount);
+            assertSimple(g);
+            assertTrue(connected(g), "seed " + seed);
+            int extra = g.edgeCount - (n - 1);
+            assertTrue(extra >= 0 && extra <= 2, "seed " + seed + ": " + extra + " extra edges");
+            extrasSeen[extra] = true;
+        }
+        assertArrayEquals(new boolean[] { true, true, true }, extrasSeen);
+    }
+
+    @Test
+    void sameSeedGivesTheSameGraph() {
+        for (GraphGenerators.Model model : GraphGenerators.Model.values()) {
+            GraphData a = GraphGenerators.generate(model, 300, false, true, 99);
+            GraphData b = GraphGenerators.generate(model, 300, false, true, 99);
+            assertArrayEquals(a.src, b.src, model.toString());
+            assertArrayEquals(a.dst, b.dst, model.toString());
+            assertArrayEquals(a.weight, b.weight, model.toString());
+        }
+    }
+
+    @Test
+    void gridsAndToriHaveExactlyTheRequestedNodeCount() {
+        for (GraphGenerators.Model model : new GraphGenerators.Model[] { GraphGenerators.Model.GRID, GraphGenerators.Model.TORUS }) {
+            for (int n = 1; n <= 60; n++) {
+                GraphData g = GraphGenerators.generate(model, n, false, false, n);
+                assertEquals(n, g.nodeCount, model + ", n = " + n);
+                assertSimple(g);
+                assertTrue(connected(g), model + ", n = " + n);
+            }
+        }
+    }
+
+    @Test
+    void fullGridAndTorusHaveTheTextbookDegrees() {
+        // 5 × 5: grid corners 2, border 3, inside 4; torus 4 everywhere.
+        int[] grid = degrees(GraphGenerators.grid(5, 5, false, false, false, 1));
+        int[] torus = degrees(GraphGenerators.grid(5, 5, true, false, false, 1));
+        assertEquals(2, grid[0]);
+        assertEquals(3, grid[2]);
+        assertEquals(4, grid[12]);
+        for (int d : torus) assertEquals(4, d);
+        assertEquals(40, GraphGenerators.generate(GraphGenerators.Model.GRID, 25, false, false, 1).edgeCount);
+    }
+
+    @Test
+    void shortLastRowStillWrapsItsColumnsOnATorus() {
+        // 10 nodes, 4 wide: rows of 4, 4 and 2. Columns 0 and 1 are 3 high and wrap; 2 and 3 are 2 high and do not.
+        GraphData g = GraphGenerators.lattice(10, 4, true, false, false, 1);
+        Set<String> edges = new HashSet<>();
+        for (int e = 0; e < g.edgeCount; e++) edges.add(Math.min(g.src[e], g.dst[e]) + "-" + Math.max(g.src[e], g.dst[e]));
+        assertTrue(edges.contains("0-8"));
+        assertTrue(edges.contains("1-9"));
+        assertTrue(edges.contains("0-3"));
+        assertSimple(g);
+        assertEquals((4 + 4 + 1) + (2 * 3 + 2 * 1), g.edgeCount);
+    }
+
+    @Test
+    void gnmHasExactlyMDistinctEdges() {
+        GraphData sparse = GraphGenerators.erdosRenyiGnm(1000, 3000, false, false, 5);
+        GraphData dense  = GraphGenerators.erdosRenyiGnm(30, 400, true, false, 5);
+        assertEquals(3000, sparse.edgeCount);
+        assertEquals(400, dense.edgeCount);
+        assertSimple(sparse);
+        assertSimple(dense);
+    }
+}
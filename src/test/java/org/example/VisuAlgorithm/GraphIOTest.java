@@ -0,0 +1,155 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GraphIOTest {
+
+    private static GraphData readGraphMl(String xml) throws IOException {
+        Path file = Files.createTempFile("graphio", ".graphml");
+        try {
+            Files.writeString(file, xml);
+            return GraphIO.read(file, GraphIO.Format.GRAPHML, false, GraphIO.Progress.NONE);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void graphMlDataWithoutKeyIsIgnored() throws IOException {
+        GraphData g = readGraphMl("""
+                <graphml>
+                  <key id="w" for="edge" attr.name="weight"/>
+                  <graph edgedefault="undirected">
+                    <node id="a"><data>no key</data></node>
+                    <node id="b"/>
+                    <edge source="a" target="b"><data>junk</data><data key="w">3</data></edge>
+                  </graph>
+                </graphml>
+                """);
+        assertEquals(2, g.nodeCount);
+        assertEquals(1, g.edgeCount);
+        assertEquals(3, g.weight(0));
+    }
+
+    @Test
+    void graphMlWithoutWeightKeyReadsUnweighted() throws IOException {
+        GraphData g = readGraphMl("""
+                <graphml>
+                  <graph edgedefault="directed">
+                    <node id="a"/><node id="b"/><node id="c"/>
+                    <edge source="a" target="b"><data>5</data></edge>
+                    <edge source="b" target="c"/>
+                  </graph>
+                </graphml>
+                """);
+        assertEquals(3, g.nodeCount);
+        assertEquals(2, g.edgeCount);
+        assertEquals(false, g.isWeighted());
+    }
+
+    // ==========================================================================
+    // EDGE LIST ROUND TRIP
+    // ==========================================================================
+    private static GraphData graph(boolean directed, String[] labels, int[] src, int[] dst, int[] w) {
+        return new GraphData(labels.length, src.length, src, dst, w, directed, null, labels);
+    }
+
+    /** Writes {@code g} as an edge list and reads it back, with a direction hint that contradicts the graph. */
+    private static GraphData roundTrip(GraphData g) throws IOException {
+        Path file = Files.createTempFile("graphio", ".csv");
+        try {
+            GraphIO.write(file, GraphIO.Format.EDGE_LIST, g, GraphIO.Progress.NONE);
+            return GraphIO.read(file, GraphIO.Format.EDGE_LIST, !g.directed, GraphIO.Progress.NONE);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Edges as "label-label:weight", sorted, so node order does not matter. */
+    private static List<String> edgesByLabel(GraphData g) {
+        List<String> out = new ArrayList<>();
+        for (int e = 0; e < g.edgeCount; e++) out.add(g.label(g.src[e]) + "→" + g.label(g.dst[e]) + ":" + g.weight(e));
+        out.sort(null);
+        return out;
+    }
+
+    private static List<String> labels(GraphData g) {
+        List<String> out = new ArrayList<>();
+        for (int i = 0; i < g.nodeCount; i++) out.add(g.label(i));
+        out.sort(null);
+        return out;
+    }
+
+    private static void assertSameGraph(GraphData expected, GraphData actual) {
+        assertEquals(expected.nodeCount, actual.nodeCount);
+        assertEquals(expected.directed, actual.directed);
+        assertEquals(expected.isWeighted(), actual.isWeighted());
+        assertEquals(labels(expected), labels(actual));
+        assertEquals(edgesByLabel(expected), edgesByLabel(actual));
+    }
+
+    @Test
+    void edgeListKeepsIsolatedNodes() throws IOException {
+        GraphData g = graph(false, new String[] { "1", "2", "3", "4" }, new int[] { 0 }, new int[] { 1 }, null);
+        assertSameGraph(g, roundTrip(g));
+    }
+
+    @Test
+    void edgeListKeepsLabelsThatLookLikeNumbers() throws IOException {
+        GraphData g = graph(false, new String[] { "2B", "B", "C", "-x", "+7", "1.5" },
+                new int[] { 0, 1, 3, 4 }, new int[] { 1, 2, 2, 5 }, new int[] { 3, 4, 5, 6 });
+        assertSameGraph(g, roundTrip(g));
+    }
+
+    @Test
+    void edgeListKeepsLabelsWithSeparatorsAndQuotes() throws IOException {
+        GraphData g = graph(true, new String[] { "say \"hi\", ok", "a;b", "tab\there", "# not a comment" },
+                new int[] { 0, 1, 2 }, new int[] { 1, 2, 3 }, null);
+        assertSameGraph(g, roundTrip(g));
+    }
+
+    @Test
+    void edgeListHeaderDecidesDirection() throws IOException {
+        GraphData directed   = graph(true,  new String[] { "1", "2" }, new int[] { 0 }, new int[] { 1 }, null);
+        GraphData undirected = graph(false, new String[] { "1", "2" }, new int[] { 0 }, new int[] { 1 }, null);
+        assertEquals(true,  roundTrip(directed).directed);
+        assertEquals(false, roundTrip(undirected).directed);
+    }
+
+    @Test
+    void edgeListWritesDistinctIdsAsThemselves() throws IOException {
+        GraphData g    = new GraphData(2, 1, new int[] { 0 }, new int[] { 1 }, null, false, new long[] { 17, 42 }, null);
+        Path      file = Files.createTempFile("graphio", ".csv");
+        try {
+            GraphIO.write(file, GraphIO.Format.EDGE_LIST, g, GraphIO.Progress.NONE);
+            String text = Files.readString(file);
+            assertTrue(text.contains("\n17,42\n"), text);
+            assertTrue(!text.contains("label="), text);
+            assertSameGraph(g, GraphIO.read(file, GraphIO.Format.EDGE_LIST, false, GraphIO.Progress.NONE));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void edgeListReadsTextTokensThatStartLikeNumbers() throws IOException {
+        Path file = Files.createTempFile("graphio", ".csv");
+        try {
+            Files.writeString(file, "2B,C\n-x,C,4\n\"D, E\",2B\n");
+            GraphData g = GraphIO.read(file, GraphIO.Format.EDGE_LIST, false, GraphIO.Progress.NONE);
+            assertEquals(List.of("-x", "2B", "C", "D, E"), labels(g));
+            assertEquals(List.of("-x→C:4", "2B→C:1", "D, E→2B:1"), edgesByLabel(g));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
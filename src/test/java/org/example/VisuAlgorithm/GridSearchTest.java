@@ -0,0 +1,122 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridSearchTest {
+
+    private static final int[] DX = { 1, -1, 0,  0, 1,  1, -1, -1 };
+    private static final int[] DY = { 0,  0, 1, -1, 1, -1,  1, -1 };
+
+    /** Plain Dijkstra over the move rules (no corner cutting); -1 when the goal is unreachable. */
+    private static long reference(GridMap map, GridSearch.Movement movement, int start, int goal) {
+        int    dirs = movement == GridSearch.Movement.FOUR ? 4 : 8;
+        long[] dist = new long[map.cellCount()];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[start] = 0;
+        PriorityQueue<long[]> pq = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        pq.add(new long[] { 0, start });
+        while (!pq.isEmpty()) {
+            long[] top = pq.poll();
+            int    c   = (int) top[1];
+            if (top[0] > dist[c]) continue;
+            int x = map.x(c), y = map.y(c);
+            for (int d = 0; d < dirs; d++) {
+                int nx = x + DX[d], ny = y + DY[d];
+                if (!map.passable(nx, ny)) continue;
+                if (d >= 4 && (!map.passable(nx, y) || !map.passable(x, ny))) continue;
+                int  to = map.cell(nx, ny);
+                long nd = dist[c] + (long) (d < 4 ? GridSearch.STRAIGHT : GridSearch.DIAGONAL) * map.cost(to);
+                if (nd < dist[to]) { dist[to] = nd; pq.add(new long[] { nd, to }); }
+            }
+        }
+        return dist[goal] == Long.MAX_VALUE ? -1 : dist[goal];
+    }
+
+    /** Consecutive cells are legal moves, every cell is open, and the moves add up to {@code r.cost}. */
+    private static void assertPath(GridMap map, GridSearch.Movement movement, int start, int goal, GridSearch.Result r) {
+        assertEquals(start, r.path[0]);
+        assertEquals(goal, r.path[r.path.length - 1]);
+        long total = 0;
+        for (int i = 1; i < r.path.length; i++) {
+            int a = r.path[i - 1], b = r.path[i];
+            int dx = map.x(b) - map.x(a), dy = map.y(b) - map.y(a);
+            assertTrue(map.passable(b), r.algorithm + " walks through a wall");
+            assertTrue(Math.abs(dx) <= 1 && Math.abs(dy) <= 1 && (dx != 0 || dy != 0), r.algorithm + " jumps");
+            boolean diagonal = dx != 0 && dy != 0;
+            if (diagonal) {
+                assertEquals(GridSearch.Movement.EIGHT, movement);
+                assertTrue(map.passable(map.x(a) + dx, map.y(a)) && map.passable(map.x(a), map.y(a) + dy), r.algorithm + " cuts a corner");
+            }
+            total += (long) (diagonal ? GridSearch.DIAGONAL : GridSearch.STRAIGHT) * map.cost(b);
+        }
+        assertEquals(total, r.cost);
+    }
+
+    @Test
+    void optimalEnginesMatchPlainDijkstraOnEveryGenerator() {
+        Random rng     = new Random(34);
+        int    jpsRuns = 0;
+        for (GridMap.Generator generator : GridMap.Generator.values()) {
+            for (GridSearch.Movement movement : GridSearch.Movement.values()) {
+                for (int trial = 0; trial < 8; trial++) {
+                    GridMap map   = GridMap.generate(generator, 11 + rng.nextInt(30), 11 + rng.nextInt(30), rng.nextLong());
+                    int     start = map.nearestFree(rng.nextInt(map.cellCount()));
+                    int     goal  = map.nearestFree(rng.nextInt(map.cellCount()));
+                    long    best  = reference(map, movement, start, goal);
+                    String  where = generator + " " + movement + " trial " + trial;
+
+                    GridSearch.Result dijkstra = GridSearch.run(map, GridSearch.Algorithm.DIJKSTRA, movement, start, goal);
+                    assertEquals(best, dijkstra.cost, "Dijkstra, " + where);
+                    for (GridSearch.Algorithm algorithm : GridSearch.Algorithm.values()) {
+                        GridSearch.Result r = GridSearch.run(map, algorithm, movement, start, goal);
+                        if (r.path.length == 0 && r.note != null && r.expanded == 0) continue;    // unavailable here
+                        if (algorithm == GridSearch.Algorithm.JPS) jpsRuns++;
+                        assertEquals(best >= 0, r.found, algorithm + ", " + where);
+                        if (!r.found) continue;
+                        assertPath(map, movement, start, goal, r);
+                        if (algorithm != GridSearch.Algorithm.BFS) assertEquals(best, r.cost, algorithm + ", " + where);
+                        else if (map.isUniform() && movement == GridSearch.Movement.FOUR) assertEquals(best, r.cost, "BFS, " + where);
+                        else assertTrue(r.cost >= best);
+                    }
+                }
+            }
+        }
+        assertTrue(jpsRuns >= 16, "JPS ran on the uniform maps: " + jpsRuns);
+    }
+
+    @Test
+    void aStarExpandsNoMoreThanDijkstra() {
+        Random rng = new Random(35);
+        for (GridSearch.Movement movement : GridSearch.Movement.values()) {
+            GridMap map   = GridMap.generate(GridMap.Generator.OBSTACLES, 120, 120, rng.nextLong());
+            int     start = map.nearestFree(0), goal = map.nearestFree(map.cellCount() - 1);
+            GridSearch.Result dijkstra = GridSearch.run(map, GridSearch.Algorithm.DIJKSTRA, movement, start, goal);
+            GridSearch.Result aStar    = GridSearch.run(map, GridSearch.Algorithm.ASTAR, movement, start, goal);
+            assertEquals(dijkstra.cost, aStar.cost);
+            assertTrue(aStar.expanded <= dijkstra.expanded, aStar.expanded + " vs " + dijkstra.expanded);
+        }
+    }
+
+    @Test
+    void unavailableRunsSayWhy() {
+        GridMap map = new GridMap(5, 5);
+        map.setCost(12, 3);
+        GridSearch.Result fourWay  = GridSearch.run(map, GridSearch.Algorithm.JPS, GridSearch.Movement.FOUR, 0, 24);
+        GridSearch.Result weighted = GridSearch.run(map, GridSearch.Algorithm.JPS, GridSearch.Movement.EIGHT, 0, 24);
+        assertFalse(fourWay.found);
+        assertFalse(weighted.found);
+        assertEquals("needs 8-way movement", fourWay.note);
+        assertEquals("needs uniform cost", weighted.note);
+
+        map.setWall(0);
+        assertEquals("start or goal is a wall", GridSearch.run(map, GridSearch.Algorithm.ASTAR, GridSearch.Movement.EIGHT, 0, 24).note);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeapEnginesTest {
+
+    /** Random graph with a spanning path, so every node is reachable from 0. */
+    private static CsrGraph connected(int n, int extra, boolean directed, Random rng) {
+        int m = n - 1 + extra;
+        int[]     src = new int[m], dst = new int[m], w = new int[m];
+        boolean[] dir = new boolean[m];
+        for (int e = 0; e < m; e++) {
+            src[e] = e < n - 1 ? e : rng.nextInt(n);
+            dst[e] = e < n - 1 ? e + 1 : rng.nextInt(n);
+            w[e]   = rng.nextInt(50);
+            dir[e] = directed;
+        }
+        return CsrGraph.of(n, src, dst, w, dir);
+    }
+
+    /** Bellman–Ford from {@code s}, written out plainly. */
+    private static long[] reference(CsrGraph g, int s) {
+        long[] dist = new long[g.n];
+        Arrays.fill(dist, Long.MAX_VALUE);
+        dist[s] = 0;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int u = 0; u < g.n; u++) {
+                if (dist[u] == Long.MAX_VALUE) continue;
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++)
+                    if (dist[u] + g.weight[a] < dist[g.target[a]]) { dist[g.target[a]] = dist[u] + g.weight[a]; changed = true; }
+            }
+        }
+        return dist;
+    }
+
+    /** Kruskal over the arcs with a plain array union-find; the graph must be connected. */
+    private static long mstWeight(CsrGraph g) {
+        Integer[] arcs = new Integer[g.arcCount()];
+        for (int a = 0; a < arcs.length; a++) arcs[a] = a;
+        Arrays.sort(arcs, (x, y) -> Integer.compare(g.weight[x], g.weight[y]));
+        int[] from = new int[g.arcCount()], parent = new int[g.n];
+        for (int u = 0; u < g.n; u++) for (int a = g.offset[u]; a < g.offset[u + 1]; a++) from[a] = u;
+        for (int v = 0; v < g.n; v++) parent[v] = v;
+        long total = 0;
+        for (int a : arcs) {
+            int x = from[a], y = g.target[a];
+            while (parent[x] != x) x = parent[x];
+            while (parent[y] != y) y = parent[y];
+            if (x != y) { parent[x] = y; total += g.weight[a]; }
+        }
+        return total;
+    }
+
+    @Test
+    void dijkstraEnginesMatchBellmanFord() {
+        Random rng = new Random(32);
+        for (int trial = 0; trial < 100; trial++) {
+            int      n = 1 + rng.nextInt(80);
+            CsrGraph g = connected(n, rng.nextInt(4 * n), rng.nextBoolean(), rng);
+            int      s = rng.nextInt(n);
+
+            long[]            expected = reference(g, s);
+            HeapEngines.Stats lazy     = HeapEngines.dijkstraLazy(g, s);
+            assertArrayEquals(expected, lazy.dist, "lazy, trial " + trial);
+            long sum = 0;
+            for (long d : expected) if (d != Long.MAX_VALUE) sum += d;
+            assertEquals(sum, lazy.total);
+
+            for (int arity : new int[] { 2, 4, 7 }) {
+                HeapEngines.Stats fast = HeapEngines.dijkstraIndexed(g, s, arity);
+                assertArrayEquals(expected, fast.dist, "arity " + arity + ", trial " + trial);
+                assertEquals(sum, fast.total);
+                assertEquals(0, fast.stalePops);
+                assertEquals(fast.pushes, fast.pops);
+                assertTrue(fast.pushes <= n && fast.maxQueue <= n);
+            }
+        }
+    }
+
+    @Test
+    void primEnginesMatchKruskal() {
+        Random rng = new Random(33);
+        for (int trial = 0; trial < 100; trial++) {
+            int      n        = 1 + rng.nextInt(80);
+            CsrGraph g        = connected(n, rng.nextInt(4 * n), false, rng);
+            long     expected = mstWeight(g);
+            int      s        = rng.nextInt(n);
+
+            HeapEngines.Stats lazy = HeapEngines.primLazy(g, s);
+            assertEquals(expected, lazy.total, "lazy, trial " + trial);
+            assertEquals(lazy.pushes, lazy.pops);
+            for (int arity : new int[] { 2, 4, 7 }) {
+                HeapEngines.Stats fast = HeapEngines.primIndexed(g, s, arity);
+                assertEquals(expected, fast.total, "arity " + arity + ", trial " + trial);
+                assertEquals(n, fast.pushes);
+                assertEquals(n, fast.pops);
+            }
+        }
+    }
+
+    @Test
+    void denseGraphNeedsFarFewerQueueOperationsWhenIndexed() {
+        Random rng = new Random(34);
+        int    n   = 300, m = n * (n - 1) / 2;
+        int[]  src = new int[m], dst = new int[m], w = new int[m];
+        for (int u = 0, e = 0; u < n; u++)
+            for (int v = u + 1; v < n; v++, e++) { src[e] = u; dst[e] = v; w[e] = rng.nextInt(1000); }
+        CsrGraph          g    = CsrGraph.of(n, src, dst, w, null);
+        HeapEngines.Stats lazy = HeapEngines.primLazy(g, 0);
+        HeapEngines.Stats fast = HeapEngines.primIndexed(g, 0, 4);
+        assertEquals(lazy.total, fast.total);
+        assertTrue(lazy.stalePops > 10 * g.n, "lazy Prim leaves stale entries: " + lazy.stalePops);
+        assertTrue(fast.queueOperations() * 4 < lazy.queueOperations(), fast + " vs " + lazy);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IncrementalTreeLayoutTest {
+
+    private static final class N extends IncrementalTreeLayout.Node<N> {
+        double px, py;
+        N(int value) { super(value); }
+        @Override public double x() { return px; }
+        @Override public double y() { return py; }
+    }
+
+    private static final class Tree extends BalancedTree<N> {
+        final Balance mode;
+        N root;
+        Tree(Balance mode) { this.mode = mode; }
+        @Override protected N       root()             { return root; }
+        @Override protected void    setRoot(N node)    { root = node; }
+        @Override protected N       newNode(int value) { return new N(value); }
+        @Override protected Balance balance()          { return mode; }
+        @Override protected void    resized(int delta) { }
+    }
+
+    /** What a redrawn edge and label depend on: the node's position, key and parent, and the parent's position. */
+    private static Map<N, String> drawing(N root) {
+        Map<N, String> out = new HashMap<>();
+        BalancedTree.forEachPreorder(root, n -> out.put(n, n.px + "," + n.py + " #" + n.value
+                + (n.parent == null ? " root" : " under " + System.identityHashCode(n.parent) + "@" + n.parent.px + "," + n.parent.py)));
+        return out;
+    }
+
+    /** Moves every node onto its target and redraws the stale ones, as the animation ends up doing. */
+    private static void settle(N root, List<N> stale) {
+        BalancedTree.forEachPreorder(root, n -> { n.px = n.targetX; n.py = n.targetY; });
+        for (N n : stale) n.markDrawn();
+    }
+
+    private static void layout(N root, boolean tidy) {
+        if (tidy) IncrementalTreeLayout.tidyTargets(root, 44, 48, 52, 72);
+        else      IncrementalTreeLayout.inorderTargets(root, 44, 48, 52, 72);
+    }
+
+    @Test
+    void everyNodeWhoseDrawingChangesIsStaleAndNoOther() {
+        for (BalancedTree.Balance mode : BalancedTree.Balance.values()) {
+            for (boolean tidy : new boolean[] { false, true }) {
+                Random rng = new Random(mode.ordinal() * 2 + (tidy ? 1 : 0));
+                Tree   t   = new Tree(mode);
+                for (int step = 0; step < 400; step++) {
+                    Map<N, String> before = drawing(t.root);
+                    int key = rng.nextInt(150);
+                    if (rng.nextInt(3) > 0) t.insert(key, rng.nextInt(100));
+                    else                    t.delete(key);
+                    if (t.root == null) continue;
+
+                    layout(t.root, tidy);
+                    List<N> moving = new ArrayList<>();
+                    List<N> stale  = IncrementalTreeLayout.plan(t.root, moving);
+                    Set<N>  staleSet = new HashSet<>(stale);
+                    assertEquals(stale.size(), staleSet.size());
+                    BalancedTree.forEachPreorder(t.root, n ->
+                            assertEquals(n.px != n.targetX || n.py != n.targetY, moving.contains(n), mode + " moving " + n.value));
+
+                    settle(t.root, stale);
+                    Map<N, String> after = drawing(t.root);
+                    for (Map.Entry<N, String> e : after.entrySet()) {
+                        boolean changed = !e.getValue().equals(before.get(e.getKey()));
+                        assertEquals(changed, staleSet.contains(e.getKey()), mode + (tidy ? " tidy" : " inorder") + ", step " + step + ": node " + e.getKey().value);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void settledTreePlansNothing() {
+        Tree t = new Tree(BalancedTree.Balance.RED_BLACK);
+        for (int k = 0; k < 50; k++) t.insert((k * 37) % 101, 0);
+        layout(t.root, true);
+        settle(t.root, IncrementalTreeLayout.plan(t.root, new ArrayList<>()));
+        List<N> moving = new ArrayList<>();
+        assertTrue(IncrementalTreeLayout.plan(t.root, moving).isEmpty());
+        assertTrue(moving.isEmpty());
+    }
+
+    @Test
+    void inorderInsertMovesOnlyTheLargerKeys() {
+        Tree t = new Tree(BalancedTree.Balance.PLAIN);
+        for (int k : new int[] { 50, 20, 80, 10, 30, 70, 90 }) t.insert(k, 0);
+        layout(t.root, false);
+        settle(t.root, IncrementalTreeLayout.plan(t.root, new ArrayList<>()));
+
+        N added = t.insert(60, 0);
+        added.px = added.parent.px;
+        added.py = added.parent.py;
+        layout(t.root, false);
+        List<N> moving = new ArrayList<>();
+        List<N> stale  = IncrementalTreeLayout.plan(t.root, moving);
+
+        List<Integer> moved = new ArrayList<>(), redrawn = new ArrayList<>();
+        for (N n : moving) moved.add(n.value);
+        for (N n : stale)  redrawn.add(n.value);
+        assertEquals(List.of(80, 70, 60, 90), moved);
+        assertEquals(List.of(80, 70, 60, 90), redrawn);
+    }
+}
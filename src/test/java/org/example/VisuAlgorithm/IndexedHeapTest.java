@@ -0,0 +1,90 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndexedHeapTest {
+
+    /** Every parent's key is at most its children's, and slot and id maps are inverse. */
+    private static void assertHeap(IndexedHeap h) {
+        for (int s = 0; s < h.size(); s++) {
+            assertEquals(s, h.slotOf(h.idAt(s)));
+            if (s > 0) assertTrue(h.key(h.idAt((s - 1) / h.arity())) <= h.key(h.idAt(s)), "heap order at slot " + s);
+        }
+    }
+
+    @Test
+    void randomOperationsMatchABruteForceMinimum() {
+        for (int arity : new int[] { 2, 3, 4, 8 }) {
+            Random      rng  = new Random(arity);
+            int         n    = 200;
+            IndexedHeap h    = new IndexedHeap(n, arity);
+            long[]      keys = new long[n];               // reference: key per id, MAX when absent
+            Arrays.fill(keys, Long.MAX_VALUE);
+
+            // Replaying the listener's moves must reproduce the heap's own slot map.
+            int[] slots = new int[n];
+            Arrays.fill(slots, -1);
+            h.setListener((id, from, to) -> slots[id] = to);
+
+            for (int step = 0; step < 20_000; step++) {
+                int id = rng.nextInt(n), op = rng.nextInt(3);
+                if (op == 0 && !h.contains(id)) {
+                    long k = rng.nextInt(1000);
+                    h.insert(id, k);
+                    keys[id] = k;
+                    if (slots[id] < 0) slots[id] = h.slotOf(id);     // placed without moving
+                } else if (op == 1 && h.contains(id)) {
+                    long k = rng.nextInt(1000);
+                    assertEquals(k < keys[id], h.decreaseKey(id, k));
+                    keys[id] = Math.min(keys[id], k);
+                } else if (op == 2 && !h.isEmpty()) {
+                    long min = Arrays.stream(keys).min().getAsLong();
+                    int  got = h.pollMin();
+                    assertEquals(min, keys[got], "arity " + arity + ", step " + step);
+                    keys[got]  = Long.MAX_VALUE;
+                    slots[got] = -1;
+                }
+                assertHeap(h);
+                for (int v = 0; v < n; v++) {
+                    assertEquals(keys[v] != Long.MAX_VALUE, h.contains(v));
+                    if (h.contains(v)) { assertEquals(keys[v], h.key(v)); assertEquals(h.slotOf(v), slots[v], "listener slot of " + v); }
+                }
+            }
+        }
+    }
+
+    @Test
+    void drainingGivesSortedKeys() {
+        Random      rng = new Random(3);
+        IndexedHeap h   = new IndexedHeap(1000, 4);
+        for (int id = 0; id < 1000; id++) h.insert(id, rng.nextInt(100));
+        long last = Long.MIN_VALUE;
+        while (!h.isEmpty()) {
+            int id = h.pollMin();
+            assertTrue(h.key(id) >= last);
+            last = h.key(id);
+        }
+        assertEquals(1000, h.inserts);
+        assertEquals(1000, h.polls);
+    }
+
+    @Test
+    void misuseIsRejected() {
+        IndexedHeap h = new IndexedHeap(3, 2);
+        assertThrows(IllegalArgumentException.class, () -> new IndexedHeap(3, 1));
+        assertThrows(IllegalStateException.class, h::pollMin);
+        assertThrows(IllegalStateException.class, () -> h.decreaseKey(0, 1));
+        h.insert(0, 5);
+        assertThrows(IllegalStateException.class, () -> h.insert(0, 4));
+        assertFalse(h.decreaseKey(0, 5));
+        assertEquals(0, h.decreaseKeys);
+    }
+}
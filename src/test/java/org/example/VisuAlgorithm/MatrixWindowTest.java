@@ -0,0 +1,51 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MatrixWindowTest {
+
+    @Test
+    void windowStaysInsideTheGridAtEveryScrollPosition() {
+        for (int n = 0; n <= 30; n++) {
+            for (int visible = 1; visible <= 12; visible++) {
+                double max = MatrixWindow.maxScroll(n, visible);
+                for (double scroll = -2; scroll <= max + 2; scroll += 0.25) {
+                    MatrixWindow w = MatrixWindow.of(n, scroll, scroll, visible, visible);
+                    assertTrue(w.rowStart >= 0 && w.rowStart <= w.rowEnd && w.rowEnd <= n, n + "/" + visible + "/" + scroll);
+                    assertTrue(w.rowEnd - w.rowStart <= visible + 1);
+                    // A full viewport's worth of rows is always shown while the grid has that many.
+                    assertEquals(Math.min(n, visible), Math.min(visible, w.rowEnd - w.rowStart));
+                    assertEquals(w.rowStart, w.colStart);
+                    assertEquals(w.rowEnd, w.colEnd);
+                }
+            }
+        }
+    }
+
+    @Test
+    void scrolledToTheEndShowsTheLastCell() {
+        int          n = 10_000, visible = 17;
+        MatrixWindow w = MatrixWindow.of(n, MatrixWindow.maxScroll(n, visible), 0, visible, 5);
+        assertEquals(n, w.rowEnd);
+        assertEquals(n - visible, w.rowStart);
+        assertEquals(0, w.colStart);
+        assertEquals(6, w.colEnd);
+    }
+
+    @Test
+    void fitCountsWholeCellsAndNeverZero() {
+        assertEquals(4, MatrixWindow.fit(56 + 4 * 44 + 43, 56, 44));
+        assertEquals(1, MatrixWindow.fit(10, 56, 44));
+        assertEquals(1, MatrixWindow.fit(0, 0, 22));
+    }
+
+    @Test
+    void thumbCoversTheVisibleShareOfTheTrack() {
+        assertEquals(1.0, MatrixWindow.thumb(5, 10));
+        // 100 rows, 20 visible: the range is 80 wide and the thumb a fifth of it.
+        assertEquals(16.0, MatrixWindow.thumb(100, 20), 1e-12);
+    }
+}
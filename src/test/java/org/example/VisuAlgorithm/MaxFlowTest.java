@@ -0,0 +1,97 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaxFlowTest {
+
+    // The textbook network (CLRS fig. 26.1): s = 0, t = 5, maximum flow 23.
+    private static final int[]     SRC = { 0, 0, 1, 2, 2, 3, 3, 4, 4 };
+    private static final int[]     DST = { 1, 2, 3, 1, 4, 2, 5, 3, 5 };
+    private static final int[]     CAP = { 16, 13, 12, 4, 14, 9, 20, 7, 4 };
+    private static final boolean[] DIR = { true, true, true, true, true, true, true, true, true };
+
+    /** Capacity limits, conservation at inner nodes, and a cut whose capacity equals the flow. */
+    private static void assertValid(int n, int[] src, int[] dst, int[] cap, boolean[] directed, int s, int t, MaxFlow.Result r) {
+        long[] net = new long[n];
+        for (int e = 0; e < src.length; e++) {
+            int f = r.flow[e];
+            assertTrue(Math.abs(f) <= cap[e], "edge " + e + " over capacity");
+            if (directed[e]) assertTrue(f >= 0, "edge " + e + " runs backwards");
+            net[src[e]] -= f;
+            net[dst[e]] += f;
+        }
+        for (int v = 0; v < n; v++)
+            if (v != s && v != t) assertEquals(0, net[v], "flow not conserved at " + v);
+        assertEquals(r.maxFlow, net[t]);
+
+        assertTrue(r.sourceSide[s]);
+        assertFalse(r.sourceSide[t]);
+        long cut = 0;
+        for (int e : r.cutEdges) {
+            assertTrue(r.sourceSide[src[e]] != r.sourceSide[dst[e]], "cut edge " + e + " does not cross");
+            cut += cap[e];
+        }
+        assertEquals(r.maxFlow, cut);
+    }
+
+    @Test
+    void textbookNetworkCarries23() {
+        MaxFlow.Result ek = MaxFlow.edmondsKarp(6, SRC, DST, CAP, DIR, 0, 5, null);
+        MaxFlow.Result di = MaxFlow.dinic(6, SRC, DST, CAP, DIR, 0, 5, null);
+        assertEquals(23, ek.maxFlow);
+        assertEquals(23, di.maxFlow);
+        assertValid(6, SRC, DST, CAP, DIR, 0, 5, ek);
+        assertValid(6, SRC, DST, CAP, DIR, 0, 5, di);
+    }
+
+    @Test
+    void disconnectedSinkGetsNothing() {
+        MaxFlow.Result r = MaxFlow.dinic(4, new int[] { 0 }, new int[] { 1 }, new int[] { 5 }, new boolean[] { true }, 0, 3, null);
+        assertEquals(0, r.maxFlow);
+        assertEquals(0, r.cutEdges.length);
+    }
+
+    @Test
+    void edmondsKarpAndDinicAgreeOnRandomMixedGraphs() {
+        Random rng = new Random(3);
+        for (int trial = 0; trial < 300; trial++) {
+            int n = 2 + rng.nextInt(30), m = rng.nextInt(4 * n);
+            int[]     src = new int[m], dst = new int[m], cap = new int[m];
+            boolean[] dir = new boolean[m];
+            for (int e = 0; e < m; e++) {
+                src[e] = rng.nextInt(n);
+                do dst[e] = rng.nextInt(n); while (dst[e] == src[e]);
+                cap[e] = 1 + rng.nextInt(20);
+                dir[e] = rng.nextBoolean();
+            }
+            MaxFlow.Result ek = MaxFlow.edmondsKarp(n, src, dst, cap, dir, 0, n - 1, null);
+            MaxFlow.Result di = MaxFlow.dinic(n, src, dst, cap, dir, 0, n - 1, null);
+            assertEquals(ek.maxFlow, di.maxFlow, "trial " + trial);
+            assertValid(n, src, dst, cap, dir, 0, n - 1, ek);
+            assertValid(n, src, dst, cap, dir, 0, n - 1, di);
+        }
+    }
+
+    @Test
+    void listenerSeesEveryAugmentation() {
+        long[] pushed = { 0 };
+        int[]  calls  = { 0 };
+        MaxFlow.Result r = MaxFlow.edmondsKarp(6, SRC, DST, CAP, DIR, 0, 5, new MaxFlow.Listener() {
+            @Override public void augmented(int[] nodes, int[] edges, int length, int amount, long total) {
+                assertEquals(0, nodes[0]);
+                assertEquals(5, nodes[length]);
+                pushed[0] += amount;
+                calls[0]++;
+                assertEquals(pushed[0], total);
+            }
+        });
+        assertEquals(r.maxFlow, pushed[0]);
+        assertEquals(r.augmentations, calls[0]);
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageRankTest {
+
+    private static GraphData graph(int n, int[] src, int[] dst, boolean directed) {
+        return new GraphData(n, src.length, src, dst, null, directed, null, null);
+    }
+
+    private static GraphData randomGraph(int n, int m, boolean directed, Random rng) {
+        int[] src = new int[m], dst = new int[m];
+        for (int e = 0; e < m; e++) { src[e] = rng.nextInt(n); dst[e] = rng.nextInt(n); }
+        return graph(n, src, dst, directed);
+    }
+
+    private static double sum(double[] rank) {
+        double s = 0;
+        for (double r : rank) s += r;
+        return s;
+    }
+
+    /** The textbook push iteration over the edge list, run for exactly {@code iterations} steps. */
+    private static double[] reference(GraphData g, double damping, int iterations) {
+        int n = g.nodeCount;
+        int[] out = new int[n];
+        for (int e = 0; e < g.edgeCount; e++) { out[g.src[e]]++; if (!g.directed) out[g.dst[e]]++; }
+        double[] rank = new double[n];
+        Arrays.fill(rank, 1.0 / n);
+        for (int k = 0; k < iterations; k++) {
+            double dangling = 0;
+            for (int v = 0; v < n; v++) if (out[v] == 0) dangling += rank[v];
+            double[] next = new double[n];
+            Arrays.fill(next, (1 - damping) / n + damping * dangling / n);
+            for (int e = 0; e < g.edgeCount; e++) {
+                next[g.dst[e]] += damping * rank[g.src[e]] / out[g.src[e]];
+                if (!g.directed) next[g.src[e]] += damping * rank[g.dst[e]] / out[g.dst[e]];
+            }
+            rank = next;
+        }
+        return rank;
+    }
+
+    @Test
+    void ranksSumToOneAfterEveryIteration() {
+        Random       rng  = new Random(42);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int trial = 0; trial < 40; trial++) {
+                int       n = 1 + rng.nextInt(trial < 35 ? 100 : 50_000);
+                GraphData g = randomGraph(n, rng.nextInt(3 * n), rng.nextBoolean(), rng);   // sparse: many dangling nodes
+                for (ForkJoinPool p : new ForkJoinPool[] { null, pool }) {
+                    PageRank.Result r = PageRank.run(PageRank.Matrix.of(g), 0.85, 1e-10, 200, p, (k, residual, rank) -> {
+                        assertEquals(1.0, sum(rank), 1e-9);
+                        return true;
+                    });
+                    assertEquals(1.0, sum(r.rank), 1e-9);
+                    assertArrayEquals(reference(g, 0.85, r.iterations), r.rank, 1e-12);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void smallGraphsHaveTheirClosedFormRanks() {
+        PageRank.Result cycle = PageRank.run(PageRank.Matrix.of(graph(3, new int[] { 0, 1, 2 }, new int[] { 1, 2, 0 }, true)), 0.85, 1e-12, 100, null, null);
+        assertArrayEquals(new double[] { 1 / 3.0, 1 / 3.0, 1 / 3.0 }, cycle.rank, 1e-12);
+        assertTrue(cycle.converged);
+
+        // 0 -> 1 with 1 dangling: r0 = 0.075 + 0.425 r1 and r0 + r1 = 1, so r0 = 0.5 / 1.425.
+        PageRank.Result sink = PageRank.run(PageRank.Matrix.of(graph(2, new int[] { 0 }, new int[] { 1 }, true)), 0.85, 1e-12, 200, null, null);
+        assertArrayEquals(new double[] { 0.5 / 1.425, 0.925 / 1.425 }, sink.rank, 1e-10);
+
+        // Undirected star: the hub holds (1 - d)/n + d·(sum of the leaves).
+        PageRank.Result star = PageRank.run(PageRank.Matrix.of(graph(4, new int[] { 0, 0, 0 }, new int[] { 1, 2, 3 }, false)), 0.85, 1e-12, 200, null, null);
+        assertEquals(0.0375 + 0.85 * (1 - star.rank[0]), star.rank[0], 1e-10);
+        assertEquals(star.rank[1], star.rank[3], 1e-12);
+    }
+
+    @Test
+    void iterationLimitCancellationAndBadArguments() {
+        GraphData       g = randomGraph(200, 600, true, new Random(43));
+        PageRank.Result r = PageRank.run(PageRank.Matrix.of(g), 0.85, 1e-15, 3, null, null);
+        assertFalse(r.converged);
+        assertEquals(3, r.iterations);
+        assertEquals(3, r.residuals.length);
+
+        assertThrows(CancellationException.class, () -> PageRank.run(PageRank.Matrix.of(g), 0.85, 1e-9, 100, null, (k, res, rank) -> k < 2));
+        assertThrows(IllegalArgumentException.class, () -> PageRank.run(PageRank.Matrix.of(g), 1.0, 1e-9, 100, null, null));
+        assertThrows(IllegalArgumentException.class, () -> PageRank.run(PageRank.Matrix.of(g), 0.85, 0, 100, null, null));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpanningForestTest {
+
+    private static int[] sortedEdges(SpanningForest.Result r) {
+        int[] e = Arrays.copyOf(r.edges, r.edgeCount);
+        Arrays.sort(e);
+        return e;
+    }
+
+    /**
+     * Same forest as Kruskal (ties go to the lower edge index in both), within
+     * log₂ n + 1 rounds: every component that still has an outgoing edge merges.
+     */
+    private static void assertMatchesKruskal(int n, int[] src, int[] dst, int[] w, ForkJoinPool pool, String what) {
+        SpanningForest.Result k = SpanningForest.kruskal(n, src, dst, w);
+        SpanningForest.Result b = SpanningForest.boruvka(CsrGraph.of(n, src, dst, w, null), pool);
+        assertEquals(k.total, b.total, what);
+        assertArrayEquals(sortedEdges(k), sortedEdges(b), what);
+        assertTrue(b.rounds <= 1 + 32 - Integer.numberOfLeadingZeros(Math.max(1, n)), what + ": " + b.rounds + " rounds");
+        for (int round = 0; round < b.rounds; round++)
+            assertTrue(b.roundEnd[round] <= b.edgeCount && (round == 0 || b.roundEnd[round] >= b.roundEnd[round - 1]));
+    }
+
+    @Test
+    void boruvkaMatchesKruskalOnRandomMultigraphs() {
+        Random       rng  = new Random(39);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int trial = 0; trial < 80; trial++) {
+                int   n   = 1 + rng.nextInt(trial < 70 ? 100 : 40_000), m = rng.nextInt(4 * n + 1);
+                int   max = 1 + rng.nextInt(trial % 2 == 0 ? 5 : 1000);           // few distinct weights: many ties
+                int[] src = new int[m], dst = new int[m], w = new int[m];
+                for (int e = 0; e < m; e++) { src[e] = rng.nextInt(n); dst[e] = rng.nextInt(n); w[e] = rng.nextInt(max); }
+                assertMatchesKruskal(n, src, dst, w, null, "inline, trial " + trial);
+                assertMatchesKruskal(n, src, dst, w, pool, "pool, trial " + trial);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void unweightedEdgesCountOne() {
+        int[] src = { 0, 1, 2, 0 }, dst = { 1, 2, 0, 3 };
+        SpanningForest.Result k = SpanningForest.kruskal(5, src, dst, null);
+        SpanningForest.Result b = SpanningForest.boruvka(CsrGraph.of(5, src, dst, null, null), null);
+        assertEquals(3, k.total);
+        assertEquals(3, b.total);
+        assertArrayEquals(new int[] { 0, 1, 3 }, sortedEdges(b));
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialIndexTest {
+
+    /** A point with a square box of half-size r around it; indexed by identity. */
+    private static final class Dot {
+        double x, y, r;
+        Dot(double x, double y, double r) { this.x = x; this.y = y; this.r = r; }
+        void putInto(SpatialIndex<Dot> idx) { idx.put(this, x - r, y - r, x + r, y + r); }
+    }
+
+    private static Set<Dot> bruteQuery(List<Dot> dots, double x0, double y0, double x1, double y1) {
+        Set<Dot> out = new HashSet<>();
+        for (Dot d : dots)
+            if (d.x + d.r >= x0 && d.x - d.r <= x1 && d.y + d.r >= y0 && d.y - d.r <= y1) out.add(d);
+        return out;
+    }
+
+    @Test
+    void queryAndNearestMatchAScanWhileDotsMoveAndLeave() {
+        Random            rng  = new Random(17);
+        SpatialIndex<Dot> idx  = new SpatialIndex<>();
+        List<Dot>         dots = new ArrayList<>();
+        for (int step = 0; step < 4000; step++) {
+            int op = rng.nextInt(10);
+            if (op < 5 || dots.isEmpty()) {
+                // Wide enough to make the root grow outward in every direction.
+                Dot d = new Dot(rng.nextGaussian() * 3000, rng.nextGaussian() * 3000, 1 + rng.nextInt(40));
+                d.putInto(idx);
+                dots.add(d);
+            } else if (op < 8) {
+                Dot d = dots.get(rng.nextInt(dots.size()));
+                d.x += rng.nextGaussian() * 200;
+                d.y += rng.nextGaussian() * 200;
+                d.putInto(idx);
+            } else {
+                Dot d = dots.remove(rng.nextInt(dots.size()));
+                assertTrue(idx.remove(d));
+                assertFalse(idx.contains(d));
+            }
+            assertEquals(dots.size(), idx.size());
+
+            if (step % 20 != 0) continue;
+            double x0 = rng.nextGaussian() * 3000, y0 = rng.nextGaussian() * 3000;
+            double x1 = x0 + rng.nextInt(2000),    y1 = y0 + rng.nextInt(2000);
+            assertEquals(bruteQuery(dots, x0, y0, x1, y1), new HashSet<>(idx.query(x0, y0, x1, y1)), "step " + step);
+
+            double qx = rng.nextGaussian() * 3000, qy = rng.nextGaussian() * 3000, reach = 500;
+            Dot    expected = null;
+            double best     = reach;
+            for (Dot d : dots) {
+                double dist = Math.hypot(d.x - qx, d.y - qy);
+                if (dist <= best) { best = dist; expected = d; }
+            }
+            Dot got = idx.nearest(qx, qy, reach, d -> Math.hypot(d.x - qx, d.y - qy));
+            if (expected == null) assertEquals(null, got);
+            else assertEquals(best, Math.hypot(got.x - qx, got.y - qy), 1e-9);
+        }
+    }
+
+    @Test
+    void growingTheRootKeepsTheDepthCap() {
+        SpatialIndex<Dot> idx = new SpatialIndex<>();
+        // Push the root out ten times before anything settles near the origin.
+        for (int i = 1; i <= 10; i++) new Dot(1024.0 * (1 << i), 0, 1).putInto(idx);
+        // Coincident points can never be separated, so they sink until the cap stops them.
+        for (int i = 0; i < 40; i++) new Dot(1, 1, 0).putInto(idx);
+        assertEquals(50, idx.size());
+        assertTrue(idx.height() <= 24, "tree is " + idx.height() + " levels deep");
+        assertEquals(40, idx.query(0, 0, 2, 2).size());
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        SpatialIndex<Dot> idx = new SpatialIndex<>();
+        Dot               far = new Dot(1e6, -1e6, 5);
+        far.putInto(idx);
+        idx.clear();
+        assertEquals(0, idx.size());
+        assertFalse(idx.contains(far));
+        assertTrue(idx.query(-1e7, -1e7, 1e7, 1e7).isEmpty());
+    }
+}
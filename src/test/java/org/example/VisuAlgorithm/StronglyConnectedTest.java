@@ -0,0 +1,112 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StronglyConnectedTest {
+
+    private static CsrGraph directed(int n, int[] src, int[] dst, int[] w) {
+        boolean[] dir = new boolean[src.length];
+        Arrays.fill(dir, true);
+        return CsrGraph.of(n, src, dst, w, dir);
+    }
+
+    private static CsrGraph randomGraph(int n, int m, Random rng) {
+        int[] src = new int[m], dst = new int[m], w = new int[m];
+        for (int e = 0; e < m; e++) { src[e] = rng.nextInt(n); dst[e] = rng.nextInt(n); w[e] = 1 + rng.nextInt(9); }
+        return directed(n, src, dst, w);
+    }
+
+    /** reach[u][v]: v can be reached from u, by a DFS from every node. */
+    private static boolean[][] reachability(CsrGraph g) {
+        boolean[][] reach = new boolean[g.n][g.n];
+        int[] stack = new int[g.n];
+        for (int s = 0; s < g.n; s++) {
+            int sp = 0;
+            stack[sp++] = s;
+            reach[s][s] = true;
+            while (sp > 0) {
+                int u = stack[--sp];
+                for (int a = g.offset[u]; a < g.offset[u + 1]; a++)
+                    if (!reach[s][g.target[a]]) { reach[s][g.target[a]] = true; stack[sp++] = g.target[a]; }
+            }
+        }
+        return reach;
+    }
+
+    /** Same component exactly when mutually reachable; ids topological; member lists consistent. */
+    private static void assertComponents(CsrGraph g, boolean[][] reach, StronglyConnected.Result r) {
+        for (int u = 0; u < g.n; u++)
+            for (int v = 0; v < g.n; v++)
+                assertEquals(reach[u][v] && reach[v][u], r.component[u] == r.component[v], u + " / " + v);
+        for (int u = 0; u < g.n; u++)
+            for (int a = g.offset[u]; a < g.offset[u + 1]; a++)
+                assertTrue(r.component[u] <= r.component[g.target[a]], "arc " + u + " -> " + g.target[a] + " runs backwards");
+        int largest = 0;
+        for (int c = 0; c < r.count; c++) {
+            largest = Math.max(largest, r.size(c));
+            for (int i = r.memberOffset[c]; i < r.memberOffset[c + 1]; i++) assertEquals(c, r.component[r.members[i]]);
+        }
+        assertEquals(g.n, r.memberOffset[r.count]);
+        assertEquals(largest, r.largest);
+    }
+
+    @Test
+    void smallGraphSplitsIntoThreeComponents() {
+        // {0, 1, 2} -> {3, 4} -> {5}
+        CsrGraph g = directed(6, new int[] { 0, 1, 2, 2, 3, 4, 4 }, new int[] { 1, 2, 0, 3, 4, 3, 5 }, null);
+        for (StronglyConnected.Result r : new StronglyConnected.Result[] {
+                StronglyConnected.tarjan(g, null), StronglyConnected.kosaraju(g, null) }) {
+            assertEquals(3, r.count);
+            assertEquals(3, r.largest);
+            assertComponents(g, reachability(g), r);
+        }
+    }
+
+    @Test
+    void tarjanAndKosarajuMatchReachabilityOnRandomGraphs() {
+        Random rng = new Random(11);
+        for (int trial = 0; trial < 200; trial++) {
+            int         n     = 1 + rng.nextInt(60);
+            CsrGraph    g     = randomGraph(n, rng.nextInt(3 * n), rng);
+            boolean[][] reach = reachability(g);
+            StronglyConnected.Result t = StronglyConnected.tarjan(g, null);
+            StronglyConnected.Result k = StronglyConnected.kosaraju(g, null);
+            assertEquals(t.count, k.count);
+            assertComponents(g, reach, t);
+            assertComponents(g, reach, k);
+        }
+    }
+
+    @Test
+    void longCycleIsOneComponentWithoutRecursion() {
+        int   n   = 200_000;
+        int[] src = new int[n], dst = new int[n];
+        for (int i = 0; i < n; i++) { src[i] = i; dst[i] = (i + 1) % n; }
+        CsrGraph g = directed(n, src, dst, null);
+        assertEquals(1, StronglyConnected.tarjan(g, null).count);
+        assertEquals(1, StronglyConnected.kosaraju(g, null).count);
+    }
+
+    @Test
+    void condensationIsADagWithCheapestArcs() {
+        // {0, 1} -> {2, 3} by two arcs (weights 7 and 4), {2, 3} -> {4}
+        CsrGraph g = directed(5, new int[] { 0, 1, 0, 1, 2, 3, 3 }, new int[] { 1, 0, 2, 3, 3, 2, 4 },
+                new int[] { 1, 1, 7, 4, 1, 1, 2 });
+        StronglyConnected.Result r   = StronglyConnected.tarjan(g, null);
+        CsrGraph                 dag = StronglyConnected.condensation(g, r);
+        assertEquals(3, dag.n);
+        assertEquals(2, dag.arcCount());
+        for (int u = 0; u < dag.n; u++)
+            for (int a = dag.offset[u]; a < dag.offset[u + 1]; a++) assertTrue(u < dag.target[a]);
+        int c01 = r.component[0], c23 = r.component[2], weight = -1;
+        for (int a = dag.offset[c01]; a < dag.offset[c01 + 1]; a++)
+            if (dag.target[a] == c23) weight = dag.weight[a];
+        assertEquals(4, weight);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TidyTreeLayoutTest {
+
+    /** Child links of the BST built by inserting {@code keys} in order; node i holds keys[i] and node 0 is the root. */
+    private static int[][] bst(int[] keys) {
+        int n = keys.length;
+        int[] left = new int[n], right = new int[n];
+        Arrays.fill(left, -1);
+        Arrays.fill(right, -1);
+        for (int i = 1; i < n; i++) {
+            int c = 0;
+            while (true) {
+                int[] side = keys[i] < keys[c] ? left : right;
+                if (side[c] < 0) { side[c] = i; break; }
+                c = side[c];
+            }
+        }
+        return new int[][] { left, right };
+    }
+
+    private static int[] shuffled(int n, Random rng) {
+        List<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < n; i++) keys.add(i);
+        Collections.shuffle(keys, rng);
+        return keys.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** The drawing rules the layout promises, checked node by node and level by level. */
+    private static void assertTidy(int[] keys, int[] left, int[] right, int[] x) {
+        int n = keys.length;
+        int[] level = new int[n];
+        List<List<Integer>> byLevel = new ArrayList<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(0);
+        int min = Integer.MAX_VALUE;
+        while (!stack.isEmpty()) {
+            int v = stack.pop();
+            min = Math.min(min, x[v]);
+            while (byLevel.size() <= level[v]) byLevel.add(new ArrayList<>());
+            byLevel.get(level[v]).add(v);
+            if (left[v] >= 0 && right[v] >= 0)
+                assertEquals(2 * x[v], x[left[v]] + x[right[v]], "parent " + keys[v] + " not centred");
+            if (left[v]  >= 0) { assertTrue(x[left[v]]  < x[v], "left child right of " + keys[v]);  level[left[v]]  = level[v] + 1; stack.push(left[v]); }
+            if (right[v] >= 0) { assertTrue(x[right[v]] > x[v], "right child left of " + keys[v]);  level[right[v]] = level[v] + 1; stack.push(right[v]); }
+        }
+        assertEquals(0, min);
+        for (List<Integer> row : byLevel) {
+            row.sort((a, b) -> Integer.compare(keys[a], keys[b]));
+            for (int i = 1; i < row.size(); i++)
+                assertTrue(x[row.get(i)] - x[row.get(i - 1)] >= TidyTreeLayout.MIN_SEP,
+                        "keys " + keys[row.get(i - 1)] + " and " + keys[row.get(i)] + " too close");
+        }
+    }
+
+    @Test
+    void emptyTreeHasNoPositions() {
+        assertArrayEquals(new int[0], TidyTreeLayout.layout(new int[0], new int[0], -1));
+    }
+
+    @Test
+    void threeNodesSitOneSeparationApart() {
+        int[] x = TidyTreeLayout.layout(new int[] { 1, -1, -1 }, new int[] { 2, -1, -1 }, 0);
+        assertArrayEquals(new int[] { 1, 0, 2 }, x);
+    }
+
+    @Test
+    void randomTreesKeepOrderSpacingAndCentring() {
+        Random rng = new Random(1);
+        for (int trial = 0; trial < 500; trial++) {
+            int[]   keys  = shuffled(1 + rng.nextInt(trial < 400 ? 40 : 400), rng);
+            int[][] links = bst(keys);
+            assertTidy(keys, links[0], links[1], TidyTreeLayout.layout(links[0], links[1], 0));
+        }
+    }
+
+    @Test
+    void chainOfHundredThousandNodesNeedsNoRecursion() {
+        int n = 100_000;
+        int[] keys = new int[n], left = new int[n], right = new int[n];
+        Arrays.fill(left, -1);
+        Arrays.fill(right, -1);
+        for (int i = 0; i < n; i++) keys[i] = i;
+        for (int i = 0; i + 1 < n; i++) right[i] = i + 1;
+        assertTidy(keys, left, right, TidyTreeLayout.layout(left, right, 0));
+    }
+
+    @Test
+    void balancedTreeIsNarrowerThanInorderColumns() {
+        int     n     = 1 << 12;
+        int[]   keys  = shuffled(n, new Random(7));
+        int[][] links = bst(keys);
+        int[]   x     = TidyTreeLayout.layout(links[0], links[1], 0);
+        int     width = Arrays.stream(x).max().getAsInt();
+        assertTrue(width < TidyTreeLayout.MIN_SEP * (n - 1), "width " + width);
+    }
+}
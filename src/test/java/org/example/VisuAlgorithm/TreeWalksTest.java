@@ -0,0 +1,97 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TreeWalksTest {
+
+    private static final class N extends BalancedTree.Node<N> {
+        N(int value) { super(value); }
+    }
+
+    /** Plain BST of the given keys, inserted in order; returns the root. */
+    private static N build(int[] keys) {
+        N root = null;
+        for (int k : keys) {
+            N parent = null, cur = root;
+            while (cur != null) { parent = cur; cur = k < cur.value ? cur.left : cur.right; }
+            N n = new N(k);
+            n.parent = parent;
+            if      (parent == null)     root = n;
+            else if (k < parent.value)   parent.left  = n;
+            else                         parent.right = n;
+        }
+        return root;
+    }
+
+    private static void preorder(N n, int depth, List<String> out) {
+        if (n == null) return;
+        out.add(n.value + "@" + depth);
+        preorder(n.left, depth + 1, out);
+        preorder(n.right, depth + 1, out);
+    }
+
+    private static void inorder(N n, List<Integer> out) {
+        if (n == null) return;
+        inorder(n.left, out);
+        out.add(n.value);
+        inorder(n.right, out);
+    }
+
+    @Test
+    void walksMatchTheRecursiveDefinitions() {
+        Random rng = new Random(41);
+        for (int trial = 0; trial < 200; trial++) {
+            int[] keys = rng.ints(rng.nextInt(60), 0, 1000).toArray();
+            N     root = build(keys);
+
+            List<String> expectedPre = new ArrayList<>(), pre = new ArrayList<>(), withDepth = new ArrayList<>();
+            preorder(root, 3, expectedPre);
+            BalancedTree.forEachPreorder(root, n -> pre.add(String.valueOf(n.value)));
+            BalancedTree.forEachWithDepth(root, 3, (n, d) -> withDepth.add(n.value + "@" + d));
+            assertEquals(expectedPre, withDepth);
+            assertEquals(expectedPre.stream().map(s -> s.substring(0, s.indexOf('@'))).toList(), pre);
+
+            List<Integer> expectedIn = new ArrayList<>(), in = new ArrayList<>();
+            inorder(root, expectedIn);
+            BalancedTree.forEachInorder(root, n -> in.add(n.value));
+            assertEquals(expectedIn, in);
+        }
+    }
+
+    @Test
+    void emptyTreeVisitsNothing() {
+        List<N> seen  = new ArrayList<>();
+        N       empty = null;
+        BalancedTree.forEachPreorder(empty, seen::add);
+        BalancedTree.forEachInorder(empty, seen::add);
+        BalancedTree.forEachWithDepth(empty, 0, (n, d) -> seen.add(n));
+        assertEquals(0, seen.size());
+    }
+
+    @Test
+    void hundredThousandAscendingKeysWalkWithoutOverflow() {
+        // A right spine 100k deep: each walk must reach the bottom without recursion.
+        int n    = 100_000;
+        N   root = new N(0), tail = root;
+        for (int i = 1; i < n; i++) { tail.right = new N(i); tail.right.parent = tail; tail = tail.right; }
+
+        int[] next = { 0 };
+        BalancedTree.forEachInorder(root, v -> assertEquals(next[0]++, v.value));
+        assertEquals(n, next[0]);
+
+        int[] deepest = { -1 };
+        BalancedTree.forEachWithDepth(root, 0, (v, d) -> { assertEquals(v.value, d); deepest[0] = d; });
+        assertEquals(n - 1, deepest[0]);
+
+        int[] count = { 0 };
+        BalancedTree.forEachPreorder(root, v -> count[0]++);
+        assertEquals(n, count[0]);
+        assertEquals(n - 1, BalancedTree.find(root, n - 1).value);
+    }
+}
@@ -0,0 +1,103 @@
+package org.example.VisuAlgorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnionFindTest {
+
+    /** Minimum spanning forest weight by O(n²) Prim from every unreached node; parallel edges keep the cheapest. */
+    private static long primForest(int n, int[] src, int[] dst, int[] w) {
+        long INF = Long.MAX_VALUE;
+        long[][] cost = new long[n][n];
+        for (long[] row : cost) Arrays.fill(row, INF);
+        for (int e = 0; e < src.length; e++) {
+            if (src[e] == dst[e]) continue;
+            cost[src[e]][dst[e]] = cost[dst[e]][src[e]] = Math.min(cost[src[e]][dst[e]], w[e]);
+        }
+        boolean[] done = new boolean[n];
+        long[]    best = new long[n];
+        long      total = 0;
+        for (int root = 0; root < n; root++) {
+            if (done[root]) continue;
+            Arrays.fill(best, INF);
+            best[root] = 0;
+            while (true) {
+                int u = -1;
+                for (int v = 0; v < n; v++) if (!done[v] && best[v] != INF && (u < 0 || best[v] < best[u])) u = v;
+                if (u < 0) break;
+                done[u] = true;
+                total += best[u];
+                for (int v = 0; v < n; v++) if (!done[v] && cost[u][v] < best[v]) best[v] = cost[u][v];
+            }
+        }
+        return total;
+    }
+
+    @Test
+    void unionsMatchNaiveRelabelling() {
+        Random    rng   = new Random(33);
+        int       n     = 300;
+        UnionFind uf    = new UnionFind(n);
+        int[]     label = new int[n];
+        for (int i = 0; i < n; i++) label[i] = i;
+
+        for (int step = 0; step < 2000; step++) {
+            int a = rng.nextInt(n), b = rng.nextInt(n);
+            boolean separate = label[a] != label[b];
+            assertEquals(separate, uf.union(a, b), "union " + a + ", " + b);
+            if (separate) { int from = label[b]; for (int i = 0; i < n; i++) if (label[i] == from) label[i] = label[a]; }
+
+            int x = rng.nextInt(n), y = rng.nextInt(n);
+            assertEquals(label[x] == label[y], uf.connected(x, y));
+        }
+        int[] sizes = new int[n];
+        for (int l : label) sizes[l]++;
+        assertEquals((int) Arrays.stream(sizes).filter(s -> s > 0).count(), uf.components());
+        assertEquals(Arrays.stream(sizes).max().getAsInt(), uf.largestSet());
+        for (int i = 0; i < n; i++) if (uf.parentOf(i) == i) assertEquals(sizes[label[i]], uf.sizeOf(i));
+    }
+
+    @Test
+    void unionByRankKeepsEveryPathLogarithmic() {
+        Random    rng = new Random(34);
+        int       n   = 1 << 14;
+        UnionFind uf  = new UnionFind(n);
+        while (uf.components() > 1) uf.union(rng.nextInt(n), rng.nextInt(n));
+        int[] parent = uf.parentSnapshot(), rank = uf.rankSnapshot();
+        for (int i = 0; i < n; i++) {
+            int depth = 0;
+            for (int x = i; parent[x] != x; x = parent[x]) depth++;
+            assertTrue(depth <= 14, "depth " + depth + " at " + i);
+            if (parent[i] != i) assertTrue(rank[parent[i]] > rank[i], "rank must grow towards the root");
+        }
+        assertTrue(uf.maxFindDepth <= 14);
+        assertTrue(uf.averageFindDepth() < 2, "path halving keeps finds short: " + uf.averageFindDepth());
+        assertEquals(n - 1, uf.unions);
+        assertEquals(n, uf.largestSet());
+    }
+
+    @Test
+    void kruskalMatchesPrimOnRandomForests() {
+        Random rng = new Random(35);
+        for (int trial = 0; trial < 200; trial++) {
+            int   n   = 1 + rng.nextInt(40), m = rng.nextInt(3 * n);
+            int[] src = new int[m], dst = new int[m], w = new int[m];
+            for (int e = 0; e < m; e++) { src[e] = rng.nextInt(n); dst[e] = rng.nextInt(n); w[e] = rng.nextInt(20); }
+
+            SpanningForest.Result r = SpanningForest.kruskal(n, src, dst, w);
+            assertEquals(primForest(n, src, dst, w), r.total, "trial " + trial);
+
+            UnionFind check = new UnionFind(n), all = new UnionFind(n);
+            for (int e = 0; e < m; e++) all.union(src[e], dst[e]);
+            for (int i = 0; i < r.edgeCount; i++) assertTrue(check.union(src[r.edges[i]], dst[r.edges[i]]), "forest edge closes a cycle");
+            assertEquals(all.components(), check.components());
+            assertFalse(r.edgeCount > n - 1);
+        }
+    }
+}